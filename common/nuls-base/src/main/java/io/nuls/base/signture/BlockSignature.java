@@ -29,7 +29,8 @@ import io.nuls.base.data.BaseNulsData;
 import io.nuls.base.data.NulsHash;
 import io.nuls.base.data.NulsSignData;
 import io.nuls.core.basic.Result;
-import io.nuls.core.crypto.ECKey;
+import io.nuls.core.crypto.ECBatchVerifier;
+import io.nuls.core.crypto.SignatureItem;
 import io.nuls.core.exception.NulsException;
 import io.nuls.core.parse.SerializeUtils;
 
@@ -65,7 +66,7 @@ public class BlockSignature extends BaseNulsData {
     }
 
     public Result verifySignature(NulsHash digestData) {
-        boolean b = ECKey.verify(digestData.getBytes(), signData.getSignBytes(), publicKey);
+        boolean b = ECBatchVerifier.verify(new SignatureItem(digestData.getBytes(), signData.getSignBytes(), publicKey));
         if (b) {
             return new Result(true);
         } else {
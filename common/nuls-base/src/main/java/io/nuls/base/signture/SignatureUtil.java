@@ -34,10 +34,13 @@ import io.nuls.base.script.ScriptChunk;
 import io.nuls.base.script.ScriptOpCodes;
 import io.nuls.core.constant.BaseConstant;
 import io.nuls.core.core.annotation.Component;
+import io.nuls.core.crypto.ECBatchVerifier;
 import io.nuls.core.crypto.ECKey;
 import io.nuls.core.crypto.HexUtil;
+import io.nuls.core.crypto.SignatureItem;
 import io.nuls.core.exception.NulsException;
 import io.nuls.core.log.Log;
+import io.nuls.core.model.ByteArrayWrapper;
 
 import java.io.IOException;
 import java.math.BigInteger;
@@ -63,18 +66,8 @@ public class SignatureUtil {
                 throw new NulsException(new Exception());
             }
             if (!tx.isMultiSignTx()) {
-                TransactionSignature transactionSignature = new TransactionSignature();
-                transactionSignature.parse(tx.getTransactionSignature(), 0);
-                if ((transactionSignature.getP2PHKSignatures() == null || transactionSignature.getP2PHKSignatures().size() == 0)) {
-                    throw new NulsException(new Exception("Transaction unsigned ！"));
-                }
-                Set<String> publicKeySet = new HashSet<>();
-                for (P2PHKSignature signature : transactionSignature.getP2PHKSignatures()) {
-                    if(publicKeySet.add(HexUtil.encode(signature.getPublicKey()))){
-                        if (!ECKey.verify(tx.getHash().getBytes(), signature.getSignData().getSignBytes(), signature.getPublicKey())) {
-                            throw new NulsException(new Exception("Transaction signature error !"));
-                        }
-                    }
+                if (!verifyBatch(getSignatureItems(tx))) {
+                    throw new NulsException(new Exception("Transaction signature error !"));
                 }
             } else {
                 MultiSignTxSignature transactionSignature = new MultiSignTxSignature();
@@ -104,6 +97,42 @@ public class SignatureUtil {
         return true;
     }
 
+    /**
+     * 取出非多签交易中需要验证的签名，同一公钥的签名只验证一次
+     * Signatures to verify of a non multi-sign transaction, one per public key
+     *
+     * @param tx 非多签交易
+     */
+    public static List<SignatureItem> getSignatureItems(Transaction tx) throws NulsException {
+        if (tx.getTransactionSignature() == null || tx.getTransactionSignature().length == 0) {
+            throw new NulsException(new Exception("Transaction unsigned ！"));
+        }
+        TransactionSignature transactionSignature = new TransactionSignature();
+        transactionSignature.parse(tx.getTransactionSignature(), 0);
+        if ((transactionSignature.getP2PHKSignatures() == null || transactionSignature.getP2PHKSignatures().size() == 0)) {
+            throw new NulsException(new Exception("Transaction unsigned ！"));
+        }
+        byte[] txHash = tx.getHash().getBytes();
+        Set<ByteArrayWrapper> publicKeySet = new HashSet<>();
+        List<SignatureItem> items = new ArrayList<>();
+        for (P2PHKSignature signature : transactionSignature.getP2PHKSignatures()) {
+            if (publicKeySet.add(new ByteArrayWrapper(signature.getPublicKey()))) {
+                items.add(new SignatureItem(txHash, signature.getSignData().getSignBytes(), signature.getPublicKey()));
+            }
+        }
+        return items;
+    }
+
+    /**
+     * 批量验证签名，按CPU核数分段并行，全部正确才返回true
+     * Verify a batch of signatures in parallel chunks, true only if every signature is valid
+     *
+     * @param items 摘要、签名、公钥
+     */
+    public static boolean verifyBatch(List<SignatureItem> items) {
+        return ECBatchVerifier.verifyAll(items);
+    }
+
     /**
      * 验证数据签名
      *
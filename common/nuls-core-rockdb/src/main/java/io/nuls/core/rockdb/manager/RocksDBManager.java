@@ -22,11 +22,17 @@ package io.nuls.core.rockdb.manager;
 import io.nuls.core.log.Log;
 import io.nuls.core.model.StringUtils;
 import io.nuls.core.rockdb.constant.DBErrorCode;
+import io.nuls.core.rockdb.model.DBProfile;
 import io.nuls.core.rockdb.model.Entry;
+import io.nuls.core.rockdb.service.DBIterator;
+import io.nuls.core.rockdb.service.EntryHandler;
+import io.nuls.core.rockdb.service.RocksDBIterator;
 import io.nuls.core.rockdb.util.DBUtils;
 import org.rocksdb.*;
+import org.rocksdb.util.SizeUnit;
 
 import java.io.File;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReentrantLock;
@@ -50,11 +56,101 @@ public class RocksDBManager {
      */
     private static final ConcurrentHashMap<String, RocksDB> TABLES = new ConcurrentHashMap<>();
 
+    /**
+     * 数据表对应的列族句柄缓存，独立实例模式下为各实例的默认列族.
+     * Column family handle of each table, the default column family of each instance in legacy mode
+     */
+    private static final ConcurrentHashMap<String, ColumnFamilyHandle> COLUMN_FAMILIES = new ConcurrentHashMap<>();
+
     /**
      * 数据表基础文件夹名.
      */
     private static final String BASE_DB_NAME = "rocksdb";
 
+    /**
+     * 列族模式下共享数据库实例的文件夹名.
+     */
+    private static final String SHARED_DB_NAME = "rocksdb-shared";
+
+    /**
+     * 列族模式下所有列族共享的块缓存大小默认值.
+     */
+    public static final long DEFAULT_SHARED_BLOCK_CACHE_SIZE = 128 * SizeUnit.MB;
+
+    /**
+     * 列族模式下所有列族memtable总内存上限默认值.
+     */
+    public static final long DEFAULT_SHARED_WRITE_BUFFER_SIZE = 64 * SizeUnit.MB;
+
+    /**
+     * 共享的块缓存大小，可在init时配置.
+     * Size of the shared block cache, configurable on init
+     */
+    private static volatile long sharedBlockCacheSize = DEFAULT_SHARED_BLOCK_CACHE_SIZE;
+
+    /**
+     * 列族模式下所有列族memtable总内存上限，可在init时配置.
+     * Total memtable memory limit of all column families, configurable on init
+     */
+    private static volatile long sharedWriteBufferSize = DEFAULT_SHARED_WRITE_BUFFER_SIZE;
+
+    /**
+     * 数据表名前缀对应的调优配置，按最长前缀匹配.
+     * Tuning profile by table name prefix, the longest matching prefix wins
+     */
+    private static final ConcurrentHashMap<String, DBProfile> TABLE_PROFILES = new ConcurrentHashMap<>();
+
+    /**
+     * 统计输出的计数器.
+     */
+    private static final TickerType[] STATISTICS_TICKERS = {
+            TickerType.BLOCK_CACHE_HIT, TickerType.BLOCK_CACHE_MISS,
+            TickerType.BLOCK_CACHE_INDEX_HIT, TickerType.BLOCK_CACHE_INDEX_MISS,
+            TickerType.BLOCK_CACHE_FILTER_HIT, TickerType.BLOCK_CACHE_FILTER_MISS,
+            TickerType.BLOCK_CACHE_DATA_HIT, TickerType.BLOCK_CACHE_DATA_MISS,
+            TickerType.BLOOM_FILTER_USEFUL, TickerType.MEMTABLE_HIT, TickerType.MEMTABLE_MISS,
+            TickerType.NUMBER_KEYS_READ, TickerType.NUMBER_KEYS_WRITTEN, TickerType.BYTES_READ, TickerType.BYTES_WRITTEN,
+            TickerType.STALL_MICROS, TickerType.STALL_L0_SLOWDOWN_MICROS, TickerType.STALL_MEMTABLE_COMPACTION_MICROS,
+            TickerType.STALL_L0_NUM_FILES_MICROS, TickerType.WAL_FILE_SYNCED, TickerType.WAL_FILE_BYTES
+    };
+
+    /**
+     * 模块内所有数据库实例共享的统计对象.
+     */
+    private static Statistics statistics;
+
+    /**
+     * 是否收集统计信息，统计会增加每次读写的开销，默认关闭.
+     * Whether statistics are collected, off by default as they cost CPU on every operation
+     */
+    private static volatile boolean statisticsEnabled = false;
+
+    /**
+     * 是否为列族模式：每个模块一个RocksDB实例，每张表一个列族.
+     * Whether one RocksDB instance is shared by all tables with one column family per table
+     */
+    private static volatile boolean columnFamilyMode = false;
+
+    /**
+     * 列族模式下的共享数据库实例.
+     */
+    private static RocksDB sharedDB;
+
+    /**
+     * 列族模式下共享数据库实例的默认列族句柄.
+     */
+    private static ColumnFamilyHandle sharedDefaultHandle;
+
+    /**
+     * 列族模式下的共享数据库配置.
+     */
+    private static DBOptions sharedDBOptions;
+
+    /**
+     * 列族模式下所有列族共享的LRU块缓存.
+     */
+    private static Cache sharedBlockCache;
+
     /**
      * 数据库是否已经初始化.
      */
@@ -78,6 +174,54 @@ public class RocksDBManager {
      * @throws Exception 数据库打开连接异常
      */
     public static void init(final String path) throws Exception {
+        init(path, false);
+    }
+
+    /**
+     * 根据传入的数据库路径打开数据库，并缓存DB连接.
+     * 列族模式下模块所有表共用一个RocksDB实例，共享块缓存和写缓冲内存上限，可跨表原子写入
+     * Open the databases under the path, in column family mode all tables share one RocksDB instance
+     *
+     * 共享块缓存与写缓冲的大小按参数设置，小于等于0时使用默认值
+     * Same as {@link #init(String, boolean)} with the shared block cache and write buffer sizes, non-positive values keep the defaults
+     *
+     * @param path             数据库地址
+     * @param columnFamilyMode 是否使用列族模式
+     * @param blockCacheSize   共享块缓存大小(字节)
+     * @param writeBufferSize  列族模式下memtable总内存上限(字节)
+     * @throws Exception 数据库打开连接异常
+     */
+    public static void init(final String path, final boolean columnFamilyMode, final long blockCacheSize, final long writeBufferSize) throws Exception {
+        synchronized (RocksDBManager.class) {
+            //共享缓存创建后大小不再变化
+            if (blockCacheSize > 0) {
+                sharedBlockCacheSize = blockCacheSize;
+            }
+            if (writeBufferSize > 0) {
+                sharedWriteBufferSize = writeBufferSize;
+            }
+        }
+        init(path, columnFamilyMode);
+    }
+
+    /**
+     * 根据传入的数据库路径打开数据库，并缓存DB连接.
+     * 列族模式下模块所有表共用一个RocksDB实例，共享块缓存和写缓冲内存上限，可跨表原子写入
+     * Open the databases under the path, in column family mode all tables share one RocksDB instance
+     *
+     * @param path             数据库地址
+     * @param columnFamilyMode 是否使用列族模式
+     * @throws Exception 数据库打开连接异常
+     */
+    public static void init(final String path, final boolean columnFamilyMode) throws Exception {
+        if (columnFamilyMode) {
+            if (!hasLegacyTables(path)) {
+                initColumnFamilyMode(path);
+                return;
+            }
+            //已有独立实例的数据表，列族模式无法读取，继续使用独立实例模式
+            Log.warn("RocksDBManager found per-table data under " + path + ", column family mode is ignored");
+        }
         synchronized (RocksDBManager.class) {
             //if (isInit) {
             isInit = true;
@@ -94,9 +238,10 @@ public class RocksDBManager {
                 }
                 try {
                     dbPath = tableFile.getPath() + File.separator + BASE_DB_NAME;
-                    db = initOpenDB(dbPath);
+                    db = initOpenDB(dbPath, tableFile.getName());
                     if (db != null) {
                         TABLES.put(tableFile.getName(), db);
+                        COLUMN_FAMILIES.put(tableFile.getName(), db.getDefaultColumnFamily());
                     }
                 } catch (Exception e) {
                     Log.warn("load table failed, tableName: " + tableFile.getName() + ", dbPath: " + dbPath, e);
@@ -109,17 +254,85 @@ public class RocksDBManager {
     }
 
     /**
-     * @param dbPath 数据库地址
+     * 数据目录下是否已有独立实例模式的数据表.
+     *
+     * @param path 数据库地址
+     * @return 是否存在独立实例的数据表
+     */
+    private static boolean hasLegacyTables(final String path) {
+        File[] tableFiles = DBUtils.loadDataPath(path).listFiles();
+        if (tableFiles == null) {
+            return false;
+        }
+        for (File tableFile : tableFiles) {
+            if (tableFile.isDirectory() && !SHARED_DB_NAME.equals(tableFile.getName())
+                    && new File(tableFile, BASE_DB_NAME).isDirectory()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 打开列族模式的共享数据库实例，已存在的每个列族作为一张表缓存.
+     * Open the shared instance, every existing column family is cached as a table
+     *
+     * @param path 数据库地址
+     * @throws Exception 数据库打开连接异常
+     */
+    private static void initColumnFamilyMode(final String path) throws Exception {
+        synchronized (RocksDBManager.class) {
+            if (sharedDB != null) {
+                return;
+            }
+            isInit = true;
+            File dir = DBUtils.loadDataPath(path);
+            dataPath = dir.getPath();
+            Log.info("RocksDBManager dataPath is " + dataPath + ", column family mode");
+            String dbPath = dataPath + File.separator + SHARED_DB_NAME;
+            List<ColumnFamilyDescriptor> descriptors = new ArrayList<>();
+            descriptors.add(new ColumnFamilyDescriptor(RocksDB.DEFAULT_COLUMN_FAMILY, getColumnFamilyOptions(null, true)));
+            if (new File(dbPath + File.separator + "CURRENT").exists()) {
+                try (Options options = new Options()) {
+                    for (byte[] name : RocksDB.listColumnFamilies(options, dbPath)) {
+                        if (!Arrays.equals(name, RocksDB.DEFAULT_COLUMN_FAMILY)) {
+                            String tableName = new String(name, StandardCharsets.UTF_8);
+                            descriptors.add(new ColumnFamilyDescriptor(name, getColumnFamilyOptions(tableName, true)));
+                        }
+                    }
+                }
+            }
+            List<ColumnFamilyHandle> handles = new ArrayList<>();
+            try {
+                sharedDB = RocksDB.open(getSharedDBOptions(), dbPath, descriptors, handles);
+            } catch (RocksDBException e) {
+                Log.warn("load shared db failed, dbPath: " + dbPath, e);
+                throw e;
+            }
+            //第一个句柄为默认列族，不作为数据表使用
+            sharedDefaultHandle = handles.get(0);
+            for (ColumnFamilyHandle handle : handles.subList(1, handles.size())) {
+                String tableName = new String(handle.getName(), StandardCharsets.UTF_8);
+                TABLES.put(tableName, sharedDB);
+                COLUMN_FAMILIES.put(tableName, handle);
+            }
+            columnFamilyMode = true;
+        }
+    }
+
+    /**
+     * @param dbPath    数据库地址
+     * @param tableName 数据库表名称
      * @return RocksDB 数据库连接对象
      * @throws RocksDBException 数据库连接异常
      */
-    private static RocksDB initOpenDB(final String dbPath) throws RocksDBException {
+    private static RocksDB initOpenDB(final String dbPath, final String tableName) throws RocksDBException {
         File checkFile = new File(dbPath + File.separator + "CURRENT");
         if (!checkFile.exists()) {
             return null;
         }
 
-        Options options = getCommonOptions(false);
+        Options options = getCommonOptions(false, tableName);
         return RocksDB.open(options, dbPath);
     }
 
@@ -129,11 +342,12 @@ public class RocksDBManager {
      *
      * @param dbPath          数据库地址
      * @param createIfMissing 数据库不存在时是否默认创建
+     * @param tableName       数据库表名称
      * @return RocksDB
      * @throws RocksDBException 数据库连接异常
      */
-    private static RocksDB openDB(final String dbPath, final boolean createIfMissing) throws RocksDBException {
-        Options options = getCommonOptions(createIfMissing);
+    private static RocksDB openDB(final String dbPath, final boolean createIfMissing, final String tableName) throws RocksDBException {
+        Options options = getCommonOptions(createIfMissing, tableName);
         return RocksDB.open(options, dbPath);
     }
 
@@ -157,13 +371,21 @@ public class RocksDBManager {
                 throw new Exception(DBErrorCode.DB_TABLE_CREATE_PATH_ERROR);
             }
             try {
+                if (columnFamilyMode) {
+                    ColumnFamilyHandle handle = sharedDB.createColumnFamily(
+                            new ColumnFamilyDescriptor(tableName.getBytes(StandardCharsets.UTF_8), getColumnFamilyOptions(tableName, true)));
+                    TABLES.put(tableName, sharedDB);
+                    COLUMN_FAMILIES.put(tableName, handle);
+                    return true;
+                }
                 File dir = new File(dataPath + File.separator + tableName);
                 if (!dir.exists()) {
                     dir.mkdir();
                 }
                 String filePath = dataPath + File.separator + tableName + File.separator + BASE_DB_NAME;
-                RocksDB db = openDB(filePath, true);
+                RocksDB db = openDB(filePath, true, tableName);
                 TABLES.put(tableName, db);
+                COLUMN_FAMILIES.put(tableName, db.getDefaultColumnFamily());
             } catch (Exception e) {
                 Log.error("error create table: " + tableName, e);
                 throw new Exception(DBErrorCode.DB_TABLE_CREATE_ERROR);
@@ -185,6 +407,27 @@ public class RocksDBManager {
         return TABLES.get(tableName);
     }
 
+    /**
+     * 根据名称获得对应的列族句柄.
+     * Get the column family handle of the table
+     *
+     * @param tableName 数据库表名称
+     * @return ColumnFamilyHandle
+     */
+    public static ColumnFamilyHandle getColumnFamily(final String tableName) {
+        return COLUMN_FAMILIES.get(tableName);
+    }
+
+    /**
+     * 是否为列族模式.
+     * Whether all tables share one RocksDB instance
+     *
+     * @return boolean
+     */
+    public static boolean isColumnFamilyMode() {
+        return columnFamilyMode;
+    }
+
     /**
      * 根据名称删除对应的数据库.
      * Delete database by name
@@ -201,6 +444,12 @@ public class RocksDBManager {
         }
         try {
             RocksDB db = TABLES.remove(tableName);
+            ColumnFamilyHandle handle = COLUMN_FAMILIES.remove(tableName);
+            if (columnFamilyMode) {
+                db.dropColumnFamily(handle);
+                handle.close();
+                return true;
+            }
             db.close();
             File dir = new File(dataPath + File.separator + tableName);
             if (!dir.exists()) {
@@ -235,11 +484,24 @@ public class RocksDBManager {
         for (Map.Entry<String, RocksDB> entry : entries) {
             try {
                 TABLES.remove(entry.getKey());
-                entry.getValue().close();
+                ColumnFamilyHandle handle = COLUMN_FAMILIES.remove(entry.getKey());
+                if (columnFamilyMode) {
+                    handle.close();
+                } else {
+                    entry.getValue().close();
+                }
             } catch (Exception e) {
                 Log.warn("close rocksdb error", e);
             }
         }
+        synchronized (RocksDBManager.class) {
+            if (sharedDB != null) {
+                sharedDefaultHandle.close();
+                sharedDB.close();
+                sharedDB = null;
+                columnFamilyMode = false;
+            }
+        }
     }
 
     /**
@@ -251,7 +513,12 @@ public class RocksDBManager {
     public static void closeTable(final String tableName) {
         try {
             RocksDB db = TABLES.remove(tableName);
-            db.close();
+            ColumnFamilyHandle handle = COLUMN_FAMILIES.remove(tableName);
+            if (columnFamilyMode) {
+                handle.close();
+            } else {
+                db.close();
+            }
         } catch (Exception e) {
             Log.warn("close rocksdb tableName error:" + tableName, e);
         }
@@ -309,7 +576,7 @@ public class RocksDBManager {
         }
         try {
             RocksDB db = TABLES.get(table);
-            db.put(key, value);
+            db.put(COLUMN_FAMILIES.get(table), key, value);
             return true;
         } catch (Exception e) {
             Log.error(e);
@@ -334,7 +601,7 @@ public class RocksDBManager {
         }
         try {
             RocksDB db = TABLES.get(table);
-            db.delete(key);
+            db.delete(COLUMN_FAMILIES.get(table), key);
             return true;
         } catch (Exception e) {
             Log.error(e);
@@ -360,8 +627,9 @@ public class RocksDBManager {
 
         try (WriteBatch writeBatch = new WriteBatch()) {
             RocksDB db = TABLES.get(table);
+            ColumnFamilyHandle handle = COLUMN_FAMILIES.get(table);
             for (Map.Entry<byte[], byte[]> entry : kvs.entrySet()) {
-                writeBatch.put(entry.getKey(), entry.getValue());
+                writeBatch.put(handle, entry.getKey(), entry.getValue());
             }
             db.write(new WriteOptions(), writeBatch);
             return true;
@@ -388,8 +656,9 @@ public class RocksDBManager {
         }
         try (WriteBatch writeBatch = new WriteBatch()) {
             RocksDB db = TABLES.get(table);
+            ColumnFamilyHandle handle = COLUMN_FAMILIES.get(table);
             for (byte[] key : keys) {
-                writeBatch.delete(key);
+                writeBatch.delete(handle, key);
             }
             db.write(new WriteOptions(), writeBatch);
             return true;
@@ -416,7 +685,7 @@ public class RocksDBManager {
         }
         try {
             RocksDB db = TABLES.get(table);
-            return db.get(key);
+            return db.get(COLUMN_FAMILIES.get(table), key);
         } catch (Exception e) {
             return null;
         }
@@ -440,7 +709,7 @@ public class RocksDBManager {
             RocksDB db = TABLES.get(table);
             ReadOptions readOptions = new ReadOptions();
             readOptions.setFillCache(true);
-            return db.keyMayExist(readOptions, key, new StringBuilder());
+            return db.keyMayExist(readOptions, COLUMN_FAMILIES.get(table), key, new StringBuilder());
         } catch (Exception e) {
             return false;
         }
@@ -463,7 +732,7 @@ public class RocksDBManager {
         }
         try {
             RocksDB db = TABLES.get(table);
-            return db.multiGet(keys);
+            return db.multiGet(Collections.nCopies(keys.size(), COLUMN_FAMILIES.get(table)), keys);
         } catch (Exception ex) {
             return null;
         }
@@ -486,7 +755,7 @@ public class RocksDBManager {
         }
         try {
             RocksDB db = TABLES.get(table);
-            Map<byte[], byte[]> map = db.multiGet(keys);
+            Map<byte[], byte[]> map = db.multiGet(Collections.nCopies(keys.size(), COLUMN_FAMILIES.get(table)), keys);
             if (map != null && map.size() > 0) {
                 return new ArrayList<>(map.values());
             }
@@ -508,15 +777,13 @@ public class RocksDBManager {
             return null;
         }
         List<byte[]> list = new ArrayList<>();
-        try {
-            RocksDB db = TABLES.get(table);
-            try (RocksIterator iterator = db.newIterator()) {
-                for (iterator.seekToFirst(); iterator.isValid(); iterator.next()) {
-                    list.add(iterator.key());
-                }
+        try (DBIterator iterator = new RocksDBIterator(table, null, null, 0, false)) {
+            while (iterator.hasNext()) {
+                list.add(iterator.nextKey());
             }
             return list;
         } catch (Exception ex) {
+            Log.error("keyList error, table: " + table, ex);
             return null;
         }
     }
@@ -533,15 +800,13 @@ public class RocksDBManager {
             return null;
         }
         List<byte[]> list = new ArrayList<>();
-        try {
-            RocksDB db = TABLES.get(table);
-            try (RocksIterator iterator = db.newIterator()) {
-                for (iterator.seekToFirst(); iterator.isValid(); iterator.next()) {
-                    list.add(iterator.value());
-                }
+        try (DBIterator iterator = new RocksDBIterator(table, null, null, 0, false)) {
+            while (iterator.hasNext()) {
+                list.add(iterator.nextValue());
             }
             return list;
         } catch (Exception ex) {
+            Log.error("valueList error, table: " + table, ex);
             return null;
         }
     }
@@ -558,43 +823,249 @@ public class RocksDBManager {
             return null;
         }
         List<Entry<byte[], byte[]>> entryList = new ArrayList<>();
-        try {
-            RocksDB db = TABLES.get(table);
-            try (RocksIterator iterator = db.newIterator()) {
-                for (iterator.seekToFirst(); iterator.isValid(); iterator.next()) {
-                    entryList.add(new Entry(iterator.key(), iterator.value()));
-                }
+        try (DBIterator iterator = new RocksDBIterator(table, null, null, 0, false)) {
+            while (iterator.hasNext()) {
+                entryList.add(iterator.next());
             }
             return entryList;
         } catch (Exception ex) {
+            Log.error("entryList error, table: " + table, ex);
             return null;
         }
     }
 
+    /**
+     * 流式遍历指定表[start, end)范围内的数据，不会将整张表读入内存.
+     * Stream records in [start, end) of the specified table to the handler
+     *
+     * @param table   数据库表名称
+     * @param start   起始键(包含)，为空时从第一条开始
+     * @param end     结束键(不包含)，为空时遍历到最后
+     * @param limit   最多遍历条数，小于等于0时不限制
+     * @param handler 回调，返回false时停止遍历
+     * @return 已处理的记录数
+     */
+    public static int scan(final String table, final byte[] start, final byte[] end, final int limit, final EntryHandler handler) throws Exception {
+        if (!baseCheckTable(table)) {
+            throw new Exception(DBErrorCode.DB_TABLE_NOT_EXIST);
+        }
+        if (handler == null) {
+            throw new Exception(DBErrorCode.NULL_PARAMETER);
+        }
+        int count = 0;
+        try (DBIterator iterator = new RocksDBIterator(table, start, end, limit, false)) {
+            while (iterator.hasNext()) {
+                Entry<byte[], byte[]> entry = iterator.next();
+                count++;
+                if (!handler.handle(entry.getKey(), entry.getValue())) {
+                    break;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 统计指定表的记录数，只遍历键.
+     * count records of the specified table
+     *
+     * @param table 数据库表名称
+     * @return 记录数
+     */
+    public static int count(final String table) throws Exception {
+        if (!baseCheckTable(table)) {
+            throw new Exception(DBErrorCode.DB_TABLE_NOT_EXIST);
+        }
+        int count = 0;
+        try (DBIterator iterator = new RocksDBIterator(table, null, null, 0, false)) {
+            while (iterator.hasNext()) {
+                iterator.nextKey();
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 设置数据表的调优配置，格式为"表名前缀:配置名"，多个以逗号分隔，如"block_header_:POINT_LOOKUP".
+     * 需在init之前调用，才能作用于已存在的数据表
+     * Set table profiles by table name prefix, must be called before init to take effect on existing tables
+     *
+     * @param config 调优配置
+     */
+    public static void setTableProfiles(final String config) {
+        if (StringUtils.isBlank(config)) {
+            return;
+        }
+        for (String item : config.split(",")) {
+            String[] pair = item.trim().split(":");
+            if (pair.length != 2 || StringUtils.isBlank(pair[0])) {
+                Log.warn("illegal db profile config: " + item);
+                continue;
+            }
+            try {
+                TABLE_PROFILES.put(pair[0].trim(), DBProfile.valueOf(pair[1].trim().toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                Log.warn("unknown db profile: " + item);
+            }
+        }
+    }
+
+    /**
+     * 获得数据表的调优配置，取最长的匹配前缀，未配置时返回默认配置.
+     *
+     * @param tableName 数据库表名称
+     * @return 调优配置
+     */
+    public static DBProfile getTableProfile(final String tableName) {
+        if (tableName == null) {
+            return DBProfile.DEFAULT;
+        }
+        DBProfile profile = DBProfile.DEFAULT;
+        int matched = -1;
+        for (Map.Entry<String, DBProfile> entry : TABLE_PROFILES.entrySet()) {
+            String prefix = entry.getKey();
+            if (tableName.startsWith(prefix) && prefix.length() > matched) {
+                matched = prefix.length();
+                profile = entry.getValue();
+            }
+        }
+        return profile;
+    }
+
+    /**
+     * 开启或关闭统计信息收集，需在init之前调用，只作用于之后打开的数据库.
+     * Enable statistics collection, must be called before init to take effect on existing tables
+     *
+     * @param enabled 是否收集统计信息
+     */
+    public static void setStatisticsEnabled(final boolean enabled) {
+        statisticsEnabled = enabled;
+    }
+
+    /**
+     * 查询数据库统计信息，包括块缓存命中率、布隆过滤器效果、写入停顿时间等.
+     * Query statistics of all tables, including cache hit rate and stall counters
+     *
+     * @return 统计名称与值，未开启统计时为空
+     */
+    public static Map<String, Object> getStatistics() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        Statistics stats = statistics;
+        if (stats == null) {
+            return result;
+        }
+        for (TickerType ticker : STATISTICS_TICKERS) {
+            result.put(ticker.name(), stats.getTickerCount(ticker));
+        }
+        long hit = stats.getTickerCount(TickerType.BLOCK_CACHE_HIT);
+        long total = hit + stats.getTickerCount(TickerType.BLOCK_CACHE_MISS);
+        result.put("BLOCK_CACHE_HIT_RATE", total == 0 ? 0D : (double) hit / total);
+        HistogramData get = stats.getHistogramData(HistogramType.DB_GET);
+        result.put("DB_GET_MICROS_P99", get.getPercentile99());
+        HistogramData write = stats.getHistogramData(HistogramType.DB_WRITE);
+        result.put("DB_WRITE_MICROS_P99", write.getPercentile99());
+        return result;
+    }
+
+    /**
+     * 获得模块内所有数据库实例共享的统计对象.
+     *
+     * @return 统计对象
+     */
+    private static synchronized Statistics getStatisticsObject() {
+        if (statistics == null) {
+            statistics = new Statistics();
+        }
+        return statistics;
+    }
+
+    /**
+     * 获得所有数据库实例共享的LRU块缓存.
+     *
+     * @return 块缓存
+     */
+    private static synchronized Cache getSharedBlockCache() {
+        if (sharedBlockCache == null) {
+            sharedBlockCache = new LRUCache(sharedBlockCacheSize);
+        }
+        return sharedBlockCache;
+    }
+
     /**
      * 获得公共的数据库连接属性.
      *
      * @param createIfMissing 是否默认表
+     * @param tableName       数据库表名称，用于匹配调优配置
      * @return 数据库连接属性
      */
-    private static synchronized Options getCommonOptions(final boolean createIfMissing) {
-        Options options = new Options();
-//        final Filter bloomFilter = new BloomFilter(10);
-//        final Statistics stats = new Statistics();
-        //final RateLimiter rateLimiter = new RateLimiter(10000000, 10000, 10);
-
-        options.setCreateIfMissing(createIfMissing);
-//        .setAllowMmapReads(true).setCreateMissingColumnFamilies(true)
-//                .setStatistics(stats).setMaxWriteBufferNumber(3).setMaxBackgroundCompactions(10);
-
-//        final BlockBasedTableConfig tableOptions = new BlockBasedTableConfig();
-//        tableOptions.setBlockCacheSize(64 * SizeUnit.KB).setFilter(bloomFilter)
-//                .setCacheNumShardBits(6).setBlockSizeDeviation(5).setBlockRestartInterval(10)
-//                .setCacheIndexAndFilterBlocks(true).setHashIndexAllowCollision(false)
-//                .setBlockCacheCompressedSize(64 * SizeUnit.KB)
-//                .setBlockCacheCompressedNumShardBits(10);
-
-//        options.setTableFormatConfig(tableOptions);
+    private static synchronized Options getCommonOptions(final boolean createIfMissing, final String tableName) {
+        DBOptions dbOptions = new DBOptions();
+        dbOptions.setCreateIfMissing(createIfMissing);
+        if (statisticsEnabled) {
+            dbOptions.setStatistics(getStatisticsObject());
+        }
+        return new Options(dbOptions, getColumnFamilyOptions(tableName, false));
+    }
+
+    /**
+     * 获得列族模式下共享数据库实例的连接属性，所有列族memtable内存总和受限.
+     *
+     * @return 数据库连接属性
+     */
+    private static synchronized DBOptions getSharedDBOptions() {
+        if (sharedDBOptions == null) {
+            sharedDBOptions = new DBOptions();
+            sharedDBOptions.setCreateIfMissing(true)
+                    .setCreateMissingColumnFamilies(true)
+                    .setDbWriteBufferSize(sharedWriteBufferSize);
+            if (statisticsEnabled) {
+                sharedDBOptions.setStatistics(getStatisticsObject());
+            }
+        }
+        return sharedDBOptions;
+    }
+
+    /**
+     * 根据数据表的调优配置获得列族属性.
+     * 列族模式下和配置了调优的数据表共享同一个LRU块缓存，默认配置的独立数据表保持原有属性
+     *
+     * @param tableName   数据库表名称
+     * @param shareCache  是否必须使用共享块缓存
+     * @return 列族属性
+     */
+    private static synchronized ColumnFamilyOptions getColumnFamilyOptions(final String tableName, final boolean shareCache) {
+        DBProfile profile = getTableProfile(tableName);
+        ColumnFamilyOptions options = new ColumnFamilyOptions();
+        if (profile == DBProfile.DEFAULT && !shareCache) {
+            return options;
+        }
+        BlockBasedTableConfig tableOptions = new BlockBasedTableConfig();
+        tableOptions.setBlockCache(getSharedBlockCache());
+        if (profile.getBloomBitsPerKey() > 0) {
+            tableOptions.setFilter(new BloomFilter(profile.getBloomBitsPerKey(), false));
+        }
+        if (profile.getBlockSize() > 0) {
+            tableOptions.setBlockSize(profile.getBlockSize());
+        }
+        if (profile.isCacheIndexAndFilterBlocks()) {
+            tableOptions.setCacheIndexAndFilterBlocks(true);
+            tableOptions.setPinL0FilterAndIndexBlocksInCache(true);
+        }
+        options.setTableFormatConfig(tableOptions);
+        if (profile.getCompression() != null) {
+            options.setCompressionType(profile.getCompression());
+        }
+        if (profile.getBottommostCompression() != null) {
+            options.setBottommostCompressionType(profile.getBottommostCompression());
+        }
+        if (profile.getWriteBufferSize() > 0) {
+            options.setWriteBufferSize(profile.getWriteBufferSize());
+        }
+        if (profile.getMaxWriteBufferNumber() > 0) {
+            options.setMaxWriteBufferNumber(profile.getMaxWriteBufferNumber());
+        }
+        options.setOptimizeFiltersForHits(profile.isOptimizeFiltersForHits());
         return options;
     }
 }
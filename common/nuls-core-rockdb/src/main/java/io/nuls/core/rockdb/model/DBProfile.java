@@ -0,0 +1,114 @@
+/**
+ * MIT License
+ * Copyright (c) 2017-2018 nuls.io
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.core.rockdb.model;
+
+import org.rocksdb.CompressionType;
+import org.rocksdb.util.SizeUnit;
+
+/**
+ * 数据表调优配置.
+ * Tuning profile of a table, selected by table name prefix from module config
+ */
+public enum DBProfile {
+    /**
+     * 默认配置，与未调优前一致
+     */
+    DEFAULT(0, 0, null, null, false, 0, 0, false),
+    /**
+     * 按key随机读为主，如区块头、账户状态
+     */
+    POINT_LOOKUP(10, 4 * SizeUnit.KB, CompressionType.LZ4_COMPRESSION, CompressionType.LZ4_COMPRESSION, true, 0, 0, false),
+    /**
+     * 写入为主，如缓存区块、未确认交易
+     */
+    WRITE_HEAVY(10, 16 * SizeUnit.KB, CompressionType.LZ4_COMPRESSION, CompressionType.LZ4_COMPRESSION, true, 64 * SizeUnit.MB, 4, false),
+    /**
+     * 历史数据，很少读取，如区块快照、已确认交易
+     */
+    ARCHIVE(10, 64 * SizeUnit.KB, CompressionType.LZ4_COMPRESSION, CompressionType.ZSTD_COMPRESSION, true, 0, 0, true);
+
+    /**
+     * 布隆过滤器每个key占用的bit数，0表示不使用
+     */
+    private final int bloomBitsPerKey;
+    /**
+     * 数据块大小，0表示使用默认值
+     */
+    private final long blockSize;
+    private final CompressionType compression;
+    private final CompressionType bottommostCompression;
+    /**
+     * 索引与过滤器块是否放入块缓存
+     */
+    private final boolean cacheIndexAndFilterBlocks;
+    /**
+     * memtable大小，0表示使用默认值
+     */
+    private final long writeBufferSize;
+    private final int maxWriteBufferNumber;
+    /**
+     * 最底层不建布隆过滤器，适合绝大多数查询都能命中的表
+     */
+    private final boolean optimizeFiltersForHits;
+
+    DBProfile(int bloomBitsPerKey, long blockSize, CompressionType compression, CompressionType bottommostCompression,
+              boolean cacheIndexAndFilterBlocks, long writeBufferSize, int maxWriteBufferNumber, boolean optimizeFiltersForHits) {
+        this.bloomBitsPerKey = bloomBitsPerKey;
+        this.blockSize = blockSize;
+        this.compression = compression;
+        this.bottommostCompression = bottommostCompression;
+        this.cacheIndexAndFilterBlocks = cacheIndexAndFilterBlocks;
+        this.writeBufferSize = writeBufferSize;
+        this.maxWriteBufferNumber = maxWriteBufferNumber;
+        this.optimizeFiltersForHits = optimizeFiltersForHits;
+    }
+
+    public int getBloomBitsPerKey() {
+        return bloomBitsPerKey;
+    }
+
+    public long getBlockSize() {
+        return blockSize;
+    }
+
+    public CompressionType getCompression() {
+        return compression;
+    }
+
+    public CompressionType getBottommostCompression() {
+        return bottommostCompression;
+    }
+
+    public boolean isCacheIndexAndFilterBlocks() {
+        return cacheIndexAndFilterBlocks;
+    }
+
+    public long getWriteBufferSize() {
+        return writeBufferSize;
+    }
+
+    public int getMaxWriteBufferNumber() {
+        return maxWriteBufferNumber;
+    }
+
+    public boolean isOptimizeFiltersForHits() {
+        return optimizeFiltersForHits;
+    }
+}
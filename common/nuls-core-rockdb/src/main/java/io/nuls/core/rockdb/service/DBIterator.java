@@ -0,0 +1,58 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.core.rockdb.service;
+
+import io.nuls.core.rockdb.model.Entry;
+
+import java.util.Iterator;
+
+/**
+ * 数据表流式遍历，不会将整张表读入内存，使用完毕必须关闭
+ * Streaming iterator over a table, must be closed after use
+ */
+public interface DBIterator extends Iterator<Entry<byte[], byte[]>>, AutoCloseable {
+
+    /**
+     * 只读取下一条记录的键
+     * Read only the key of the next record
+     *
+     * @return
+     */
+    byte[] nextKey();
+
+    /**
+     * 只读取下一条记录的值
+     * Read only the value of the next record
+     *
+     * @return
+     */
+    byte[] nextValue();
+
+    /**
+     * 关闭遍历并释放快照
+     * Close the iterator and release the snapshot
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,169 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.core.rockdb.service;
+
+import io.nuls.core.rockdb.constant.DBErrorCode;
+import io.nuls.core.rockdb.manager.RocksDBManager;
+import io.nuls.core.rockdb.model.Entry;
+import org.rocksdb.*;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * 基于快照的数据表流式遍历，遍历期间的写入不可见
+ * Snapshot consistent streaming iterator, writes after creation are not visible
+ */
+public class RocksDBIterator implements DBIterator {
+
+    private RocksDB db;
+    private Snapshot snapshot;
+    private ReadOptions readOptions;
+    private Slice upperBound;
+    private RocksIterator iterator;
+    private int limit;
+    private int count;
+    private volatile boolean isClose = false;
+
+    /**
+     * @param table     数据表名称
+     * @param start     起始键(包含)，为空时从第一条开始
+     * @param end       结束键(不包含)，为空时遍历到最后
+     * @param limit     最多返回条数，小于等于0时不限制
+     * @param fillCache 读取的数据块是否放入块缓存，全表扫描时应关闭以免冲掉热点数据
+     */
+    public RocksDBIterator(String table, byte[] start, byte[] end, int limit, boolean fillCache) throws Exception {
+        db = RocksDBManager.getTable(table);
+        ColumnFamilyHandle handle = RocksDBManager.getColumnFamily(table);
+        if (db == null || handle == null) {
+            throw new Exception(DBErrorCode.DB_TABLE_NOT_EXIST);
+        }
+        this.limit = limit;
+        snapshot = db.getSnapshot();
+        try {
+            readOptions = new ReadOptions().setSnapshot(snapshot).setFillCache(fillCache);
+            if (end != null) {
+                upperBound = new Slice(end);
+                readOptions.setIterateUpperBound(upperBound);
+            }
+            iterator = db.newIterator(handle, readOptions);
+            if (start == null) {
+                iterator.seekToFirst();
+            } else {
+                iterator.seek(start);
+            }
+        } catch (Throwable e) {
+            //创建失败时释放已分配的本地资源与快照
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * 计算前缀遍历的结束键，即大于所有以该前缀开头的键的最小键
+     * Exclusive upper bound of all keys starting with the prefix, null if unbounded
+     *
+     * @param prefix
+     * @return
+     */
+    public static byte[] prefixUpperBound(byte[] prefix) {
+        for (int i = prefix.length - 1; i >= 0; i--) {
+            if (prefix[i] != (byte) 0xFF) {
+                byte[] end = Arrays.copyOf(prefix, i + 1);
+                end[i]++;
+                return end;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (isClose || (limit > 0 && count >= limit)) {
+            return false;
+        }
+        if (iterator.isValid()) {
+            return true;
+        }
+        try {
+            iterator.status();
+        } catch (RocksDBException e) {
+            throw new IllegalStateException(DBErrorCode.DB_UNKOWN_EXCEPTION, e);
+        }
+        return false;
+    }
+
+    @Override
+    public Entry<byte[], byte[]> next() {
+        checkNext();
+        Entry<byte[], byte[]> entry = new Entry<>(iterator.key(), iterator.value());
+        advance();
+        return entry;
+    }
+
+    @Override
+    public byte[] nextKey() {
+        checkNext();
+        byte[] key = iterator.key();
+        advance();
+        return key;
+    }
+
+    @Override
+    public byte[] nextValue() {
+        checkNext();
+        byte[] value = iterator.value();
+        advance();
+        return value;
+    }
+
+    private void checkNext() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+    }
+
+    private void advance() {
+        iterator.next();
+        count++;
+    }
+
+    @Override
+    public void close() {
+        if (isClose) {
+            return;
+        }
+        isClose = true;
+        if (iterator != null) {
+            iterator.close();
+        }
+        if (readOptions != null) {
+            readOptions.close();
+        }
+        if (upperBound != null) {
+            upperBound.close();
+        }
+        db.releaseSnapshot(snapshot);
+    }
+}
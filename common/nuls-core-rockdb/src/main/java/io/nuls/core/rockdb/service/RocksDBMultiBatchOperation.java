@@ -0,0 +1,119 @@
+/**
+ * MIT License
+ * Copyright (c) 2017-2018 nuls.io
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.core.rockdb.service;
+
+import io.nuls.core.log.Log;
+import io.nuls.core.rockdb.constant.DBErrorCode;
+import io.nuls.core.rockdb.manager.RocksDBManager;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.RocksDB;
+import org.rocksdb.WriteBatch;
+import org.rocksdb.WriteOptions;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 跨表批量操作
+ * 列族模式下所有表共享同一个RocksDB实例，整个批次只写一次，是原子的；
+ * 非列族模式下每个表是独立的实例，按实例分别提交，不保证跨表原子性，调用方需按恢复顺序写入
+ * <p>
+ * In column-family mode all tables live in one RocksDB instance, so the whole batch is one atomic write.
+ * In legacy mode every table is its own instance and the batch is committed per instance, without cross-table atomicity,
+ * callers write tables in the order that keeps a partial commit recoverable.
+ */
+public class RocksDBMultiBatchOperation implements MultiBatchOperation {
+
+    private final boolean sync;
+    private final boolean disableWAL;
+    /**
+     * 每个RocksDB实例对应一个WriteBatch，按首次写入顺序提交
+     */
+    private final Map<RocksDB, WriteBatch> batches = new LinkedHashMap<>();
+    private volatile boolean isClose = false;
+
+    RocksDBMultiBatchOperation(boolean sync, boolean disableWAL) {
+        this.sync = sync;
+        this.disableWAL = disableWAL;
+    }
+
+    private WriteBatch getBatch(RocksDB db) {
+        return batches.computeIfAbsent(db, k -> new WriteBatch());
+    }
+
+    @Override
+    public boolean put(String table, byte[] key, byte[] value) throws Exception {
+        if (key == null || value == null) {
+            throw new Exception(DBErrorCode.NULL_PARAMETER);
+        }
+        RocksDB db = checkTable(table);
+        ColumnFamilyHandle handle = RocksDBManager.getColumnFamily(table);
+        getBatch(db).put(handle, key, value);
+        return true;
+    }
+
+    @Override
+    public boolean delete(String table, byte[] key) throws Exception {
+        if (key == null) {
+            throw new Exception(DBErrorCode.NULL_PARAMETER);
+        }
+        RocksDB db = checkTable(table);
+        ColumnFamilyHandle handle = RocksDBManager.getColumnFamily(table);
+        getBatch(db).delete(handle, key);
+        return true;
+    }
+
+    private RocksDB checkTable(String table) throws Exception {
+        if (isClose) {
+            throw new Exception(DBErrorCode.DB_TABLE_FAILED_BATCH_CLOSE);
+        }
+        RocksDB db = RocksDBManager.getTable(table);
+        if (db == null) {
+            throw new Exception(DBErrorCode.DB_TABLE_NOT_EXIST);
+        }
+        return db;
+    }
+
+    @Override
+    public boolean executeBatch() throws Exception {
+        // 检查逻辑关闭
+        if (isClose) {
+            throw new Exception(DBErrorCode.DB_TABLE_FAILED_BATCH_CLOSE);
+        }
+        isClose = true;
+        try (WriteOptions writeOptions = new WriteOptions()) {
+            writeOptions.setSync(sync);
+            writeOptions.setDisableWAL(disableWAL);
+            for (Map.Entry<RocksDB, WriteBatch> entry : batches.entrySet()) {
+                entry.getKey().write(writeOptions, entry.getValue());
+            }
+        } catch (Exception e) {
+            Log.error(e);
+            throw new Exception(DBErrorCode.DB_UNKOWN_EXCEPTION);
+        } finally {
+            // 关闭批量操作对象释放资源
+            for (WriteBatch batch : batches.values()) {
+                batch.close();
+            }
+            batches.clear();
+        }
+        return true;
+    }
+}
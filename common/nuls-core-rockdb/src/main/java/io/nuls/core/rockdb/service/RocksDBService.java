@@ -38,6 +38,72 @@ public class RocksDBService {
         }
     }
 
+    /**
+     * 列族模式初始化，模块所有表共用一个RocksDB实例，每张表一个列族
+     * init in column family mode, all tables of the module share one RocksDB instance
+     * @param path
+     */
+    public static void initColumnFamilyMode(String path) {
+        init(path, true);
+    }
+
+    /**
+     * 按配置选择初始化模式，数据目录下已有独立实例的数据表时不启用列族模式
+     * init in column family mode if enabled, falls back to per-table instances when the path already holds them
+     * @param path
+     * @param columnFamilyMode
+     */
+    public static void init(String path, boolean columnFamilyMode) {
+        try {
+            RocksDBManager.init(path, columnFamilyMode);
+        } catch (Exception e) {
+            Log.error(e.getMessage(),e);
+        }
+    }
+
+    /**
+     * 按配置选择初始化模式，并设置共享块缓存与写缓冲的大小
+     * init with the configured mode, shared block cache size and write buffer size
+     * @param path
+     * @param columnFamilyMode
+     * @param blockCacheSize
+     * @param writeBufferSize
+     */
+    public static void init(String path, boolean columnFamilyMode, long blockCacheSize, long writeBufferSize) {
+        try {
+            RocksDBManager.init(path, columnFamilyMode, blockCacheSize, writeBufferSize);
+        } catch (Exception e) {
+            Log.error(e.getMessage(),e);
+        }
+    }
+
+    /**
+     * 按表名前缀设置调优配置，需在init之前调用
+     * set tuning profiles by table name prefix, e.g. "block_header_:POINT_LOOKUP,cached_block_:WRITE_HEAVY"
+     * @param config
+     */
+    public static void setTableProfiles(String config) {
+        RocksDBManager.setTableProfiles(config);
+    }
+
+    /**
+     * 开启统计信息收集，默认关闭，需在init之前调用
+     * enable statistics collection, off by default, must be called before init
+     * @param enabled
+     */
+    public static void setStatisticsEnabled(boolean enabled) {
+        RocksDBManager.setStatisticsEnabled(enabled);
+    }
+
+    /**
+     * 查询数据库统计信息
+     * query statistics such as block cache hit rate and write stall counters
+     * @return
+     */
+    public static Map<String, Object> getStatistics() {
+        return RocksDBManager.getStatistics();
+    }
+
     public static boolean createTable(String tableName) throws Exception {
         if (!RocksDBService.existTable(tableName)) {
             return RocksDBManager.createTable(tableName);
@@ -123,6 +189,81 @@ public class RocksDBService {
         return RocksDBManager.entryList(table);
     }
 
+    /**
+     * 流式遍历整张表，使用完毕必须关闭
+     * stream the whole table, the iterator must be closed after use
+     * @param table
+     * @return
+     * @throws Exception
+     */
+    public static DBIterator iterator(String table) throws Exception {
+        return new RocksDBIterator(table, null, null, 0, false);
+    }
+
+    /**
+     * 流式遍历键以prefix开头的数据，使用完毕必须关闭
+     * stream records whose key starts with the prefix
+     * @param table
+     * @param prefix
+     * @return
+     * @throws Exception
+     */
+    public static DBIterator prefixIterator(String table, byte[] prefix) throws Exception {
+        return new RocksDBIterator(table, prefix, RocksDBIterator.prefixUpperBound(prefix), 0, true);
+    }
+
+    /**
+     * 流式遍历[start, end)范围内最多limit条数据，使用完毕必须关闭
+     * stream at most limit records in [start, end), null means unbounded
+     * @param table
+     * @param start
+     * @param end
+     * @param limit
+     * @return
+     * @throws Exception
+     */
+    public static DBIterator rangeIterator(String table, byte[] start, byte[] end, int limit) throws Exception {
+        return new RocksDBIterator(table, start, end, limit, true);
+    }
+
+    /**
+     * 回调方式流式遍历整张表
+     * stream the whole table to the handler
+     * @param table
+     * @param handler 返回false时停止遍历
+     * @return 已处理的记录数
+     * @throws Exception
+     */
+    public static int scan(String table, EntryHandler handler) throws Exception {
+        return RocksDBManager.scan(table, null, null, 0, handler);
+    }
+
+    /**
+     * 回调方式流式遍历[start, end)范围内最多limit条数据
+     * stream at most limit records in [start, end) to the handler
+     * @param table
+     * @param start
+     * @param end
+     * @param limit
+     * @param handler
+     * @return
+     * @throws Exception
+     */
+    public static int scan(String table, byte[] start, byte[] end, int limit, EntryHandler handler) throws Exception {
+        return RocksDBManager.scan(table, start, end, limit, handler);
+    }
+
+    /**
+     * 统计表中的记录数
+     * count records of the table
+     * @param table
+     * @return
+     * @throws Exception
+     */
+    public static int count(String table) throws Exception {
+        return RocksDBManager.count(table);
+    }
+
     public static BatchOperation createWriteBatch(String table) {
         if (StringUtils.isBlank(table)) {
             return null;
@@ -140,6 +281,28 @@ public class RocksDBService {
         return batchOperation;
     }
 
+    /**
+     * 创建跨表批量操作，与单条写入一样提交时不刷盘
+     * 只有列族模式下整个批次是原子的，非列族模式下按实例分别提交
+     * create a batch operation across tables, not synced on commit like single puts,
+     * atomic across tables in column family mode only
+     * @return
+     */
+    public static MultiBatchOperation createMultiTableWriteBatch() {
+        return createMultiTableWriteBatch(false, false);
+    }
+
+    /**
+     * 创建跨表批量操作
+     * create a batch operation across tables
+     * @param sync       提交时是否刷盘
+     * @param disableWAL 是否跳过WAL，仅用于可重建的数据
+     * @return
+     */
+    public static MultiBatchOperation createMultiTableWriteBatch(boolean sync, boolean disableWAL) {
+        return new RocksDBMultiBatchOperation(sync, disableWAL);
+    }
+
     public static boolean keyMayExist(String table, byte[] key){
         return RocksDBManager.keyMayExist(table, key);
     }
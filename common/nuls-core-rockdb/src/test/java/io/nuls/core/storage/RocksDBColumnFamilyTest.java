@@ -0,0 +1,139 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2018 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.core.storage;
+
+import io.nuls.core.rockdb.manager.RocksDBManager;
+import io.nuls.core.rockdb.service.BatchOperation;
+import io.nuls.core.rockdb.service.MultiBatchOperation;
+import io.nuls.core.rockdb.service.RocksDBService;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * 列族模式下的数据库操作测试
+ */
+public class RocksDBColumnFamilyTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private String dataPath;
+
+    @Before
+    public void init() throws Exception {
+        dataPath = folder.getRoot().getAbsolutePath();
+        RocksDBService.initColumnFamilyMode(dataPath);
+    }
+
+    @After
+    public void close() {
+        RocksDBManager.close();
+    }
+
+    @Test
+    public void tablesShareOneInstance() throws Exception {
+        RocksDBService.createTable("cf-a");
+        RocksDBService.createTable("cf-b");
+        Assert.assertTrue(RocksDBManager.isColumnFamilyMode());
+        Assert.assertSame(RocksDBManager.getTable("cf-a"), RocksDBManager.getTable("cf-b"));
+
+        RocksDBService.put("cf-a", "key".getBytes(UTF_8), "a".getBytes(UTF_8));
+        RocksDBService.put("cf-b", "key".getBytes(UTF_8), "b".getBytes(UTF_8));
+        Assert.assertEquals("a", new String(RocksDBService.get("cf-a", "key".getBytes(UTF_8)), UTF_8));
+        Assert.assertEquals("b", new String(RocksDBService.get("cf-b", "key".getBytes(UTF_8)), UTF_8));
+        Assert.assertEquals(1, RocksDBService.keyList("cf-a").size());
+
+        BatchOperation batch = RocksDBService.createWriteBatch("cf-b");
+        batch.put("key2".getBytes(UTF_8), "b2".getBytes(UTF_8));
+        batch.delete("key".getBytes(UTF_8));
+        batch.executeBatch();
+        List<byte[]> values = RocksDBService.valueList("cf-b");
+        Assert.assertEquals(1, values.size());
+        Assert.assertEquals("b2", new String(values.get(0), UTF_8));
+        Assert.assertNotNull(RocksDBService.get("cf-a", "key".getBytes(UTF_8)));
+    }
+
+    @Test
+    public void legacyTablesKeepPerTableMode() throws Exception {
+        RocksDBManager.close();
+        String legacyPath = folder.newFolder("legacy").getAbsolutePath();
+        RocksDBService.init(legacyPath);
+        RocksDBService.createTable("legacy-a");
+        RocksDBService.put("legacy-a", "key".getBytes(UTF_8), "a".getBytes(UTF_8));
+        RocksDBManager.close();
+
+        //已有独立实例的数据表时忽略列族模式配置
+        RocksDBService.init(legacyPath, true);
+        Assert.assertFalse(RocksDBManager.isColumnFamilyMode());
+        Assert.assertEquals("a", new String(RocksDBService.get("legacy-a", "key".getBytes(UTF_8)), UTF_8));
+    }
+
+    @Test
+    public void reopenRestoresTables() throws Exception {
+        RocksDBService.createTable("cf-c");
+        RocksDBService.put("cf-c", "key".getBytes(UTF_8), "c".getBytes(UTF_8));
+        RocksDBManager.close();
+
+        RocksDBService.initColumnFamilyMode(dataPath);
+        Assert.assertTrue(RocksDBService.existTable("cf-c"));
+        Assert.assertEquals("c", new String(RocksDBService.get("cf-c", "key".getBytes(UTF_8)), UTF_8));
+
+        RocksDBService.destroyTable("cf-c");
+        Assert.assertFalse(Arrays.asList(RocksDBService.listTable()).contains("cf-c"));
+    }
+
+    @Test
+    public void multiTableBatch() throws Exception {
+        RocksDBService.createTable("cf-d");
+        RocksDBService.createTable("cf-e");
+        RocksDBService.put("cf-e", "old".getBytes(UTF_8), "e".getBytes(UTF_8));
+
+        MultiBatchOperation batch = RocksDBService.createMultiTableWriteBatch();
+        batch.put("cf-d", "key".getBytes(UTF_8), "d".getBytes(UTF_8));
+        batch.put("cf-e", "key".getBytes(UTF_8), "e".getBytes(UTF_8));
+        batch.delete("cf-e", "old".getBytes(UTF_8));
+        Assert.assertNull(RocksDBService.get("cf-d", "key".getBytes(UTF_8)));
+        batch.executeBatch();
+
+        Assert.assertEquals("d", new String(RocksDBService.get("cf-d", "key".getBytes(UTF_8)), UTF_8));
+        Assert.assertEquals("e", new String(RocksDBService.get("cf-e", "key".getBytes(UTF_8)), UTF_8));
+        Assert.assertNull(RocksDBService.get("cf-e", "old".getBytes(UTF_8)));
+        try {
+            batch.put("cf-d", "key2".getBytes(UTF_8), "d".getBytes(UTF_8));
+            Assert.fail();
+        } catch (Exception e) {
+            // 已提交的批次不能再使用
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2018 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.core.storage;
+
+import io.nuls.core.rockdb.manager.RocksDBManager;
+import io.nuls.core.rockdb.model.Entry;
+import io.nuls.core.rockdb.service.DBIterator;
+import io.nuls.core.rockdb.service.RocksDBIterator;
+import io.nuls.core.rockdb.service.RocksDBService;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * 数据表流式遍历测试
+ */
+public class RocksDBIteratorTest {
+
+    private static final String TABLE = "iterator-table";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Before
+    public void init() throws Exception {
+        RocksDBService.init(folder.getRoot().getAbsolutePath());
+        RocksDBService.createTable(TABLE);
+        for (String key : new String[]{"a1", "a2", "a3", "b1", "b2", "c1"}) {
+            RocksDBService.put(TABLE, key.getBytes(UTF_8), ("v-" + key).getBytes(UTF_8));
+        }
+    }
+
+    @After
+    public void close() {
+        RocksDBManager.close();
+    }
+
+    @Test
+    public void prefixAndRange() throws Exception {
+        Assert.assertEquals(2, keys(RocksDBService.prefixIterator(TABLE, "b".getBytes(UTF_8))).size());
+        Assert.assertEquals("[a2, a3, b1]", keys(RocksDBService.rangeIterator(TABLE, "a2".getBytes(UTF_8), "b2".getBytes(UTF_8), 0)).toString());
+        Assert.assertEquals("[b1, b2]", keys(RocksDBService.rangeIterator(TABLE, "b".getBytes(UTF_8), null, 2)).toString());
+        Assert.assertEquals(6, RocksDBService.count(TABLE));
+        Assert.assertEquals(6, RocksDBService.keyList(TABLE).size());
+        Assert.assertEquals("v-c1", new String(RocksDBService.valueList(TABLE).get(5), UTF_8));
+    }
+
+    @Test
+    public void scanStopsWhenHandlerReturnsFalse() throws Exception {
+        List<String> values = new ArrayList<>();
+        int count = RocksDBService.scan(TABLE, (key, value) -> {
+            values.add(new String(value, UTF_8));
+            return values.size() < 3;
+        });
+        Assert.assertEquals(3, count);
+        Assert.assertEquals("[v-a1, v-a2, v-a3]", values.toString());
+    }
+
+    @Test
+    public void iteratorReadsFromSnapshot() throws Exception {
+        try (DBIterator iterator = RocksDBService.iterator(TABLE)) {
+            RocksDBService.put(TABLE, "a0".getBytes(UTF_8), "late".getBytes(UTF_8));
+            RocksDBService.delete(TABLE, "c1".getBytes(UTF_8));
+            Entry<byte[], byte[]> first = iterator.next();
+            Assert.assertEquals("a1", new String(first.getKey(), UTF_8));
+            int rest = 0;
+            while (iterator.hasNext()) {
+                iterator.nextKey();
+                rest++;
+            }
+            Assert.assertEquals(5, rest);
+        }
+        Assert.assertEquals(6, RocksDBService.count(TABLE));
+    }
+
+    @Test
+    public void prefixUpperBound() {
+        Assert.assertArrayEquals(new byte[]{1, 3}, RocksDBIterator.prefixUpperBound(new byte[]{1, 2}));
+        Assert.assertArrayEquals(new byte[]{2}, RocksDBIterator.prefixUpperBound(new byte[]{1, (byte) 0xFF}));
+        Assert.assertNull(RocksDBIterator.prefixUpperBound(new byte[]{(byte) 0xFF}));
+    }
+
+    private List<String> keys(DBIterator iterator) {
+        List<String> keys = new ArrayList<>();
+        try (DBIterator it = iterator) {
+            while (it.hasNext()) {
+                keys.add(new String(it.nextKey(), UTF_8));
+            }
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2018 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.core.storage;
+
+import io.nuls.core.rockdb.manager.RocksDBManager;
+import io.nuls.core.rockdb.model.DBProfile;
+import io.nuls.core.rockdb.service.RocksDBService;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * 数据表调优配置测试
+ */
+public class RocksDBProfileTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @After
+    public void close() {
+        RocksDBManager.close();
+        RocksDBService.setStatisticsEnabled(false);
+    }
+
+    @Test
+    public void longestPrefixWins() {
+        RocksDBService.setTableProfiles("tp_header_:POINT_LOOKUP, tp_header_index_:archive,bad,tp_x:UNKNOWN");
+        Assert.assertEquals(DBProfile.POINT_LOOKUP, RocksDBManager.getTableProfile("tp_header_2"));
+        Assert.assertEquals(DBProfile.ARCHIVE, RocksDBManager.getTableProfile("tp_header_index_2"));
+        Assert.assertEquals(DBProfile.DEFAULT, RocksDBManager.getTableProfile("tp_x1"));
+        Assert.assertEquals(DBProfile.DEFAULT, RocksDBManager.getTableProfile("other"));
+    }
+
+    @Test
+    public void profiledTableReadWrite() throws Exception {
+        RocksDBService.setTableProfiles("tp_lookup_:POINT_LOOKUP,tp_write_:WRITE_HEAVY");
+        RocksDBService.setStatisticsEnabled(true);
+        RocksDBService.init(folder.getRoot().getAbsolutePath());
+        RocksDBService.createTable("tp_lookup_1");
+        RocksDBService.createTable("tp_write_1");
+        for (int i = 0; i < 100; i++) {
+            RocksDBService.put("tp_lookup_1", ("key" + i).getBytes(UTF_8), ("value" + i).getBytes(UTF_8));
+            RocksDBService.put("tp_write_1", ("key" + i).getBytes(UTF_8), ("value" + i).getBytes(UTF_8));
+        }
+        Assert.assertEquals("value7", new String(RocksDBService.get("tp_lookup_1", "key7".getBytes(UTF_8)), UTF_8));
+        Assert.assertNull(RocksDBService.get("tp_write_1", "missing".getBytes(UTF_8)));
+
+        Map<String, Object> statistics = RocksDBService.getStatistics();
+        Assert.assertTrue((Long) statistics.get("NUMBER_KEYS_WRITTEN") >= 200);
+        Assert.assertTrue(statistics.containsKey("BLOCK_CACHE_HIT_RATE"));
+    }
+}
@@ -187,6 +187,19 @@ public class Constants {
 
     public static final String ZERO = "0";
 
+    /**
+     * 握手协议版本，0.2起支持二进制消息格式
+     * Handshake protocol version, binary message format is supported since 0.2
+     */
+    public static final String PROTOCOL_VERSION = "0.2";
+    public static final String PROTOCOL_VERSION_BINARY = "0.2";
+
+    /**
+     * 消息格式 / Message format
+     */
+    public static final String MESSAGE_FORMAT_TEXT = "text";
+    public static final String MESSAGE_FORMAT_BINARY = "binary";
+
     /**
      * 处理待处理消息的线程池
      * Thread pool for processing messages to be processed
@@ -28,6 +28,7 @@ package io.nuls.core.rpc.model;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import java.lang.invoke.MethodHandle;
 import java.util.List;
 
 /**
@@ -61,6 +62,13 @@ public class CmdDetail {
 
     @JsonIgnore
     private String invokeMethod;
+
+    /**
+     * 扫描时预先绑定到处理对象的方法句柄，类型为(Map)Response
+     * Method handle bound to the handler bean at scan time, typed (Map)Response
+     */
+    @JsonIgnore
+    private MethodHandle invokeHandle;
     @JsonIgnore
     public String getMethodName() {
         return MethodName;
@@ -133,6 +141,14 @@ public class CmdDetail {
     public void setInvokeMethod(String invokeMethod) {
         this.invokeMethod = invokeMethod;
     }
+    @JsonIgnore
+    public MethodHandle getInvokeHandle() {
+        return invokeHandle;
+    }
+    @JsonIgnore
+    public void setInvokeHandle(MethodHandle invokeHandle) {
+        this.invokeHandle = invokeHandle;
+    }
 
     @Override
     public String toString() {
@@ -51,6 +51,13 @@ public class NegotiateConnectionResponse {
     @JsonProperty
     private String NegotiationComment;
 
+    /**
+     * 本连接后续使用的消息格式，text或binary，旧版本不返回该字段，即文本格式
+     * Message format used on this connection afterwards, text or binary. Missing means text
+     */
+    @JsonProperty
+    private String MessageFormat;
+
     @JsonIgnore
     public String getRequestID() {
         return RequestID;
@@ -80,4 +87,14 @@ public class NegotiateConnectionResponse {
     public void setNegotiationComment(String NegotiationComment) {
         this.NegotiationComment = NegotiationComment;
     }
+
+    @JsonIgnore
+    public String getMessageFormat() {
+        return MessageFormat;
+    }
+
+    @JsonIgnore
+    public void setMessageFormat(String MessageFormat) {
+        this.MessageFormat = MessageFormat;
+    }
 }
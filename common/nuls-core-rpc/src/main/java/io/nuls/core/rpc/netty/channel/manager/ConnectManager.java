@@ -1,9 +1,13 @@
 package io.nuls.core.rpc.netty.channel.manager;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import io.netty.channel.Channel;
 import io.netty.channel.socket.SocketChannel;
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
 import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
 import io.nuls.core.core.ioc.ScanUtil;
+import io.nuls.core.crypto.HexUtil;
 import io.nuls.core.core.ioc.SpringLiteContext;
 import io.nuls.core.log.Log;
 import io.nuls.core.model.StringUtils;
@@ -16,6 +20,7 @@ import io.nuls.core.rpc.model.message.Request;
 import io.nuls.core.rpc.model.message.Response;
 import io.nuls.core.rpc.netty.bootstrap.NettyClient;
 import io.nuls.core.rpc.netty.channel.ConnectData;
+import io.nuls.core.rpc.netty.codec.BinaryMessageCodec;
 import io.nuls.core.rpc.netty.processor.RequestMessageProcessor;
 import io.nuls.core.rpc.netty.thread.RequestByCountProcessor;
 import io.nuls.core.rpc.netty.thread.RequestByPeriodProcessor;
@@ -24,7 +29,11 @@ import io.nuls.core.rpc.netty.thread.ResponseAutoProcessor;
 import io.nuls.core.rpc.util.NulsDateUtils;
 
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -122,6 +131,18 @@ public class ConnectManager {
      */
     public static final Map<String, Integer> SUBSCRIBE_COUNT = new ConcurrentHashMap<>();
 
+    /**
+     * 握手时协商使用二进制消息格式的连接
+     * Channels that negotiated the binary message format during handshake
+     */
+    public static final Set<Channel> BINARY_CHANNEL_SET = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 是否在握手时协商二进制消息格式，关闭后所有连接使用文本格式
+     * Whether the binary message format is offered during handshake, text is used for all channels when disabled
+     */
+    public static volatile boolean BINARY_MESSAGE_ENABLE = true;
+
     /**
      * 被订阅接口返回值改变次数（事件方式）
      * Number of changes in the return value of the subscribed interface
@@ -136,79 +157,84 @@ public class ConnectManager {
      */
     public static int subRequestCount = 0;
 
+    /**
+     * 本地接口索引，由scanPackage/addCmdDetail构建
+     * Index of local commands, built by scanPackage/addCmdDetail
+     */
+    private static volatile CmdIndex cmdIndex;
+
+    /**
+     * 本地接口索引
+     * Key: cmd，Value: 每个大版本下的最高版本接口/The highest version of each major version
+     */
+    private static class CmdIndex {
+        private final List<CmdDetail> source;
+        private final Map<String, Map<Integer, CmdDetail>> majorVersionMap = new HashMap<>();
+        private final Map<String, CmdDetail> latestMap = new HashMap<>();
+
+        private CmdIndex(List<CmdDetail> source) {
+            this.source = source;
+            for (CmdDetail cmdDetail : source) {
+                Map<Integer, CmdDetail> versionMap = majorVersionMap.computeIfAbsent(cmdDetail.getMethodName(), k -> new HashMap<>(2));
+                CmdDetail find = versionMap.get((int) cmdDetail.getVersion());
+                if (find == null || cmdDetail.getVersion() > find.getVersion()) {
+                    versionMap.put((int) cmdDetail.getVersion(), cmdDetail);
+                }
+                find = latestMap.get(cmdDetail.getMethodName());
+                if (find == null || cmdDetail.getVersion() > find.getVersion()) {
+                    latestMap.put(cmdDetail.getMethodName(), cmdDetail);
+                }
+            }
+        }
+    }
+
+    /**
+     * 获取本地接口索引，本地接口列表被替换后重新构建
+     * Get the index of local commands, rebuilt when the method list has been replaced
+     */
+    private static CmdIndex getCmdIndex() {
+        CmdIndex index = cmdIndex;
+        List<CmdDetail> methods = LOCAL.getMethods();
+        if (index == null || index.source != methods) {
+            index = rebuildCmdIndex();
+        }
+        return index;
+    }
+
+    private static synchronized CmdIndex rebuildCmdIndex() {
+        CmdIndex index = new CmdIndex(LOCAL.getMethods() == null ? new ArrayList<>() : LOCAL.getMethods());
+        cmdIndex = index;
+        return index;
+    }
+
     /**
      * 根据cmd命令和版本号获取本地方法
+     * 返回大版本相同的接口中版本最高的一个
      * Getting local methods from CMD commands and version
+     * Returns the highest version among the methods with the same major version
      *
      * @param cmd        Command of remote method
      * @param minVersion Version of remote method
      * @return CmdDetail
      */
     public static CmdDetail getLocalInvokeCmd(String cmd, double minVersion) {
-
-        CmdDetail find = null;
-        for (CmdDetail cmdDetail : LOCAL.getMethods()) {
-            /*
-            cmd不一致，跳过
-            CMD inconsistency, skip
-             */
-            if (!cmdDetail.getMethodName().equals(cmd)) {
-                continue;
-            }
-
-            /*
-            大版本不一样，跳过
-            Big version is different, skip
-             */
-            if ((int) minVersion != (int) cmdDetail.getVersion()) {
-                continue;
-            }
-
-            /*
-            没有备选方法，则设置当前方法为备选方法
-            If there is no alternative method, set the current method as the alternative method
-             */
-            if (find == null) {
-                find = cmdDetail;
-                continue;
-            }
-
-            /*
-            如果当前方法版本更高，则设置当前方法为备选方法
-            If the current method version is higher, set the current method as an alternative method
-             */
-            if (cmdDetail.getVersion() > find.getVersion()) {
-                find = cmdDetail;
-            }
+        Map<Integer, CmdDetail> versionMap = getCmdIndex().majorVersionMap.get(cmd);
+        if (versionMap == null) {
+            return null;
         }
-        return find;
+        return versionMap.get((int) minVersion);
     }
 
 
     /**
-     * 根据cmd命令获取最高版本的方法，逻辑同上
+     * 根据cmd命令获取最高版本的方法
      * Getting the highest version of local methods from CMD commands
      *
      * @param cmd Command of remote method
      * @return CmdDetail
      */
     public static CmdDetail getLocalInvokeCmd(String cmd) {
-        CmdDetail find = null;
-        for (CmdDetail cmdDetail : LOCAL.getMethods()) {
-            if (!cmdDetail.getMethodName().equals(cmd)) {
-                continue;
-            }
-
-            if (find == null) {
-                find = cmdDetail;
-                continue;
-            }
-
-            if (cmdDetail.getVersion() > find.getVersion()) {
-                find = cmdDetail;
-            }
-        }
-        return find;
+        return getCmdIndex().latestMap.get(cmd);
     }
 
 
@@ -245,7 +271,9 @@ public class ConnectManager {
                  */
                 if (!isRegister(cmdDetail)) {
                     LOCAL.getMethods().add(cmdDetail);
-                    RequestMessageProcessor.handlerMap.put(cmdDetail.getInvokeClass(), SpringLiteContext.getBeanByClass(cmdDetail.getInvokeClass()));
+                    Object handler = SpringLiteContext.getBeanByClass(cmdDetail.getInvokeClass());
+                    RequestMessageProcessor.handlerMap.put(cmdDetail.getInvokeClass(), handler);
+                    bindInvokeHandle(cmdDetail, method, handler);
                     Log.debug("valid cmdDetail-" + cmdDetail);
                 } else {
                     throw new Exception(Constants.CMD_DUPLICATE + ":" + cmdDetail.getMethodName() + "-" + cmdDetail.getVersion());
@@ -253,6 +281,7 @@ public class ConnectManager {
             }
         }
         LOCAL.getMethods().sort(Comparator.comparingDouble(CmdDetail::getVersion));
+        rebuildCmdIndex();
     }
 
     public static void addCmdDetail(Class<?> claszs) {
@@ -268,13 +297,39 @@ public class ConnectManager {
                  */
             if (!isRegister(cmdDetail)) {
                 LOCAL.getMethods().add(cmdDetail);
-                RequestMessageProcessor.handlerMap.put(cmdDetail.getInvokeClass(), SpringLiteContext.getBeanByClass(cmdDetail.getInvokeClass()));
+                Object handler = SpringLiteContext.getBeanByClass(cmdDetail.getInvokeClass());
+                RequestMessageProcessor.handlerMap.put(cmdDetail.getInvokeClass(), handler);
+                bindInvokeHandle(cmdDetail, method, handler);
             }
             ;
 //            else {
 //                Log.warn(Constants.CMD_DUPLICATE + ":" + cmdDetail.getMethodName() + "-" + cmdDetail.getVersion());
 //            }
         }
+        rebuildCmdIndex();
+    }
+
+    /**
+     * 预先解析接口对应的方法句柄并绑定处理对象，请求处理时不再反射查找方法
+     * Resolve the method handle of the command and bind it to the handler bean, so no reflection is needed per request
+     *
+     * @param cmdDetail CmdDetail
+     * @param method    接口方法 / Command method
+     * @param handler   处理对象 / Handler bean
+     */
+    private static void bindInvokeHandle(CmdDetail cmdDetail, Method method, Object handler) {
+        if (handler == null) {
+            return;
+        }
+        try {
+            method.setAccessible(true);
+            MethodHandle handle = MethodHandles.lookup().unreflect(method)
+                    .bindTo(handler)
+                    .asType(MethodType.methodType(Response.class, Map.class));
+            cmdDetail.setInvokeHandle(handle);
+        } catch (Exception e) {
+            Log.warn("resolve method handle failed, use reflection instead:" + cmdDetail.getMethodName(), e);
+        }
     }
 
     /**
@@ -673,6 +728,7 @@ public class ConnectManager {
      * Stop or disconnect a connection
      */
     public static void disConnect(SocketChannel channel) {
+        BINARY_CHANNEL_SET.remove(channel);
         if (!ROLE_CHANNEL_MAP.values().contains(channel)) {
             return;
         }
@@ -725,8 +781,127 @@ public class ConnectManager {
         }
     }
 
+    /**
+     * 按连接协商的格式发送消息，二进制格式的连接直接写入二进制帧，否则序列化为JSON文本
+     * Send message in the format negotiated for the channel
+     */
+    public static void sendMessage(Channel channel, Message message) throws JsonProcessingException {
+        if (!BINARY_CHANNEL_SET.contains(channel)) {
+            sendMessage(channel, JSONUtils.obj2json(toTextMessage(message)));
+            return;
+        }
+        ByteBuf content = BinaryMessageCodec.encode(channel.alloc(), message);
+        try {
+            channel.eventLoop().execute(() -> {
+                channel.writeAndFlush(new BinaryWebSocketFrame(content));
+            });
+        } catch (Exception e) {
+            content.release();
+            Log.error(e);
+        }
+    }
+
+    /**
+     * 同一条消息发送给多个连接，每种格式只编码一次，二进制帧共享同一块缓冲区
+     * Send one message to several channels, encoding it at most once per format and sharing the binary buffer
+     */
+    public static void sendMessage(Collection<Channel> channels, Message message) throws JsonProcessingException {
+        String text = null;
+        ByteBuf content = null;
+        try {
+            for (Channel channel : channels) {
+                if (!BINARY_CHANNEL_SET.contains(channel)) {
+                    if (text == null) {
+                        text = JSONUtils.obj2json(toTextMessage(message));
+                    }
+                    sendMessage(channel, text);
+                    continue;
+                }
+                if (content == null) {
+                    content = BinaryMessageCodec.encode(channel.alloc(), message);
+                }
+                ByteBuf duplicate = content.retainedDuplicate();
+                try {
+                    channel.eventLoop().execute(() -> {
+                        channel.writeAndFlush(new BinaryWebSocketFrame(duplicate));
+                    });
+                } catch (Exception e) {
+                    duplicate.release();
+                    Log.error(e);
+                }
+            }
+        } finally {
+            if (content != null) {
+                content.release();
+            }
+        }
+    }
+
+    /**
+     * JSON连接不能直接传输二进制参数，将请求中byte[]、ByteBuffer类型的参数转为十六进制字符串
+     * Binary request parameters are converted to hex strings for JSON channels
+     */
+    @SuppressWarnings("unchecked")
+    private static Message toTextMessage(Message message) {
+        if (!(message.getMessageData() instanceof Request)) {
+            return message;
+        }
+        Request request = (Request) message.getMessageData();
+        Map<String, Object> methods = request.getRequestMethods();
+        if (methods == null || methods.values().stream().noneMatch(ConnectManager::hasBinaryParam)) {
+            return message;
+        }
+        Map<String, Object> textMethods = new HashMap<>(methods.size());
+        for (Map.Entry<String, Object> method : methods.entrySet()) {
+            if (!hasBinaryParam(method.getValue())) {
+                textMethods.put(method.getKey(), method.getValue());
+                continue;
+            }
+            Map<String, Object> params = (Map<String, Object>) method.getValue();
+            Map<String, Object> textParams = new HashMap<>(params.size());
+            for (Map.Entry<String, Object> entry : params.entrySet()) {
+                textParams.put(entry.getKey(), toHex(entry.getValue()));
+            }
+            textMethods.put(method.getKey(), textParams);
+        }
+        Request textRequest = new Request();
+        textRequest.setRequestAck(request.getRequestAck());
+        textRequest.setSubscriptionEventCounter(request.getSubscriptionEventCounter());
+        textRequest.setSubscriptionPeriod(request.getSubscriptionPeriod());
+        textRequest.setSubscriptionRange(request.getSubscriptionRange());
+        textRequest.setResponseMaxSize(request.getResponseMaxSize());
+        textRequest.setRequestMethods(textMethods);
+        Message textMessage = new Message();
+        textMessage.setMessageID(message.getMessageID());
+        textMessage.setTimestamp(message.getTimestamp());
+        textMessage.setTimeZone(message.getTimeZone());
+        textMessage.setMessageType(message.getMessageType());
+        textMessage.setMessageData(textRequest);
+        return textMessage;
+    }
+
+    private static boolean hasBinaryParam(Object params) {
+        return params instanceof Map && ((Map<?, ?>) params).values().stream().anyMatch(v -> v instanceof byte[] || v instanceof ByteBuffer);
+    }
+
+    private static Object toHex(Object value) {
+        if (value instanceof byte[]) {
+            return HexUtil.encode((byte[]) value);
+        }
+        if (value instanceof ByteBuffer) {
+            ByteBuffer byteBuffer = (ByteBuffer) value;
+            if (byteBuffer.hasArray()) {
+                return HexUtil.encode(byteBuffer.array(), byteBuffer.arrayOffset() + byteBuffer.position(), byteBuffer.remaining());
+            }
+            byte[] bytes = new byte[byteBuffer.remaining()];
+            byteBuffer.duplicate().get(bytes);
+            return HexUtil.encode(bytes);
+        }
+        return value;
+    }
+
     public static void sendMessage(String moduleAbbr, Message message) throws Exception {
-        sendMessage(getConnectByRole(moduleAbbr), JSONUtils.obj2json(message));
+        sendMessage(getConnectByRole(moduleAbbr), message);
     }
 
     /**
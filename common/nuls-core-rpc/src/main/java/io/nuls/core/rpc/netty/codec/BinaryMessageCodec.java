@@ -0,0 +1,375 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2018 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.core.rpc.netty.codec;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.nuls.core.crypto.HexUtil;
+import io.nuls.core.parse.JSONUtils;
+import io.nuls.core.rpc.model.message.Message;
+import io.nuls.core.rpc.model.message.Request;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * 二进制消息编解码
+ * 帧格式：[1字节版本][4字节消息体长度][消息体]，消息体依次为MessageID、Timestamp、TimeZone、MessageType与MessageData。
+ * MessageData按带类型标记的值递归写入，解码结果与JSON解析得到的Map/List结构一致，消息处理器无需修改。
+ * 交易、区块等以十六进制字符串传输的字段按原始字节写入，解码时还原为相同的十六进制字符串；
+ * 调用方也可以直接传入byte[]或ByteBuffer，省去先编码成十六进制字符串。
+ * <p>
+ * Binary message codec.
+ * Frame: [1 byte version][4 bytes body length][body]; the body holds MessageID, Timestamp, TimeZone, MessageType and MessageData.
+ * MessageData is written as tagged values and decodes to the same Map/List tree Jackson would produce, so handlers are unchanged.
+ * Hex encoded fields (transactions, blocks...) travel as raw bytes and are restored to the same hex string on decode;
+ * callers may also pass byte[] or ByteBuffer values directly to skip the hex encoding.
+ */
+public class BinaryMessageCodec {
+
+    public static final byte VERSION = 1;
+
+    /**
+     * 长度达到该值的十六进制字符串才按原始字节传输
+     * Minimum length of a hex string to be sent as raw bytes
+     */
+    private static final int HEX_MIN_LENGTH = 16;
+
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_STRING = 1;
+    private static final byte TAG_HEX = 2;
+    private static final byte TAG_TRUE = 3;
+    private static final byte TAG_FALSE = 4;
+    private static final byte TAG_INT = 5;
+    private static final byte TAG_LONG = 6;
+    private static final byte TAG_DOUBLE = 7;
+    private static final byte TAG_BIG_INTEGER = 8;
+    private static final byte TAG_LIST = 9;
+    private static final byte TAG_MAP = 10;
+
+    /**
+     * 编码消息
+     * Encode message
+     *
+     * @param allocator 缓冲区分配器 / ByteBuf allocator
+     * @param message   消息 / message
+     * @return 编码后的帧，由调用者负责释放 / the encoded frame, released by the caller
+     */
+    public static ByteBuf encode(ByteBufAllocator allocator, Message message) {
+        ByteBuf buf = allocator.buffer();
+        try {
+            buf.writeByte(VERSION);
+            int lengthIndex = buf.writerIndex();
+            buf.writeInt(0);
+            writeString(buf, message.getMessageID());
+            writeString(buf, message.getTimestamp());
+            writeString(buf, message.getTimeZone());
+            writeString(buf, message.getMessageType());
+            writeValue(buf, message.getMessageData());
+            buf.setInt(lengthIndex, buf.writerIndex() - lengthIndex - 4);
+            return buf;
+        } catch (RuntimeException e) {
+            buf.release();
+            throw e;
+        }
+    }
+
+    /**
+     * 解码消息
+     * Decode message
+     *
+     * @param buf 帧数据 / frame content
+     * @return Message
+     */
+    public static Message decode(ByteBuf buf) {
+        byte version = buf.readByte();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported binary message version:" + version);
+        }
+        int length = buf.readInt();
+        if (length != buf.readableBytes()) {
+            throw new IllegalArgumentException("Binary message length mismatch, expect " + length + " but " + buf.readableBytes());
+        }
+        Message message = new Message();
+        message.setMessageID(readString(buf));
+        message.setTimestamp(readString(buf));
+        message.setTimeZone(readString(buf));
+        message.setMessageType(readString(buf));
+        message.setMessageData(readValue(buf));
+        return message;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void writeValue(ByteBuf buf, Object value) {
+        if (value == null) {
+            buf.writeByte(TAG_NULL);
+        } else if (value instanceof String) {
+            String str = (String) value;
+            if (isHex(str)) {
+                buf.writeByte(TAG_HEX);
+                writeBytes(buf, HexUtil.decode(str));
+            } else {
+                buf.writeByte(TAG_STRING);
+                writeString(buf, str);
+            }
+        } else if (value instanceof byte[]) {
+            buf.writeByte(TAG_HEX);
+            writeBytes(buf, (byte[]) value);
+        } else if (value instanceof ByteBuffer) {
+            ByteBuffer byteBuffer = ((ByteBuffer) value).duplicate();
+            buf.writeByte(TAG_HEX);
+            writeVarInt(buf, byteBuffer.remaining());
+            buf.writeBytes(byteBuffer);
+        } else if (value instanceof Boolean) {
+            buf.writeByte((Boolean) value ? TAG_TRUE : TAG_FALSE);
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            writeIntegral(buf, ((Number) value).longValue());
+        } else if (value instanceof BigInteger) {
+            BigInteger bigInteger = (BigInteger) value;
+            if (bigInteger.bitLength() < Long.SIZE) {
+                writeIntegral(buf, bigInteger.longValue());
+            } else {
+                buf.writeByte(TAG_BIG_INTEGER);
+                writeString(buf, bigInteger.toString());
+            }
+        } else if (value instanceof Double || value instanceof Float || value instanceof BigDecimal) {
+            //与JSON解析一致，小数统一还原为Double
+            buf.writeByte(TAG_DOUBLE);
+            buf.writeDouble(((Number) value).doubleValue());
+        } else if (value instanceof Map) {
+            Map<Object, Object> map = (Map<Object, Object>) value;
+            buf.writeByte(TAG_MAP);
+            writeVarInt(buf, map.size());
+            for (Map.Entry<Object, Object> entry : map.entrySet()) {
+                writeString(buf, String.valueOf(entry.getKey()));
+                writeValue(buf, entry.getValue());
+            }
+        } else if (value instanceof Collection) {
+            Collection<Object> collection = (Collection<Object>) value;
+            buf.writeByte(TAG_LIST);
+            writeVarInt(buf, collection.size());
+            for (Object item : collection) {
+                writeValue(buf, item);
+            }
+        } else if (value instanceof Object[]) {
+            Object[] array = (Object[]) value;
+            buf.writeByte(TAG_LIST);
+            writeVarInt(buf, array.length);
+            for (Object item : array) {
+                writeValue(buf, item);
+            }
+        } else if (value instanceof JsonNode) {
+            writeNode(buf, (JsonNode) value);
+        } else if (value instanceof Request) {
+            writeRequest(buf, (Request) value);
+        } else {
+            //其他对象（Response及业务返回对象）按Jackson的序列化规则转换
+            writeNode(buf, JSONUtils.getInstance().valueToTree(value));
+        }
+    }
+
+    /**
+     * 请求对象按字段逐个写入，字段名与Jackson序列化结果一致；
+     * 请求参数不经过Jackson转换，byte[]、ByteBuffer类型的参数直接以原始字节写入
+     */
+    private static void writeRequest(ByteBuf buf, Request request) {
+        buf.writeByte(TAG_MAP);
+        writeVarInt(buf, 6);
+        writeString(buf, "RequestAck");
+        writeValue(buf, request.getRequestAck());
+        writeString(buf, "SubscriptionEventCounter");
+        writeValue(buf, request.getSubscriptionEventCounter());
+        writeString(buf, "SubscriptionPeriod");
+        writeValue(buf, request.getSubscriptionPeriod());
+        writeString(buf, "SubscriptionRange");
+        writeValue(buf, request.getSubscriptionRange());
+        writeString(buf, "ResponseMaxSize");
+        writeValue(buf, request.getResponseMaxSize());
+        writeString(buf, "RequestMethods");
+        writeValue(buf, request.getRequestMethods());
+    }
+
+    private static void writeNode(ByteBuf buf, JsonNode node) {
+        if (node == null || node.isNull() || node.isMissingNode()) {
+            buf.writeByte(TAG_NULL);
+        } else if (node.isObject()) {
+            buf.writeByte(TAG_MAP);
+            writeVarInt(buf, node.size());
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                writeString(buf, field.getKey());
+                writeNode(buf, field.getValue());
+            }
+        } else if (node.isArray()) {
+            buf.writeByte(TAG_LIST);
+            writeVarInt(buf, node.size());
+            for (JsonNode item : node) {
+                writeNode(buf, item);
+            }
+        } else if (node.isBoolean()) {
+            buf.writeByte(node.booleanValue() ? TAG_TRUE : TAG_FALSE);
+        } else if (node.isIntegralNumber()) {
+            writeValue(buf, node.bigIntegerValue());
+        } else if (node.isNumber()) {
+            buf.writeByte(TAG_DOUBLE);
+            buf.writeDouble(node.doubleValue());
+        } else {
+            //文本与二进制节点，二进制节点按Jackson规则为Base64字符串
+            writeValue(buf, node.asText());
+        }
+    }
+
+    private static void writeIntegral(ByteBuf buf, long value) {
+        //与JSON解析一致，int范围内的整数还原为Integer
+        if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+            buf.writeByte(TAG_INT);
+            buf.writeInt((int) value);
+        } else {
+            buf.writeByte(TAG_LONG);
+            buf.writeLong(value);
+        }
+    }
+
+    private static Object readValue(ByteBuf buf) {
+        byte tag = buf.readByte();
+        switch (tag) {
+            case TAG_NULL:
+                return null;
+            case TAG_STRING:
+                return readString(buf);
+            case TAG_HEX:
+                return HexUtil.encode(readBytes(buf));
+            case TAG_TRUE:
+                return Boolean.TRUE;
+            case TAG_FALSE:
+                return Boolean.FALSE;
+            case TAG_INT:
+                return buf.readInt();
+            case TAG_LONG:
+                return buf.readLong();
+            case TAG_DOUBLE:
+                return buf.readDouble();
+            case TAG_BIG_INTEGER:
+                return new BigInteger(readString(buf));
+            case TAG_LIST:
+                int size = readVarInt(buf);
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(readValue(buf));
+                }
+                return list;
+            case TAG_MAP:
+                int count = readVarInt(buf);
+                Map<String, Object> map = new LinkedHashMap<>(Math.max(16, count * 2));
+                for (int i = 0; i < count; i++) {
+                    String key = readString(buf);
+                    map.put(key, readValue(buf));
+                }
+                return map;
+            default:
+                throw new IllegalArgumentException("Unknown binary message value tag:" + tag);
+        }
+    }
+
+    /**
+     * 只有小写、偶数长度的十六进制字符串才能无损还原
+     * Only lower case hex strings of even length can be restored losslessly
+     */
+    private static boolean isHex(String str) {
+        int length = str.length();
+        if (length < HEX_MIN_LENGTH || (length & 1) != 0) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = str.charAt(i);
+            if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeString(ByteBuf buf, String str) {
+        if (str == null) {
+            writeVarInt(buf, 0);
+            return;
+        }
+        writeBytes(buf, str.getBytes(StandardCharsets.UTF_8), 1);
+    }
+
+    private static String readString(ByteBuf buf) {
+        int length = readVarInt(buf);
+        if (length == 0) {
+            return null;
+        }
+        String str = buf.toString(buf.readerIndex(), length - 1, StandardCharsets.UTF_8);
+        buf.skipBytes(length - 1);
+        return str;
+    }
+
+    private static void writeBytes(ByteBuf buf, byte[] bytes) {
+        writeBytes(buf, bytes, 0);
+    }
+
+    /**
+     * 字符串长度前缀加1，用0表示null
+     * String length prefix is offset by one so that 0 stands for null
+     */
+    private static void writeBytes(ByteBuf buf, byte[] bytes, int lengthOffset) {
+        writeVarInt(buf, bytes.length + lengthOffset);
+        buf.writeBytes(bytes);
+    }
+
+    private static byte[] readBytes(ByteBuf buf) {
+        byte[] bytes = new byte[readVarInt(buf)];
+        buf.readBytes(bytes);
+        return bytes;
+    }
+
+    private static void writeVarInt(ByteBuf buf, int value) {
+        while ((value & ~0x7F) != 0) {
+            buf.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buf.writeByte(value);
+    }
+
+    private static int readVarInt(ByteBuf buf) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = buf.readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint in binary message");
+    }
+}
@@ -11,6 +11,7 @@ import io.nuls.core.rpc.info.Constants;
 import io.nuls.core.rpc.model.message.Message;
 import io.nuls.core.rpc.model.message.MessageType;
 import io.nuls.core.rpc.netty.channel.manager.ConnectManager;
+import io.nuls.core.rpc.netty.codec.BinaryMessageCodec;
 import io.nuls.core.rpc.netty.handler.message.TextMessageHandler;
 import io.nuls.core.thread.ThreadUtils;
 import io.nuls.core.thread.commom.NulsThreadFactory;
@@ -92,13 +93,17 @@ public class ClientHandler extends SimpleChannelInboundHandler<Object> {
 
             if (frame instanceof CloseWebSocketFrame) {
                 ch.close();
-            } else if (msg instanceof TextWebSocketFrame) {
+            } else if (msg instanceof TextWebSocketFrame || msg instanceof BinaryWebSocketFrame) {
                 if(requestExecutorService.getQueue().size() >= 10000 || responseExecutorService.getQueue().size() > 10000){
                     Log.info("当前请求线程池总线程数量{},运行中线程数量{},等待队列数量{}",requestExecutorService.getPoolSize(),requestExecutorService.getActiveCount(),requestExecutorService.getQueue().size());
                     Log.info("当前响应线程池总线程数量{},运行中线程数量{},等待队列数量{}",responseExecutorService.getPoolSize(),responseExecutorService.getActiveCount(),responseExecutorService.getQueue().size());
                 }
-                TextWebSocketFrame txMsg = (TextWebSocketFrame) msg;
-                Message message = JSONUtils.json2pojo(txMsg.text(), Message.class);
+                Message message;
+                if (msg instanceof BinaryWebSocketFrame) {
+                    message = BinaryMessageCodec.decode(((BinaryWebSocketFrame) msg).content());
+                } else {
+                    message = JSONUtils.json2pojo(((TextWebSocketFrame) msg).text(), Message.class);
+                }
                 MessageType messageType = MessageType.valueOf(message.getMessageType());
                 TextMessageHandler messageHandler = new TextMessageHandler((SocketChannel) ctx.channel(), message);
                 if(messageType.equals(MessageType.Response)
@@ -3,6 +3,7 @@ package io.nuls.core.rpc.netty.handler;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
 import io.netty.channel.socket.SocketChannel;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
 import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
 import io.nuls.core.log.Log;
 import io.nuls.core.parse.JSONUtils;
@@ -10,6 +11,7 @@ import io.nuls.core.rpc.info.Constants;
 import io.nuls.core.rpc.model.message.Message;
 import io.nuls.core.rpc.model.message.MessageType;
 import io.nuls.core.rpc.netty.channel.manager.ConnectManager;
+import io.nuls.core.rpc.netty.codec.BinaryMessageCodec;
 import io.nuls.core.rpc.netty.handler.message.TextMessageHandler;
 import io.nuls.core.thread.ThreadUtils;
 import io.nuls.core.thread.commom.NulsThreadFactory;
@@ -34,9 +36,13 @@ public class ServerHandler extends SimpleChannelInboundHandler<Object> {
 
     @Override
     protected void channelRead0(ChannelHandlerContext ctx, Object msg) throws Exception {
-        if (msg instanceof TextWebSocketFrame) {
-            TextWebSocketFrame txMsg = (TextWebSocketFrame) msg;
-            Message message = JSONUtils.json2pojo(txMsg.text(), Message.class);
+        if (msg instanceof TextWebSocketFrame || msg instanceof BinaryWebSocketFrame) {
+            Message message;
+            if (msg instanceof BinaryWebSocketFrame) {
+                message = BinaryMessageCodec.decode(((BinaryWebSocketFrame) msg).content());
+            } else {
+                message = JSONUtils.json2pojo(((TextWebSocketFrame) msg).text(), Message.class);
+            }
             MessageType messageType = MessageType.valueOf(message.getMessageType());
             TextMessageHandler messageHandler = new TextMessageHandler((SocketChannel) ctx.channel(), message);
             if(requestExecutorService.getQueue().size() >= 500 || responseExecutorService.getQueue().size() > 500){
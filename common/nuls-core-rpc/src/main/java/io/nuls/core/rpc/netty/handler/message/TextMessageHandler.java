@@ -130,6 +130,14 @@ public class TextMessageHandler implements Runnable {
                     connectData.getRequestOnlyQueue().offer(JSONUtils.map2pojo((Map) message.getMessageData(), Request.class));
                     break;
                 case NegotiateConnectionResponse:
+                    /*
+                    握手响应中协商了二进制格式，则之后的消息以二进制格式发送
+                    Send binary messages afterwards if the handshake response negotiated the binary format
+                     */
+                    if (ConnectManager.BINARY_MESSAGE_ENABLE
+                            && Constants.MESSAGE_FORMAT_BINARY.equals(((Map<String, String>) message.getMessageData()).get("MessageFormat"))) {
+                        ConnectManager.BINARY_CHANNEL_SET.add(channel);
+                    }
                 case Ack:
                     ResponseContainer resContainer = RequestContainer.getResponseContainer(((Map<String, String>) message.getMessageData()).get("RequestID"));
                     if (resContainer != null && resContainer.getFuture() != null) {
@@ -15,6 +15,7 @@ import io.nuls.core.log.Log;
 import io.nuls.core.model.StringUtils;
 import io.nuls.core.parse.JSONUtils;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Method;
 import java.math.BigDecimal;
 import java.util.HashMap;
@@ -43,21 +44,43 @@ public class RequestMessageProcessor {
      * @throws JsonProcessingException JSON解析错误 / JSON parsing error
      */
     public static void negotiateConnectionResponse(Channel channel, Message message) throws JsonProcessingException {
+        NegotiateConnection negotiateConnection = JSONUtils.map2pojo((Map) message.getMessageData(), NegotiateConnection.class);
+        boolean binary = ConnectManager.BINARY_MESSAGE_ENABLE && supportBinary(negotiateConnection.getProtocolVersion());
+
         NegotiateConnectionResponse negotiateConnectionResponse = new NegotiateConnectionResponse();
         negotiateConnectionResponse.setRequestID(message.getMessageID());
         negotiateConnectionResponse.setNegotiationStatus("1");
         negotiateConnectionResponse.setNegotiationComment("Connection true!");
+        negotiateConnectionResponse.setMessageFormat(binary ? Constants.MESSAGE_FORMAT_BINARY : Constants.MESSAGE_FORMAT_TEXT);
 
         Message rspMsg = MessageUtil.basicMessage(MessageType.NegotiateConnectionResponse);
         rspMsg.setMessageData(negotiateConnectionResponse);
+        //握手响应本身以文本格式发送，之后的消息按协商结果发送
         ConnectManager.sendMessage(channel, JSONUtils.obj2json(rspMsg));
+        if (binary) {
+            ConnectManager.BINARY_CHANNEL_SET.add(channel);
+        }
 
         //握手成功之后保存channel与角色的对应信息
-        NegotiateConnection negotiateConnection = JSONUtils.map2pojo((Map) message.getMessageData(), NegotiateConnection.class);
         ConnectManager.cacheConnect(negotiateConnection.getAbbreviation(), channel, false);
     }
 
 
+    /**
+     * 对方的握手协议版本是否支持二进制消息格式
+     * Whether the peer's handshake protocol version supports the binary message format
+     */
+    private static boolean supportBinary(String protocolVersion) {
+        if (protocolVersion == null) {
+            return false;
+        }
+        try {
+            return new BigDecimal(protocolVersion).compareTo(new BigDecimal(Constants.PROTOCOL_VERSION_BINARY)) >= 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
     /**
      * 确认收到Request
      * Confirm receipt of Request
@@ -71,7 +94,7 @@ public class RequestMessageProcessor {
         ack.setRequestId(messageId);
         Message rspMsg = MessageUtil.basicMessage(MessageType.Ack);
         rspMsg.setMessageData(ack);
-        ConnectManager.sendMessage(channel, JSONUtils.obj2json(rspMsg));
+        ConnectManager.sendMessage(channel, rspMsg);
     }
 
     /**
@@ -85,7 +108,7 @@ public class RequestMessageProcessor {
         Response response = MessageUtil.newFailResponse(messageId, "Service not started!");
         Message rspMsg = MessageUtil.basicMessage(MessageType.Response);
         rspMsg.setMessageData(response);
-        ConnectManager.sendMessage(channel, JSONUtils.obj2json(rspMsg));
+        ConnectManager.sendMessage(channel, rspMsg);
     }
 
     /**
@@ -186,7 +209,7 @@ public class RequestMessageProcessor {
                     response.setResponseErrorCode(CommonCodeConstanst.CMD_NOTFOUND.getCode());
                     Message rspMessage = MessageUtil.basicMessage(MessageType.Response);
                     rspMessage.setMessageData(response);
-                    ConnectManager.sendMessage(channel, JSONUtils.obj2json(rspMessage));
+                    ConnectManager.sendMessage(channel, rspMessage);
                     return;
                 }
 
@@ -200,12 +223,12 @@ public class RequestMessageProcessor {
                     response.setResponseErrorCode(CommonCodeConstanst.PARAMETER_ERROR.getCode());
                     Message rspMessage = MessageUtil.basicMessage(MessageType.Response);
                     rspMessage.setMessageData(response);
-                    ConnectManager.sendMessage(channel, JSONUtils.obj2json(rspMessage));
+                    ConnectManager.sendMessage(channel, rspMessage);
                     return;
                 }
 
                 Message rspMessage = execute(cmdDetail, params, messageId);
-                ConnectManager.sendMessage(channel, JSONUtils.obj2json(rspMessage));
+                ConnectManager.sendMessage(channel, rspMessage);
 
                 /*
                 执行成功之后判断该接口是否被订阅过，如果被订阅则改变该接口触发次数
@@ -220,7 +243,7 @@ public class RequestMessageProcessor {
                 response.setResponseErrorCode(CommonCodeConstanst.SYS_UNKOWN_EXCEPTION.getCode());
                 Message rspMessage = MessageUtil.basicMessage(MessageType.Response);
                 rspMessage.setMessageData(response);
-                ConnectManager.sendMessage(channel, JSONUtils.obj2json(rspMessage));
+                ConnectManager.sendMessage(channel, rspMessage);
             }
         }
     }
@@ -265,7 +288,7 @@ public class RequestMessageProcessor {
                     Log.info("Parameter validation error!");
                     return;
                 }
-                invoke(cmdDetail.getInvokeClass(), cmdDetail.getInvokeMethod(), params);
+                invoke(cmdDetail, params);
             } catch (Exception e) {
                 Log.error(e);
             }
@@ -284,7 +307,7 @@ public class RequestMessageProcessor {
      */
     private static Message execute(CmdDetail cmdDetail, Map params, String messageId) throws Exception {
         long startTimemillis = NulsDateUtils.getCurrentTimeMillis();
-        Response response = invoke(cmdDetail.getInvokeClass(), cmdDetail.getInvokeMethod(), params);
+        Response response = invoke(cmdDetail, params);
         response.setRequestID(messageId);
         Map<String, Object> responseData = new HashMap<>(1);
         responseData.put(cmdDetail.getMethodName(), response.getResponseData());
@@ -308,7 +331,7 @@ public class RequestMessageProcessor {
         rspMessage.setMessageData(realResponse);
         try {
             Log.debug("responseWithEventCount: " + JSONUtils.obj2json(rspMessage));
-            ConnectManager.sendMessage(channel, JSONUtils.obj2json(rspMessage));
+            ConnectManager.sendMessage(channel, rspMessage);
         } catch (JsonProcessingException e) {
             Log.error(e);
         }
@@ -492,6 +515,29 @@ public class RequestMessageProcessor {
     }
 
 
+    /**
+     * 调用本地接口，优先使用扫描时绑定的方法句柄
+     * Call local cmd with the method handle bound at scan time, fall back to reflection
+     *
+     * @param cmdDetail CmdDetail
+     * @param params    Parameters of remote method
+     * @return Response
+     * @throws Exception Any exceptions
+     */
+    private static Response invoke(CmdDetail cmdDetail, Map params) throws Exception {
+        MethodHandle handle = cmdDetail.getInvokeHandle();
+        if (handle == null) {
+            return invoke(cmdDetail.getInvokeClass(), cmdDetail.getInvokeMethod(), params);
+        }
+        try {
+            return (Response) handle.invokeExact(params);
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new Exception(t);
+        }
+    }
+
     /**
      * Call local cmd.
      * 1. If the interface is injected via @Autowired, the injected object is used
@@ -13,6 +13,9 @@ import io.nuls.core.rpc.netty.processor.container.ResponseContainer;
 import io.nuls.core.log.Log;
 import io.nuls.core.parse.JSONUtils;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
@@ -50,7 +53,7 @@ public class ResponseMessageProcessor {
 
         ResponseContainer responseContainer = RequestContainer.putRequest(message.getMessageID());
 
-        ConnectManager.sendMessage(channel, JSONUtils.obj2json(message));
+        ConnectManager.sendMessage(channel, message);
 
         try {
             return responseContainer.getFuture().get(Constants.TIMEOUT_TIMEMILLIS, TimeUnit.MILLISECONDS) != null;
@@ -80,7 +83,7 @@ public class ResponseMessageProcessor {
 
         ResponseContainer responseContainer = RequestContainer.putRequest(message.getMessageID());
 
-        ConnectManager.sendMessage(channel, JSONUtils.obj2json(message));
+        ConnectManager.sendMessage(channel, message);
 
         try {
             return responseContainer.getFuture().get(Constants.TIMEOUT_TIMEMILLIS, TimeUnit.MILLISECONDS) != null;
@@ -132,7 +135,7 @@ public class ResponseMessageProcessor {
         发送请求
         Send request
         */
-        ConnectManager.sendMessage(channel, JSONUtils.obj2json(message));
+        ConnectManager.sendMessage(channel, message);
 
         /*
         获取返回的数据，放入本地变量
@@ -146,7 +149,7 @@ public class ResponseMessageProcessor {
         while (!response.isSuccess() && tryCount < Constants.TRY_COUNT) {
             Log.info("向核心注册消息发送失败第{}次",tryCount + 1);
             responseContainer = RequestContainer.putRequest(message.getMessageID());
-            ConnectManager.sendMessage(channel, JSONUtils.obj2json(message));
+            ConnectManager.sendMessage(channel, message);
             response = receiveResponse(responseContainer, REGISTER_API_TIME_OUT);
             tryCount++;
         }
@@ -301,10 +304,33 @@ public class ResponseMessageProcessor {
         Message message = MessageUtil.basicMessage(MessageType.RequestOnly);
         message.setMessageData(request);
         Channel channel = ConnectManager.getConnectByRole(role);
-        ConnectManager.sendMessage(channel, JSONUtils.obj2json(message));
+        ConnectManager.sendMessage(channel, message);
         return message.getMessageID();
     }
 
+    /**
+     * 同一个Request发送给多个角色，不接收返回，消息只构造和编码一次，连接失败的角色会被跳过
+     * Send one Request to several roles without waiting for responses; the message is built and encoded once,
+     * roles that cannot be connected are skipped
+     *
+     * @param roles   远程方法所属的角色，The roles of remote method
+     * @param request 远程方法的命令，Command of the remote method
+     * @throws Exception JSON格式转换错误，JSON format conversion error
+     */
+    public static void requestOnly(Collection<String> roles, Request request) throws Exception {
+        Message message = MessageUtil.basicMessage(MessageType.RequestOnly);
+        message.setMessageData(request);
+        List<Channel> channels = new ArrayList<>(roles.size());
+        for (String role : roles) {
+            try {
+                channels.add(ConnectManager.getConnectByRole(role));
+            } catch (Exception e) {
+                Log.error(e);
+            }
+        }
+        ConnectManager.sendMessage(channels, message);
+    }
+
     /**
      * 发送Request，返回该Request的messageId
      * Send Request, return the messageId of the Request
@@ -323,7 +349,7 @@ public class ResponseMessageProcessor {
 
         ResponseContainer responseContainer = RequestContainer.putRequest(message.getMessageID());
 
-        ConnectManager.sendMessage(channel, JSONUtils.obj2json(message));
+        ConnectManager.sendMessage(channel, message);
         if (ConnectManager.isPureDigital(request.getSubscriptionPeriod())
                 || ConnectManager.isPureDigital(request.getSubscriptionEventCounter())) {
             /*
@@ -359,7 +385,7 @@ public class ResponseMessageProcessor {
          */
         Channel channel = ConnectManager.MSG_ID_KEY_CHANNEL_MAP.get(messageId);
         if (channel != null) {
-            ConnectManager.sendMessage(channel, JSONUtils.obj2json(message));
+            ConnectManager.sendMessage(channel, message);
             Log.debug("取消订阅：" + JSONUtils.obj2json(message));
             ConnectManager.INVOKE_MAP.remove(messageId);
         }
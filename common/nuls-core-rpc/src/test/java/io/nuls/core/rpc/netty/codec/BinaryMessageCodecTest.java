@@ -0,0 +1,97 @@
+package io.nuls.core.rpc.netty.codec;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.nuls.core.crypto.HexUtil;
+import io.nuls.core.parse.JSONUtils;
+import io.nuls.core.rpc.model.message.Message;
+import io.nuls.core.rpc.model.message.MessageType;
+import io.nuls.core.rpc.model.message.MessageUtil;
+import io.nuls.core.rpc.model.message.Request;
+import io.nuls.core.rpc.model.message.Response;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.*;
+
+/**
+ * 二进制消息解码结果应与JSON解析结果一致
+ */
+public class BinaryMessageCodecTest {
+
+    private static final String TX_HEX = "0200a1b2c3d4e5f60718293a4b5c6d7e8f90";
+
+    @Test
+    public void requestSameAsJson() throws Exception {
+        Map<String, Object> params = new HashMap<>();
+        params.put("chainId", 2);
+        params.put("height", 5L);
+        params.put("bigHeight", Long.MAX_VALUE);
+        params.put("amount", new BigInteger("123456789012345678901234567890"));
+        params.put("tx", TX_HEX);
+        params.put("upperHex", TX_HEX.toUpperCase());
+        params.put("shortHex", "abcd");
+        params.put("text", "交易 tx");
+        params.put("txList", Arrays.asList(TX_HEX, TX_HEX + "00"));
+        params.put("flag", true);
+        params.put("rate", 0.5);
+        params.put("empty", "");
+        params.put("nothing", null);
+        Request request = MessageUtil.defaultRequest();
+        request.getRequestMethods().put("tx_newTx", params);
+        Message message = MessageUtil.basicMessage(MessageType.Request);
+        message.setMessageData(request);
+
+        assertSameAsJson(message);
+    }
+
+    @Test
+    public void responseSameAsJson() throws Exception {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("value", TX_HEX);
+        data.put("list", new int[]{1, 2, 3});
+        Response response = MessageUtil.newSuccessResponse("1", "success");
+        response.setResponseData(data);
+        Message message = MessageUtil.basicMessage(MessageType.Response);
+        message.setMessageData(response);
+
+        assertSameAsJson(message);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void binaryParamsDecodeToHex() {
+        byte[] payload = HexUtil.decode("ffff" + TX_HEX + "ffff");
+        Map<String, Object> params = new HashMap<>();
+        params.put("messageBody", ByteBuffer.wrap(payload, 2, payload.length - 4).slice());
+        params.put("tx", HexUtil.decode(TX_HEX));
+        Request request = MessageUtil.defaultRequest();
+        request.getRequestMethods().put("msgProcess", params);
+        Message message = MessageUtil.basicMessage(MessageType.RequestOnly);
+        message.setMessageData(request);
+
+        ByteBuf buf = BinaryMessageCodec.encode(UnpooledByteBufAllocator.DEFAULT, message);
+        try {
+            Map<String, Object> methods = (Map<String, Object>) ((Map<String, Object>) BinaryMessageCodec.decode(buf).getMessageData()).get("RequestMethods");
+            Map<String, Object> decoded = (Map<String, Object>) methods.get("msgProcess");
+            Assert.assertEquals(TX_HEX, decoded.get("messageBody"));
+            Assert.assertEquals(TX_HEX, decoded.get("tx"));
+            Assert.assertEquals(TX_HEX, HexUtil.encode(payload, 2, payload.length - 4));
+        } finally {
+            buf.release();
+        }
+    }
+
+    private void assertSameAsJson(Message message) throws Exception {
+        Message json = JSONUtils.json2pojo(JSONUtils.obj2json(message), Message.class);
+        ByteBuf buf = BinaryMessageCodec.encode(UnpooledByteBufAllocator.DEFAULT, message);
+        try {
+            Message binary = BinaryMessageCodec.decode(buf);
+            Assert.assertEquals(json, binary);
+        } finally {
+            buf.release();
+        }
+    }
+}
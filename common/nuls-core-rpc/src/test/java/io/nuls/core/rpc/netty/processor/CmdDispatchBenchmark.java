@@ -0,0 +1,110 @@
+package io.nuls.core.rpc.netty.processor;
+
+import io.nuls.core.core.ioc.SpringLiteContext;
+import io.nuls.core.rpc.cmd.BaseCmd;
+import io.nuls.core.rpc.model.CmdAnnotation;
+import io.nuls.core.rpc.model.CmdDetail;
+import io.nuls.core.rpc.model.message.Response;
+import io.nuls.core.rpc.netty.channel.manager.ConnectManager;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 接口分发基准测试：旧的线性查找+反射调用 与 索引+方法句柄
+ * Dispatch benchmark: linear scan with reflection versus the index with method handles
+ * <p>
+ * 运行/Run: main方法，或 java -cp target/test-classes:... org.openjdk.jmh.Main CmdDispatchBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CmdDispatchBenchmark {
+
+    private static final String CMD = "bench_echo";
+
+    /**
+     * 模块中注册的接口数量
+     */
+    @Param({"50", "300"})
+    public int cmdCount;
+
+    private Map<String, Object> params;
+    private Map<String, Object> requestMethods;
+
+    public static class DispatchBenchCmd extends BaseCmd {
+        @CmdAnnotation(cmd = CMD, version = 1.0, description = "benchmark")
+        public Response echo(Map params) {
+            return success(params);
+        }
+    }
+
+    @Setup
+    public void setup() {
+        ConnectManager.LOCAL.setMethods(new ArrayList<>());
+        for (int i = 0; i < cmdCount; i++) {
+            CmdDetail cmdDetail = new CmdDetail();
+            cmdDetail.setMethodName("bench_cmd_" + i);
+            cmdDetail.setVersion(1.0);
+            cmdDetail.setParameters(new ArrayList<>());
+            ConnectManager.LOCAL.getMethods().add(cmdDetail);
+        }
+        //与SpringLiteContext.getBeanByClass的命名规则一致
+        String beanName = DispatchBenchCmd.class.getName().substring(DispatchBenchCmd.class.getName().lastIndexOf('.') + 1);
+        SpringLiteContext.putBean(Character.toLowerCase(beanName.charAt(0)) + beanName.substring(1), new DispatchBenchCmd());
+        ConnectManager.addCmdDetail(DispatchBenchCmd.class);
+        params = new HashMap<>();
+        params.put("chainId", 1);
+        requestMethods = new HashMap<>();
+        requestMethods.put(CMD, params);
+    }
+
+    /**
+     * 改造前的分发方式
+     * Dispatch as it was done before the index
+     */
+    @Benchmark
+    public Object linearScanReflection() throws Exception {
+        CmdDetail find = null;
+        for (CmdDetail cmdDetail : ConnectManager.LOCAL.getMethods()) {
+            if (!cmdDetail.getMethodName().equals(CMD)) {
+                continue;
+            }
+            if (find == null || cmdDetail.getVersion() > find.getVersion()) {
+                find = cmdDetail;
+            }
+        }
+        //类对象在改造前同样有缓存(classMap)
+        Class<?> clz = DispatchBenchCmd.class;
+        Method method = clz.getDeclaredMethod(find.getInvokeMethod(), Map.class);
+        return method.invoke(RequestMessageProcessor.handlerMap.get(find.getInvokeClass()), params);
+    }
+
+    @Benchmark
+    public Object indexedHandle() throws Throwable {
+        return (Response) ConnectManager.getLocalInvokeCmd(CMD, 1.0).getInvokeHandle().invokeExact(params);
+    }
+
+    @Benchmark
+    public Object indexedLookup() {
+        return ConnectManager.getLocalInvokeCmd(CMD, 1.0);
+    }
+
+    @Benchmark
+    public void indexedDispatch() throws Exception {
+        RequestMessageProcessor.callCommands(requestMethods);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(CmdDispatchBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2018 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.core.crypto;
+
+import io.nuls.core.log.Log;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * secp256k1批量验签
+ * 单条验证走ECKey.verify：曲线为BouncyCastle的SecP256K1Curve，已配置GLV自同态，
+ * ECDSA验证中的u1*G + u2*Q由Shamir技巧交错计算，G与缓存公钥上的wNAF预计算表会被复用；
+ * 批量时按CPU核数分段并行，任意一条失败即停止剩余验证
+ * <p>
+ * Batch ECDSA verification on secp256k1. Each item goes through ECKey.verify, which runs on the GLV-enabled
+ * SecP256K1Curve with Shamir's trick and reuses the precomputed tables of G and of cached public keys.
+ * The batch is split into chunks that run in parallel, the first failure stops the remaining chunks.
+ */
+public class ECBatchVerifier {
+
+    /**
+     * 每段最少的签名数，少于两段时直接在当前线程验证
+     */
+    public static final int MIN_CHUNK_SIZE = 8;
+
+    /**
+     * 验证所有签名
+     * Verify all items
+     *
+     * @param items 待验证签名
+     * @return 全部正确返回true，任意一条错误返回false
+     */
+    public static boolean verifyAll(List<SignatureItem> items) {
+        if (items == null || items.isEmpty()) {
+            return true;
+        }
+        int size = items.size();
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        int chunks = Math.min(pool.getParallelism() + 1, size / MIN_CHUNK_SIZE);
+        AtomicBoolean failed = new AtomicBoolean(false);
+        if (chunks < 2) {
+            return verifyRange(items, 0, size, failed);
+        }
+        int chunkSize = (size + chunks - 1) / chunks;
+        List<ForkJoinTask<Boolean>> tasks = new ArrayList<>(chunks);
+        //第一段由调用线程自己验证
+        for (int from = chunkSize; from < size; from += chunkSize) {
+            int start = from;
+            int end = Math.min(from + chunkSize, size);
+            tasks.add(pool.submit(() -> verifyRange(items, start, end, failed)));
+        }
+        boolean result = verifyRange(items, 0, chunkSize, failed);
+        for (ForkJoinTask<Boolean> task : tasks) {
+            result &= task.join();
+        }
+        return result;
+    }
+
+    private static boolean verifyRange(List<SignatureItem> items, int from, int to, AtomicBoolean failed) {
+        for (int i = from; i < to; i++) {
+            if (failed.get()) {
+                return false;
+            }
+            if (!verify(items.get(i))) {
+                failed.set(true);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 验证单条签名，签名或公钥无法解析时视为验证失败
+     * Verify one item, unparseable signature or public key counts as invalid
+     */
+    public static boolean verify(SignatureItem item) {
+        try {
+            return ECKey.verify(item.getDigest(), item.getSignature(), item.getPublicKey());
+        } catch (RuntimeException e) {
+            Log.error("Signature verification error: {}", e.getMessage());
+            return false;
+        }
+    }
+}
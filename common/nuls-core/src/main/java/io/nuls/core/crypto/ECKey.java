@@ -22,6 +22,7 @@ import com.google.common.base.Objects;
 import com.google.common.base.Preconditions;
 import com.google.common.primitives.UnsignedBytes;
 import io.nuls.core.basic.VarInt;
+import io.nuls.core.model.ByteArrayWrapper;
 import io.nuls.core.model.ObjectUtils;
 import io.nuls.core.parse.SerializeUtils;
 import org.bouncycastle.asn1.*;
@@ -674,8 +675,7 @@ public class ECKey {
      */
     public static boolean verify(byte[] data, ECDSASignature signature, byte[] pub) {
         ECDSASigner signer = new ECDSASigner();
-        ECPublicKeyParameters params = new ECPublicKeyParameters(CURVE.getCurve().decodePoint(pub), CURVE);
-        signer.init(false, params);
+        signer.init(false, SignatureCache.getPublicKey(pub));
         try {
             return signer.verifySignature(data, signature.r, signature.s);
         } catch (NullPointerException e) {
@@ -693,7 +693,15 @@ public class ECKey {
      * @throws Exception if the signature is unparseable in some way.
      */
     public static boolean verify(byte[] data, byte[] signature, byte[] pub) {
-        return verify(data, ECKey.ECDSASignature.decodeFromDER(signature), pub);
+        ByteArrayWrapper key = SignatureCache.verifiedKey(data, signature, pub);
+        if (SignatureCache.isVerified(key)) {
+            return true;
+        }
+        boolean verified = verify(data, ECKey.ECDSASignature.decodeFromDER(signature), pub);
+        if (verified) {
+            SignatureCache.putVerified(key);
+        }
+        return verified;
     }
 
     /**
@@ -53,6 +53,26 @@ public class HexUtil {
         //return strbuf.toString();
     }
 
+    private static final char[] DIGITS = "0123456789abcdef".toCharArray();
+
+    /**
+     * 对字节数组的一段进行16进制编码,不复制源数组
+     *
+     * @param src    源字节数组
+     * @param offset 起始位置
+     * @param length 长度
+     * @return String 编码后的字符串
+     */
+    public static String encode(byte[] src, int offset, int length) {
+        char[] chars = new char[length << 1];
+        for (int i = 0; i < length; i++) {
+            int b = src[offset + i] & 0xff;
+            chars[i << 1] = DIGITS[b >>> 4];
+            chars[(i << 1) + 1] = DIGITS[b & 0x0f];
+        }
+        return new String(chars);
+    }
+
     /**
      * 对16进制编码的字符串进行解码。
      *
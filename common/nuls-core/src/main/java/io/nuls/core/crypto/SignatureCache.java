@@ -0,0 +1,102 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2018 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.core.crypto;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.nuls.core.model.ByteArrayWrapper;
+import org.bouncycastle.crypto.params.ECPublicKeyParameters;
+
+import java.security.MessageDigest;
+
+/**
+ * 验签缓存，进程内共享
+ * 1. 已解压的公钥点，复用点上的预计算表
+ * 2. 已验证通过的签名，同一笔交易在网络接收、打包、跨链验证时只做一次椭圆曲线运算
+ * <p>
+ * In-process caches for signature verification: decoded public key points and signatures that already verified
+ */
+public class SignatureCache {
+
+    public static final int DEFAULT_PUBLIC_KEY_CACHE_SIZE = 10000;
+
+    public static final int DEFAULT_VERIFIED_CACHE_SIZE = 50000;
+
+    private static volatile Cache<ByteArrayWrapper, ECPublicKeyParameters> publicKeys = build(DEFAULT_PUBLIC_KEY_CACHE_SIZE);
+
+    private static volatile Cache<ByteArrayWrapper, Boolean> verified = build(DEFAULT_VERIFIED_CACHE_SIZE);
+
+    private static <V> Cache<ByteArrayWrapper, V> build(int size) {
+        return CacheBuilder.newBuilder().maximumSize(size).build();
+    }
+
+    /**
+     * 按模块配置调整缓存大小，0表示不缓存；会清空已有缓存
+     * Resize both caches from module config, 0 disables a cache; existing entries are dropped
+     */
+    public static void init(int publicKeyCacheSize, int verifiedCacheSize) {
+        publicKeys = build(Math.max(publicKeyCacheSize, 0));
+        verified = build(Math.max(verifiedCacheSize, 0));
+    }
+
+    static ECPublicKeyParameters getPublicKey(byte[] pub) {
+        ByteArrayWrapper key = new ByteArrayWrapper(pub);
+        ECPublicKeyParameters params = publicKeys.getIfPresent(key);
+        if (params == null) {
+            params = new ECPublicKeyParameters(ECKey.CURVE.getCurve().decodePoint(pub), ECKey.CURVE);
+            publicKeys.put(new ByteArrayWrapper(pub.clone()), params);
+        }
+        return params;
+    }
+
+    static ByteArrayWrapper verifiedKey(byte[] data, byte[] signature, byte[] pub) {
+        MessageDigest digest = Sha256Hash.newDigest();
+        update(digest, data);
+        update(digest, signature);
+        update(digest, pub);
+        return new ByteArrayWrapper(digest.digest());
+    }
+
+    static boolean isVerified(ByteArrayWrapper key) {
+        return verified.getIfPresent(key) != null;
+    }
+
+    static void putVerified(ByteArrayWrapper key) {
+        verified.put(key, Boolean.TRUE);
+    }
+
+    /**
+     * 带长度前缀，避免不同的(data, signature, pub)拼接后相同
+     */
+    private static void update(MessageDigest digest, byte[] bytes) {
+        int length = bytes.length;
+        digest.update((byte) (length >>> 24));
+        digest.update((byte) (length >>> 16));
+        digest.update((byte) (length >>> 8));
+        digest.update((byte) length);
+        digest.update(bytes);
+    }
+
+}
@@ -0,0 +1,56 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2018 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.core.crypto;
+
+/**
+ * 一条待验证的签名：摘要、DER编码的签名、公钥
+ * One signature to verify: digest, DER encoded signature and public key
+ */
+public class SignatureItem {
+
+    private final byte[] digest;
+
+    private final byte[] signature;
+
+    private final byte[] publicKey;
+
+    public SignatureItem(byte[] digest, byte[] signature, byte[] publicKey) {
+        this.digest = digest;
+        this.signature = signature;
+        this.publicKey = publicKey;
+    }
+
+    public byte[] getDigest() {
+        return digest;
+    }
+
+    public byte[] getSignature() {
+        return signature;
+    }
+
+    public byte[] getPublicKey() {
+        return publicKey;
+    }
+}
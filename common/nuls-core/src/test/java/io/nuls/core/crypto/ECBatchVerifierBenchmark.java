@@ -0,0 +1,67 @@
+package io.nuls.core.crypto;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 批量验签基准测试
+ * Batch signature verification benchmark
+ * <p>
+ * 对比逐条调用ECKey.verify与ECBatchVerifier分段并行验证；关闭验签结果缓存，只比较椭圆曲线运算
+ * <p>
+ * 运行/Run: main方法，或 java -cp target/test-classes:... org.openjdk.jmh.Main ECBatchVerifierBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ECBatchVerifierBenchmark {
+
+    @Param({"1000"})
+    public int signatureCount;
+
+    @Param({"100"})
+    public int keyCount;
+
+    private List<SignatureItem> items;
+
+    @Setup
+    public void setup() {
+        SignatureCache.init(SignatureCache.DEFAULT_PUBLIC_KEY_CACHE_SIZE, 0);
+        List<ECKey> keys = new ArrayList<>(keyCount);
+        for (int i = 0; i < keyCount; i++) {
+            keys.add(new ECKey());
+        }
+        items = new ArrayList<>(signatureCount);
+        for (int i = 0; i < signatureCount; i++) {
+            ECKey ecKey = keys.get(i % keyCount);
+            byte[] hash = Sha256Hash.hash(("tx" + i).getBytes());
+            items.add(new SignatureItem(hash, ecKey.sign(hash), ecKey.getPubKey()));
+        }
+    }
+
+    @Benchmark
+    public boolean sequential() {
+        boolean result = true;
+        for (SignatureItem item : items) {
+            result &= ECKey.verify(item.getDigest(), item.getSignature(), item.getPublicKey());
+        }
+        return result;
+    }
+
+    @Benchmark
+    public boolean batch() {
+        return ECBatchVerifier.verifyAll(items);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(ECBatchVerifierBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,40 @@
+package io.nuls.core.crypto;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ECBatchVerifierTest {
+
+    private static List<SignatureItem> items(int count) {
+        List<SignatureItem> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ECKey ecKey = new ECKey();
+            byte[] hash = Sha256Hash.hash(("tx" + i).getBytes());
+            items.add(new SignatureItem(hash, ecKey.sign(hash), ecKey.getPubKey()));
+        }
+        return items;
+    }
+
+    @Test
+    public void verifyAll() {
+        SignatureCache.init(0, 0);
+        List<SignatureItem> items = items(ECBatchVerifier.MIN_CHUNK_SIZE * 5);
+        Assert.assertTrue(ECBatchVerifier.verifyAll(items));
+        Assert.assertTrue(ECBatchVerifier.verifyAll(new ArrayList<>()));
+
+        SignatureItem last = items.get(items.size() - 1);
+        items.set(items.size() - 1, new SignatureItem(Sha256Hash.hash("other".getBytes()), last.getSignature(), last.getPublicKey()));
+        Assert.assertFalse(ECBatchVerifier.verifyAll(items));
+        Assert.assertFalse(ECBatchVerifier.verifyAll(items.subList(items.size() - 1, items.size())));
+    }
+
+    @Test
+    public void unparseableIsInvalid() {
+        SignatureItem item = items(1).get(0);
+        Assert.assertFalse(ECBatchVerifier.verify(new SignatureItem(item.getDigest(), new byte[]{1, 2, 3}, item.getPublicKey())));
+        Assert.assertFalse(ECBatchVerifier.verify(new SignatureItem(item.getDigest(), item.getSignature(), new byte[]{2, 1})));
+    }
+}
@@ -0,0 +1,34 @@
+package io.nuls.core.crypto;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SignatureCacheTest {
+
+    @Test
+    public void cachedVerify() {
+        SignatureCache.init(16, 16);
+        ECKey ecKey = new ECKey();
+        byte[] hash = Sha256Hash.hash("tx".getBytes());
+        byte[] signature = ecKey.sign(hash);
+        byte[] pub = ecKey.getPubKey();
+
+        Assert.assertTrue(ECKey.verify(hash, signature, pub));
+        Assert.assertTrue(SignatureCache.isVerified(SignatureCache.verifiedKey(hash, signature, pub)));
+        Assert.assertTrue(ECKey.verify(hash, signature, pub));
+
+        byte[] other = Sha256Hash.hash("other".getBytes());
+        Assert.assertFalse(ECKey.verify(other, signature, pub));
+        Assert.assertFalse(SignatureCache.isVerified(SignatureCache.verifiedKey(other, signature, pub)));
+        Assert.assertFalse(ECKey.verify(other, signature, pub));
+    }
+
+    @Test
+    public void keyIncludesLengths() {
+        byte[] a = {1, 2};
+        byte[] b = {3};
+        Assert.assertNotEquals(SignatureCache.verifiedKey(a, b, new byte[0]),
+                SignatureCache.verifiedKey(new byte[]{1}, new byte[]{2, 3}, new byte[0]));
+    }
+
+}
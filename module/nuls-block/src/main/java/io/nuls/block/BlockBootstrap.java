@@ -97,7 +97,9 @@ public class BlockBootstrap extends RpcModule {
      */
     private void initDB() throws Exception {
         //读取配置文件,数据存储根目录,初始化打开该目录下所有表连接并放入缓存
-        RocksDBService.init(blockConfig.getDataFolder());
+        RocksDBService.setTableProfiles(blockConfig.getDbTableProfiles());
+        RocksDBService.setStatisticsEnabled(blockConfig.isDbStatistics());
+        RocksDBService.init(blockConfig.getDataFolder(), blockConfig.isDbColumnFamilyMode(), blockConfig.getDbBlockCacheSize(), blockConfig.getDbWriteBufferSize());
         RocksDBService.createTable(CHAIN_LATEST_HEIGHT);
         RocksDBService.createTable(CHAIN_PARAMETERS);
         RocksDBService.createTable(PROTOCOL_CONFIG);
@@ -0,0 +1,103 @@
+/*
+ * MIT License
+ * Copyright (c) 2017-2019 nuls.io
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.nuls.block.cache;
+
+import io.nuls.base.data.NulsHash;
+import io.nuls.base.data.Transaction;
+import io.nuls.core.model.CollectionUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static io.nuls.block.BlockBootstrap.blockConfig;
+
+/**
+ * 本地未确认交易索引
+ * 交易模块验证通过新交易后推送过来,收到{@link io.nuls.base.data.SmallBlock}时先从这里组装区块,
+ * 只有索引中没有的交易才需要再向交易模块查询或向源节点请求
+ *
+ * @version 1.0
+ */
+public class UnconfirmedTxCacher {
+
+    private static Map<Integer, Map<NulsHash, Transaction>> txCacheMap = new ConcurrentHashMap<>();
+
+    /**
+     * 缓存交易,存满后自动淘汰最早放入的交易
+     *
+     * @param chainId 链Id/chain id
+     * @param txList  新交易
+     */
+    public static void cacheTxs(int chainId, List<Transaction> txList) {
+        Map<NulsHash, Transaction> map = txCacheMap.get(chainId);
+        if (map == null) {
+            return;
+        }
+        for (Transaction tx : txList) {
+            map.put(tx.getHash(), tx);
+        }
+    }
+
+    /**
+     * 根据hash获取缓存的交易
+     *
+     * @param chainId 链Id/chain id
+     * @param hash    交易hash
+     * @return 不存在时返回null
+     */
+    public static Transaction getTx(int chainId, NulsHash hash) {
+        Map<NulsHash, Transaction> map = txCacheMap.get(chainId);
+        return map == null ? null : map.get(hash);
+    }
+
+    /**
+     * 区块保存后移除其中的交易
+     *
+     * @param chainId    链Id/chain id
+     * @param txHashList 交易hash
+     */
+    public static void remove(int chainId, List<NulsHash> txHashList) {
+        Map<NulsHash, Transaction> map = txCacheMap.get(chainId);
+        if (map == null || map.isEmpty()) {
+            return;
+        }
+        for (NulsHash hash : txHashList) {
+            map.remove(hash);
+        }
+    }
+
+    /**
+     * 缓存初始化
+     *
+     * @param chainId 链Id/chain id
+     */
+    public static void init(int chainId) {
+        int config = blockConfig.getUnconfirmedTxCache();
+        if (config <= 0) {
+            txCacheMap.remove(chainId);
+            return;
+        }
+        Map<NulsHash, Transaction> map = CollectionUtils.getSynSizedMap(config);
+        txCacheMap.put(chainId, map);
+    }
+
+}
@@ -51,6 +51,7 @@ public interface BlockErrorCode extends CommonCodeConstanst {
     ErrorCode FORK_BLOCK = ErrorCode.init(ModuleE.BL.getPrefix() + "_0015");
     ErrorCode IRRELEVANT_BLOCK = ErrorCode.init(ModuleE.BL.getPrefix() + "_0016");
     ErrorCode BLOCK_VERIFY_ERROR = ErrorCode.init(ModuleE.BL.getPrefix() + "_0017");
+    ErrorCode PU_ROLLBACK_ERROR = ErrorCode.init(ModuleE.BL.getPrefix() + "_0018");
 
 
 }
\ No newline at end of file
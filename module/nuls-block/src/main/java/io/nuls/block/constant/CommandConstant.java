@@ -128,6 +128,10 @@ public interface CommandConstant {
      * 接收本地节点新打包的区块
      */
     String RECEIVE_PACKING_BLOCK = "receivePackingBlock";
+    /**
+     * 接收交易模块验证通过的新交易,放入本地未确认交易索引
+     */
+    String RECEIVE_UNCONFIRMED_TXS = "receiveUnconfirmedTxs";
     /**
      * 根据区块高度区间
      */
@@ -136,4 +140,12 @@ public interface CommandConstant {
      * 提供给协议升级模块的批量接口
      */
     String GET_BLOCK_HEADERS_FOR_PROTOCOL = "getBlockHeadersForProtocol";
+    /**
+     * 查询数据库统计信息
+     */
+    String GET_DB_STATISTICS = "getDBStatistics";
+    /**
+     * 查询最近一次区块同步各节点的下载统计
+     */
+    String GET_DOWNLOAD_STATISTICS = "getDownloadStatistics";
 }
@@ -24,6 +24,7 @@ import io.nuls.base.RPCUtil;
 import io.nuls.base.data.*;
 import io.nuls.base.protocol.MessageProcessor;
 import io.nuls.block.cache.SmallBlockCacher;
+import io.nuls.block.cache.UnconfirmedTxCacher;
 import io.nuls.block.constant.BlockForwardEnum;
 import io.nuls.block.constant.StatusEnum;
 import io.nuls.block.manager.ContextManager;
@@ -148,8 +149,19 @@ public class SmallBlockHandler implements MessageProcessor {
             List<NulsHash> missTxHashList = (List<NulsHash>) txHashList.clone();
             //移除系统交易hash后请求交易管理模块,批量获取区块中交易
             missTxHashList = ListUtils.removeAll(missTxHashList, systemTxHashList);
+            //先从本地未确认交易索引组装,剩余的再请求交易管理模块
+            List<NulsHash> uncachedTxHashList = new ArrayList<>(missTxHashList.size());
+            for (NulsHash hash : missTxHashList) {
+                Transaction tx = UnconfirmedTxCacher.getTx(chainId, hash);
+                if (tx == null) {
+                    uncachedTxHashList.add(hash);
+                } else {
+                    txMap.put(hash, tx);
+                }
+            }
+            missTxHashList = uncachedTxHashList;
 
-            List<Transaction> existTransactions = TransactionUtil.getTransactions(chainId, missTxHashList, false);
+            List<Transaction> existTransactions = missTxHashList.isEmpty() ? null : TransactionUtil.getTransactions(chainId, missTxHashList, false);
             if (existTransactions != null) {
                 //把普通交易放入txMap
                 List<NulsHash> existTransactionHashs = new ArrayList<>();
@@ -70,6 +70,46 @@ public class BlockConfig extends ChainParameters implements ModuleConfig {
      */
     private int testAutoRollbackAmount;
 
+    /**
+     * 数据表调优配置,格式为"表名前缀:配置名",多个以逗号分隔
+     */
+    private String dbTableProfiles;
+
+    /**
+     * 是否使用列族模式(所有表共用一个数据库实例),仅对新的数据目录生效
+     */
+    private boolean dbColumnFamilyMode;
+
+    /**
+     * 共享块缓存大小(字节)
+     */
+    private long dbBlockCacheSize;
+
+    /**
+     * 列族模式下所有表memtable总内存上限(字节)
+     */
+    private long dbWriteBufferSize;
+
+    /**
+     * 是否收集数据库统计信息,会增加每次读写的开销
+     */
+    private boolean dbStatistics;
+
+    /**
+     * 本地未确认交易索引容量,用于小区块重组时免去向交易模块查询
+     */
+    private int unconfirmedTxCache;
+
+    /**
+     * 最近区块头缓存容量,0表示不缓存
+     */
+    private int headerCacheSize;
+
+    /**
+     * 区块同步时单次批量下载的目标耗时(毫秒),按节点测得的速度决定每次下载的区块数
+     */
+    private int downloadTargetTime;
+
     public int getNodesMonitorInterval() {
         return nodesMonitorInterval;
     }
@@ -158,6 +198,70 @@ public class BlockConfig extends ChainParameters implements ModuleConfig {
         this.testAutoRollbackAmount = testAutoRollbackAmount;
     }
 
+    public String getDbTableProfiles() {
+        return dbTableProfiles;
+    }
+
+    public void setDbTableProfiles(String dbTableProfiles) {
+        this.dbTableProfiles = dbTableProfiles;
+    }
+
+    public boolean isDbColumnFamilyMode() {
+        return dbColumnFamilyMode;
+    }
+
+    public void setDbColumnFamilyMode(boolean dbColumnFamilyMode) {
+        this.dbColumnFamilyMode = dbColumnFamilyMode;
+    }
+
+    public long getDbBlockCacheSize() {
+        return dbBlockCacheSize;
+    }
+
+    public void setDbBlockCacheSize(long dbBlockCacheSize) {
+        this.dbBlockCacheSize = dbBlockCacheSize;
+    }
+
+    public long getDbWriteBufferSize() {
+        return dbWriteBufferSize;
+    }
+
+    public void setDbWriteBufferSize(long dbWriteBufferSize) {
+        this.dbWriteBufferSize = dbWriteBufferSize;
+    }
+
+    public boolean isDbStatistics() {
+        return dbStatistics;
+    }
+
+    public void setDbStatistics(boolean dbStatistics) {
+        this.dbStatistics = dbStatistics;
+    }
+
+    public int getUnconfirmedTxCache() {
+        return unconfirmedTxCache;
+    }
+
+    public void setUnconfirmedTxCache(int unconfirmedTxCache) {
+        this.unconfirmedTxCache = unconfirmedTxCache;
+    }
+
+    public int getHeaderCacheSize() {
+        return headerCacheSize;
+    }
+
+    public void setHeaderCacheSize(int headerCacheSize) {
+        this.headerCacheSize = headerCacheSize;
+    }
+
+    public int getDownloadTargetTime() {
+        return downloadTargetTime;
+    }
+
+    public void setDownloadTargetTime(int downloadTargetTime) {
+        this.downloadTargetTime = downloadTargetTime;
+    }
+
     public String getDataFolder() {
         return dataPath + File.separator + ModuleE.BL.name;
     }
@@ -26,6 +26,7 @@ import io.nuls.base.data.Block;
 import io.nuls.base.data.NulsHash;
 import io.nuls.block.cache.BlockCacher;
 import io.nuls.block.cache.SmallBlockCacher;
+import io.nuls.block.cache.UnconfirmedTxCacher;
 import io.nuls.block.constant.StatusEnum;
 import io.nuls.block.manager.BlockChainManager;
 import io.nuls.block.thread.monitor.TxGroupRequestor;
@@ -116,6 +117,19 @@ public class ChainContext {
      */
     private Map<NulsHash, Long> cachedHashHeightMap;
 
+    /**
+     * 最近一次区块同步使用的节点,保留各节点的下载统计
+     */
+    private List<Node> downloadNodes = Collections.emptyList();
+
+    public List<Node> getDownloadNodes() {
+        return downloadNodes;
+    }
+
+    public void setDownloadNodes(List<Node> downloadNodes) {
+        this.downloadNodes = downloadNodes;
+    }
+
     public Map<NulsHash, Long> getCachedHashHeightMap() {
         return cachedHashHeightMap;
     }
@@ -249,6 +263,7 @@ public class ChainContext {
         lock = new StampedLock();
         //各类缓存初始化
         SmallBlockCacher.init(chainId);
+        UnconfirmedTxCacher.init(chainId);
         BlockCacher.init(chainId);
         BlockChainManager.init(chainId);
         TxGroupRequestor.init(chainId);
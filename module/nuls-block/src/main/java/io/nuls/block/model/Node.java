@@ -54,6 +54,36 @@ public class Node {
      */
     private long duration;
 
+    /**
+     * 请求发出到收到第一个区块的耗时(毫秒),指数移动平均,0表示还没有样本
+     */
+    private long rtt;
+
+    /**
+     * 下载速度(区块数/秒),指数移动平均,0表示还没有样本
+     */
+    private double blockSpeed;
+
+    /**
+     * 下载速度(字节/秒),指数移动平均
+     */
+    private double byteSpeed;
+
+    /**
+     * 累计下载区块数
+     */
+    private long downloadedBlocks;
+
+    /**
+     * 累计下载字节数
+     */
+    private long downloadedBytes;
+
+    /**
+     * 累计下载失败(包括停滞)次数
+     */
+    private int failures;
+
     public String getId() {
         return id;
     }
@@ -97,7 +127,7 @@ public class Node {
     /**
      * 根据下载是否成功、下载耗费时间调整信用值
      */
-    public void adjustCredit(boolean success, long duration) {
+    public synchronized void adjustCredit(boolean success, long duration) {
         int oldCredit = credit;
         if (success) {
             this.duration = duration;
@@ -112,6 +142,94 @@ public class Node {
         }
     }
 
+    /**
+     * 记录一次成功下载的测量值
+     *
+     * @param blocks   区块数
+     * @param bytes    字节数
+     * @param rtt      请求发出到收到第一个区块的耗时
+     * @param duration 总耗时
+     */
+    public synchronized void recordDownload(int blocks, long bytes, long rtt, long duration) {
+        long elapsed = Math.max(1, duration);
+        double newBlockSpeed = blocks * 1000D / elapsed;
+        double newByteSpeed = bytes * 1000D / elapsed;
+        if (blockSpeed == 0) {
+            this.blockSpeed = newBlockSpeed;
+            this.byteSpeed = newByteSpeed;
+            this.rtt = rtt;
+        } else {
+            //新样本占四分之一权重
+            this.blockSpeed = (blockSpeed * 3 + newBlockSpeed) / 4;
+            this.byteSpeed = (byteSpeed * 3 + newByteSpeed) / 4;
+            this.rtt = (this.rtt * 3 + rtt) / 4;
+        }
+        this.downloadedBlocks += blocks;
+        this.downloadedBytes += bytes;
+    }
+
+    public synchronized void recordFailure() {
+        failures++;
+    }
+
+    /**
+     * 根据测量到的下载速度计算本次分配的区块数,使一次下载耗时接近目标时间,再按信用值缩放,上限为配置值的4倍
+     * 还没有样本时按配置值分配
+     *
+     * @param maxDowncount 配置的单次下载区块数
+     * @param targetTime   单次下载目标耗时(毫秒)
+     * @return
+     */
+    public synchronized int getDownloadWindow(int maxDowncount, int targetTime) {
+        long window = maxDowncount;
+        if (blockSpeed > 0) {
+            long transferTime = Math.max(targetTime - rtt, targetTime / 2);
+            window = (long) (blockSpeed * transferTime / 1000);
+        }
+        window = Math.min(maxDowncount * 4L, window * credit / 100);
+        return (int) Math.max(1, window);
+    }
+
+    /**
+     * 多久没有收到新区块就认为节点停滞,按往返时间与单个区块耗时估算,限定在[floor, ceiling]之间
+     * 还没有样本时返回ceiling
+     *
+     * @param floor   下限
+     * @param ceiling 上限
+     * @return
+     */
+    public synchronized long getStallTimeout(long floor, long ceiling) {
+        if (blockSpeed == 0) {
+            return ceiling;
+        }
+        long expected = rtt + (long) (1000 / blockSpeed);
+        return Math.max(floor, Math.min(ceiling, expected * 4));
+    }
+
+    public synchronized long getRtt() {
+        return rtt;
+    }
+
+    public synchronized double getBlockSpeed() {
+        return blockSpeed;
+    }
+
+    public synchronized double getByteSpeed() {
+        return byteSpeed;
+    }
+
+    public synchronized long getDownloadedBlocks() {
+        return downloadedBlocks;
+    }
+
+    public synchronized long getDownloadedBytes() {
+        return downloadedBytes;
+    }
+
+    public synchronized int getFailures() {
+        return failures;
+    }
+
     @Override
     public String toString() {
         return "Node{" +
@@ -120,6 +238,8 @@ public class Node {
                 ", hash=" + hash +
                 ", credit=" + credit +
                 ", duration=" + duration +
+                ", rtt=" + rtt +
+                ", blockSpeed=" + blockSpeed +
                 '}';
     }
 }
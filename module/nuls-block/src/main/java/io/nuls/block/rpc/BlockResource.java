@@ -24,15 +24,19 @@ import io.nuls.base.RPCUtil;
 import io.nuls.base.basic.NulsByteBuffer;
 import io.nuls.base.data.Block;
 import io.nuls.base.data.BlockHeader;
+import io.nuls.base.data.Transaction;
 import io.nuls.base.data.NulsHash;
 import io.nuls.base.data.po.BlockHeaderPo;
+import io.nuls.block.cache.UnconfirmedTxCacher;
 import io.nuls.block.constant.BlockErrorCode;
 import io.nuls.block.manager.ContextManager;
 import io.nuls.block.model.ChainContext;
+import io.nuls.block.model.Node;
 import io.nuls.block.service.BlockService;
 import io.nuls.core.core.annotation.Autowired;
 import io.nuls.core.core.annotation.Component;
 import io.nuls.core.log.logback.NulsLogger;
+import io.nuls.core.rockdb.service.RocksDBService;
 import io.nuls.core.rpc.cmd.BaseCmd;
 import io.nuls.core.rpc.info.Constants;
 import io.nuls.core.rpc.model.*;
@@ -564,4 +568,81 @@ public class BlockResource extends BaseCmd {
             return failed(e.getMessage());
         }
     }
+
+    /**
+     * 接收交易模块推送的已验证新交易,放入本地未确认交易索引,收到小区块时优先从索引组装
+     *
+     * @param map
+     * @return
+     */
+    @CmdAnnotation(cmd = RECEIVE_UNCONFIRMED_TXS, version = 1.0, description = "receive the verified unconfirmed transactions")
+    @Parameters({
+            @Parameter(parameterName = "chainId", parameterType = "int", parameterDes = "链ID"),
+            @Parameter(parameterName = "txList", parameterType = "List<String>", parameterDes = "交易序列化后的HEX字符串集合")
+    })
+    @ResponseData(name = "返回值", description = "无返回值")
+    public Response receiveUnconfirmedTxs(Map map) {
+        int chainId = Integer.parseInt(map.get(Constants.CHAIN_ID).toString());
+        ChainContext context = ContextManager.getContext(chainId);
+        if (context == null) {
+            return success();
+        }
+        try {
+            List<String> txHexList = (List<String>) map.get("txList");
+            List<Transaction> txList = new ArrayList<>(txHexList.size());
+            for (String txHex : txHexList) {
+                txList.add(RPCUtil.getInstanceRpcStr(txHex, Transaction.class));
+            }
+            UnconfirmedTxCacher.cacheTxs(chainId, txList);
+            return success();
+        } catch (Exception e) {
+            context.getLogger().error("", e);
+            return failed(e.getMessage());
+        }
+    }
+
+    /**
+     * 查询数据库统计信息,包括块缓存命中率、布隆过滤器效果、写入停顿时间等
+     *
+     * @param map
+     * @return
+     */
+    @CmdAnnotation(cmd = GET_DB_STATISTICS, version = 1.0, description = "rocksdb statistics such as block cache hit rate and stall counters")
+    @ResponseData(name = "返回值", description = "返回一个Map对象,key为统计项名称", responseType = @TypeDescriptor(value = Map.class))
+    public Response getDBStatistics(Map map) {
+        return success(RocksDBService.getStatistics());
+    }
+
+    /**
+     * 查询最近一次区块同步各节点的下载统计,包括信用值、往返时间、下载速度、失败次数
+     *
+     * @param map
+     * @return
+     */
+    @CmdAnnotation(cmd = GET_DOWNLOAD_STATISTICS, version = 1.0, description = "per-peer statistics of the latest block synchronization")
+    @Parameters({
+            @Parameter(parameterName = "chainId", parameterType = "int", parameterDes = "链ID")
+    })
+    @ResponseData(name = "返回值", description = "返回一个List对象,每个元素是一个节点的统计", responseType = @TypeDescriptor(value = List.class))
+    public Response getDownloadStatistics(Map map) {
+        int chainId = Integer.parseInt(map.get(Constants.CHAIN_ID).toString());
+        ChainContext context = ContextManager.getContext(chainId);
+        if (context == null) {
+            return success(null);
+        }
+        List<Map<String, Object>> list = new ArrayList<>();
+        for (Node node : context.getDownloadNodes()) {
+            Map<String, Object> statistics = new HashMap<>(8);
+            statistics.put("nodeId", node.getId());
+            statistics.put("credit", node.getCredit());
+            statistics.put("rtt", node.getRtt());
+            statistics.put("blockSpeed", node.getBlockSpeed());
+            statistics.put("byteSpeed", node.getByteSpeed());
+            statistics.put("downloadedBlocks", node.getDownloadedBlocks());
+            statistics.put("downloadedBytes", node.getDownloadedBytes());
+            statistics.put("failures", node.getFailures());
+            list.add(statistics);
+        }
+        return success(list);
+    }
 }
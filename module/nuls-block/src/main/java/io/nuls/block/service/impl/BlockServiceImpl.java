@@ -22,6 +22,7 @@ package io.nuls.block.service.impl;
 
 import io.nuls.base.data.*;
 import io.nuls.base.data.po.BlockHeaderPo;
+import io.nuls.block.cache.UnconfirmedTxCacher;
 import io.nuls.block.constant.BlockErrorCode;
 import io.nuls.block.manager.BlockChainManager;
 import io.nuls.block.manager.ContextManager;
@@ -50,10 +51,15 @@ import io.nuls.core.rockdb.service.RocksDBService;
 import io.nuls.core.rpc.model.message.MessageUtil;
 import io.nuls.core.rpc.model.message.Response;
 import io.nuls.core.rpc.netty.channel.manager.ConnectManager;
+import io.nuls.core.thread.ThreadUtils;
+import io.nuls.core.thread.commom.NulsThreadFactory;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.locks.StampedLock;
 
 import static io.nuls.base.data.BlockHeader.BLOCK_HEADER_COMPARATOR;
@@ -74,6 +80,14 @@ public class BlockServiceImpl implements BlockService {
     private BlockStorageService blockStorageService;
     @Autowired
     private ChainStorageService chainStorageService;
+    /**
+     * 区块保存第5步中互不依赖的模块通知并行执行
+     */
+    private final ThreadPoolExecutor noticeExecutor = ThreadUtils.createThreadPool(2, 0, new NulsThreadFactory("block-notice"));
+    /**
+     * 跨链模块的高度通知不影响区块保存结果,单线程异步发送以保持高度顺序
+     */
+    private final ThreadPoolExecutor crossChainNoticeExecutor = ThreadUtils.createThreadPool(1, 0, new NulsThreadFactory("block-cc-notice"));
 
     @Override
     public Block getGenesisBlock(int chainId) {
@@ -119,15 +133,10 @@ public class BlockServiceImpl implements BlockService {
         }
         NulsLogger commonLog = ContextManager.getContext(chainId).getLogger();
         try {
-            int size = (int) (endHeight - startHeight + 1);
-            List<BlockHeader> list = new ArrayList<>(size);
-            for (long i = startHeight; i <= endHeight; i++) {
-                BlockHeaderPo blockHeaderPo = blockStorageService.query(chainId, i);
-                BlockHeader blockHeader = BlockUtil.fromBlockHeaderPo(blockHeaderPo);
-                if (blockHeader == null) {
-                    return Collections.emptyList();
-                }
-                list.add(blockHeader);
+            List<BlockHeaderPo> blockHeaderPos = blockStorageService.query(chainId, startHeight, endHeight);
+            List<BlockHeader> list = new ArrayList<>(blockHeaderPos.size());
+            for (BlockHeaderPo blockHeaderPo : blockHeaderPos) {
+                list.add(BlockUtil.fromBlockHeaderPo(blockHeaderPo));
             }
             return list;
         } catch (Exception e) {
@@ -331,9 +340,21 @@ public class BlockServiceImpl implements BlockService {
                 return false;
             }
 
-            //5.通知协议升级模块,完全保存,更新标记
+            //5.通知协议升级模块,完全保存,更新标记,三者互不依赖,并行执行,失败时只补偿已成功的步骤
+            long startTime5 = System.nanoTime();
             blockHeaderPo.setComplete(true);
-            if (!ProtocolUtil.saveNotice(chainId, header) || !blockStorageService.save(chainId, blockHeaderPo) || !TransactionUtil.heightNotice(chainId, height)) {
+            Future<Boolean> puFuture = noticeExecutor.submit(() -> ProtocolUtil.saveNotice(chainId, header));
+            Future<Boolean> txFuture = noticeExecutor.submit(() -> TransactionUtil.heightNotice(chainId, height));
+            boolean completeSave = blockStorageService.save(chainId, blockHeaderPo);
+            boolean puNotice = getNoticeResult(puFuture, commonLog);
+            boolean txHeightNotice = getNoticeResult(txFuture, commonLog);
+            if (!puNotice || !completeSave || !txHeightNotice) {
+                if (puNotice && !ProtocolUtil.rollbackNotice(chainId, header)) {
+                    throw new NulsRuntimeException(BlockErrorCode.PU_ROLLBACK_ERROR);
+                }
+                if (txHeightNotice && !TransactionUtil.heightNotice(chainId, height - 1)) {
+                    commonLog.error("TransactionUtil heightNotice rollback fail!chainId-" + chainId + ",height-" + (height - 1));
+                }
                 if (!ConsensusUtil.rollbackNotice(chainId, height)) {
                     throw new NulsRuntimeException(BlockErrorCode.CS_ROLLBACK_ERROR);
                 }
@@ -346,10 +367,12 @@ public class BlockServiceImpl implements BlockService {
                 if (!blockStorageService.setLatestHeight(chainId, height - 1)) {
                     throw new NulsRuntimeException(BlockErrorCode.UPDATE_HEIGHT_ERROR);
                 }
-                commonLog.error("ProtocolUtil saveNotice fail!chainId-" + chainId + ",height-" + height);
+                commonLog.error("puNotice-" + puNotice + ", completeSave-" + completeSave + ", txHeightNotice-" + txHeightNotice + ", chainId-" + chainId + ", height-" + height);
                 return false;
             }
-            CrossChainUtil.heightNotice(chainId, height, header);
+            crossChainNoticeExecutor.execute(() -> CrossChainUtil.heightNotice(chainId, height, header));
+            long elapsedNanos5 = System.nanoTime() - startTime5;
+            commonLog.debug("3. notice time-" + elapsedNanos5);
 
             //6.如果不是第一次启动,则更新主链属性
             if (!localInit) {
@@ -362,6 +385,7 @@ public class BlockServiceImpl implements BlockService {
                     hashList.removeFirst();
                 }
                 hashList.addLast(hash);
+                UnconfirmedTxCacher.remove(chainId, block.getTxHashList());
             }
             Response response = MessageUtil.newSuccessResponse("");
             Map<String, Long> responseData = new HashMap<>(2);
@@ -381,6 +405,19 @@ public class BlockServiceImpl implements BlockService {
         }
     }
 
+    private boolean getNoticeResult(Future<Boolean> future, NulsLogger commonLog) {
+        try {
+            return Boolean.TRUE.equals(future.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            commonLog.error("", e);
+            return false;
+        } catch (ExecutionException e) {
+            commonLog.error("", e);
+            return false;
+        }
+    }
+
     @Override
     public boolean rollbackBlock(int chainId, long height, boolean needLock) {
         BlockHeaderPo blockHeaderPo = getBlockHeaderPo(chainId, height);
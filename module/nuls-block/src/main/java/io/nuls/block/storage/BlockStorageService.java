@@ -20,7 +20,6 @@
 
 package io.nuls.block.storage;
 
-import io.nuls.base.data.BlockHeader;
 import io.nuls.base.data.NulsHash;
 import io.nuls.base.data.po.BlockHeaderPo;
 
@@ -64,14 +63,14 @@ public interface BlockStorageService {
     BlockHeaderPo query(int chainId, NulsHash hash);
 
     /**
-     * 根据链ID和高度区间查询{@link BlockHeaderPo}列表
+     * 根据链ID和高度区间查询{@link BlockHeaderPo}列表,按高度升序,未缓存的部分批量读取
      *
      * @param chainId 链Id/chain id
      * @param startHeight
      * @param endHeight
-     * @return
+     * @return 区间内有缺失时返回空列表
      */
-    List<BlockHeader> query(int chainId, long startHeight, long endHeight);
+    List<BlockHeaderPo> query(int chainId, long startHeight, long endHeight);
 
     /**
      * 根据链ID和高度区间移除{@link BlockHeaderPo}
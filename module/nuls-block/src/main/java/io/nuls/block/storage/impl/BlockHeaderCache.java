@@ -0,0 +1,158 @@
+/*
+ * MIT License
+ * Copyright (c) 2017-2019 nuls.io
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.nuls.block.storage.impl;
+
+import io.nuls.base.data.NulsHash;
+import io.nuls.base.data.po.BlockHeaderPo;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 最近区块头缓存,保存高度到hash的索引与解析后的区块头,按最近最少使用淘汰
+ * 调用方会修改返回的区块头(如回滚时修改complete、txHashList),所以放入和取出时都复制一份
+ * 从数据库读取期间若有写入或删除,读到的数据可能已过期,此时丢弃不放入缓存
+ *
+ * @version 1.0
+ */
+class BlockHeaderCache {
+
+    private final int capacity;
+
+    private final LinkedHashMap<Long, NulsHash> heightIndex;
+
+    private final LinkedHashMap<NulsHash, BlockHeaderPo> headers;
+
+    /**
+     * 每次写入或删除时递增
+     */
+    private long writeSequence;
+
+    private long hits;
+
+    private long misses;
+
+    BlockHeaderCache(int capacity) {
+        this.capacity = capacity;
+        this.heightIndex = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, NulsHash> eldest) {
+                return size() > BlockHeaderCache.this.capacity;
+            }
+        };
+        this.headers = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<NulsHash, BlockHeaderPo> eldest) {
+                return size() > BlockHeaderCache.this.capacity;
+            }
+        };
+    }
+
+    synchronized NulsHash getHash(long height) {
+        return heightIndex.get(height);
+    }
+
+    synchronized BlockHeaderPo get(NulsHash hash) {
+        BlockHeaderPo po = headers.get(hash);
+        if (po == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return copy(po);
+    }
+
+    synchronized long getWriteSequence() {
+        return writeSequence;
+    }
+
+    /**
+     * 保存区块头时写入
+     */
+    synchronized void put(BlockHeaderPo po) {
+        writeSequence++;
+        heightIndex.put(po.getHeight(), po.getHash());
+        headers.put(po.getHash(), copy(po));
+    }
+
+    /**
+     * 删除区块头时移除
+     */
+    synchronized void remove(long height, NulsHash hash) {
+        writeSequence++;
+        heightIndex.remove(height);
+        if (hash != null) {
+            headers.remove(hash);
+        }
+    }
+
+    /**
+     * 从数据库读取后回填,读取期间有过写入则放弃
+     *
+     * @param po            读取到的区块头
+     * @param indexed       是否通过高度索引读取,是则同时回填高度索引
+     * @param sequence      开始读取数据库前的{@link #getWriteSequence()}
+     */
+    synchronized void fill(BlockHeaderPo po, boolean indexed, long sequence) {
+        if (sequence != writeSequence) {
+            return;
+        }
+        if (indexed) {
+            heightIndex.put(po.getHeight(), po.getHash());
+        }
+        headers.put(po.getHash(), copy(po));
+    }
+
+    synchronized void clear() {
+        writeSequence++;
+        heightIndex.clear();
+        headers.clear();
+    }
+
+    synchronized int size() {
+        return headers.size();
+    }
+
+    synchronized long getHits() {
+        return hits;
+    }
+
+    synchronized long getMisses() {
+        return misses;
+    }
+
+    private static BlockHeaderPo copy(BlockHeaderPo po) {
+        BlockHeaderPo copy = new BlockHeaderPo();
+        copy.setHash(po.getHash());
+        copy.setComplete(po.isComplete());
+        copy.setPreHash(po.getPreHash());
+        copy.setMerkleHash(po.getMerkleHash());
+        copy.setTime(po.getTime());
+        copy.setHeight(po.getHeight());
+        copy.setTxCount(po.getTxCount());
+        copy.setBlockSignature(po.getBlockSignature());
+        copy.setExtend(po.getExtend());
+        copy.setBlockSize(po.getBlockSize());
+        copy.setTxHashList(po.getTxHashList() == null ? null : new ArrayList<>(po.getTxHashList()));
+        return copy;
+    }
+}
@@ -21,21 +21,23 @@
 package io.nuls.block.storage.impl;
 
 import io.nuls.base.basic.NulsByteBuffer;
-import io.nuls.base.data.BlockHeader;
 import io.nuls.base.data.NulsHash;
 import io.nuls.base.data.po.BlockHeaderPo;
 import io.nuls.block.storage.BlockStorageService;
 import io.nuls.core.core.annotation.Component;
-import io.nuls.core.exception.NulsException;
 import io.nuls.core.model.ByteUtils;
 import io.nuls.core.parse.SerializeUtils;
+import io.nuls.core.rockdb.service.MultiBatchOperation;
 import io.nuls.core.rockdb.service.RocksDBService;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
-import static io.nuls.base.data.BlockHeader.BLOCK_HEADER_COMPARATOR;
+import static io.nuls.block.BlockBootstrap.blockConfig;
 import static io.nuls.block.constant.Constant.*;
 import static io.nuls.block.utils.LoggerUtil.COMMON_LOG;
 
@@ -49,14 +51,39 @@ import static io.nuls.block.utils.LoggerUtil.COMMON_LOG;
 @Component
 public class BlockStorageServiceImpl implements BlockStorageService {
 
+    /**
+     * 各链最近区块头缓存,轮次计算、分叉检查反复读取最近的区块头,命中时不再访问数据库
+     */
+    private final Map<Integer, BlockHeaderCache> headerCaches = new ConcurrentHashMap<>();
+
+    private BlockHeaderCache getHeaderCache(int chainId) {
+        int capacity = blockConfig == null ? 0 : blockConfig.getHeaderCacheSize();
+        if (capacity <= 0) {
+            return null;
+        }
+        return headerCaches.computeIfAbsent(chainId, k -> new BlockHeaderCache(capacity));
+    }
+
     @Override
     public boolean save(int chainId, BlockHeaderPo blockHeader) {
         byte[] height = SerializeUtils.uint64ToByteArray(blockHeader.getHeight());
         try {
             byte[] hash = blockHeader.getHash().getBytes();
-            boolean b1 = RocksDBService.put(BLOCK_HEADER_INDEX + chainId, height, hash);
-            boolean b2 = RocksDBService.put(BLOCK_HEADER + chainId, hash, blockHeader.serialize());
-            return b1 && b2;
+            //先写区块头再写高度索引，非列族模式下分别提交时索引不会指向不存在的区块头
+            MultiBatchOperation batch = RocksDBService.createMultiTableWriteBatch();
+            batch.put(BLOCK_HEADER + chainId, hash, blockHeader.serialize());
+            batch.put(BLOCK_HEADER_INDEX + chainId, height, hash);
+            BlockHeaderCache cache = getHeaderCache(chainId);
+            if (!batch.executeBatch()) {
+                if (cache != null) {
+                    cache.remove(blockHeader.getHeight(), blockHeader.getHash());
+                }
+                return false;
+            }
+            if (cache != null) {
+                cache.put(blockHeader);
+            }
+            return true;
         } catch (Exception e) {
             COMMON_LOG.error("", e);
             return false;
@@ -66,6 +93,18 @@ public class BlockStorageServiceImpl implements BlockStorageService {
     @Override
     public BlockHeaderPo query(int chainId, long height) {
         try {
+            BlockHeaderCache cache = getHeaderCache(chainId);
+            long sequence = 0;
+            if (cache != null) {
+                NulsHash cachedHash = cache.getHash(height);
+                if (cachedHash != null) {
+                    BlockHeaderPo cached = cache.get(cachedHash);
+                    if (cached != null) {
+                        return cached;
+                    }
+                }
+                sequence = cache.getWriteSequence();
+            }
             byte[] key = SerializeUtils.uint64ToByteArray(height);
             byte[] hash = RocksDBService.get(BLOCK_HEADER_INDEX + chainId, key);
             if (hash == null) {
@@ -77,6 +116,9 @@ public class BlockStorageServiceImpl implements BlockStorageService {
             }
             BlockHeaderPo blockHeader = new BlockHeaderPo();
             blockHeader.parse(new NulsByteBuffer(bytes));
+            if (cache != null) {
+                cache.fill(blockHeader, true, sequence);
+            }
             return blockHeader;
         } catch (Exception e) {
             COMMON_LOG.error("", e);
@@ -87,12 +129,24 @@ public class BlockStorageServiceImpl implements BlockStorageService {
     @Override
     public BlockHeaderPo query(int chainId, NulsHash hash) {
         try {
+            BlockHeaderCache cache = getHeaderCache(chainId);
+            long sequence = 0;
+            if (cache != null) {
+                BlockHeaderPo cached = cache.get(hash);
+                if (cached != null) {
+                    return cached;
+                }
+                sequence = cache.getWriteSequence();
+            }
             byte[] bytes = RocksDBService.get(BLOCK_HEADER + chainId, hash.getBytes());
             if (bytes == null) {
                 return null;
             }
             BlockHeaderPo blockHeader = new BlockHeaderPo();
             blockHeader.parse(new NulsByteBuffer(bytes));
+            if (cache != null) {
+                cache.fill(blockHeader, false, sequence);
+            }
             return blockHeader;
         } catch (Exception e) {
             COMMON_LOG.error("", e);
@@ -101,37 +155,72 @@ public class BlockStorageServiceImpl implements BlockStorageService {
     }
 
     @Override
-    public List<BlockHeader> query(int chainId, long startHeight, long endHeight) {
-        ArrayList<byte []> keys = new ArrayList<>();
-        for (long i = startHeight; i <= endHeight; i++) {
-            keys.add(SerializeUtils.uint64ToByteArray(i));
+    public List<BlockHeaderPo> query(int chainId, long startHeight, long endHeight) {
+        int size = (int) (endHeight - startHeight + 1);
+        BlockHeaderPo[] result = new BlockHeaderPo[size];
+        BlockHeaderCache cache = getHeaderCache(chainId);
+        long sequence = cache == null ? 0 : cache.getWriteSequence();
+        //先从缓存中取,剩余的高度批量查询索引和区块头,每张表只访问一次数据库
+        List<byte[]> heightKeys = new ArrayList<>();
+        List<Integer> missIndexes = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            long height = startHeight + i;
+            if (cache != null) {
+                NulsHash hash = cache.getHash(height);
+                if (hash != null) {
+                    result[i] = cache.get(hash);
+                }
+            }
+            if (result[i] == null) {
+                heightKeys.add(SerializeUtils.uint64ToByteArray(height));
+                missIndexes.add(i);
+            }
         }
-        List<byte[]> valueList = RocksDBService.multiGetValueList(BLOCK_HEADER + chainId, keys);
-        if (valueList == null) {
-            return Collections.emptyList();
+        if (heightKeys.isEmpty()) {
+            return Arrays.asList(result);
         }
-        List<BlockHeader> blockHeaders = new ArrayList<>();
-        for (byte[] bytes : valueList) {
-            BlockHeader header = new BlockHeader();
-            try {
-                header.parse(new NulsByteBuffer(bytes));
-            } catch (NulsException e) {
-                COMMON_LOG.error("ChainStorageServiceImpl-batch-query-fail", e);
+        try {
+            Map<byte[], byte[]> hashMap = RocksDBService.multiGet(BLOCK_HEADER_INDEX + chainId, heightKeys);
+            if (hashMap == null || hashMap.size() != heightKeys.size()) {
+                return Collections.emptyList();
+            }
+            List<byte[]> hashKeys = new ArrayList<>(heightKeys.size());
+            for (byte[] heightKey : heightKeys) {
+                hashKeys.add(hashMap.get(heightKey));
+            }
+            Map<byte[], byte[]> headerMap = RocksDBService.multiGet(BLOCK_HEADER + chainId, hashKeys);
+            if (headerMap == null || headerMap.size() != hashKeys.size()) {
                 return Collections.emptyList();
             }
-            blockHeaders.add(header);
+            for (int i = 0; i < hashKeys.size(); i++) {
+                BlockHeaderPo blockHeader = new BlockHeaderPo();
+                blockHeader.parse(new NulsByteBuffer(headerMap.get(hashKeys.get(i))));
+                result[missIndexes.get(i)] = blockHeader;
+                if (cache != null) {
+                    cache.fill(blockHeader, true, sequence);
+                }
+            }
+            return Arrays.asList(result);
+        } catch (Exception e) {
+            COMMON_LOG.error("BlockStorageServiceImpl-batch-query-fail", e);
+            return Collections.emptyList();
         }
-        blockHeaders.sort(BLOCK_HEADER_COMPARATOR);
-        return blockHeaders;
     }
 
     @Override
     public boolean remove(int chainId, long height) {
         try {
             byte[] hash = RocksDBService.get(BLOCK_HEADER_INDEX + chainId, SerializeUtils.uint64ToByteArray(height));
-            boolean b1 = RocksDBService.delete(BLOCK_HEADER_INDEX + chainId, SerializeUtils.uint64ToByteArray(height));
-            boolean b2 = RocksDBService.delete(BLOCK_HEADER + chainId, hash);
-            return b1 && b2;
+            MultiBatchOperation batch = RocksDBService.createMultiTableWriteBatch();
+            batch.delete(BLOCK_HEADER_INDEX + chainId, SerializeUtils.uint64ToByteArray(height));
+            batch.delete(BLOCK_HEADER + chainId, hash);
+            boolean result = batch.executeBatch();
+            //提交后再让缓存失效,提交前开始的读取不会再回填旧数据;删除失败时下次查询也会重新从数据库读取
+            BlockHeaderCache cache = getHeaderCache(chainId);
+            if (cache != null) {
+                cache.remove(height, hash == null ? null : new NulsHash(hash));
+            }
+            return result;
         } catch (Exception e) {
             COMMON_LOG.error("", e);
             return false;
@@ -141,6 +230,10 @@ public class BlockStorageServiceImpl implements BlockStorageService {
     @Override
     public boolean destroy(int chainId) {
         try {
+            BlockHeaderCache cache = headerCaches.remove(chainId);
+            if (cache != null) {
+                cache.clear();
+            }
             boolean b1 = RocksDBService.destroyTable(BLOCK_HEADER + chainId);
             boolean b2 = RocksDBService.destroyTable(BLOCK_HEADER_INDEX + chainId);
             return b1 && b2;
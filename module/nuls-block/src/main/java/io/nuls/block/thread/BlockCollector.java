@@ -30,12 +30,13 @@ import io.nuls.block.model.ChainContext;
 import io.nuls.block.model.Node;
 import io.nuls.core.log.logback.NulsLogger;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Future;
-import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static io.nuls.block.constant.Constant.BLOCK_COMPARATOR;
 
@@ -57,9 +58,9 @@ public class BlockCollector implements Runnable {
     private BlockingQueue<Future<BlockDownLoadResult>> futures;
     private int chainId;
     private NulsLogger commonLog;
-    private AtomicInteger cachedBlockSize;
+    private AtomicLong cachedBlockSize;
 
-    BlockCollector(int chainId, BlockingQueue<Future<BlockDownLoadResult>> futures, ThreadPoolExecutor executor, BlockDownloaderParams params, BlockingQueue<Block> queue, AtomicInteger cachedBlockSize) {
+    BlockCollector(int chainId, BlockingQueue<Future<BlockDownLoadResult>> futures, ThreadPoolExecutor executor, BlockDownloaderParams params, BlockingQueue<Block> queue, AtomicLong cachedBlockSize) {
         this.params = params;
         this.executor = executor;
         this.futures = futures;
@@ -82,23 +83,16 @@ public class BlockCollector implements Runnable {
                 int size = result.getSize();
                 Node node = result.getNode();
                 long endHeight = startHeight + size - 1;
-                PriorityBlockingQueue<Node> nodes = params.getNodes();
+                //释放分配任务时的预占,节点已由下载线程归还
+                cachedBlockSize.addAndGet(-result.getReservedSize());
                 if (result.isSuccess()) {
                     commonLog.info("get " + size + " blocks:" + startHeight + "->" + endHeight + " ,from:" + node.getId() + ", success");
-                    node.adjustCredit(true, result.getDuration());
-                    nodes.offer(node);
-                    List<Block> blockList = BlockCacher.getBlockList(chainId, result.getMessageHash());
-                    blockList.sort(BLOCK_COMPARATOR);
-                    int sum = blockList.stream().mapToInt(Block::size).sum();
-                    cachedBlockSize.addAndGet(sum);
-                    queue.addAll(blockList);
-                    BlockCacher.removeBatchBlockRequest(chainId, result.getMessageHash());
+                    collect(result);
                 } else {
-                    //归还下载失败的节点
-                    node.adjustCredit(false, result.getDuration());
-                    nodes.offer(node);
                     commonLog.info("get " + size + " blocks:" + startHeight + "->" + endHeight + " ,from:" + node.getId() + ", fail");
-                    retryDownload(startHeight, size, 0);
+                    if (!retryDownload(startHeight, size, node)) {
+                        break;
+                    }
                 }
                 startHeight += size;
             }
@@ -108,30 +102,57 @@ public class BlockCollector implements Runnable {
         }
     }
 
+    /**
+     * 下载到的区块排序后放入共享队列,并更新平均区块大小
+     *
+     * @param result
+     */
+    private void collect(BlockDownLoadResult result) {
+        List<Block> blockList = BlockCacher.getBlockList(chainId, result.getMessageHash());
+        blockList.sort(BLOCK_COMPARATOR);
+        int sum = blockList.stream().mapToInt(Block::size).sum();
+        cachedBlockSize.addAndGet(sum);
+        int average = params.getAverageBlockSize();
+        int newAverage = sum / blockList.size();
+        params.setAverageBlockSize(average == 0 ? newAverage : (average * 3 + newAverage) / 4);
+        queue.addAll(blockList);
+        BlockCacher.removeBatchBlockRequest(chainId, result.getMessageHash());
+    }
 
     /**
-     * 下载失败重试,直到成功为止
+     * 下载失败(包括停滞)后立即换节点重试,优先选择信用值高、速度快的节点,每轮所有节点都失败后等待waitInterval再重试,直到成功或同步终止
      *
      * @param startHeight
      * @param size
-     * @param index
-     * @return
+     * @param failedNode
+     * @return 同步终止时返回false
+     * @throws InterruptedException
      */
-    private void retryDownload(long startHeight, int size, int index) {
-        List<Node> nodeList = params.getList();
-        BlockDownLoadResult result = downloadBlockFromNode(startHeight, size, nodeList.get(index % nodeList.size()));
-        if (result.isSuccess()) {
-            Node node = result.getNode();
-            long endHeight = startHeight + size - 1;
-            commonLog.info("get " + size + " blocks:" + startHeight + "->" + endHeight + " ,from:" + node.getId() + ", success");
-            List<Block> blockList = BlockCacher.getBlockList(chainId, result.getMessageHash());
-            blockList.sort(BLOCK_COMPARATOR);
-            int sum = blockList.stream().mapToInt(Block::size).sum();
-            cachedBlockSize.addAndGet(sum);
-            queue.addAll(blockList);
-            return;
+    private boolean retryDownload(long startHeight, int size, Node failedNode) throws InterruptedException {
+        ChainContext context = ContextManager.getContext(chainId);
+        long waitInterval = context.getParameters().getWaitInterval();
+        List<Node> nodeList = new ArrayList<>(params.getList());
+        nodeList.sort(Comparator.comparingInt(Node::getCredit).thenComparingDouble(Node::getBlockSpeed).reversed());
+        if (nodeList.size() > 1) {
+            //先尝试其他节点,失败的节点排到最后
+            nodeList.remove(failedNode);
+            nodeList.add(failedNode);
+        }
+        int index = 0;
+        while (context.isDoSyn()) {
+            BlockDownLoadResult result = downloadBlockFromNode(startHeight, size, nodeList.get(index++ % nodeList.size()));
+            if (result.isSuccess()) {
+                Node node = result.getNode();
+                long endHeight = startHeight + size - 1;
+                commonLog.info("get " + size + " blocks:" + startHeight + "->" + endHeight + " ,from:" + node.getId() + ", success");
+                collect(result);
+                return true;
+            }
+            if (index % nodeList.size() == 0) {
+                Thread.sleep(waitInterval);
+            }
         }
-        retryDownload(startHeight, size, ++index);
+        return false;
     }
 
     private BlockDownLoadResult downloadBlockFromNode(long startHeight, int size, Node node) {
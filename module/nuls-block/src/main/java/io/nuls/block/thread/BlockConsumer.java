@@ -24,12 +24,17 @@ import io.nuls.base.data.Block;
 import io.nuls.block.manager.ContextManager;
 import io.nuls.block.model.ChainContext;
 import io.nuls.block.service.BlockService;
+import io.nuls.block.utils.BlockUtil;
 import io.nuls.core.core.ioc.SpringLiteContext;
 import io.nuls.core.log.logback.NulsLogger;
+import io.nuls.core.thread.commom.NulsThreadFactory;
 
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 消费共享队列中的区块
@@ -47,9 +52,9 @@ public class BlockConsumer implements Callable<Boolean> {
     private int chainId;
     private BlockingQueue<Block> queue;
     private BlockService blockService;
-    private AtomicInteger cachedBlockSize;
+    private AtomicLong cachedBlockSize;
 
-    BlockConsumer(int chainId, BlockingQueue<Block> queue, BlockDownloaderParams params, AtomicInteger cachedBlockSize) {
+    BlockConsumer(int chainId, BlockingQueue<Block> queue, BlockDownloaderParams params, AtomicLong cachedBlockSize) {
         this.params = params;
         this.chainId = chainId;
         this.queue = queue;
@@ -65,9 +70,15 @@ public class BlockConsumer implements Callable<Boolean> {
         NulsLogger commonLog = context.getLogger();
         Block block;
         commonLog.info("BlockConsumer start work");
+        //保存区块N的同时预处理区块N+1
+        ExecutorService prepareExecutor = Executors.newSingleThreadExecutor(new NulsThreadFactory("block-prepare-" + chainId));
         try {
+            Future<Block> next = startHeight <= netLatestHeight ? prepareExecutor.submit(this::takeAndPrepare) : null;
             while (startHeight <= netLatestHeight && context.isDoSyn()) {
-                block = queue.take();
+                block = next.get();
+                if (startHeight < netLatestHeight) {
+                    next = prepareExecutor.submit(this::takeAndPrepare);
+                }
                 boolean saveBlock = blockService.saveBlock(chainId, block, true);
                 if (!saveBlock) {
                     commonLog.error("error occur when saving downloaded blocks, height-" + startHeight + ", hash-" + block.getHeader().getHash());
@@ -86,7 +97,15 @@ public class BlockConsumer implements Callable<Boolean> {
             commonLog.error("BlockConsumer stop work abnormally", e);
             context.setDoSyn(false);
             return false;
+        } finally {
+            prepareExecutor.shutdownNow();
         }
     }
 
+    private Block takeAndPrepare() throws InterruptedException {
+        Block block = queue.take();
+        BlockUtil.prepare(chainId, block);
+        return block;
+    }
+
 }
@@ -55,6 +55,10 @@ public class BlockDownLoadResult {
      * 对应的请求hash
      */
     private NulsHash messageHash;
+    /**
+     * 分配任务时预占的缓存字节数
+     */
+    private long reservedSize;
 
     public long getStartHeight() {
         return startHeight;
@@ -96,6 +100,14 @@ public class BlockDownLoadResult {
         this.duration = duration;
     }
 
+    public long getReservedSize() {
+        return reservedSize;
+    }
+
+    public void setReservedSize(long reservedSize) {
+        this.reservedSize = reservedSize;
+    }
+
     public NulsHash getMessageHash() {
         return messageHash;
     }
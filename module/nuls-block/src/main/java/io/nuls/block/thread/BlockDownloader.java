@@ -31,7 +31,9 @@ import io.nuls.block.model.Node;
 import io.nuls.core.log.logback.NulsLogger;
 
 import java.util.concurrent.*;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static io.nuls.block.BlockBootstrap.blockConfig;
 
 /**
  * 区块下载管理器
@@ -61,13 +63,13 @@ public class BlockDownloader implements Callable<Boolean> {
     /**
      * 区块同步过程中缓存的区块字节数
      */
-    private AtomicInteger cachedBlockSize;
+    private AtomicLong cachedBlockSize;
     /**
      * 下载到的区块最终放入此队列,由消费线程取出进行保存
      */
     private BlockingQueue<Block> queue;
 
-    BlockDownloader(int chainId, BlockingQueue<Future<BlockDownLoadResult>> futures, ThreadPoolExecutor executor, BlockDownloaderParams params, BlockingQueue<Block> queue, AtomicInteger cachedBlockSize) {
+    BlockDownloader(int chainId, BlockingQueue<Future<BlockDownLoadResult>> futures, ThreadPoolExecutor executor, BlockDownloaderParams params, BlockingQueue<Block> queue, AtomicLong cachedBlockSize) {
         this.params = params;
         this.executor = executor;
         this.futures = futures;
@@ -88,11 +90,16 @@ public class BlockDownloader implements Callable<Boolean> {
             ChainParameters chainParameters = context.getParameters();
             int cachedBlockSizeLimit = chainParameters.getCachedBlockSizeLimit();
             int maxDowncount = chainParameters.getDownloadNumber();
+            int downloadTargetTime = blockConfig.getDownloadTargetTime();
+            long waitInterval = chainParameters.getWaitInterval();
             while (startHeight <= netLatestHeight && context.isDoSyn()) {
-                int i = cachedBlockSize.get();
-                while (i > cachedBlockSizeLimit) {
+                //cachedBlockSize包括已下载未保存的区块与正在下载的预占字节数
+                long i = cachedBlockSize.get();
+                if (i > cachedBlockSizeLimit) {
                     commonLog.info("BlockDownloader wait! cached queue:" + queue.size() + ", size:" + i);
-                    Thread.sleep(3000L);
+                }
+                while (i > cachedBlockSizeLimit && context.isDoSyn()) {
+                    Thread.sleep(waitInterval);
                     i = cachedBlockSize.get();
                 }
                 int credit;
@@ -101,15 +108,17 @@ public class BlockDownloader implements Callable<Boolean> {
                     node = nodes.take();
                     credit = node.getCredit();
                 } while (credit == 0);
-                int size = maxDowncount * credit / 100;
-                size = size <= 0 ? 1 : size;
+                //按节点测量到的速度分配区块数
+                int size = node.getDownloadWindow(maxDowncount, downloadTargetTime);
                 if (startHeight + size > netLatestHeight) {
                     size = (int) (netLatestHeight - startHeight + 1);
                 }
                 long endHeight = startHeight + size - 1;
+                long reservedSize = (long) size * params.getAverageBlockSize();
+                cachedBlockSize.addAndGet(reservedSize);
                 //组装批量获取区块消息
                 HeightRangeMessage message = new HeightRangeMessage(startHeight, endHeight);
-                BlockWorker worker = new BlockWorker(startHeight, size, chainId, node, message);
+                BlockWorker worker = new BlockWorker(startHeight, size, chainId, node, message, nodes, reservedSize);
                 Future<BlockDownLoadResult> future = executor.submit(worker);
                 futures.offer(future);
                 startHeight += size;
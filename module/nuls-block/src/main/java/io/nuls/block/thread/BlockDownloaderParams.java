@@ -63,6 +63,10 @@ public class BlockDownloaderParams {
      * 网络上可用节点数>=nodes.size()
      */
     private int availableNodesCount;
+    /**
+     * 已下载区块的平均字节数,用于分配下载任务时预占缓存
+     */
+    private volatile int averageBlockSize;
 
     public long getNetLatestHeight() {
         return netLatestHeight;
@@ -119,4 +123,12 @@ public class BlockDownloaderParams {
     public void setAvailableNodesCount(int availableNodesCount) {
         this.availableNodesCount = availableNodesCount;
     }
+
+    public int getAverageBlockSize() {
+        return averageBlockSize;
+    }
+
+    public void setAverageBlockSize(int averageBlockSize) {
+        this.averageBlockSize = averageBlockSize;
+    }
 }
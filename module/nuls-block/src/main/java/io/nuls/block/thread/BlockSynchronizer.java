@@ -49,7 +49,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.*;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.StampedLock;
 
 import static io.nuls.block.BlockBootstrap.blockConfig;
@@ -75,7 +75,7 @@ public class BlockSynchronizer implements Runnable {
     /**
      * 区块同步过程中缓存的区块字节数
      */
-    private AtomicInteger cachedBlockSize = new AtomicInteger(0);
+    private AtomicLong cachedBlockSize = new AtomicLong(0);
 
     private static boolean firstStart = true;
     /**
@@ -168,7 +168,7 @@ public class BlockSynchronizer implements Runnable {
             }
             waitUntilNetworkStable();
             while (!synchronize()) {
-                cachedBlockSize = new AtomicInteger(0);
+                cachedBlockSize = new AtomicLong(0);
                 Thread.sleep(synSleepInterval);
             }
         } catch (Exception e) {
@@ -258,6 +258,7 @@ public class BlockSynchronizer implements Runnable {
         }
         PriorityBlockingQueue<Node> nodes = params.getNodes();
         int nodeCount = nodes.size();
+        context.setDownloadNodes(params.getList());
         ThreadPoolExecutor executor = ThreadUtils.createThreadPool(nodeCount * 4, 0, new NulsThreadFactory("worker-" + chainId));
         BlockingQueue<Block> queue = new LinkedBlockingQueue<>();
         BlockingQueue<Future<BlockDownLoadResult>> futures = new LinkedBlockingQueue<>();
@@ -280,6 +281,9 @@ public class BlockSynchronizer implements Runnable {
         boolean success = downResult != null && downResult && storageResult != null && storageResult;
         long end = System.currentTimeMillis();
         executor.shutdownNow();
+        for (Node node : params.getList()) {
+            commonLog.info("download statistics, " + node + ", downloadedBlocks=" + node.getDownloadedBlocks() + ", failures=" + node.getFailures());
+        }
         if (success) {
             commonLog.info("block syn complete, total download:" + total + ", total time:" + (end - start) + ", average time:" + (end - start) / total);
             if (checkIsNewest(context)) {
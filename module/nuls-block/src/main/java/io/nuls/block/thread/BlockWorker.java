@@ -29,6 +29,7 @@ import io.nuls.block.manager.ContextManager;
 import io.nuls.block.message.CompleteMessage;
 import io.nuls.block.message.HeightRangeMessage;
 import io.nuls.block.model.ChainContext;
+import io.nuls.block.model.ChainParameters;
 import io.nuls.block.model.Node;
 import io.nuls.block.rpc.call.NetworkUtil;
 import io.nuls.core.log.logback.NulsLogger;
@@ -53,24 +54,57 @@ public class BlockWorker implements Callable<BlockDownLoadResult> {
     private int chainId;
     private Node node;
     private HeightRangeMessage message;
+    /**
+     * 下载结束后立即归还节点的队列,为null表示由调用方归还(失败重试)
+     */
+    private PriorityBlockingQueue<Node> nodes;
+    /**
+     * 分配任务时为本次下载预占的缓存字节数
+     */
+    private long reservedSize;
 
     BlockWorker(long startHeight, int size, int chainId, Node node, HeightRangeMessage message) {
+        this(startHeight, size, chainId, node, message, null, 0);
+    }
+
+    BlockWorker(long startHeight, int size, int chainId, Node node, HeightRangeMessage message, PriorityBlockingQueue<Node> nodes, long reservedSize) {
         this.startHeight = startHeight;
         this.size = size;
         this.chainId = chainId;
         this.node = node;
         this.message = message;
+        this.nodes = nodes;
+        this.reservedSize = reservedSize;
     }
 
     @Override
     public BlockDownLoadResult call() {
+        BlockDownLoadResult result = download();
+        result.setReservedSize(reservedSize);
+        if (!result.isSuccess()) {
+            node.recordFailure();
+        }
+        //下载结束马上调整信用值并归还节点,不必等收集器按顺序处理到这一批
+        if (nodes != null) {
+            node.adjustCredit(result.isSuccess(), result.getDuration());
+            nodes.offer(node);
+        }
+        return result;
+    }
+
+    /**
+     * 发送下载请求并等待区块,持续有新区块到达就一直等待,超过停滞时间没有进展或超过总超时则认为失败,由收集器立即换节点重新下载
+     */
+    private BlockDownLoadResult download() {
         boolean b = false;
         //计算本次请求hash,用来跟踪本次异步请求
         NulsHash messageHash = message.getMsgHash();
         ChainContext context = ContextManager.getContext(chainId);
         NulsLogger commonLog = context.getLogger();
-        int batchDownloadTimeout = context.getParameters().getBatchDownloadTimeout();
-        int maxLoop = context.getParameters().getMaxLoop();
+        ChainParameters parameters = context.getParameters();
+        int batchDownloadTimeout = parameters.getBatchDownloadTimeout();
+        long interval = parameters.getWaitInterval();
+        long stallTimeout = node.getStallTimeout(interval * parameters.getMaxLoop(), parameters.getSingleDownloadTimeout());
         long duration = 0;
         try {
             Future<CompleteMessage> future = BlockCacher.addBatchBlockRequest(chainId, messageHash);
@@ -82,20 +116,34 @@ public class BlockWorker implements Callable<BlockDownLoadResult> {
                 BlockCacher.removeBatchBlockRequest(chainId, messageHash);
                 return new BlockDownLoadResult(messageHash, startHeight, size, node, false, 0);
             }
-            CompleteMessage completeMessage = future.get(batchDownloadTimeout, TimeUnit.MILLISECONDS);
+            CompleteMessage completeMessage = null;
             List<Block> blockList = BlockCacher.getBlockList(chainId, messageHash);
-            int real = blockList.size();
-            long interval = (long) context.getParameters().getWaitInterval();
-            int count = 0;
-            while (real < size && count < maxLoop) {
-                commonLog.debug("#start-" + message.getStartHeight() + ",end-" + message.getEndHeight() + "#real-" + real + ",expect-" + size + ",count-" + count + ",node-" +node.getId());
-                Thread.sleep(interval * (size - real));
-                blockList = BlockCacher.getBlockList(chainId, messageHash);
-                real = blockList.size();
-                count++;
-            }
-            if (real != size) {
-                return new BlockDownLoadResult(messageHash, startHeight, size, node, b, 0);
+            int real = 0;
+            long firstBlockTime = 0;
+            long lastProgressTime = begin;
+            while (completeMessage == null || real < size) {
+                if (completeMessage == null) {
+                    try {
+                        completeMessage = future.get(interval, TimeUnit.MILLISECONDS);
+                    } catch (TimeoutException e) {
+                        //继续检查进度
+                    }
+                } else {
+                    Thread.sleep(interval);
+                }
+                long now = System.currentTimeMillis();
+                int received = blockList.size();
+                if (received > real) {
+                    real = received;
+                    lastProgressTime = now;
+                    if (firstBlockTime == 0) {
+                        firstBlockTime = now;
+                    }
+                }
+                if (now - lastProgressTime > stallTimeout || now - begin > batchDownloadTimeout) {
+                    commonLog.info("download stalled, #start-" + message.getStartHeight() + ",end-" + message.getEndHeight() + "#real-" + real + ",expect-" + size + ",stallTimeout-" + stallTimeout + ",node-" + node.getId());
+                    return new BlockDownLoadResult(messageHash, startHeight, size, node, b, 0);
+                }
             }
             List<Long> heightList = new ArrayList<>();
             for (Block block : blockList) {
@@ -109,12 +157,15 @@ public class BlockWorker implements Callable<BlockDownLoadResult> {
             b = completeMessage.isSuccess();
             long end = System.currentTimeMillis();
             duration = end - begin;
+            if (b) {
+                node.recordDownload(real, blockList.stream().mapToLong(Block::size).sum(), firstBlockTime - begin, duration);
+            }
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             commonLog.error("", e);
-        } catch (TimeoutException | ExecutionException e) {
+        } catch (ExecutionException e) {
             commonLog.error("", e);
         }
         return new BlockDownLoadResult(messageHash, startHeight, size, node, b, duration);
     }
-}
\ No newline at end of file
+}
@@ -104,6 +104,24 @@ public class BlockUtil {
         return true;
     }
 
+    /**
+     * 预先计算区块hash、打包地址及交易hash,这些数据与链上状态无关,
+     * 同步时可以在上一个区块保存的同时完成,保存时直接使用缓存值
+     *
+     * @param chainId 链Id/chain id
+     * @param block   待保存区块
+     */
+    public static void prepare(int chainId, Block block) {
+        BlockHeader header = block.getHeader();
+        if (header != null) {
+            header.getHash();
+            header.getPackingAddress(chainId);
+        }
+        if (block.getTxs() != null) {
+            block.getTxHashList();
+        }
+    }
+
     public static boolean headerVerify(int chainId, BlockHeader header) {
         NulsLogger commonLog = ContextManager.getContext(chainId).getLogger();
         if (header.getHash() == null) {
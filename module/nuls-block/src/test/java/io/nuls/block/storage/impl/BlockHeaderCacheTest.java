@@ -0,0 +1,88 @@
+/*
+ * MIT License
+ * Copyright (c) 2017-2019 nuls.io
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.nuls.block.storage.impl;
+
+import io.nuls.base.data.NulsHash;
+import io.nuls.base.data.po.BlockHeaderPo;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class BlockHeaderCacheTest {
+
+    private static BlockHeaderPo header(long height) {
+        BlockHeaderPo po = new BlockHeaderPo();
+        byte[] hash = new byte[NulsHash.HASH_LENGTH];
+        hash[0] = (byte) height;
+        po.setHash(new NulsHash(hash));
+        po.setHeight(height);
+        po.setComplete(true);
+        List<NulsHash> txHashList = new ArrayList<>();
+        txHashList.add(po.getHash());
+        po.setTxHashList(txHashList);
+        return po;
+    }
+
+    @Test
+    public void copyOnReadAndWrite() {
+        BlockHeaderCache cache = new BlockHeaderCache(4);
+        BlockHeaderPo po = header(1);
+        cache.put(po);
+        po.setComplete(false);
+
+        BlockHeaderPo read = cache.get(cache.getHash(1));
+        assertTrue(read.isComplete());
+        read.getTxHashList().clear();
+        assertEquals(1, cache.get(po.getHash()).getTxHashList().size());
+        assertEquals(2, cache.getHits());
+    }
+
+    @Test
+    public void staleFillIsDropped() {
+        BlockHeaderCache cache = new BlockHeaderCache(4);
+        BlockHeaderPo po = header(1);
+        long sequence = cache.getWriteSequence();
+        //读取数据库期间区块被回滚
+        cache.remove(1, po.getHash());
+        cache.fill(po, true, sequence);
+        assertNull(cache.getHash(1));
+        assertNull(cache.get(po.getHash()));
+
+        sequence = cache.getWriteSequence();
+        cache.fill(po, true, sequence);
+        assertEquals(po.getHash(), cache.getHash(1));
+    }
+
+    @Test
+    public void evictEldest() {
+        BlockHeaderCache cache = new BlockHeaderCache(2);
+        cache.put(header(1));
+        cache.put(header(2));
+        cache.get(header(1).getHash());
+        cache.put(header(3));
+        assertEquals(2, cache.size());
+        assertNull(cache.get(header(2).getHash()));
+        assertNotNull(cache.get(header(1).getHash()));
+    }
+}
@@ -85,6 +85,25 @@ public class BlockDownloaderTest {
         assertEquals(90, queue.take().getCredit());
     }
 
+    @Test
+    public void downloadWindow() {
+        Node node = new Node();
+        //没有样本时按配置值与信用值分配
+        assertEquals(10, node.getDownloadWindow(10, 2000));
+        assertEquals(10000, node.getStallTimeout(500, 10000));
+        //每秒20个区块,往返时间200ms,目标2秒
+        node.recordDownload(20, 20000, 200, 1000);
+        assertEquals(36, node.getDownloadWindow(10, 2000));
+        assertEquals(1000, node.getStallTimeout(500, 10000));
+        //慢节点分到的区块少
+        Node slow = new Node();
+        slow.recordDownload(1, 1000, 1000, 2000);
+        assertEquals(1, slow.getDownloadWindow(10, 2000));
+        slow.adjustCredit(false, 0);
+        assertEquals(1, slow.getDownloadWindow(10, 2000));
+        assertEquals(10000, slow.getStallTimeout(500, 10000));
+    }
+
     @Test
     public void name() {
 
@@ -72,6 +72,12 @@ public class Chain {
      */
     private List<Deposit> depositList;
 
+    /**
+     * 委托索引，与委托信息列表同步修改
+     * Deposit index, modified together with the deposit list
+     */
+    private final DepositIndex depositIndex = new DepositIndex();
+
     /**
      * 黄牌列表
      * Yellow punish list
@@ -164,6 +170,7 @@ public class Chain {
      **/
     public List<Agent> getWorkAgentList(long height) {
         List<Agent> workAgentList = new ArrayList<>();
+        Map<NulsHash, BigInteger> totalDepositMap = depositIndex.getTotalDepositMap(height);
         for (Agent agent : agentList) {
             if (agent.getDelHeight() != -1L && agent.getDelHeight() <= height) {
                 continue;
@@ -175,11 +182,7 @@ public class Chain {
             获取节点委托信息，用于计算节点总的委托金额
             Get the node delegation information for calculating the total amount of the node delegation
             */
-            List<Deposit> cdList = getDepositListByAgentId(agent.getTxHash(), height);
-            BigInteger totalDeposit = BigInteger.ZERO;
-            for (Deposit dtx : cdList) {
-                totalDeposit = totalDeposit.add(dtx.getDeposit());
-            }
+            BigInteger totalDeposit = totalDepositMap.getOrDefault(agent.getTxHash(), BigInteger.ZERO);
             if (totalDeposit.compareTo(config.getCommissionMin()) >= 0) {
                 workAgentList.add(agent);
             }
@@ -196,6 +199,7 @@ public class Chain {
      **/
     public Set<String> getWorkAddressList(long height) {
         Set<String> workAddressList = new HashSet<>();
+        Map<NulsHash, BigInteger> totalDepositMap = depositIndex.getTotalDepositMap(height);
         for (Agent agent : agentList) {
             if (agent.getDelHeight() != -1L && agent.getDelHeight() <= height) {
                 continue;
@@ -207,11 +211,7 @@ public class Chain {
             获取节点委托信息，用于计算节点总的委托金额
             Get the node delegation information for calculating the total amount of the node delegation
             */
-            List<Deposit> cdList = getDepositListByAgentId(agent.getTxHash(), height);
-            BigInteger totalDeposit = BigInteger.ZERO;
-            for (Deposit dtx : cdList) {
-                totalDeposit = totalDeposit.add(dtx.getDeposit());
-            }
+            BigInteger totalDeposit = totalDepositMap.getOrDefault(agent.getTxHash(), BigInteger.ZERO);
             if (totalDeposit.compareTo(config.getCommissionMin()) >= 0) {
                 workAddressList.add(AddressTool.getStringAddressByBytes(agent.getPackingAddress()));
             }
@@ -219,32 +219,6 @@ public class Chain {
         return workAddressList;
     }
 
-    /**
-     * 获取节点的委托信息
-     * Obtaining delegation information of nodes
-     *
-     * @param agentHash        节点ID/agent hash
-     * @param startBlockHeight 上一轮次的起始区块高度/Initial blocks of the last round
-     * @return List<Deposit>
-     */
-    private List<Deposit> getDepositListByAgentId(NulsHash agentHash, long startBlockHeight) {
-        List<Deposit> resultList = new ArrayList<>();
-        for (int i = depositList.size() - 1; i >= 0; i--) {
-            Deposit deposit = depositList.get(i);
-            if (deposit.getDelHeight() != -1L && deposit.getDelHeight() <= startBlockHeight) {
-                continue;
-            }
-            if (deposit.getBlockHeight() > startBlockHeight || deposit.getBlockHeight() < 0L) {
-                continue;
-            }
-            if (deposit.getAgentHash().equals(agentHash)) {
-                resultList.add(deposit);
-            }
-        }
-        return resultList;
-    }
-
-
     public ConfigBean getConfig() {
         return config;
     }
@@ -283,6 +257,11 @@ public class Chain {
 
     public void setDepositList(List<Deposit> depositList) {
         this.depositList = depositList;
+        this.depositIndex.reset(depositList);
+    }
+
+    public DepositIndex getDepositIndex() {
+        return depositIndex;
     }
 
     public List<PunishLogPo> getYellowPunishList() {
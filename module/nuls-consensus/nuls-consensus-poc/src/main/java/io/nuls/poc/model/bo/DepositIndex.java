@@ -0,0 +1,185 @@
+package io.nuls.poc.model.bo;
+
+import io.nuls.base.data.NulsHash;
+import io.nuls.poc.model.bo.tx.txdata.Deposit;
+
+import java.math.BigInteger;
+import java.util.*;
+
+/**
+ * 委托索引
+ * 按节点保存委托列表，并按高度记录各节点委托总额的变化量（委托高度加、退出高度减），
+ * 缓存某个高度的各节点委托总额，计算新轮次时只需在上一次结果的基础上累加两个高度之间的变化量
+ * Deposit index
+ * Keeps the deposits grouped by agent and a per-height delta log of the agents' total deposit
+ * (plus at the deposit height, minus at the cancel height). The totals of the last requested height are cached,
+ * so the totals of a new round are derived from the previous ones by applying the deltas between the two heights.
+ *
+ * 所有委托的修改都需通过本类同步，见{@link io.nuls.poc.utils.manager.DepositManager}
+ * All deposit modifications must be synchronized through this class, see {@link io.nuls.poc.utils.manager.DepositManager}
+ */
+public class DepositIndex {
+    /**
+     * 按节点分组的委托，顺序与链的委托列表一致
+     * Deposits grouped by agent hash, in the order of the chain deposit list
+     */
+    private final Map<NulsHash, List<Deposit>> depositMap = new HashMap<>();
+
+    /**
+     * 高度 -> 该高度各节点委托总额的变化量
+     * Height -> change of the agents' total deposit at that height
+     */
+    private final TreeMap<Long, Map<NulsHash, BigInteger>> deltaLog = new TreeMap<>();
+
+    /**
+     * 缓存的各节点委托总额，包含高度小于等于totalHeight的所有变化
+     * Cached total deposit of agents, including all deltas at or below totalHeight
+     */
+    private final Map<NulsHash, BigInteger> totalMap = new HashMap<>();
+
+    private long totalHeight = -1L;
+
+    /**
+     * 用新的委托列表重建索引
+     * Rebuild the index from a full deposit list
+     */
+    public synchronized void reset(List<Deposit> depositList) {
+        depositMap.clear();
+        deltaLog.clear();
+        totalMap.clear();
+        totalHeight = -1L;
+        if (depositList == null) {
+            return;
+        }
+        for (Deposit deposit : depositList) {
+            add(deposit);
+        }
+    }
+
+    public synchronized void add(Deposit deposit) {
+        depositMap.computeIfAbsent(deposit.getAgentHash(), hash -> new ArrayList<>()).add(deposit);
+        logDeposit(deposit, true);
+    }
+
+    public synchronized void remove(Deposit deposit) {
+        List<Deposit> agentDepositList = depositMap.get(deposit.getAgentHash());
+        if (agentDepositList == null || !agentDepositList.remove(deposit)) {
+            return;
+        }
+        if (agentDepositList.isEmpty()) {
+            depositMap.remove(deposit.getAgentHash());
+        }
+        logDeposit(deposit, false);
+    }
+
+    /**
+     * 替换委托（如退出委托时修改退出高度），保持其在节点委托列表中的位置
+     * Replace a deposit (e.g. the cancel height changed), keeping its position in the agent's deposit list
+     */
+    public synchronized void replace(Deposit oldDeposit, Deposit newDeposit) {
+        List<Deposit> agentDepositList = depositMap.get(oldDeposit.getAgentHash());
+        int index = agentDepositList == null ? -1 : agentDepositList.indexOf(oldDeposit);
+        if (index < 0 || !oldDeposit.getAgentHash().equals(newDeposit.getAgentHash())) {
+            remove(oldDeposit);
+            add(newDeposit);
+            return;
+        }
+        agentDepositList.set(index, newDeposit);
+        logDeposit(oldDeposit, false);
+        logDeposit(newDeposit, true);
+    }
+
+    /**
+     * 获取指定高度各节点的委托总额，无有效委托的节点不在结果中
+     * Get the total deposit of each agent at the height, agents without valid deposits are absent
+     *
+     * @param height 区块高度/block height
+     * @return Map<NulsHash, BigInteger>
+     */
+    public synchronized Map<NulsHash, BigInteger> getTotalDepositMap(long height) {
+        moveTo(height);
+        return new HashMap<>(totalMap);
+    }
+
+    public synchronized BigInteger getTotalDeposit(NulsHash agentHash, long height) {
+        moveTo(height);
+        return totalMap.getOrDefault(agentHash, BigInteger.ZERO);
+    }
+
+    /**
+     * 获取节点在指定高度有效的委托，顺序与从后往前遍历委托列表一致
+     * Get the deposits of the agent valid at the height, in the reverse order of the deposit list
+     */
+    public synchronized List<Deposit> getDepositList(NulsHash agentHash, long height) {
+        List<Deposit> resultList = new ArrayList<>();
+        List<Deposit> agentDepositList = depositMap.get(agentHash);
+        if (agentDepositList == null) {
+            return resultList;
+        }
+        for (int i = agentDepositList.size() - 1; i >= 0; i--) {
+            Deposit deposit = agentDepositList.get(i);
+            if (isValid(deposit, height)) {
+                resultList.add(deposit);
+            }
+        }
+        return resultList;
+    }
+
+    private static boolean isValid(Deposit deposit, long height) {
+        if (deposit.getDelHeight() != -1L && deposit.getDelHeight() <= height) {
+            return false;
+        }
+        return deposit.getBlockHeight() <= height && deposit.getBlockHeight() >= 0L;
+    }
+
+    /**
+     * 记录委托在委托高度与退出高度产生的变化量
+     * Log the deltas of a deposit at its deposit height and its cancel height
+     */
+    private void logDeposit(Deposit deposit, boolean add) {
+        long blockHeight = deposit.getBlockHeight();
+        long delHeight = deposit.getDelHeight();
+        if (blockHeight < 0L || (delHeight != -1L && delHeight <= blockHeight)) {
+            return;
+        }
+        BigInteger amount = add ? deposit.getDeposit() : deposit.getDeposit().negate();
+        logDelta(blockHeight, deposit.getAgentHash(), amount);
+        if (delHeight != -1L) {
+            logDelta(delHeight, deposit.getAgentHash(), amount.negate());
+        }
+    }
+
+    private void logDelta(long height, NulsHash agentHash, BigInteger delta) {
+        Map<NulsHash, BigInteger> deltaMap = deltaLog.computeIfAbsent(height, h -> new HashMap<>());
+        merge(deltaMap, agentHash, delta);
+        if (deltaMap.isEmpty()) {
+            deltaLog.remove(height);
+        }
+        //已累加进缓存总额的高度直接修正缓存
+        if (height <= totalHeight) {
+            merge(totalMap, agentHash, delta);
+        }
+    }
+
+    private void moveTo(long height) {
+        if (height > totalHeight) {
+            for (Map<NulsHash, BigInteger> deltaMap : deltaLog.subMap(totalHeight, false, height, true).values()) {
+                deltaMap.forEach((agentHash, delta) -> merge(totalMap, agentHash, delta));
+            }
+        } else if (height < totalHeight) {
+            for (Map<NulsHash, BigInteger> deltaMap : deltaLog.subMap(height, false, totalHeight, true).values()) {
+                deltaMap.forEach((agentHash, delta) -> merge(totalMap, agentHash, delta.negate()));
+            }
+        }
+        totalHeight = height;
+    }
+
+    private static void merge(Map<NulsHash, BigInteger> map, NulsHash agentHash, BigInteger delta) {
+        BigInteger value = map.getOrDefault(agentHash, BigInteger.ZERO).add(delta);
+        if (value.signum() == 0) {
+            map.remove(agentHash);
+        } else {
+            map.put(agentHash, value);
+        }
+    }
+}
@@ -34,6 +34,7 @@ import io.nuls.core.model.ByteUtils;
 import io.nuls.core.parse.SerializeUtils;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 /**
  * 轮次成员信息类
  * Round Membership Information Class
@@ -72,7 +73,12 @@ public class MeetingMember implements Comparable<MeetingMember> {
     * Consensus Festival - Delegation Information List
     * */
     @ApiModelProperty(description = "当前节点委托信息", type = @TypeDescriptor(value = List.class, collectionElement = Deposit.class))
-    private List<Deposit> depositList = new ArrayList<>();
+    private List<Deposit> depositList;
+    /**
+    * 委托信息列表按需从委托索引中加载，只有出块节点计算奖励时需要
+    * The deposit list is loaded from the deposit index on demand, only needed for the reward of the packing node
+    * */
+    private Supplier<List<Deposit>> depositListLoader;
     /**
     * 排序值
     * Ranking value
@@ -142,13 +148,22 @@ public class MeetingMember implements Comparable<MeetingMember> {
     }
 
     public List<Deposit> getDepositList() {
-        return depositList;
+        List<Deposit> list = depositList;
+        if (list == null) {
+            list = depositListLoader == null ? new ArrayList<>() : depositListLoader.get();
+            depositList = list;
+        }
+        return list;
     }
 
     public void setDepositList(List<Deposit> depositList) {
         this.depositList = depositList;
     }
 
+    public void setDepositListLoader(Supplier<List<Deposit>> depositListLoader) {
+        this.depositListLoader = depositListLoader;
+    }
+
     public void setSortValue(String sortValue) {
         this.sortValue = sortValue;
     }
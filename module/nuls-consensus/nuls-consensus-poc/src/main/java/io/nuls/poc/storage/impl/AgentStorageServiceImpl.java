@@ -2,7 +2,6 @@ package io.nuls.poc.storage.impl;
 
 import io.nuls.base.data.NulsHash;
 import io.nuls.core.core.annotation.Component;
-import io.nuls.core.rockdb.model.Entry;
 import io.nuls.core.rockdb.service.RocksDBService;
 import io.nuls.poc.constant.ConsensusConstant;
 import io.nuls.poc.model.po.AgentPo;
@@ -76,24 +75,30 @@ public class AgentStorageServiceImpl implements AgentStorageService{
 
     @Override
     public List<AgentPo> getList(int chainID) throws NulsException {
-            List<Entry<byte[], byte[]>> list = RocksDBService.entryList(ConsensusConstant.DB_NAME_CONSENSUS_AGENT+chainID);
             List<AgentPo> agentList = new ArrayList<>();
-            for (Entry<byte[], byte[]> entry:list) {
-                AgentPo po = new AgentPo();
-                po.parse(entry.getValue(),0);
-                NulsHash hash = new NulsHash(entry.getKey());
-                po.setHash(hash);
-                agentList.add(po);
+            try {
+                RocksDBService.scan(ConsensusConstant.DB_NAME_CONSENSUS_AGENT+chainID, (key, value) -> {
+                    AgentPo po = new AgentPo();
+                    po.parse(value,0);
+                    po.setHash(new NulsHash(key));
+                    agentList.add(po);
+                    return true;
+                });
+            }catch (NulsException e){
+                throw e;
+            }catch (Exception e){
+                throw new NulsException(e);
             }
             return  agentList;
     }
 
     @Override
     public int size(int chainID) {
-        List<byte[]> keyList = RocksDBService.keyList(ConsensusConstant.DB_NAME_CONSENSUS_AGENT+chainID);
-        if(keyList != null){
-            return keyList.size();
+        try {
+            return RocksDBService.count(ConsensusConstant.DB_NAME_CONSENSUS_AGENT+chainID);
+        }catch (Exception e){
+            Log.error(e);
+            return 0;
         }
-        return 0;
     }
 }
@@ -2,7 +2,6 @@ package io.nuls.poc.storage.impl;
 
 import io.nuls.base.data.NulsHash;
 import io.nuls.core.core.annotation.Component;
-import io.nuls.core.rockdb.model.Entry;
 import io.nuls.core.rockdb.service.RocksDBService;
 import io.nuls.poc.constant.ConsensusConstant;
 import io.nuls.poc.model.po.DepositPo;
@@ -75,24 +74,30 @@ public class DepositStorageServiceImpl implements DepositStorageService {
 
     @Override
     public List<DepositPo> getList(int chainID) throws NulsException {
-        List<Entry<byte[], byte[]>> list = RocksDBService.entryList(ConsensusConstant.DB_NAME_CONSENSUS_DEPOSIT + chainID);
         List<DepositPo> depositList = new ArrayList<>();
-        for (Entry<byte[], byte[]> entry : list) {
-            DepositPo po = new DepositPo();
-            po.parse(entry.getValue(), 0);
-            NulsHash hash = new NulsHash(entry.getKey());
-            po.setTxHash(hash);
-            depositList.add(po);
+        try {
+            RocksDBService.scan(ConsensusConstant.DB_NAME_CONSENSUS_DEPOSIT + chainID, (key, value) -> {
+                DepositPo po = new DepositPo();
+                po.parse(value, 0);
+                po.setTxHash(new NulsHash(key));
+                depositList.add(po);
+                return true;
+            });
+        } catch (NulsException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new NulsException(e);
         }
         return depositList;
     }
 
     @Override
     public int size(int chainID) {
-        List<byte[]> keyList = RocksDBService.keyList(ConsensusConstant.DB_NAME_CONSENSUS_DEPOSIT + chainID);
-        if (keyList != null) {
-            return keyList.size();
+        try {
+            return RocksDBService.count(ConsensusConstant.DB_NAME_CONSENSUS_DEPOSIT + chainID);
+        } catch (Exception e) {
+            Log.error(e);
+            return 0;
         }
-        return 0;
     }
 }
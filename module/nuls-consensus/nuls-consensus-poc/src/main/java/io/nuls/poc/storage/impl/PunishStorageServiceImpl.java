@@ -1,7 +1,6 @@
 package io.nuls.poc.storage.impl;
 
 import io.nuls.core.core.annotation.Component;
-import io.nuls.core.rockdb.model.Entry;
 import io.nuls.core.rockdb.service.RocksDBService;
 import io.nuls.poc.constant.ConsensusConstant;
 import io.nuls.poc.model.po.PunishLogPo;
@@ -50,13 +49,13 @@ public class PunishStorageServiceImpl implements PunishStorageService {
     @Override
     public List<PunishLogPo> getPunishList(int chainID)throws Exception{
         try {
-            List<Entry<byte[], byte[]>> list = RocksDBService.entryList(ConsensusConstant.DB_NAME_CONSENSUS_PUNISH+chainID);
             List<PunishLogPo> agentList = new ArrayList<>();
-            for (Entry<byte[], byte[]> entry:list) {
+            RocksDBService.scan(ConsensusConstant.DB_NAME_CONSENSUS_PUNISH+chainID, (key, value) -> {
                 PunishLogPo po = new PunishLogPo();
-                po.parse(entry.getValue(),0);
+                po.parse(value,0);
                 agentList.add(po);
-            }
+                return true;
+            });
             return  agentList;
         }catch (Exception e){
             Log.error(e);
@@ -56,6 +56,7 @@ public class DepositManager {
      */
     public void addDeposit(Chain chain, Deposit deposit) {
         chain.getDepositList().add(deposit);
+        chain.getDepositIndex().add(deposit);
     }
 
     /**
@@ -69,11 +70,13 @@ public class DepositManager {
         List<Deposit> depositList = chain.getDepositList();
         if (depositList.size() == 0) {
             depositList.add(deposit);
+            chain.getDepositIndex().add(deposit);
             return;
         }
         for (int index = 0; index < depositList.size(); index++) {
             if (deposit.getTxHash().equals(depositList.get(index).getTxHash())) {
-                depositList.set(index, deposit);
+                Deposit oldDeposit = depositList.set(index, deposit);
+                chain.getDepositIndex().replace(oldDeposit, deposit);
                 break;
             }
         }
@@ -94,6 +97,7 @@ public class DepositManager {
         for (Deposit deposit : depositList) {
             if (txHash.equals(deposit.getTxHash())) {
                 depositList.remove(deposit);
+                chain.getDepositIndex().remove(deposit);
                 return;
             }
         }
@@ -6,26 +6,26 @@ import io.nuls.base.data.BlockHeader;
 import io.nuls.base.data.NulsHash;
 import io.nuls.core.core.annotation.Component;
 import io.nuls.core.exception.NulsException;
-import io.nuls.core.log.Log;
+import io.nuls.core.model.ByteArrayWrapper;
 import io.nuls.core.model.DoubleUtils;
 import io.nuls.core.model.StringUtils;
 import io.nuls.core.rpc.util.NulsDateUtils;
 import io.nuls.poc.constant.ConsensusConstant;
 import io.nuls.poc.model.bo.Chain;
+import io.nuls.poc.model.bo.DepositIndex;
 import io.nuls.poc.model.bo.round.MeetingMember;
 import io.nuls.poc.model.bo.round.MeetingRound;
 import io.nuls.poc.model.bo.tx.txdata.Agent;
-import io.nuls.poc.model.bo.tx.txdata.Deposit;
 import io.nuls.poc.model.po.PunishLogPo;
 import io.nuls.poc.rpc.call.CallMethodUtils;
 import io.nuls.poc.utils.enumeration.PunishType;
 
-import java.io.IOException;
 import java.math.BigInteger;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 轮次信息管理类
@@ -453,6 +453,21 @@ public class RoundManager {
      * @param startBlockHeader 上一轮次的起始区块/Initial blocks of the last round
      */
     private void setMemberList(Chain chain, MeetingRound round, BlockHeader startBlockHeader) throws NulsException {
+        round.init(getMemberList(chain, round, startBlockHeader), chain);
+    }
+
+    /**
+     * 计算轮次中的打包成员
+     * 节点委托总额由委托索引在上一次计算结果的基础上累加高度变化量得到，出块记录、黄牌记录各遍历一次并按节点建立索引
+     * Calculating the packing members of the round, the total deposits are derived from the previous result
+     * of the deposit index plus the deltas between the heights, the block and punish lists are indexed in one pass each
+     *
+     * @param chain            chain info
+     * @param round            轮次信息/round info
+     * @param startBlockHeader 上一轮次的起始区块/Initial blocks of the last round
+     * @return List<MeetingMember>
+     */
+    List<MeetingMember> getMemberList(Chain chain, MeetingRound round, BlockHeader startBlockHeader) throws NulsException {
         List<MeetingMember> memberList = new ArrayList<>();
         String seedNodesStr = chain.getConfig().getSeedNodes();
         String[] seedNodes;
@@ -477,30 +492,31 @@ public class RoundManager {
                 memberList.add(member);
             }
         }
-        List<Agent> agentList = getAliveAgentList(chain, startBlockHeader.getHeight());
+        long startHeight = startBlockHeader.getHeight();
+        List<Agent> agentList = getAliveAgentList(chain, startHeight);
+        DepositIndex depositIndex = chain.getDepositIndex();
+        Map<NulsHash, BigInteger> totalDepositMap = depositIndex.getTotalDepositMap(startHeight);
+        BlockExtendsData roundData = new BlockExtendsData(startBlockHeader.getExtend());
+        long roundStart = roundData.getRoundIndex() - ConsensusConstant.RANGE_OF_CAPACITY_COEFFICIENT;
+        if (roundStart < 0) {
+            roundStart = 0;
+        }
+        long roundEnd = roundData.getRoundIndex() - 1;
+        Map<ByteArrayWrapper, Long> blockCountMap = null;
+        Map<ByteArrayWrapper, Long> yellowCountMap = null;
         for (Agent agent : agentList) {
-            Agent realAgent = new Agent();
-            try {
-                realAgent.parse(agent.serialize(), 0);
-                realAgent.setTxHash(agent.getTxHash());
-            } catch (IOException io) {
-                Log.error(io);
-                return;
-            }
+            Agent realAgent = copyAgent(agent);
             MeetingMember member = new MeetingMember();
             member.setRoundStartTime(round.getStartTime());
             /*
             获取节点委托信息，用于计算节点总的委托金额
             Get the node delegation information for calculating the total amount of the node delegation
             */
-            List<Deposit> cdList = getDepositListByAgentId(chain, realAgent.getTxHash(), startBlockHeader.getHeight());
-            BigInteger totalDeposit = BigInteger.ZERO;
-            for (Deposit dtx : cdList) {
-                totalDeposit = totalDeposit.add(dtx.getDeposit());
-            }
+            NulsHash agentHash = realAgent.getTxHash();
+            BigInteger totalDeposit = totalDepositMap.getOrDefault(agentHash, BigInteger.ZERO);
             agent.setTotalDeposit(totalDeposit);
             realAgent.setTotalDeposit(totalDeposit);
-            member.setDepositList(cdList);
+            member.setDepositListLoader(() -> depositIndex.getDepositList(agentHash, startHeight));
             member.setRoundIndex(round.getIndex());
             member.setAgent(realAgent);
             /*
@@ -509,39 +525,30 @@ public class RoundManager {
             */
             boolean isItIn = realAgent.getTotalDeposit().compareTo(chain.getConfig().getCommissionMin()) >= 0 ? true : false;
             if (isItIn) {
-                realAgent.setCreditVal(calcCreditVal(chain, member, startBlockHeader));
+                if (blockCountMap == null) {
+                    blockCountMap = getBlockCountMap(chain, roundStart, roundEnd);
+                    yellowCountMap = getPunishCountMap(chain, roundStart, roundEnd, PunishType.YELLOW.getCode());
+                }
+                realAgent.setCreditVal(calcCreditVal(realAgent, blockCountMap, yellowCountMap));
                 memberList.add(member);
             }
         }
-        round.init(memberList, chain);
+        return memberList;
     }
 
     /**
-     * 获取节点的委托信息
-     * Obtaining delegation information of nodes
-     *
-     * @param chain            chain info
-     * @param agentHash        节点ID/agent hash
-     * @param startBlockHeight 上一轮次的起始区块高度/Initial blocks of the last round
-     * @return List<Deposit>
+     * 复制节点中参与轮次计算的字段，与序列化后再解析得到的结果一致
+     * Copy the fields of the agent used in round calculation, same as serialize and parse
      */
-    private List<Deposit> getDepositListByAgentId(Chain chain, NulsHash agentHash, long startBlockHeight) {
-        List<Deposit> depositList = chain.getDepositList();
-        List<Deposit> resultList = new ArrayList<>();
-        for (int i = depositList.size() - 1; i >= 0; i--) {
-            Deposit deposit = depositList.get(i);
-            if (deposit.getDelHeight() != -1L && deposit.getDelHeight() <= startBlockHeight) {
-                continue;
-            }
-            if (deposit.getBlockHeight() > startBlockHeight || deposit.getBlockHeight() < 0L) {
-                continue;
-            }
-            if (!deposit.getAgentHash().equals(agentHash)) {
-                continue;
-            }
-            resultList.add(deposit);
-        }
-        return resultList;
+    private Agent copyAgent(Agent agent) {
+        Agent realAgent = new Agent();
+        realAgent.setDeposit(agent.getDeposit());
+        realAgent.setAgentAddress(agent.getAgentAddress());
+        realAgent.setPackingAddress(agent.getPackingAddress());
+        realAgent.setRewardAddress(agent.getRewardAddress());
+        realAgent.setCommissionRate(agent.getCommissionRate());
+        realAgent.setTxHash(agent.getTxHash());
+        return realAgent;
     }
 
     /**
@@ -573,23 +580,27 @@ public class RoundManager {
      * 计算节点的信誉值
      * Calculating the Node's Credit Value
      *
-     * @param chain       chain info
-     * @param member      打包成员对象/packing info
-     * @param blockHeader 区块头/block header
+     * @param agent          节点/agent
+     * @param blockCountMap  出块地址在统计轮次内的出块数/block count of packing addresses
+     * @param yellowCountMap 节点地址在统计轮次内的黄牌数/yellow punish count of agent addresses
      * @return double
      */
-    private double calcCreditVal(Chain chain, MeetingMember member, BlockHeader blockHeader) throws NulsException {
-        BlockExtendsData roundData = new BlockExtendsData(blockHeader.getExtend());
-        long roundStart = roundData.getRoundIndex() - ConsensusConstant.RANGE_OF_CAPACITY_COEFFICIENT;
-        if (roundStart < 0) {
-            roundStart = 0;
-        }
+    private double calcCreditVal(Agent agent, Map<ByteArrayWrapper, Long> blockCountMap, Map<ByteArrayWrapper, Long> yellowCountMap) {
         /*
         信誉值计算是通过限定轮次内节点出块数与黄牌数计算出的
         Credit value is calculated by limiting the number of blocks and yellow cards of nodes in rounds.
         */
-        long blockCount = getBlockCountByAddress(chain, member.getAgent().getPackingAddress(), roundStart, roundData.getRoundIndex() - 1);
-        long sumRoundVal = getPunishCountByAddress(chain, member.getAgent().getAgentAddress(), roundStart, roundData.getRoundIndex() - 1, PunishType.YELLOW.getCode());
+        long blockCount = blockCountMap.getOrDefault(new ByteArrayWrapper(agent.getPackingAddress()), 0L);
+        long sumRoundVal = yellowCountMap.getOrDefault(new ByteArrayWrapper(agent.getAgentAddress()), 0L);
+        /*
+        每一轮的惩罚都有可能包含上一轮次的惩罚记录，即计算从a到a+99轮的惩罚记录时，a轮的惩罚中可能是惩罚某个地址在a-1轮未出块，导致100轮最多可能有101个惩罚记录，在这里处理下
+        Each round of punishment is likely to contain a rounds punishment record, calculated from a to a + 99 rounds of punishment record,
+        a round of punishment is likely to be punished in an address in a - 1 round not out of the blocks,
+        lead to round up to 100 May be 101 punishment record, treatment here
+        */
+        if (sumRoundVal > ConsensusConstant.CREDIT_MAGIC_NUM) {
+            sumRoundVal = ConsensusConstant.CREDIT_MAGIC_NUM;
+        }
         double ability = DoubleUtils.div(blockCount, ConsensusConstant.RANGE_OF_CAPACITY_COEFFICIENT);
         /*double penalty = DoubleUtils.div(DoubleUtils.mul(ConsensusConstant.CREDIT_MAGIC_NUM, sumRoundVal),
                 DoubleUtils.mul(ConsensusConstant.RANGE_OF_CAPACITY_COEFFICIENT, ConsensusConstant.RANGE_OF_CAPACITY_COEFFICIENT));*/
@@ -599,48 +610,32 @@ public class RoundManager {
     }
 
     /**
-     * 获取指定地址获得的红黄牌惩罚数量
-     * Get the number of red and yellow card penalties for the specified address
+     * 统计指定轮次范围内各地址获得的红黄牌惩罚数量
+     * Count the red and yellow card penalties of each address in the rounds
      *
      * @param chain      chain info
-     * @param address    地址/address
      * @param roundStart 起始轮次/round start index
      * @param roundEnd   结束轮次/round end index
      * @param code       红黄牌标识/Red and yellow logo
-     * @return long
+     * @return Map<ByteArrayWrapper, Long>
      */
-    private long getPunishCountByAddress(Chain chain, byte[] address, long roundStart, long roundEnd, int code) throws NulsException {
-        long count = 0;
+    private Map<ByteArrayWrapper, Long> getPunishCountMap(Chain chain, long roundStart, long roundEnd, int code) {
+        Map<ByteArrayWrapper, Long> countMap = new HashMap<>();
         List<PunishLogPo> punishList = chain.getYellowPunishList();
         if (code == PunishType.RED.getCode()) {
             punishList = chain.getRedPunishList();
         }
         for (int i = punishList.size() - 1; i >= 0; i--) {
-            if (count >= ConsensusConstant.CREDIT_MAGIC_NUM) {
-                break;
-            }
             PunishLogPo punish = punishList.get(i);
-
             if (punish.getRoundIndex() > roundEnd) {
                 continue;
             }
             if (punish.getRoundIndex() < roundStart) {
                 break;
             }
-            if (Arrays.equals(punish.getAddress(), address)) {
-                count++;
-            }
-        }
-        /*
-        每一轮的惩罚都有可能包含上一轮次的惩罚记录，即计算从a到a+99轮的惩罚记录时，a轮的惩罚中可能是惩罚某个地址在a-1轮未出块，导致100轮最多可能有101个惩罚记录，在这里处理下
-        Each round of punishment is likely to contain a rounds punishment record, calculated from a to a + 99 rounds of punishment record,
-        a round of punishment is likely to be punished in an address in a - 1 round not out of the blocks,
-        lead to round up to 100 May be 101 punishment record, treatment here
-        */
-        if (count > ConsensusConstant.CREDIT_MAGIC_NUM) {
-            return ConsensusConstant.CREDIT_MAGIC_NUM;
+            countMap.merge(new ByteArrayWrapper(punish.getAddress()), 1L, Long::sum);
         }
-        return count;
+        return countMap;
     }
 
 
@@ -680,16 +675,16 @@ public class RoundManager {
     }
 
     /**
-     * 获取地址出块数量
-     * Get the number of address blocks
+     * 统计指定轮次范围内各出块地址的出块数量
+     * Count the blocks of each packing address in the rounds
      *
-     * @param chain          chain info
-     * @param packingAddress 出块地址
-     * @param roundStart     起始轮次
-     * @param roundEnd       结束轮次
+     * @param chain      chain info
+     * @param roundStart 起始轮次
+     * @param roundEnd   结束轮次
      */
-    private long getBlockCountByAddress(Chain chain, byte[] packingAddress, long roundStart, long roundEnd) {
-        long count = 0;
+    private Map<ByteArrayWrapper, Long> getBlockCountMap(Chain chain, long roundStart, long roundEnd) {
+        Map<ByteArrayWrapper, Long> countMap = new HashMap<>();
+        int chainId = chain.getConfig().getChainId();
         List<BlockHeader> blockHeaderList = chain.getBlockHeaderList();
         for (int i = blockHeaderList.size() - 1; i >= 0; i--) {
             BlockHeader blockHeader = blockHeaderList.get(i);
@@ -700,10 +695,11 @@ public class RoundManager {
             if (roundData.getRoundIndex() < roundStart) {
                 break;
             }
-            if (Arrays.equals(blockHeader.getPackingAddress(chain.getConfig().getChainId()), packingAddress)) {
-                count++;
+            byte[] packingAddress = blockHeader.getPackingAddress(chainId);
+            if (packingAddress != null) {
+                countMap.merge(new ByteArrayWrapper(packingAddress), 1L, Long::sum);
             }
         }
-        return count;
+        return countMap;
     }
 }
@@ -0,0 +1,104 @@
+package io.nuls.poc.model.bo;
+
+import io.nuls.base.data.NulsHash;
+import io.nuls.poc.model.bo.tx.txdata.Deposit;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+
+public class DepositIndexTest {
+
+    private static NulsHash hash(int type, int index) {
+        return new NulsHash(ByteBuffer.allocate(NulsHash.HASH_LENGTH).putInt(type).putInt(index).array());
+    }
+
+    private static Deposit copy(Deposit deposit) {
+        Deposit result = new Deposit();
+        result.setAgentHash(deposit.getAgentHash());
+        result.setDeposit(deposit.getDeposit());
+        result.setTxHash(deposit.getTxHash());
+        result.setBlockHeight(deposit.getBlockHeight());
+        result.setDelHeight(deposit.getDelHeight());
+        return result;
+    }
+
+    /**
+     * 按修改前的实现遍历委托列表计算
+     * Calculated by scanning the deposit list, as before the index
+     */
+    private static Map<NulsHash, BigInteger> scan(List<Deposit> depositList, long height) {
+        Map<NulsHash, BigInteger> totalMap = new HashMap<>();
+        for (int i = depositList.size() - 1; i >= 0; i--) {
+            Deposit deposit = depositList.get(i);
+            if (deposit.getDelHeight() != -1L && deposit.getDelHeight() <= height) {
+                continue;
+            }
+            if (deposit.getBlockHeight() > height || deposit.getBlockHeight() < 0L) {
+                continue;
+            }
+            totalMap.merge(deposit.getAgentHash(), deposit.getDeposit(), BigInteger::add);
+        }
+        return totalMap;
+    }
+
+    private static List<Deposit> scan(List<Deposit> depositList, NulsHash agentHash, long height) {
+        List<Deposit> resultList = new ArrayList<>();
+        for (int i = depositList.size() - 1; i >= 0; i--) {
+            Deposit deposit = depositList.get(i);
+            Map<NulsHash, BigInteger> one = scan(Collections.singletonList(deposit), height);
+            if (deposit.getAgentHash().equals(agentHash) && !one.isEmpty()) {
+                resultList.add(deposit);
+            }
+        }
+        return resultList;
+    }
+
+    @Test
+    public void sameAsScanAfterChanges() {
+        Random random = new Random(1);
+        List<Deposit> depositList = new ArrayList<>();
+        DepositIndex index = new DepositIndex();
+        int txIndex = 0;
+        for (int i = 0; i < 200; i++) {
+            Deposit deposit = new Deposit();
+            deposit.setAgentHash(hash(1, random.nextInt(5)));
+            deposit.setDeposit(BigInteger.valueOf(1 + random.nextInt(1000)));
+            deposit.setTxHash(hash(2, txIndex++));
+            deposit.setBlockHeight(random.nextInt(100));
+            deposit.setDelHeight(-1L);
+            depositList.add(deposit);
+        }
+        index.reset(depositList);
+        for (int step = 0; step < 2000; step++) {
+            long height = random.nextInt(120);
+            int op = random.nextInt(4);
+            if (op == 0) {
+                Deposit deposit = new Deposit();
+                deposit.setAgentHash(hash(1, random.nextInt(5)));
+                deposit.setDeposit(BigInteger.valueOf(1 + random.nextInt(1000)));
+                deposit.setTxHash(hash(2, txIndex++));
+                deposit.setBlockHeight(random.nextInt(120));
+                deposit.setDelHeight(-1L);
+                depositList.add(deposit);
+                index.add(deposit);
+            } else if (op == 1 && !depositList.isEmpty()) {
+                Deposit deposit = depositList.remove(random.nextInt(depositList.size()));
+                index.remove(deposit);
+            } else if (op == 2 && !depositList.isEmpty()) {
+                int i = random.nextInt(depositList.size());
+                Deposit oldDeposit = depositList.get(i);
+                Deposit newDeposit = copy(oldDeposit);
+                newDeposit.setDelHeight(oldDeposit.getDelHeight() == -1L ? random.nextInt(120) : -1L);
+                depositList.set(i, newDeposit);
+                index.replace(oldDeposit, newDeposit);
+            }
+            assertEquals(scan(depositList, height), index.getTotalDepositMap(height));
+            NulsHash agentHash = hash(1, random.nextInt(5));
+            assertEquals(scan(depositList, agentHash, height), index.getDepositList(agentHash, height));
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package io.nuls.poc.utils.manager;
+
+import io.nuls.base.data.BlockExtendsData;
+import io.nuls.base.data.BlockHeader;
+import io.nuls.base.data.NulsHash;
+import io.nuls.poc.model.bo.Chain;
+import io.nuls.poc.model.bo.config.ConfigBean;
+import io.nuls.poc.model.bo.round.MeetingMember;
+import io.nuls.poc.model.bo.round.MeetingRound;
+import io.nuls.poc.model.bo.tx.txdata.Agent;
+import io.nuls.poc.model.bo.tx.txdata.Deposit;
+import io.nuls.poc.model.po.PunishLogPo;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 轮次成员计算基准测试
+ * Round member calculation benchmark
+ * <p>
+ * 最初每个节点都要遍历全部委托、区块头和黄牌记录，10000个节点、1000000条委托时为O(节点数*委托数)；
+ * 之后改为每轮遍历一次全部委托重建按节点分组的索引（rebuildBaseline）；
+ * 现在由委托索引在上一轮结果的基础上累加两轮之间的委托变化量（memberList），
+ * 基准在相邻两轮的起始区块之间交替计算，模拟轮次推进
+ * The original implementation scanned all deposits, headers and punishes for every agent;
+ * then all deposits were regrouped once per round (rebuildBaseline);
+ * now the deposit index applies the deltas between two rounds to the previous result (memberList).
+ * The benchmark alternates between the start blocks of two adjacent rounds to simulate the rounds moving on
+ * <p>
+ * 运行/Run: main方法，或 java -cp target/test-classes:... org.openjdk.jmh.Main RoundMemberBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+@State(Scope.Benchmark)
+public class RoundMemberBenchmark {
+
+    private static final int CHAIN_ID = 1;
+    private static final long ROUND_INDEX = 200;
+    private static final int BLOCKS_PER_ROUND = 100;
+
+    @Param({"10000"})
+    public int agentCount;
+
+    @Param({"1000000"})
+    public int depositCount;
+
+    private Chain chain;
+    private MeetingRound round;
+    private BlockHeader[] startBlockHeaders;
+    private int invocation;
+    private RoundManager roundManager;
+
+    private static byte[] address(Random random) {
+        byte[] address = new byte[23];
+        random.nextBytes(address);
+        return address;
+    }
+
+    private static NulsHash hash(int type, int index) {
+        return new NulsHash(ByteBuffer.allocate(NulsHash.HASH_LENGTH).putInt(type).putInt(index).array());
+    }
+
+    @Setup
+    public void setup() throws Exception {
+        Random random = new Random(1);
+        chain = new Chain();
+        ConfigBean config = new ConfigBean();
+        config.setChainId(CHAIN_ID);
+        config.setSeedNodes("");
+        config.setCommissionMin(BigInteger.valueOf(2000));
+        chain.setConfig(config);
+
+        long startHeight = ROUND_INDEX * BLOCKS_PER_ROUND;
+        List<Agent> agentList = new ArrayList<>(agentCount);
+        for (int i = 0; i < agentCount; i++) {
+            Agent agent = new Agent();
+            agent.setAgentAddress(address(random));
+            agent.setPackingAddress(address(random));
+            agent.setRewardAddress(agent.getAgentAddress());
+            agent.setDeposit(BigInteger.valueOf(20000));
+            agent.setCommissionRate((byte) 10);
+            agent.setTxHash(hash(1, i));
+            agent.setBlockHeight(i % 100);
+            agent.setDelHeight(-1L);
+            agentList.add(agent);
+        }
+        chain.setAgentList(agentList);
+
+        List<Deposit> depositList = new ArrayList<>(depositCount);
+        for (int i = 0; i < depositCount; i++) {
+            Deposit deposit = new Deposit();
+            deposit.setAgentHash(agentList.get(random.nextInt(agentCount)).getTxHash());
+            deposit.setAddress(address(random));
+            deposit.setDeposit(BigInteger.valueOf(200 + random.nextInt(1000)));
+            deposit.setTxHash(hash(2, i));
+            deposit.setBlockHeight((long) i * startHeight / depositCount);
+            deposit.setDelHeight(i % 10 == 0 ? startHeight - 1 : -1L);
+            depositList.add(deposit);
+        }
+        chain.setDepositList(depositList);
+
+        //最近100轮的区块与黄牌
+        List<BlockHeader> blockHeaderList = new ArrayList<>();
+        List<PunishLogPo> yellowPunishList = new ArrayList<>();
+        for (long roundIndex = ROUND_INDEX - 100; roundIndex <= ROUND_INDEX; roundIndex++) {
+            for (int index = 1; index <= BLOCKS_PER_ROUND; index++) {
+                BlockExtendsData extendsData = new BlockExtendsData();
+                extendsData.setRoundIndex(roundIndex);
+                extendsData.setPackingIndexOfRound(index);
+                extendsData.setConsensusMemberCount(BLOCKS_PER_ROUND);
+                BlockHeader header = new BlockHeader();
+                header.setHeight(roundIndex * BLOCKS_PER_ROUND + index);
+                header.setExtend(extendsData.serialize());
+                header.setPackingAddress(agentList.get(random.nextInt(agentCount)).getPackingAddress());
+                blockHeaderList.add(header);
+
+                PunishLogPo punish = new PunishLogPo();
+                punish.setRoundIndex(roundIndex);
+                punish.setAddress(agentList.get(random.nextInt(agentCount)).getAgentAddress());
+                yellowPunishList.add(punish);
+            }
+        }
+        chain.setBlockHeaderList(blockHeaderList);
+        chain.setYellowPunishList(yellowPunishList);
+
+        startBlockHeaders = new BlockHeader[]{
+                blockHeaderList.get(blockHeaderList.size() - 2 * BLOCKS_PER_ROUND),
+                blockHeaderList.get(blockHeaderList.size() - BLOCKS_PER_ROUND)};
+        round = new MeetingRound();
+        round.setIndex(ROUND_INDEX + 1);
+        round.setStartTime(System.currentTimeMillis() / 1000);
+        roundManager = new RoundManager();
+    }
+
+    private BlockHeader nextStartBlockHeader() {
+        return startBlockHeaders[invocation++ & 1];
+    }
+
+    @Benchmark
+    public List<MeetingMember> memberList() throws Exception {
+        return roundManager.getMemberList(chain, round, nextStartBlockHeader());
+    }
+
+    @Benchmark
+    public Object workAgentList() {
+        return chain.getWorkAgentList(nextStartBlockHeader().getHeight());
+    }
+
+    /**
+     * 每轮重新遍历全部委托按节点分组并计算委托总额，委托索引之前的实现
+     * Regroup all deposits by agent and sum them every round, the implementation before the deposit index
+     */
+    @Benchmark
+    public Map<NulsHash, BigInteger> rebuildBaseline() {
+        long height = nextStartBlockHeader().getHeight();
+        Map<NulsHash, List<Deposit>> depositMap = new HashMap<>();
+        List<Deposit> depositList = chain.getDepositList();
+        for (int i = depositList.size() - 1; i >= 0; i--) {
+            Deposit deposit = depositList.get(i);
+            if (deposit.getDelHeight() != -1L && deposit.getDelHeight() <= height) {
+                continue;
+            }
+            if (deposit.getBlockHeight() > height || deposit.getBlockHeight() < 0L) {
+                continue;
+            }
+            depositMap.computeIfAbsent(deposit.getAgentHash(), hash -> new ArrayList<>()).add(deposit);
+        }
+        Map<NulsHash, BigInteger> totalMap = new HashMap<>();
+        depositMap.forEach((agentHash, cdList) -> {
+            BigInteger totalDeposit = BigInteger.ZERO;
+            for (Deposit dtx : cdList) {
+                totalDeposit = totalDeposit.add(dtx.getDeposit());
+            }
+            totalMap.put(agentHash, totalDeposit);
+        });
+        return totalMap;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(RoundMemberBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -4,6 +4,7 @@ import io.nuls.base.protocol.ProtocolGroupManager;
 import io.nuls.base.protocol.RegisterHelper;
 import io.nuls.core.core.annotation.Autowired;
 import io.nuls.core.core.annotation.Component;
+import io.nuls.core.crypto.SignatureCache;
 import io.nuls.core.log.Log;
 import io.nuls.core.rockdb.service.RocksDBService;
 import io.nuls.core.rpc.info.HostInfo;
@@ -159,6 +160,7 @@ public class CrossChainBootStrap extends BaseCrossChainBootStrap {
         Field charset = Charset.class.getDeclaredField("defaultCharset");
         charset.setAccessible(true);
         charset.set(null, UTF_8);
+        SignatureCache.init(nulsCrossChainConfig.getPublicKeyCacheSize(), nulsCrossChainConfig.getVerifiedSignatureCacheSize());
     }
 
     /**
@@ -4,6 +4,7 @@ import io.nuls.core.basic.ModuleConfig;
 import io.nuls.core.core.annotation.Component;
 import io.nuls.core.core.annotation.Configuration;
 import io.nuls.core.core.annotation.Value;
+import io.nuls.core.crypto.SignatureCache;
 import io.nuls.core.rpc.model.ModuleE;
 import io.nuls.crosschain.nuls.model.bo.config.ConfigBean;
 
@@ -39,6 +40,12 @@ public class NulsCrossChainConfig extends ConfigBean implements ModuleConfig {
 
     private boolean mainNet;
 
+    /** 已解压公钥点缓存数量*/
+    private int publicKeyCacheSize = SignatureCache.DEFAULT_PUBLIC_KEY_CACHE_SIZE;
+
+    /** 已验证签名缓存数量*/
+    private int verifiedSignatureCacheSize = SignatureCache.DEFAULT_VERIFIED_CACHE_SIZE;
+
     public String getDataPath() {
         return dataPath;
     }
@@ -106,4 +113,20 @@ public class NulsCrossChainConfig extends ConfigBean implements ModuleConfig {
     public void setMainNet(boolean mainNet) {
         this.mainNet = mainNet;
     }
+
+    public int getPublicKeyCacheSize() {
+        return publicKeyCacheSize;
+    }
+
+    public void setPublicKeyCacheSize(int publicKeyCacheSize) {
+        this.publicKeyCacheSize = publicKeyCacheSize;
+    }
+
+    public int getVerifiedSignatureCacheSize() {
+        return verifiedSignatureCacheSize;
+    }
+
+    public void setVerifiedSignatureCacheSize(int verifiedSignatureCacheSize) {
+        this.verifiedSignatureCacheSize = verifiedSignatureCacheSize;
+    }
 }
@@ -32,6 +32,36 @@ public class LedgerConfig implements ModuleConfig {
      */
     private String dataPath;
 
+    /**
+     * ROCK DB 数据表调优配置,格式为"表名前缀:配置名",多个以逗号分隔
+     */
+    private String dbTableProfiles;
+
+    /**
+     * ROCK DB 是否使用列族模式(所有表共用一个实例),仅对新的数据目录生效
+     */
+    private boolean dbColumnFamilyMode;
+
+    /**
+     * ROCK DB 共享块缓存大小(字节)
+     */
+    private long dbBlockCacheSize;
+
+    /**
+     * ROCK DB 列族模式下所有表memtable总内存上限(字节)
+     */
+    private long dbWriteBufferSize;
+
+    /**
+     * ROCK DB 是否收集统计信息,会增加每次读写的开销
+     */
+    private boolean dbStatistics;
+
+    /**
+     * 每条链缓存的账户状态数量上限
+     */
+    private int accountStateCacheSize = 100000;
+
     public String getLanguage() {
         return language;
     }
@@ -64,6 +94,54 @@ public class LedgerConfig implements ModuleConfig {
         this.dataPath = dataPath;
     }
 
+    public String getDbTableProfiles() {
+        return dbTableProfiles;
+    }
+
+    public void setDbTableProfiles(String dbTableProfiles) {
+        this.dbTableProfiles = dbTableProfiles;
+    }
+
+    public boolean isDbColumnFamilyMode() {
+        return dbColumnFamilyMode;
+    }
+
+    public void setDbColumnFamilyMode(boolean dbColumnFamilyMode) {
+        this.dbColumnFamilyMode = dbColumnFamilyMode;
+    }
+
+    public long getDbBlockCacheSize() {
+        return dbBlockCacheSize;
+    }
+
+    public void setDbBlockCacheSize(long dbBlockCacheSize) {
+        this.dbBlockCacheSize = dbBlockCacheSize;
+    }
+
+    public long getDbWriteBufferSize() {
+        return dbWriteBufferSize;
+    }
+
+    public void setDbWriteBufferSize(long dbWriteBufferSize) {
+        this.dbWriteBufferSize = dbWriteBufferSize;
+    }
+
+    public boolean isDbStatistics() {
+        return dbStatistics;
+    }
+
+    public void setDbStatistics(boolean dbStatistics) {
+        this.dbStatistics = dbStatistics;
+    }
+
+    public int getAccountStateCacheSize() {
+        return accountStateCacheSize;
+    }
+
+    public void setAccountStateCacheSize(int accountStateCacheSize) {
+        this.accountStateCacheSize = accountStateCacheSize;
+    }
+
     public String getLogLevel() {
         return logLevel;
     }
@@ -107,7 +107,9 @@ public class LedgerChainManager {
      */
     private void initRocksDb() {
         try {
-            RocksDBService.init(ledgerConfig.getDataPath() + File.separator + ModuleE.LG.name);
+            RocksDBService.setTableProfiles(ledgerConfig.getDbTableProfiles());
+            RocksDBService.setStatisticsEnabled(ledgerConfig.isDbStatistics());
+            RocksDBService.init(ledgerConfig.getDataPath() + File.separator + ModuleE.LG.name, ledgerConfig.isDbColumnFamilyMode(), ledgerConfig.getDbBlockCacheSize(), ledgerConfig.getDbWriteBufferSize());
             Repository initDB = SpringLiteContext.getBean(RepositoryImpl.class);
             initDB.initTableName();
         } catch (Exception e) {
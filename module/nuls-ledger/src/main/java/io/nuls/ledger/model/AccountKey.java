@@ -0,0 +1,127 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2018 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.ledger.model;
+
+import io.nuls.base.basic.AddressTool;
+import io.nuls.base.data.Coin;
+import io.nuls.ledger.utils.LedgerUtil;
+
+import java.util.Arrays;
+
+/**
+ * 账户资产内存key: 地址字节 + 资产链id + 资产id，定长，hash值在创建时计算
+ * 用于校验及未确认状态的内存索引，替代"地址-资产链id-资产id"字符串拼接
+ * 数据库中的key格式不变，需要时由{@link #getDbKey()}生成并缓存
+ */
+public final class AccountKey {
+
+    private final byte[] bytes;
+
+    private final int assetChainId;
+
+    private final int assetId;
+
+    private final int hash;
+
+    private String address;
+
+    private byte[] dbKey;
+
+    private AccountKey(byte[] addressBytes, String address, int assetChainId, int assetId) {
+        int length = addressBytes.length;
+        this.bytes = new byte[length + 8];
+        System.arraycopy(addressBytes, 0, bytes, 0, length);
+        for (int i = 0; i < 4; i++) {
+            bytes[length + i] = (byte) (assetChainId >>> (24 - 8 * i));
+            bytes[length + 4 + i] = (byte) (assetId >>> (24 - 8 * i));
+        }
+        this.address = address;
+        this.assetChainId = assetChainId;
+        this.assetId = assetId;
+        this.hash = Arrays.hashCode(bytes);
+    }
+
+    public static AccountKey of(byte[] address, int assetChainId, int assetId) {
+        return new AccountKey(address, null, assetChainId, assetId);
+    }
+
+    public static AccountKey of(String address, int assetChainId, int assetId) {
+        return new AccountKey(AddressTool.getAddress(address), address, assetChainId, assetId);
+    }
+
+    public static AccountKey of(Coin coin) {
+        return new AccountKey(coin.getAddress(), null, coin.getAssetsChainId(), coin.getAssetsId());
+    }
+
+    /**
+     * 字符串地址，首次使用时生成
+     */
+    public String getAddress() {
+        if (null == address) {
+            address = AddressTool.getStringAddressByBytes(Arrays.copyOf(bytes, bytes.length - 8));
+        }
+        return address;
+    }
+
+    public int getAssetChainId() {
+        return assetChainId;
+    }
+
+    public int getAssetId() {
+        return assetId;
+    }
+
+    /**
+     * 账户状态表中的key
+     */
+    public byte[] getDbKey() {
+        if (null == dbKey) {
+            dbKey = LedgerUtil.getKey(getAddress(), assetChainId, assetId);
+        }
+        return dbKey;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof AccountKey)) {
+            return false;
+        }
+        AccountKey other = (AccountKey) o;
+        return hash == other.hash && Arrays.equals(bytes, other.bytes);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return LedgerUtil.getKeyStr(getAddress(), assetChainId, assetId);
+    }
+}
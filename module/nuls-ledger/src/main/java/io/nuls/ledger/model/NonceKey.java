@@ -0,0 +1,80 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2018 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.ledger.model;
+
+import io.nuls.core.crypto.HexUtil;
+import io.nuls.ledger.utils.LedgerUtil;
+
+/**
+ * 8字节nonce的内存key，直接以long值比较，不再转换为hex字符串
+ */
+public final class NonceKey {
+
+    private final long value;
+
+    private NonceKey(long value) {
+        this.value = value;
+    }
+
+    public static NonceKey of(byte[] nonce) {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (nonce[i] & 0xFF);
+        }
+        return new NonceKey(value);
+    }
+
+    /**
+     * 交易hash的后8字节即为该交易产生的nonce
+     */
+    public static NonceKey ofTxHash(String txHash) {
+        return of(LedgerUtil.getNonceDecodeByTxHash(txHash));
+    }
+
+    public byte[] toBytes() {
+        byte[] nonce = new byte[8];
+        long v = value;
+        for (int i = 7; i >= 0; i--) {
+            nonce[i] = (byte) v;
+            v >>>= 8;
+        }
+        return nonce;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof NonceKey && ((NonceKey) o).value == value);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(value);
+    }
+
+    @Override
+    public String toString() {
+        return HexUtil.encode(toBytes());
+    }
+}
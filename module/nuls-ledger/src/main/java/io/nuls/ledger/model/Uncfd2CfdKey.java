@@ -2,27 +2,27 @@ package io.nuls.ledger.model;
 
 public class Uncfd2CfdKey {
 
-    private String assetKey;
-    private String nonceKey;
+    private AccountKey assetKey;
+    private NonceKey nonceKey;
 
-    public Uncfd2CfdKey(String assetKey, String nonceKey) {
+    public Uncfd2CfdKey(AccountKey assetKey, NonceKey nonceKey) {
         this.assetKey = assetKey;
         this.nonceKey = nonceKey;
     }
 
-    public String getAssetKey() {
+    public AccountKey getAssetKey() {
         return assetKey;
     }
 
-    public void setAssetKey(String assetKey) {
+    public void setAssetKey(AccountKey assetKey) {
         this.assetKey = assetKey;
     }
 
-    public String getNonceKey() {
+    public NonceKey getNonceKey() {
         return nonceKey;
     }
 
-    public void setNonceKey(String nonceKey) {
+    public void setNonceKey(NonceKey nonceKey) {
         this.nonceKey = nonceKey;
     }
 }
@@ -28,6 +28,7 @@ package io.nuls.ledger.model.po;
 import io.nuls.core.model.BigIntegerUtils;
 import io.nuls.core.rpc.util.NulsDateUtils;
 import io.nuls.ledger.constant.LedgerConstant;
+import io.nuls.ledger.model.NonceKey;
 
 import java.math.BigInteger;
 import java.util.HashMap;
@@ -46,7 +47,7 @@ public class AccountStateUnconfirmed {
     private BigInteger toConfirmedAmount = BigInteger.ZERO;
     private BigInteger unconfirmedAmount = BigInteger.ZERO;
 
-    Map<String, TxUnconfirmed> txUnconfirmedMap = new ConcurrentHashMap<>();
+    Map<NonceKey, TxUnconfirmed> txUnconfirmedMap = new ConcurrentHashMap<>();
 
     private long createTime = 0;
 
@@ -54,27 +55,27 @@ public class AccountStateUnconfirmed {
         super();
     }
 
-    public Map<String, TxUnconfirmed> getTxUnconfirmedMap() {
+    public Map<NonceKey, TxUnconfirmed> getTxUnconfirmedMap() {
         return txUnconfirmedMap;
     }
 
-    public void setTxUnconfirmedMap(Map<String, TxUnconfirmed> txUnconfirmedMap) {
+    public void setTxUnconfirmedMap(Map<NonceKey, TxUnconfirmed> txUnconfirmedMap) {
         this.txUnconfirmedMap = txUnconfirmedMap;
     }
 
-    public void addTxUnconfirmed(String nonce, TxUnconfirmed txUnconfirmed) {
+    public void addTxUnconfirmed(NonceKey nonce, TxUnconfirmed txUnconfirmed) {
         txUnconfirmedMap.put(nonce, txUnconfirmed);
     }
 
-    public void addTxUnconfirmeds(Map<String, TxUnconfirmed> txUnconfirmeds) {
+    public void addTxUnconfirmeds(Map<NonceKey, TxUnconfirmed> txUnconfirmeds) {
         txUnconfirmedMap.putAll(txUnconfirmeds);
     }
 
-    public TxUnconfirmed getTxUnconfirmed(String nonce) {
+    public TxUnconfirmed getTxUnconfirmed(NonceKey nonce) {
         return txUnconfirmedMap.get(nonce);
     }
 
-    public void delTxUnconfirmed(String nonce) {
+    public void delTxUnconfirmed(NonceKey nonce) {
         txUnconfirmedMap.remove(nonce);
     }
 
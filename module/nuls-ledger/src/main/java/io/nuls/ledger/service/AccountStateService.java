@@ -25,6 +25,7 @@
  */
 package io.nuls.ledger.service;
 
+import io.nuls.ledger.model.AccountKey;
 import io.nuls.ledger.model.po.AccountState;
 import io.nuls.ledger.model.po.AccountStateSnapshot;
 
@@ -61,6 +62,15 @@ public interface AccountStateService {
      */
     AccountState getAccountStateReCal(String address, int addressChainId, int assetChainId, int assetId);
 
+    /**
+     * 获取账本信息，并重新计算冻结的金额的信息，使用已构建的账户key
+     *
+     * @param accountKey
+     * @param addressChainId
+     * @return
+     */
+    AccountState getAccountStateReCal(AccountKey accountKey, int addressChainId);
+
     /**
      * 回滚账户信息
      *
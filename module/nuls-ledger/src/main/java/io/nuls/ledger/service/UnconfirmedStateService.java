@@ -25,6 +25,8 @@
  */
 package io.nuls.ledger.service;
 
+import io.nuls.ledger.model.AccountKey;
+import io.nuls.ledger.model.NonceKey;
 import io.nuls.ledger.model.Uncfd2CfdKey;
 import io.nuls.ledger.model.ValidateResult;
 import io.nuls.ledger.model.po.AccountState;
@@ -49,15 +51,25 @@ public interface UnconfirmedStateService {
      */
     AccountStateUnconfirmed getUnconfirmedInfo(AccountState accountState);
 
-    AccountStateUnconfirmed getUnconfirmedInfoAndClear(AccountState accountState);
+    /**
+     * 重计算未确认账本信息，调用方已持有账户key时使用
+     *
+     * @param accountKey
+     * @param accountState
+     * @return
+     */
+    AccountStateUnconfirmed getUnconfirmedInfo(AccountKey accountKey, AccountState accountState);
+
+    AccountStateUnconfirmed getUnconfirmedInfoAndClear(AccountKey accountKey, AccountState accountState);
 
     /**
      * 获取账本nonce信息
      *
+     * @param accountKey
      * @param accountState
      * @return
      */
-    AccountStateUnconfirmed getUnconfirmedJustNonce(AccountState accountState);
+    AccountStateUnconfirmed getUnconfirmedJustNonce(AccountKey accountKey, AccountState accountState);
 
     /**
      * 回滚信息
@@ -67,7 +79,7 @@ public interface UnconfirmedStateService {
      * @param txsUnconfirmed
      * @param accountStateUnconfirmed
      */
-    void mergeUnconfirmedNonce(AccountState accountState, String assetKey,  Map<String,TxUnconfirmed> txsUnconfirmed, AccountStateUnconfirmed accountStateUnconfirmed);
+    void mergeUnconfirmedNonce(AccountState accountState, AccountKey assetKey, Map<NonceKey, TxUnconfirmed> txsUnconfirmed, AccountStateUnconfirmed accountStateUnconfirmed);
 
     /**
      * 回滚未确认账本交易
@@ -77,7 +89,7 @@ public interface UnconfirmedStateService {
      * @param txHash
      * @return
      */
-    boolean rollUnconfirmedTx(int addressChainId, String assetKey, String txHash);
+    boolean rollUnconfirmedTx(int addressChainId, AccountKey assetKey, String txHash);
 
     /**
      * unconfirmed tx existunconfirmed tx exist
@@ -87,7 +99,7 @@ public interface UnconfirmedStateService {
      * @return
      * @throws Exception
      */
-    boolean   existTxUnconfirmedTx(int addressChainId,String assetKey,String nonce)  throws Exception;
+    boolean existTxUnconfirmedTx(int addressChainId, AccountKey assetKey, NonceKey nonce) throws Exception;
 
     /**
      * delete unconfirmed state
@@ -96,7 +108,7 @@ public interface UnconfirmedStateService {
      * @param accountKey
      * @throws Exception
      */
-    void clearAccountUnconfirmed(int addressChainId, String accountKey) throws Exception;
+    void clearAccountUnconfirmed(int addressChainId, AccountKey accountKey) throws Exception;
 
     void clearAllAccountUnconfirmed(int addressChainId) throws Exception;
 
@@ -114,9 +126,9 @@ public interface UnconfirmedStateService {
      *
      * @param addressChainId
      * @param txNonce
-     * @param txUnconfirmed
+     * @param accountKey
      * @param txUnconfirmed
      * @return
      */
-    ValidateResult updateUnconfirmedTx(String txHash,int addressChainId, byte[] txNonce, TxUnconfirmed txUnconfirmed);
+    ValidateResult updateUnconfirmedTx(String txHash, int addressChainId, byte[] txNonce, AccountKey accountKey, TxUnconfirmed txUnconfirmed);
 }
@@ -30,6 +30,8 @@ import io.nuls.core.core.annotation.Service;
 import io.nuls.core.rpc.util.NulsDateUtils;
 import io.nuls.ledger.constant.LedgerConstant;
 import io.nuls.ledger.manager.LedgerChainManager;
+import io.nuls.ledger.model.AccountKey;
+import io.nuls.ledger.model.NonceKey;
 import io.nuls.ledger.model.po.*;
 import io.nuls.ledger.service.AccountStateService;
 import io.nuls.ledger.service.FreezeStateService;
@@ -66,10 +68,10 @@ public class AccountStateServiceImpl implements AccountStateService {
         //获取当前数据库值
         Map<byte[], byte[]> accountStates = new HashMap<>(1024);
         for (AccountStateSnapshot accountStateSnapshot : preAccountStates) {
-            String assetKey = LedgerUtil.getKeyStr(accountStateSnapshot.getAccountState().getAddress(), accountStateSnapshot.getAccountState().getAssetChainId(), accountStateSnapshot.getAccountState().getAssetId());
-            accountStates.put(assetKey.getBytes(LedgerConstant.DEFAULT_ENCODING), accountStateSnapshot.getAccountState().serialize());
+            AccountKey assetKey = AccountKey.of(accountStateSnapshot.getAccountState().getAddress(), accountStateSnapshot.getAccountState().getAssetChainId(), accountStateSnapshot.getAccountState().getAssetId());
+            accountStates.put(assetKey.getDbKey(), accountStateSnapshot.getAccountState().serialize());
             //获取当前数据库值
-            Map<String, TxUnconfirmed> unconfirmedNonces = new HashMap<>(64);
+            Map<NonceKey, TxUnconfirmed> unconfirmedNonces = new HashMap<>(64);
             AccountState accountState = accountStateSnapshot.getAccountState();
             AccountStateUnconfirmed accountStateUnconfirmed = new AccountStateUnconfirmed();
             List<AmountNonce> list = accountStateSnapshot.getNonces();
@@ -77,7 +79,7 @@ public class AccountStateServiceImpl implements AccountStateService {
             for (AmountNonce amountNonce : list) {
                 TxUnconfirmed txUnconfirmed = new TxUnconfirmed(accountState.getAddress(), accountState.getAssetChainId(), accountState.getAssetId(),
                         amountNonce.getFromNonce(), amountNonce.getNonce(), amountNonce.getAmount());
-                unconfirmedNonces.put(LedgerUtil.getNonceEncode(amountNonce.getNonce()), txUnconfirmed);
+                unconfirmedNonces.put(NonceKey.of(amountNonce.getNonce()), txUnconfirmed);
                 amount.add(amountNonce.getAmount());
             }
             //进行nonce的回退合并处理
@@ -125,7 +127,16 @@ public class AccountStateServiceImpl implements AccountStateService {
     public AccountState getAccountStateReCal(String address, int addressChainId, int assetChainId, int assetId) {
         //账户处理锁
         byte[] key = LedgerUtil.getKey(address, assetChainId, assetId);
-        AccountState accountState = repository.getAccountState(addressChainId, key);
+        return reCalAccountState(repository.getAccountState(addressChainId, key), address, addressChainId, assetChainId, assetId);
+    }
+
+    @Override
+    public AccountState getAccountStateReCal(AccountKey accountKey, int addressChainId) {
+        AccountState accountState = repository.getAccountState(addressChainId, accountKey.getDbKey());
+        return reCalAccountState(accountState, accountKey.getAddress(), addressChainId, accountKey.getAssetChainId(), accountKey.getAssetId());
+    }
+
+    private AccountState reCalAccountState(AccountState accountState, String address, int addressChainId, int assetChainId, int assetId) {
         if (null == accountState) {
             accountState = new AccountState(address, addressChainId, assetChainId, assetId, LedgerConstant.getInitNonceByte());
         } else {
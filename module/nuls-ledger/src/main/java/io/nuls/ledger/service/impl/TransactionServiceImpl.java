@@ -32,6 +32,8 @@ import io.nuls.core.core.annotation.Service;
 import io.nuls.core.rpc.util.NulsDateUtils;
 import io.nuls.ledger.constant.LedgerConstant;
 import io.nuls.ledger.model.AccountBalance;
+import io.nuls.ledger.model.AccountKey;
+import io.nuls.ledger.model.NonceKey;
 import io.nuls.ledger.model.Uncfd2CfdKey;
 import io.nuls.ledger.model.ValidateResult;
 import io.nuls.ledger.model.po.AccountState;
@@ -104,38 +106,56 @@ public class TransactionServiceImpl implements TransactionService {
             //例如黄牌交易，直接返回
             return ValidateResult.getSuccess();
         }
-        /*未确认交易的校验*/
-        Map<String, TxUnconfirmed> accountsMap = new ConcurrentHashMap<>(8);
-        byte[] txNonce = LedgerUtil.getNonceByTx(transaction);
-        ValidateResult validateResult = coinDataValidator.analysisCoinData(addressChainId, transaction, accountsMap, txNonce);
-        if (!validateResult.isSuccess()) {
-            if (validateResult.isOrphan()) {
-                //大部分会是孤儿交易
-            } else {
-                LoggerUtil.logger(addressChainId).error("validateResult = {}={}", validateResult.getValidateCode(), validateResult.getValidateDesc());
+        //只锁定交易涉及的账户，与其他账户的交易及不相关的区块提交并行
+        Set<AccountKey> accounts = new HashSet<>();
+        addLocalAccounts(addressChainId, coinData.getFrom(), accounts);
+        int[] stripes = LockerUtil.ACCOUNT_LOCKER.lock(accounts);
+        try {
+            /*未确认交易的校验*/
+            Map<AccountKey, TxUnconfirmed> accountsMap = new ConcurrentHashMap<>(8);
+            byte[] txNonce = LedgerUtil.getNonceByTx(transaction);
+            ValidateResult validateResult = coinDataValidator.analysisCoinData(addressChainId, transaction, accountsMap, txNonce);
+            if (!validateResult.isSuccess()) {
+                if (validateResult.isOrphan()) {
+                    //大部分会是孤儿交易
+                } else {
+                    LoggerUtil.logger(addressChainId).error("validateResult = {}={}", validateResult.getValidateCode(), validateResult.getValidateDesc());
+                }
+                return validateResult;
+            }
+            for (Map.Entry<AccountKey, TxUnconfirmed> entry : accountsMap.entrySet()) {
+                ValidateResult updateResult = unconfirmedStateService.updateUnconfirmedTx(transaction.getHash().toHex(), addressChainId, txNonce, entry.getKey(), entry.getValue());
+                if (!updateResult.isSuccess()) {
+                    return updateResult;
+                }
             }
-            return validateResult;
+            return ValidateResult.getSuccess();
+        } finally {
+            LockerUtil.ACCOUNT_LOCKER.unlock(stripes);
         }
-        Set keys = accountsMap.keySet();
-        Iterator<String> it = keys.iterator();
-        while (it.hasNext()) {
-            TxUnconfirmed txUnconfirmed = accountsMap.get(it.next());
-            ValidateResult updateResult = unconfirmedStateService.updateUnconfirmedTx(transaction.getHash().toHex(), addressChainId, txNonce, txUnconfirmed);
-            if (!updateResult.isSuccess()) {
-                return updateResult;
+    }
+
+    /**
+     * 收集本链账户的key，用于账户级加锁
+     */
+    private void addLocalAccounts(int addressChainId, List<? extends Coin> coins, Set<AccountKey> accounts) {
+        for (Coin coin : coins) {
+            if (!LedgerUtil.isNotLocalChainAccount(addressChainId, coin.getAddress())) {
+                accounts.add(AccountKey.of(coin));
             }
         }
-        return ValidateResult.getSuccess();
     }
 
-    private boolean confirmBlockTxProcess(int addressChainId, long blockHeight, List<Transaction> txList,
-                                          Map<String, AccountBalance> updateAccounts, List<Uncfd2CfdKey> delUncfd2CfdKeys, Map<String, Integer> clearUncfs) throws Exception {
-        for (Transaction transaction : txList) {
+    private boolean confirmBlockTxProcess(int addressChainId, long blockHeight, List<Transaction> txList, List<CoinData> coinDatas,
+                                          Map<AccountKey, AccountBalance> updateAccounts, List<Uncfd2CfdKey> delUncfd2CfdKeys, Map<AccountKey, Integer> clearUncfs) throws Exception {
+        for (int i = 0; i < txList.size(); i++) {
+            Transaction transaction = txList.get(i);
             byte[] nonce8Bytes = LedgerUtil.getNonceByTx(transaction);
+            NonceKey nonceKey = NonceKey.of(nonce8Bytes);
             String txHash = transaction.getHash().toHex();
             ledgerHash.put(txHash, 1);
             //从缓存校验交易
-            CoinData coinData = CoinDataUtil.parseCoinData(transaction.getCoinData());
+            CoinData coinData = coinDatas.get(i);
             if (null == coinData) {
                 //例如黄牌交易，直接返回
                 LoggerUtil.logger(addressChainId).info("txHash = {},coinData is null continue.", txHash);
@@ -155,19 +175,18 @@ public class TransactionServiceImpl implements TransactionService {
                     }
                 }
                 boolean process = false;
-                AccountBalance accountBalance = getAccountBalance(addressChainId, from, txHash, blockHeight, updateAccounts);
+                AccountKey accountKey = AccountKey.of(from);
+                AccountBalance accountBalance = getAccountBalance(addressChainId, accountKey, txHash, blockHeight, updateAccounts);
                 if (from.getLocked() == 0) {
                     if (!coinDataValidator.validateAndAddNonces(accountBalance, nonce8Bytes, from.getNonce(), from.getAmount())) {
                         logger(addressChainId).error("nonce1={},nonce2={} validate fail.", accountBalance.getNonces().get(accountBalance.getNonces().size() - 1), LedgerUtil.getNonceEncode(from.getNonce()));
                         return false;
                     }
                     //判断是否存在未确认过程交易，如果存在则进行确认记录，如果不存在，则进行未确认的清空记录
-                    String accountkeyStr = LedgerUtil.getAccountAssetStrKey(from);
-                    String nonce8Str = LedgerUtil.getNonceEncode(nonce8Bytes);
-                    if (unconfirmedStateService.existTxUnconfirmedTx(addressChainId, accountkeyStr, nonce8Str)) {
-                        delUncfd2CfdKeys.add(new Uncfd2CfdKey(accountkeyStr, nonce8Str));
+                    if (unconfirmedStateService.existTxUnconfirmedTx(addressChainId, accountKey, nonceKey)) {
+                        delUncfd2CfdKeys.add(new Uncfd2CfdKey(accountKey, nonceKey));
                     } else {
-                        clearUncfs.put(accountkeyStr, 1);
+                        clearUncfs.put(accountKey, 1);
                     }
                     //非解锁交易处理
                     process = commontTransactionProcessor.processFromCoinData(from, nonce8Bytes, accountBalance.getNowAccountState());
@@ -192,7 +211,7 @@ public class TransactionServiceImpl implements TransactionService {
                         return false;
                     }
                 }
-                AccountBalance accountBalance = getAccountBalance(addressChainId, to, txHash, blockHeight, updateAccounts);
+                AccountBalance accountBalance = getAccountBalance(addressChainId, AccountKey.of(to), txHash, blockHeight, updateAccounts);
                 if (to.getLockTime() == 0) {
                     //非锁定交易处理
                     commontTransactionProcessor.processToCoinData(to, accountBalance.getNowAccountState());
@@ -218,6 +237,7 @@ public class TransactionServiceImpl implements TransactionService {
     public boolean confirmBlockProcess(int addressChainId, List<Transaction> txList, long blockHeight) {
         long time1, time11, time2, time3, time4, time5, time6, time7 = 0;
         time1 = System.currentTimeMillis();
+        int[] stripes = null;
         try {
             cleanBlockCommitTempDatas();
             LockerUtil.LEDGER_LOCKER.lock();
@@ -228,28 +248,40 @@ public class TransactionServiceImpl implements TransactionService {
                 logger(addressChainId).error("addressChainId ={},blockHeight={},ledgerBlockHeight={}", addressChainId, blockHeight, currentDbHeight);
                 return false;
             }
+            //锁定区块涉及的账户直到未确认数据清理完成，其他账户的未确认交易处理不受影响
+            List<CoinData> coinDatas = new ArrayList<>(txList.size());
+            Set<AccountKey> accounts = new HashSet<>();
+            for (Transaction transaction : txList) {
+                CoinData coinData = CoinDataUtil.parseCoinData(transaction.getCoinData());
+                coinDatas.add(coinData);
+                if (null != coinData) {
+                    addLocalAccounts(addressChainId, coinData.getFrom(), accounts);
+                    addLocalAccounts(addressChainId, coinData.getTo(), accounts);
+                }
+            }
+            stripes = LockerUtil.ACCOUNT_LOCKER.lock(accounts);
             //批量交易按交易进行账户的金额处理，再按区块为原子性进行提交,updateAccounts用于账户计算缓存，最后统一处理
-            Map<String, AccountBalance> updateAccounts = new HashMap<>(5120);
+            Map<AccountKey, AccountBalance> updateAccounts = new HashMap<>(5120);
             //整体区块备份
             BlockSnapshotAccounts blockSnapshotAccounts = new BlockSnapshotAccounts();
             Map<byte[], byte[]> accountStatesMap = new HashMap<>(5120);
             List<Uncfd2CfdKey> delUncfd2CfdKeys = new ArrayList<>();
-            Map<String, Integer> clearUncfs = new HashMap<>(64);
+            Map<AccountKey, Integer> clearUncfs = new HashMap<>(64);
             try {
-                if (!confirmBlockTxProcess(addressChainId, blockHeight, txList, updateAccounts, delUncfd2CfdKeys, clearUncfs)) {
+                if (!confirmBlockTxProcess(addressChainId, blockHeight, txList, coinDatas, updateAccounts, delUncfd2CfdKeys, clearUncfs)) {
                     return false;
                 }
                 time2 = System.currentTimeMillis();
 
                 //整体交易的处理
                 //更新账本信息
-                for (Map.Entry<String, AccountBalance> entry : updateAccounts.entrySet()) {
+                for (Map.Entry<AccountKey, AccountBalance> entry : updateAccounts.entrySet()) {
                     //缓存数据
                     AccountStateSnapshot accountStateSnapshot = new AccountStateSnapshot(entry.getValue().getPreAccountState(), entry.getValue().getNonces());
                     blockSnapshotAccounts.addAccountState(accountStateSnapshot);
                     freezeStateService.recalculateFreeze(entry.getValue().getNowAccountState());
                     entry.getValue().getNowAccountState().setLatestUnFreezeTime(NulsDateUtils.getCurrentTimeSeconds());
-                    accountStatesMap.put(entry.getKey().getBytes(LedgerConstant.DEFAULT_ENCODING), entry.getValue().getNowAccountState().serialize());
+                    accountStatesMap.put(entry.getKey().getDbKey(), entry.getValue().getNowAccountState().serialize());
                 }
             } catch (Exception e) {
                 logger(addressChainId).error("confirmBlockProcess blockSnapshotAccounts addAccountState error!");
@@ -257,15 +289,21 @@ public class TransactionServiceImpl implements TransactionService {
                 return false;
             }
             time3 = System.currentTimeMillis();
-            //提交整体数据
+            //提交整体数据：快照、账户状态、高度在同一批次中写入
             try {
-                //备份历史
-                repository.saveBlockSnapshot(addressChainId, blockHeight, blockSnapshotAccounts);
-                if (accountStatesMap.size() > 0) {
-                    repository.batchUpdateAccountState(addressChainId, accountStatesMap);
-                }
-                time4 = System.currentTimeMillis();
-                for (Map.Entry<String, Integer> entry : clearUncfs.entrySet()) {
+                repository.commitBlock(addressChainId, blockHeight, blockSnapshotAccounts, accountStatesMap);
+            } catch (Exception e) {
+                //需要回滚数据
+                cleanBlockCommitTempDatas();
+                logger(addressChainId).error(e);
+                LoggerUtil.logger(addressChainId).error("confirmBlockProcess  error! go rollBackBlock!addrChainId={},height={}", addressChainId, blockHeight);
+                rollBackBlock(addressChainId, blockSnapshotAccounts.getAccounts(), blockHeight);
+                return false;
+            }
+            time4 = System.currentTimeMillis();
+            //区块已完全提交，未确认数据只在内存中，清理失败不影响已提交的数据
+            try {
+                for (Map.Entry<AccountKey, Integer> entry : clearUncfs.entrySet()) {
                     //进行收到网络其他节点的交易，刷新本地未确认数据处理
                     unconfirmedStateService.clearAccountUnconfirmed(addressChainId, entry.getKey());
                 }
@@ -273,39 +311,34 @@ public class TransactionServiceImpl implements TransactionService {
                 //删除跃迁的未确认交易
                 unconfirmedStateService.batchDeleteUnconfirmedTx(addressChainId, delUncfd2CfdKeys);
             } catch (Exception e) {
-                //需要回滚数据
-                cleanBlockCommitTempDatas();
+                time6 = System.currentTimeMillis();
+                logger(addressChainId).error("confirmBlockProcess clear unconfirmed error!addrChainId={},height={}", addressChainId, blockHeight);
                 logger(addressChainId).error(e);
-                LoggerUtil.logger(addressChainId).error("confirmBlockProcess  error! go rollBackBlock!addrChainId={},height={}", addressChainId, blockHeight);
-                rollBackBlock(addressChainId, blockSnapshotAccounts.getAccounts(), blockHeight);
-                return false;
             }
-            //完全提交,存储当前高度。
-            repository.saveOrUpdateBlockHeight(addressChainId, blockHeight);
             time7 = System.currentTimeMillis();
             LoggerUtil.logger(addressChainId).info("####height={},txs={},accountSize={}====总时间:{},结构校验解析时间={},数据封装={},数据快照={},清除未确认={},跃迁未确认交易={}",
                     blockHeight, txList.size(), updateAccounts.size(), time7 - time1, time2 - time11, time3 - time2, time4 - time3, time6 - time4, time7 - time6);
+            LoggerUtil.logger(addressChainId).debug("accountStateCache: {}", repository.getAccountStateCache(addressChainId));
             return true;
         } catch (Exception e) {
             LoggerUtil.logger(addressChainId).error("confirmBlockProcess error", e);
             cleanBlockCommitTempDatas();
             return false;
         } finally {
+            if (null != stripes) {
+                LockerUtil.ACCOUNT_LOCKER.unlock(stripes);
+            }
             LockerUtil.LEDGER_LOCKER.unlock();
 
         }
 
     }
 
-    private AccountBalance getAccountBalance(int addressChainId, Coin coin, String txHash, long height, Map<String, AccountBalance> updateAccounts) {
-        String address = AddressTool.getStringAddressByBytes(coin.getAddress());
-        int assetChainId = coin.getAssetsChainId();
-        int assetId = coin.getAssetsId();
-        String key = LedgerUtil.getKeyStr(address, assetChainId, assetId);
+    private AccountBalance getAccountBalance(int addressChainId, AccountKey key, String txHash, long height, Map<AccountKey, AccountBalance> updateAccounts) {
         AccountBalance accountBalance = updateAccounts.get(key);
         if (null == accountBalance) {
             //交易里的账户处理缓存AccountBalance
-            AccountState accountState = accountStateService.getAccountStateReCal(address, addressChainId, assetChainId, assetId);
+            AccountState accountState = accountStateService.getAccountStateReCal(key, addressChainId);
             AccountState orgAccountState = accountState.deepClone();
             accountState.setTxHash(txHash);
             accountState.setHeight(height);
@@ -317,12 +350,14 @@ public class TransactionServiceImpl implements TransactionService {
     }
 
     /**
+     * 只在区块提交失败时调用，调用方已持有LEDGER_LOCKER及区块账户锁
+     *
      * @param addressChainId
      * @param preAccountStates
      * @return
      */
     @Override
-    public synchronized boolean rollBackBlock(int addressChainId, List<AccountStateSnapshot> preAccountStates, long blockHeight) {
+    public boolean rollBackBlock(int addressChainId, List<AccountStateSnapshot> preAccountStates, long blockHeight) {
         try {
             //回滚账号信息
             accountStateService.rollAccountState(addressChainId, preAccountStates);
@@ -341,6 +376,7 @@ public class TransactionServiceImpl implements TransactionService {
      */
     @Override
     public boolean rollBackConfirmTxs(int addressChainId, long blockHeight, List<Transaction> txs) {
+        int[] stripes = null;
         try {
             LockerUtil.LEDGER_LOCKER.lock();
             cleanBlockCommitTempDatas();
@@ -355,6 +391,12 @@ public class TransactionServiceImpl implements TransactionService {
                 return false;
             }
             BlockSnapshotAccounts blockSnapshotAccounts = repository.getBlockSnapshot(addressChainId, blockHeight);
+            Set<AccountKey> accounts = new HashSet<>();
+            for (AccountStateSnapshot snapshot : blockSnapshotAccounts.getAccounts()) {
+                AccountState accountState = snapshot.getAccountState();
+                accounts.add(AccountKey.of(accountState.getAddress(), accountState.getAssetChainId(), accountState.getAssetId()));
+            }
+            stripes = LockerUtil.ACCOUNT_LOCKER.lock(accounts);
             //回滚高度
             repository.saveOrUpdateBlockHeight(addressChainId, (blockHeight - 1));
             List<AccountStateSnapshot> preAccountStates = blockSnapshotAccounts.getAccounts();
@@ -396,6 +438,9 @@ public class TransactionServiceImpl implements TransactionService {
             repository.saveOrUpdateBlockHeight(addressChainId, blockHeight);
             return false;
         } finally {
+            if (null != stripes) {
+                LockerUtil.ACCOUNT_LOCKER.unlock(stripes);
+            }
             LockerUtil.LEDGER_LOCKER.unlock();
         }
         return true;
@@ -422,11 +467,13 @@ public class TransactionServiceImpl implements TransactionService {
                     return false;
                 }
             }
-            String address = AddressTool.getStringAddressByBytes(from.getAddress());
-            int assetChainId = from.getAssetsChainId();
-            int assetId = from.getAssetsId();
-            String assetKey = LedgerUtil.getKeyStr(address, assetChainId, assetId);
-            return unconfirmedStateService.rollUnconfirmedTx(addressChainId, assetKey, txHash);
+            AccountKey accountKey = AccountKey.of(from);
+            int[] stripes = LockerUtil.ACCOUNT_LOCKER.lock(Collections.singleton(accountKey));
+            try {
+                return unconfirmedStateService.rollUnconfirmedTx(addressChainId, accountKey, txHash);
+            } finally {
+                LockerUtil.ACCOUNT_LOCKER.unlock(stripes);
+            }
         }
         return true;
     }
@@ -30,6 +30,8 @@ import io.nuls.core.core.annotation.Service;
 import io.nuls.core.rpc.util.NulsDateUtils;
 import io.nuls.ledger.constant.LedgerConstant;
 import io.nuls.ledger.constant.LedgerErrorCode;
+import io.nuls.ledger.model.AccountKey;
+import io.nuls.ledger.model.NonceKey;
 import io.nuls.ledger.model.Uncfd2CfdKey;
 import io.nuls.ledger.model.ValidateResult;
 import io.nuls.ledger.model.po.AccountState;
@@ -70,7 +72,12 @@ public class UnconfirmedStateServiceImpl implements UnconfirmedStateService {
      */
     @Override
     public AccountStateUnconfirmed getUnconfirmedInfo(AccountState accountState) {
-        String key = LedgerUtil.getKeyStr(accountState.getAddress(), accountState.getAssetChainId(), accountState.getAssetId());
+        AccountKey key = AccountKey.of(accountState.getAddress(), accountState.getAssetChainId(), accountState.getAssetId());
+        return getUnconfirmedInfo(key, accountState);
+    }
+
+    @Override
+    public AccountStateUnconfirmed getUnconfirmedInfo(AccountKey key, AccountState accountState) {
         AccountStateUnconfirmed accountStateUnconfirmed = unconfirmedRepository.getMemAccountStateUnconfirmed(accountState.getAddressChainId(), key);
         if (null != accountStateUnconfirmed && !accountStateUnconfirmed.isOverTime()) {
             //未确认与已确认状态一样，则未确认是最后的缓存信息
@@ -86,12 +93,12 @@ public class UnconfirmedStateServiceImpl implements UnconfirmedStateService {
     /**
      * 清理过期数据释放内存，未确认交易提交时候促发
      *
+     * @param key
      * @param accountState
      * @return
      */
     @Override
-    public AccountStateUnconfirmed getUnconfirmedInfoAndClear(AccountState accountState) {
-        String key = LedgerUtil.getKeyStr(accountState.getAddress(), accountState.getAssetChainId(), accountState.getAssetId());
+    public AccountStateUnconfirmed getUnconfirmedInfoAndClear(AccountKey key, AccountState accountState) {
         AccountStateUnconfirmed accountStateUnconfirmed = unconfirmedRepository.getMemAccountStateUnconfirmed(accountState.getAddressChainId(), key);
         if (null != accountStateUnconfirmed) {
             if (accountStateUnconfirmed.isOverTime()) {
@@ -117,12 +124,12 @@ public class UnconfirmedStateServiceImpl implements UnconfirmedStateService {
     /**
      * 获取账本nonce信息
      *
+     * @param key
      * @param accountState
      * @return
      */
     @Override
-    public AccountStateUnconfirmed getUnconfirmedJustNonce(AccountState accountState) {
-        String key = LedgerUtil.getKeyStr(accountState.getAddress(), accountState.getAssetChainId(), accountState.getAssetId());
+    public AccountStateUnconfirmed getUnconfirmedJustNonce(AccountKey key, AccountState accountState) {
         AccountStateUnconfirmed accountStateUnconfirmed = unconfirmedRepository.getMemAccountStateUnconfirmed(accountState.getAddressChainId(), key);
         if (null != accountStateUnconfirmed && !accountStateUnconfirmed.isOverTime()) {
             //未确认与已确认状态一样，则未确认是最后的缓存信息
@@ -136,7 +143,7 @@ public class UnconfirmedStateServiceImpl implements UnconfirmedStateService {
     }
 
     @Override
-    public void mergeUnconfirmedNonce(AccountState accountState, String assetKey, Map<String, TxUnconfirmed> txsUnconfirmed, AccountStateUnconfirmed accountStateUnconfirmed) {
+    public void mergeUnconfirmedNonce(AccountState accountState, AccountKey assetKey, Map<NonceKey, TxUnconfirmed> txsUnconfirmed, AccountStateUnconfirmed accountStateUnconfirmed) {
         //获取未确认的列表
         try {
             AccountStateUnconfirmed accountStateUnconfirmedDB = unconfirmedRepository.getMemAccountStateUnconfirmed(accountState.getAddressChainId(), assetKey);
@@ -158,14 +165,14 @@ public class UnconfirmedStateServiceImpl implements UnconfirmedStateService {
     }
 
     @Override
-    public boolean rollUnconfirmedTx(int addressChainId, String assetKey, String txHash) {
+    public boolean rollUnconfirmedTx(int addressChainId, AccountKey assetKey, String txHash) {
             //更新未确认上一个状态
             AccountStateUnconfirmed accountStateUnconfirmed = unconfirmedRepository.getMemAccountStateUnconfirmed(addressChainId, assetKey);
         try {
             if (null != accountStateUnconfirmed) {
                 if (LedgerUtil.equalsNonces(accountStateUnconfirmed.getNonce(), LedgerUtil.getNonceDecodeByTxHash(txHash))) {
-                    TxUnconfirmed preTxUnconfirmed = unconfirmedRepository.getMemUnconfirmedTx(addressChainId, assetKey, LedgerUtil.getNonceEncode(accountStateUnconfirmed.getFromNonce()));
-                    TxUnconfirmed nowTxUnconfirmed = unconfirmedRepository.getMemUnconfirmedTx(addressChainId, assetKey, LedgerUtil.getNonceEncode(accountStateUnconfirmed.getNonce()));
+                    TxUnconfirmed preTxUnconfirmed = unconfirmedRepository.getMemUnconfirmedTx(addressChainId, assetKey, NonceKey.of(accountStateUnconfirmed.getFromNonce()));
+                    TxUnconfirmed nowTxUnconfirmed = unconfirmedRepository.getMemUnconfirmedTx(addressChainId, assetKey, NonceKey.of(accountStateUnconfirmed.getNonce()));
                     if (null != preTxUnconfirmed && (null != nowTxUnconfirmed)) {
                         System.arraycopy(preTxUnconfirmed.getNonce(), 0, accountStateUnconfirmed.getNonce(), 0, LedgerConstant.NONCE_LENGHT);
                         System.arraycopy(preTxUnconfirmed.getFromNonce(), 0, accountStateUnconfirmed.getFromNonce(), 0, LedgerConstant.NONCE_LENGHT);
@@ -178,7 +185,7 @@ public class UnconfirmedStateServiceImpl implements UnconfirmedStateService {
                 }
             }
             //删除未确认过程缓存-该笔交易之后的未确认链
-            TxUnconfirmed txUnconfirmed = unconfirmedRepository.getMemUnconfirmedTx(addressChainId, assetKey, LedgerUtil.getNonceEncodeByTxHash(txHash));
+            TxUnconfirmed txUnconfirmed = unconfirmedRepository.getMemUnconfirmedTx(addressChainId, assetKey, NonceKey.ofTxHash(txHash));
             unconfirmedRepository.clearMemUnconfirmedTxs(addressChainId, assetKey, txUnconfirmed);
         } catch (Exception e) {
             LoggerUtil.logger(addressChainId).error("@@@@rollUnconfirmTx exception assetKey={},txHash={}", assetKey, txHash);
@@ -190,7 +197,7 @@ public class UnconfirmedStateServiceImpl implements UnconfirmedStateService {
     }
 
     @Override
-    public boolean existTxUnconfirmedTx(int addressChainId, String assetKey, String nonce) throws Exception {
+    public boolean existTxUnconfirmedTx(int addressChainId, AccountKey assetKey, NonceKey nonce) throws Exception {
         TxUnconfirmed txUnconfirmed = unconfirmedRepository.getMemUnconfirmedTx(addressChainId, assetKey, nonce);
         if (null != txUnconfirmed) {
             unconfirmedRepository.addUncfd2Cfd(addressChainId, assetKey, txUnconfirmed.getAmount());
@@ -204,7 +211,7 @@ public class UnconfirmedStateServiceImpl implements UnconfirmedStateService {
      * @throws Exception
      */
     @Override
-    public void clearAccountUnconfirmed(int addressChainId, String accountKey) throws Exception {
+    public void clearAccountUnconfirmed(int addressChainId, AccountKey accountKey) throws Exception {
         unconfirmedRepository.delMemAccountStateUnconfirmed(addressChainId, accountKey);
         unconfirmedRepository.clearMemUnconfirmedTxs(addressChainId, accountKey);
     }
@@ -212,11 +219,11 @@ public class UnconfirmedStateServiceImpl implements UnconfirmedStateService {
     @Override
     public void clearAllAccountUnconfirmed(int addressChainId) throws Exception {
         //账户处理锁
-        LockerUtil.UNCONFIRMED_SYNC_LOCKER.lock();
+        LockerUtil.ACCOUNT_LOCKER.lockAll();
         try {
             unconfirmedRepository.clearAllMemUnconfirmedTxs(addressChainId);
         } finally {
-            LockerUtil.UNCONFIRMED_SYNC_LOCKER.unlock();
+            LockerUtil.ACCOUNT_LOCKER.unlockAll();
         }
 
     }
@@ -230,11 +237,10 @@ public class UnconfirmedStateServiceImpl implements UnconfirmedStateService {
 
 
     @Override
-    public ValidateResult updateUnconfirmedTx(String txHash, int addressChainId, byte[] txNonce, TxUnconfirmed txUnconfirmed) {
+    public ValidateResult updateUnconfirmedTx(String txHash, int addressChainId, byte[] txNonce, AccountKey accountKey, TxUnconfirmed txUnconfirmed) {
         //账户同步锁
-        String keyStr = LedgerUtil.getKeyStr(txUnconfirmed.getAddress(), txUnconfirmed.getAssetChainId(), txUnconfirmed.getAssetId());
         AccountState accountState = accountStateService.getAccountState(txUnconfirmed.getAddress(), addressChainId, txUnconfirmed.getAssetChainId(), txUnconfirmed.getAssetId());
-        AccountStateUnconfirmed accountStateUnconfirmed = getUnconfirmedInfoAndClear(accountState);
+        AccountStateUnconfirmed accountStateUnconfirmed = getUnconfirmedInfoAndClear(accountKey, accountState);
         byte[] preNonce = null;
         if (null == accountStateUnconfirmed) {
             //新建
@@ -249,7 +255,7 @@ public class UnconfirmedStateServiceImpl implements UnconfirmedStateService {
         }
         if (null == accountStateUnconfirmed) {
             accountStateUnconfirmed = new AccountStateUnconfirmed(txUnconfirmed.getFromNonce(), txUnconfirmed.getNonce(), txUnconfirmed.getAmount());
-            unconfirmedRepository.saveMemAccountStateUnconfirmed(addressChainId, keyStr, accountStateUnconfirmed);
+            unconfirmedRepository.saveMemAccountStateUnconfirmed(addressChainId, accountKey, accountStateUnconfirmed);
         } else {
             System.arraycopy(txUnconfirmed.getFromNonce(), 0, accountStateUnconfirmed.getFromNonce(), 0, LedgerConstant.NONCE_LENGHT);
             System.arraycopy(txUnconfirmed.getNonce(), 0, accountStateUnconfirmed.getNonce(), 0, LedgerConstant.NONCE_LENGHT);
@@ -257,11 +263,11 @@ public class UnconfirmedStateServiceImpl implements UnconfirmedStateService {
             accountStateUnconfirmed.setCreateTime(NulsDateUtils.getCurrentTimeSeconds());
         }
         try {
-            TxUnconfirmed preTxUnconfirmed = unconfirmedRepository.getMemUnconfirmedTx(addressChainId, keyStr, LedgerUtil.getNonceEncode(txUnconfirmed.getFromNonce()));
+            TxUnconfirmed preTxUnconfirmed = unconfirmedRepository.getMemUnconfirmedTx(addressChainId, accountKey, NonceKey.of(txUnconfirmed.getFromNonce()));
             if (null != preTxUnconfirmed) {
                 System.arraycopy(txUnconfirmed.getNonce(), 0, preTxUnconfirmed.getNextNonce(), 0, LedgerConstant.NONCE_LENGHT);
             }
-            unconfirmedRepository.saveMemUnconfirmedTx(addressChainId, keyStr, LedgerUtil.getNonceEncode(txNonce), txUnconfirmed);
+            unconfirmedRepository.saveMemUnconfirmedTx(addressChainId, accountKey, NonceKey.of(txNonce), txUnconfirmed);
         } catch (Exception e) {
             LoggerUtil.logger(addressChainId).error(e);
             return ValidateResult.getResult(LedgerErrorCode.VALIDATE_FAIL, new String[]{txUnconfirmed.getAddress(), LedgerUtil.getNonceEncode(txUnconfirmed.getFromNonce()), "updateUnconfirmTx exception"});
@@ -0,0 +1,148 @@
+/*-
+ * ⁣⁣
+ * MIT License
+ * ⁣⁣
+ * Copyright (C) 2017 - 2018 nuls.io
+ * ⁣⁣
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * ⁣⁣
+ */
+package io.nuls.ledger.storage;
+
+import io.nuls.core.model.ByteArrayWrapper;
+import io.nuls.ledger.model.po.AccountState;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 账户状态LRU缓存，位于账户状态表之前，写入数据库的同时更新缓存
+ * 缓存中的对象不对外暴露，读写时均复制一份，调用方修改返回的对象不会影响缓存
+ * Write-through LRU cache of account states, keyed by the account table key
+ */
+public class AccountStateCache {
+
+    private final int capacity;
+
+    private final LinkedHashMap<ByteArrayWrapper, AccountState> cache;
+
+    /**
+     * 每次写入递增，读取数据库期间如有写入，则不用读到的旧值填充缓存
+     */
+    private long writeSequence = 0;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public AccountStateCache(int capacity) {
+        this.capacity = capacity;
+        this.cache = new LinkedHashMap<>(Math.min(capacity, 1024) * 4 / 3 + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ByteArrayWrapper, AccountState> eldest) {
+                if (size() > AccountStateCache.this.capacity) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * 获取缓存的账户状态副本，未命中返回null
+     */
+    public AccountState get(byte[] key) {
+        AccountState accountState;
+        synchronized (this) {
+            accountState = cache.get(new ByteArrayWrapper(key));
+        }
+        if (null == accountState) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return accountState.deepClone();
+    }
+
+    /**
+     * 读取数据库前获取当前写入序号，用于{@link #fill}
+     */
+    public synchronized long getWriteSequence() {
+        return writeSequence;
+    }
+
+    /**
+     * 用从数据库读到的值填充缓存，读取期间有过写入时放弃填充
+     */
+    public void fill(byte[] key, AccountState accountState, long sequence) {
+        AccountState copy = accountState.deepClone();
+        synchronized (this) {
+            if (sequence == writeSequence) {
+                cache.put(new ByteArrayWrapper(key), copy);
+            }
+        }
+    }
+
+    /**
+     * 数据库写入成功后更新缓存
+     */
+    public void put(byte[] key, AccountState accountState) {
+        AccountState copy = accountState.deepClone();
+        synchronized (this) {
+            writeSequence++;
+            cache.put(new ByteArrayWrapper(key), copy);
+        }
+    }
+
+    public synchronized void remove(byte[] key) {
+        writeSequence++;
+        cache.remove(new ByteArrayWrapper(key));
+    }
+
+    public synchronized void clear() {
+        writeSequence++;
+        cache.clear();
+    }
+
+    public synchronized int size() {
+        return cache.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    @Override
+    public String toString() {
+        long hit = hits.get();
+        long total = hit + misses.get();
+        return "size=" + size() + ",capacity=" + capacity + ",hits=" + hit + ",misses=" + misses.get()
+                + ",evictions=" + evictions.get() + ",hitRate=" + (total == 0 ? 0 : hit * 100 / total) + "%";
+    }
+}
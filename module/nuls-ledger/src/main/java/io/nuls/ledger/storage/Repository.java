@@ -116,6 +116,18 @@ public interface Repository {
      */
     long getBlockHeight(int chainId);
 
+    /**
+     * 区块整体提交：快照、账户状态与区块高度在同一批次中写入
+     * commit the block snapshot, account states and block height in one write batch
+     *
+     * @param chainId
+     * @param height
+     * @param blockSnapshotAccounts
+     * @param accountStateMap
+     * @throws Exception
+     */
+    void commitBlock(int chainId, long height, BlockSnapshotAccounts blockSnapshotAccounts, Map<byte[], byte[]> accountStateMap) throws Exception;
+
     /**
      * 保存或更新区块高度
      *
@@ -137,4 +149,13 @@ public interface Repository {
      * @throws NulsException
      */
     void initTableName() throws NulsException;
+
+    /**
+     * 获取链的账户状态缓存
+     * Account state cache of the chain
+     *
+     * @param chainId
+     * @return AccountStateCache
+     */
+    AccountStateCache getAccountStateCache(int chainId);
 }
@@ -25,6 +25,8 @@
  */
 package io.nuls.ledger.storage;
 
+import io.nuls.ledger.model.AccountKey;
+import io.nuls.ledger.model.NonceKey;
 import io.nuls.ledger.model.po.AccountStateUnconfirmed;
 import io.nuls.ledger.model.po.TxUnconfirmed;
 
@@ -36,25 +38,25 @@ import java.util.Map;
  */
 public interface UnconfirmedRepository {
 
-    AccountStateUnconfirmed getMemAccountStateUnconfirmed(int chainId, String accountKey);
+    AccountStateUnconfirmed getMemAccountStateUnconfirmed(int chainId, AccountKey accountKey);
 
-    void delMemAccountStateUnconfirmed(int chainId, String accountKey);
+    void delMemAccountStateUnconfirmed(int chainId, AccountKey accountKey);
 
-    void saveMemAccountStateUnconfirmed(int chainId, String accountKey, AccountStateUnconfirmed accountStateUnconfirmed);
+    void saveMemAccountStateUnconfirmed(int chainId, AccountKey accountKey, AccountStateUnconfirmed accountStateUnconfirmed);
 
-    TxUnconfirmed getMemUnconfirmedTx(int chainId, String accountKey, String nonceKey);
+    TxUnconfirmed getMemUnconfirmedTx(int chainId, AccountKey accountKey, NonceKey nonceKey);
 
-    void delMemUnconfirmedTx(int chainId, String accountKey, String nonceKey);
+    void delMemUnconfirmedTx(int chainId, AccountKey accountKey, NonceKey nonceKey);
 
-    void saveMemUnconfirmedTxs(int chainId, String accountKey, Map<String, TxUnconfirmed> map);
+    void saveMemUnconfirmedTxs(int chainId, AccountKey accountKey, Map<NonceKey, TxUnconfirmed> map);
 
-    void saveMemUnconfirmedTx(int chainId, String accountKey, String nonce, TxUnconfirmed txUnconfirmed);
+    void saveMemUnconfirmedTx(int chainId, AccountKey accountKey, NonceKey nonce, TxUnconfirmed txUnconfirmed);
 
-    void addUncfd2Cfd(int chainId, String accountKey, BigInteger addAmount);
+    void addUncfd2Cfd(int chainId, AccountKey accountKey, BigInteger addAmount);
 
-    void clearMemUnconfirmedTxs(int chainId, String accountKey, TxUnconfirmed txUnconfirmed);
+    void clearMemUnconfirmedTxs(int chainId, AccountKey accountKey, TxUnconfirmed txUnconfirmed);
 
-    void clearMemUnconfirmedTxs(int chainId, String accountKey);
+    void clearMemUnconfirmedTxs(int chainId, AccountKey accountKey);
 
 
     void clearAllMemUnconfirmedTxs(int chainId);
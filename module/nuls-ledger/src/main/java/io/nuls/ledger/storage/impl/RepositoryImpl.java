@@ -27,21 +27,25 @@ package io.nuls.ledger.storage.impl;
 
 import io.nuls.base.basic.NulsByteBuffer;
 import io.nuls.core.basic.InitializingBean;
+import io.nuls.core.core.annotation.Autowired;
 import io.nuls.core.core.annotation.Service;
 import io.nuls.core.exception.NulsException;
 import io.nuls.core.log.Log;
 import io.nuls.core.model.ByteUtils;
-import io.nuls.core.rockdb.model.Entry;
+import io.nuls.core.rockdb.service.MultiBatchOperation;
 import io.nuls.core.rockdb.service.RocksDBService;
+import io.nuls.ledger.config.LedgerConfig;
 import io.nuls.ledger.model.ChainHeight;
 import io.nuls.ledger.model.po.AccountState;
 import io.nuls.ledger.model.po.BlockSnapshotAccounts;
+import io.nuls.ledger.storage.AccountStateCache;
 import io.nuls.ledger.storage.DataBaseArea;
 import io.nuls.ledger.storage.Repository;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static io.nuls.ledger.utils.LoggerUtil.logger;
 
@@ -53,6 +57,14 @@ import static io.nuls.ledger.utils.LoggerUtil.logger;
 @Service
 public class RepositoryImpl implements Repository, InitializingBean {
 
+    @Autowired
+    private LedgerConfig ledgerConfig;
+
+    /**
+     * 每条链的账户状态缓存
+     */
+    private final Map<Integer, AccountStateCache> accountStateCacheMap = new ConcurrentHashMap<>();
+
     public RepositoryImpl() {
 
     }
@@ -67,7 +79,9 @@ public class RepositoryImpl implements Repository, InitializingBean {
     public void createAccountState(byte[] key, AccountState accountState) {
         try {
             RocksDBService.put(getLedgerAccountTableName(accountState.getAddressChainId()), key, accountState.serialize());
+            getAccountStateCache(accountState.getAddressChainId()).put(key, accountState);
         } catch (Exception e) {
+            getAccountStateCache(accountState.getAddressChainId()).remove(key);
             logger(accountState.getAddressChainId()).error("createAccountState serialize error.", e);
         }
     }
@@ -81,13 +95,26 @@ public class RepositoryImpl implements Repository, InitializingBean {
     @Override
     public void updateAccountState(byte[] key, AccountState nowAccountState) throws Exception {
         //update account
-        RocksDBService.put(getLedgerAccountTableName(nowAccountState.getAddressChainId()), key, nowAccountState.serialize());
+        AccountStateCache cache = getAccountStateCache(nowAccountState.getAddressChainId());
+        try {
+            RocksDBService.put(getLedgerAccountTableName(nowAccountState.getAddressChainId()), key, nowAccountState.serialize());
+        } catch (Exception e) {
+            cache.remove(key);
+            throw e;
+        }
+        cache.put(key, nowAccountState);
     }
 
     @Override
     public void batchUpdateAccountState(int addressChainId, Map<byte[], byte[]> accountStateMap) throws Exception {
         //update account
-        RocksDBService.batchPut(getLedgerAccountTableName(addressChainId), accountStateMap);
+        try {
+            RocksDBService.batchPut(getLedgerAccountTableName(addressChainId), accountStateMap);
+        } catch (Exception e) {
+            invalidateAccountStates(addressChainId, accountStateMap);
+            throw e;
+        }
+        refreshAccountStates(addressChainId, accountStateMap);
     }
 
 
@@ -102,6 +129,56 @@ public class RepositoryImpl implements Repository, InitializingBean {
 
     }
 
+    @Override
+    public void commitBlock(int chainId, long height, BlockSnapshotAccounts blockSnapshotAccounts, Map<byte[], byte[]> accountStateMap) throws Exception {
+        MultiBatchOperation batch = RocksDBService.createMultiTableWriteBatch();
+        batch.put(getBlockSnapshotTableName(chainId), ByteUtils.longToBytes(height), blockSnapshotAccounts.serialize());
+        String accountTable = getLedgerAccountTableName(chainId);
+        for (Map.Entry<byte[], byte[]> entry : accountStateMap.entrySet()) {
+            batch.put(accountTable, entry.getKey(), entry.getValue());
+        }
+        //高度最后写入，非列族模式下分别提交时，高度只在快照和账户状态写入后才更新
+        batch.put(getChainsHeightTableName(), ByteUtils.intToBytes(chainId), ByteUtils.longToBytes(height));
+        try {
+            batch.executeBatch();
+        } catch (Exception e) {
+            invalidateAccountStates(chainId, accountStateMap);
+            throw e;
+        }
+        refreshAccountStates(chainId, accountStateMap);
+    }
+
+    /**
+     * 账户状态写入数据库后更新缓存
+     */
+    private void refreshAccountStates(int chainId, Map<byte[], byte[]> accountStateMap) {
+        AccountStateCache cache = getAccountStateCache(chainId);
+        for (Map.Entry<byte[], byte[]> entry : accountStateMap.entrySet()) {
+            AccountState accountState = new AccountState();
+            try {
+                accountState.parse(new NulsByteBuffer(entry.getValue()));
+                cache.put(entry.getKey(), accountState);
+            } catch (NulsException e) {
+                cache.remove(entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * 写入失败时无法确定数据库中的值，直接移除缓存
+     */
+    private void invalidateAccountStates(int chainId, Map<byte[], byte[]> accountStateMap) {
+        AccountStateCache cache = getAccountStateCache(chainId);
+        for (byte[] key : accountStateMap.keySet()) {
+            cache.remove(key);
+        }
+    }
+
+    @Override
+    public AccountStateCache getAccountStateCache(int chainId) {
+        return accountStateCacheMap.computeIfAbsent(chainId, k -> new AccountStateCache(ledgerConfig.getAccountStateCacheSize()));
+    }
+
     @Override
     public BlockSnapshotAccounts getBlockSnapshot(int chainId, long height) {
         byte[] stream = RocksDBService.get(getBlockSnapshotTableName(chainId), ByteUtils.longToBytes(height));
@@ -126,13 +203,20 @@ public class RepositoryImpl implements Repository, InitializingBean {
      */
     @Override
     public AccountState getAccountState(int chainId, byte[] key) {
+        AccountStateCache cache = getAccountStateCache(chainId);
+        AccountState accountState = cache.get(key);
+        if (accountState != null) {
+            return accountState;
+        }
+        long sequence = cache.getWriteSequence();
         byte[] stream = RocksDBService.get(getLedgerAccountTableName(chainId), key);
         if (stream == null) {
             return null;
         }
-        AccountState accountState = new AccountState();
+        accountState = new AccountState();
         try {
             accountState.parse(new NulsByteBuffer(stream));
+            cache.fill(key, accountState, sequence);
         } catch (NulsException e) {
             logger(chainId).error("getAccountState serialize error.", e);
         }
@@ -166,16 +250,20 @@ public class RepositoryImpl implements Repository, InitializingBean {
 
     @Override
     public List<ChainHeight> getChainsBlockHeight() {
-        List<Entry<byte[], byte[]>> list = RocksDBService.entryList(getChainsHeightTableName());
         List<ChainHeight> rtList = new ArrayList<>();
-        if (null == list || 0 == list.size()) {
-            return null;
+        try {
+            RocksDBService.scan(getChainsHeightTableName(), (key, value) -> {
+                ChainHeight chainHeight = new ChainHeight();
+                chainHeight.setChainId(ByteUtils.bytesToInt(key));
+                chainHeight.setBlockHeight(ByteUtils.byteToLong(value));
+                rtList.add(chainHeight);
+                return true;
+            });
+        } catch (Exception e) {
+            Log.error(e);
         }
-        for (Entry<byte[], byte[]> entry : list) {
-            ChainHeight chainHeight = new ChainHeight();
-            chainHeight.setChainId(ByteUtils.bytesToInt(entry.getKey()));
-            chainHeight.setBlockHeight(ByteUtils.byteToLong(entry.getValue()));
-            rtList.add(chainHeight);
+        if (0 == rtList.size()) {
+            return null;
         }
         return rtList;
     }
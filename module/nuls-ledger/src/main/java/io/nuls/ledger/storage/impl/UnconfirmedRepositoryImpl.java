@@ -28,10 +28,11 @@ package io.nuls.ledger.storage.impl;
 import io.nuls.core.basic.InitializingBean;
 import io.nuls.core.core.annotation.Service;
 import io.nuls.core.exception.NulsException;
+import io.nuls.ledger.model.AccountKey;
+import io.nuls.ledger.model.NonceKey;
 import io.nuls.ledger.model.po.AccountStateUnconfirmed;
 import io.nuls.ledger.model.po.TxUnconfirmed;
 import io.nuls.ledger.storage.UnconfirmedRepository;
-import io.nuls.ledger.utils.LedgerUtil;
 
 import java.math.BigInteger;
 import java.util.ArrayList;
@@ -57,11 +58,11 @@ public class UnconfirmedRepositoryImpl implements UnconfirmedRepository, Initial
     /**
      * key1=chainId,  Map1=未确认账户状态， key2= addr+assetkey  value=AccountStateUnconfirmed
      */
-    Map<String, Map<String, AccountStateUnconfirmed>> chainAccountUnconfirmed = new ConcurrentHashMap<>(16);
+    Map<Integer, Map<AccountKey, AccountStateUnconfirmed>> chainAccountUnconfirmed = new ConcurrentHashMap<>(16);
 
     @Override
-    public AccountStateUnconfirmed getMemAccountStateUnconfirmed(int chainId, String accountKey) {
-        Map<String, AccountStateUnconfirmed> map = chainAccountUnconfirmed.get(String.valueOf(chainId));
+    public AccountStateUnconfirmed getMemAccountStateUnconfirmed(int chainId, AccountKey accountKey) {
+        Map<AccountKey, AccountStateUnconfirmed> map = chainAccountUnconfirmed.get(chainId);
         if (null != map) {
             return map.get(accountKey);
         }
@@ -69,26 +70,25 @@ public class UnconfirmedRepositoryImpl implements UnconfirmedRepository, Initial
     }
 
     @Override
-    public void delMemAccountStateUnconfirmed(int chainId, String accountKey) {
-        Map<String, AccountStateUnconfirmed> map = chainAccountUnconfirmed.get(String.valueOf(chainId));
+    public void delMemAccountStateUnconfirmed(int chainId, AccountKey accountKey) {
+        Map<AccountKey, AccountStateUnconfirmed> map = chainAccountUnconfirmed.get(chainId);
         if (null != map) {
             map.remove(accountKey);
         }
     }
 
     @Override
-    public void saveMemAccountStateUnconfirmed(int chainId, String accountKey, AccountStateUnconfirmed accountStateUnconfirmed) {
-        Map<String, AccountStateUnconfirmed> map = chainAccountUnconfirmed.get(String.valueOf(chainId));
+    public void saveMemAccountStateUnconfirmed(int chainId, AccountKey accountKey, AccountStateUnconfirmed accountStateUnconfirmed) {
+        Map<AccountKey, AccountStateUnconfirmed> map = chainAccountUnconfirmed.get(chainId);
         if (null == map) {
-            map = new ConcurrentHashMap<>();
-            chainAccountUnconfirmed.put(String.valueOf(chainId), map);
+            map = chainAccountUnconfirmed.computeIfAbsent(chainId, k -> new ConcurrentHashMap<>());
         }
         map.put(accountKey, accountStateUnconfirmed);
     }
 
 
     @Override
-    public TxUnconfirmed getMemUnconfirmedTx(int chainId, String accountKey, String nonceKey) {
+    public TxUnconfirmed getMemUnconfirmedTx(int chainId, AccountKey accountKey, NonceKey nonceKey) {
         AccountStateUnconfirmed accountStateUnconfirmed = getMemAccountStateUnconfirmed(chainId, accountKey);
         if (null != accountStateUnconfirmed) {
             return accountStateUnconfirmed.getTxUnconfirmed(nonceKey);
@@ -97,7 +97,7 @@ public class UnconfirmedRepositoryImpl implements UnconfirmedRepository, Initial
     }
 
     @Override
-    public void delMemUnconfirmedTx(int chainId, String accountKey, String nonceKey) {
+    public void delMemUnconfirmedTx(int chainId, AccountKey accountKey, NonceKey nonceKey) {
         AccountStateUnconfirmed accountStateUnconfirmed = getMemAccountStateUnconfirmed(chainId, accountKey);
         if (null != accountStateUnconfirmed) {
             accountStateUnconfirmed.delTxUnconfirmed(nonceKey);
@@ -105,7 +105,7 @@ public class UnconfirmedRepositoryImpl implements UnconfirmedRepository, Initial
     }
 
     @Override
-    public void saveMemUnconfirmedTxs(int chainId, String accountKey, Map<String, TxUnconfirmed> txUnconfirmedMap) {
+    public void saveMemUnconfirmedTxs(int chainId, AccountKey accountKey, Map<NonceKey, TxUnconfirmed> txUnconfirmedMap) {
         AccountStateUnconfirmed accountStateUnconfirmed = getMemAccountStateUnconfirmed(chainId, accountKey);
         if (null != accountStateUnconfirmed) {
             accountStateUnconfirmed.addTxUnconfirmeds(txUnconfirmedMap);
@@ -113,7 +113,7 @@ public class UnconfirmedRepositoryImpl implements UnconfirmedRepository, Initial
     }
 
     @Override
-    public void saveMemUnconfirmedTx(int chainId, String accountKey, String nonce, TxUnconfirmed txUnconfirmed) {
+    public void saveMemUnconfirmedTx(int chainId, AccountKey accountKey, NonceKey nonce, TxUnconfirmed txUnconfirmed) {
         AccountStateUnconfirmed accountStateUnconfirmed = getMemAccountStateUnconfirmed(chainId, accountKey);
         if (null != accountStateUnconfirmed) {
             accountStateUnconfirmed.addTxUnconfirmed(nonce, txUnconfirmed);
@@ -121,7 +121,7 @@ public class UnconfirmedRepositoryImpl implements UnconfirmedRepository, Initial
     }
 
     @Override
-    public void addUncfd2Cfd(int chainId, String accountKey, BigInteger addAmount) {
+    public void addUncfd2Cfd(int chainId, AccountKey accountKey, BigInteger addAmount) {
         AccountStateUnconfirmed accountStateUnconfirmed = getMemAccountStateUnconfirmed(chainId, accountKey);
         if (null == accountStateUnconfirmed) {
             return;
@@ -130,20 +130,17 @@ public class UnconfirmedRepositoryImpl implements UnconfirmedRepository, Initial
     }
 
     @Override
-    public void clearMemUnconfirmedTxs(int chainId, String accountKey, TxUnconfirmed txUnconfirmed) {
+    public void clearMemUnconfirmedTxs(int chainId, AccountKey accountKey, TxUnconfirmed txUnconfirmed) {
         AccountStateUnconfirmed accountStateUnconfirmed = getMemAccountStateUnconfirmed(chainId, accountKey);
         if(null ==accountStateUnconfirmed){
             return;
         }
-        Map<String, TxUnconfirmed> accountUnconfirmedTxs = accountStateUnconfirmed.getTxUnconfirmedMap();
-        if (null != accountUnconfirmedTxs) {
-            String key = LedgerUtil.getNonceEncode(txUnconfirmed.getNonce());
-            TxUnconfirmed memTxUnconfirmed = accountUnconfirmedTxs.get(key);
+        Map<NonceKey, TxUnconfirmed> accountUnconfirmedTxs = accountStateUnconfirmed.getTxUnconfirmedMap();
+        if (null != accountUnconfirmedTxs && null != txUnconfirmed) {
+            //沿nonce链依次删除该交易及之后的未确认交易
+            TxUnconfirmed memTxUnconfirmed = accountUnconfirmedTxs.remove(NonceKey.of(txUnconfirmed.getNonce()));
             while (null != memTxUnconfirmed) {
-                key = LedgerUtil.getNonceEncode(txUnconfirmed.getNonce());
-                accountUnconfirmedTxs.remove(key);
-                String keyNext = LedgerUtil.getNonceEncode(txUnconfirmed.getNextNonce());
-                memTxUnconfirmed = accountUnconfirmedTxs.get(keyNext);
+                memTxUnconfirmed = accountUnconfirmedTxs.remove(NonceKey.of(memTxUnconfirmed.getNextNonce()));
             }
         }
     }
@@ -155,7 +152,7 @@ public class UnconfirmedRepositoryImpl implements UnconfirmedRepository, Initial
      * @param accountKey
      */
     @Override
-    public void clearMemUnconfirmedTxs(int chainId, String accountKey) {
+    public void clearMemUnconfirmedTxs(int chainId, AccountKey accountKey) {
         AccountStateUnconfirmed accountStateUnconfirmed = getMemAccountStateUnconfirmed(chainId, accountKey);
         if (null == accountStateUnconfirmed) {
             return;
@@ -169,7 +166,7 @@ public class UnconfirmedRepositoryImpl implements UnconfirmedRepository, Initial
      */
     @Override
     public void clearAllMemUnconfirmedTxs(int chainId) {
-        Map<String,AccountStateUnconfirmed> allChainUnconfirmed =chainAccountUnconfirmed.get(String.valueOf(chainId));
+        Map<AccountKey, AccountStateUnconfirmed> allChainUnconfirmed = chainAccountUnconfirmed.get(chainId);
         if (null == allChainUnconfirmed) {
             return;
         }
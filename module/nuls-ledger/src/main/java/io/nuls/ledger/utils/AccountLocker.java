@@ -0,0 +1,103 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2018 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.ledger.utils;
+
+import io.nuls.ledger.model.AccountKey;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 按账户分段的锁，不同账户的未确认交易处理与区块提交互不阻塞
+ * 多个账户时按分段下标升序加锁，避免死锁
+ */
+public class AccountLocker {
+
+    private final ReentrantLock[] locks;
+
+    private final int mask;
+
+    public AccountLocker(int stripes) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.locks = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * 锁定账户所在分段
+     *
+     * @param keys 账户key
+     * @return 已锁定的分段，释放时传入{@link #unlock(int[])}
+     */
+    public int[] lock(Collection<AccountKey> keys) {
+        int[] stripes = stripes(keys);
+        for (int stripe : stripes) {
+            locks[stripe].lock();
+        }
+        return stripes;
+    }
+
+    public void unlock(int[] stripes) {
+        for (int i = stripes.length - 1; i >= 0; i--) {
+            locks[stripes[i]].unlock();
+        }
+    }
+
+    /**
+     * 锁定全部分段，用于清空整条链的未确认数据
+     */
+    public void lockAll() {
+        for (ReentrantLock lock : locks) {
+            lock.lock();
+        }
+    }
+
+    public void unlockAll() {
+        for (int i = locks.length - 1; i >= 0; i--) {
+            locks[i].unlock();
+        }
+    }
+
+    int[] stripes(Collection<AccountKey> keys) {
+        int[] stripes = new int[keys.size()];
+        int i = 0;
+        for (AccountKey key : keys) {
+            int h = key.hashCode();
+            stripes[i++] = (h ^ (h >>> 16)) & mask;
+        }
+        Arrays.sort(stripes);
+        int size = 0;
+        for (int j = 0; j < stripes.length; j++) {
+            if (size == 0 || stripes[size - 1] != stripes[j]) {
+                stripes[size++] = stripes[j];
+            }
+        }
+        return size == stripes.length ? stripes : Arrays.copyOf(stripes, size);
+    }
+}
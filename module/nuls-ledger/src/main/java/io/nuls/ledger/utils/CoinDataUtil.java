@@ -1,11 +1,11 @@
 package io.nuls.ledger.utils;
 
-import io.nuls.base.basic.AddressTool;
 import io.nuls.base.basic.NulsByteBuffer;
 import io.nuls.base.data.CoinData;
 import io.nuls.base.data.CoinFrom;
 import io.nuls.core.log.Log;
 import io.nuls.ledger.constant.LedgerConstant;
+import io.nuls.ledger.model.AccountKey;
 import io.nuls.ledger.model.po.TxUnconfirmed;
 import io.nuls.core.exception.NulsException;
 
@@ -36,10 +36,10 @@ public class CoinDataUtil {
         return coinData;
     }
 
-    public static void calTxFromAmount(int chainId, Map<String, TxUnconfirmed> map, CoinFrom coinFrom, byte[] txNonce, String accountKey) {
+    public static void calTxFromAmount(int chainId, Map<AccountKey, TxUnconfirmed> map, CoinFrom coinFrom, byte[] txNonce, AccountKey accountKey) {
         TxUnconfirmed txUnconfirmed = null;
         if (null == map.get(accountKey)) {
-            txUnconfirmed = new TxUnconfirmed(AddressTool.getStringAddressByBytes(coinFrom.getAddress()),coinFrom.getAssetsChainId(),
+            txUnconfirmed = new TxUnconfirmed(accountKey.getAddress(),coinFrom.getAssetsChainId(),
                     coinFrom.getAssetsId(),coinFrom.getNonce(),txNonce,coinFrom.getAmount());
             map.put(accountKey,txUnconfirmed);
         } else {
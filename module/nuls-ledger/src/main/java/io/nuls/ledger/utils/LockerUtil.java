@@ -34,6 +34,13 @@ import java.util.concurrent.locks.ReentrantLock;
  **/
 public class LockerUtil {
 //    public final static Lock BLOCK_SYNC_LOCKER = new ReentrantLock();
-    public final static Lock UNCONFIRMED_SYNC_LOCKER = new ReentrantLock();
+    /**
+     * 区块提交与回滚按高度顺序串行
+     */
     public final static Lock LEDGER_LOCKER = new ReentrantLock();
+    /**
+     * 账户级锁，未确认交易处理只锁定涉及的账户，区块提交锁定区块内涉及的账户
+     * 加锁顺序：先LEDGER_LOCKER，后ACCOUNT_LOCKER
+     */
+    public final static AccountLocker ACCOUNT_LOCKER = new AccountLocker(1024);
 }
@@ -36,6 +36,7 @@ import io.nuls.core.model.BigIntegerUtils;
 import io.nuls.ledger.constant.LedgerConstant;
 import io.nuls.ledger.constant.LedgerErrorCode;
 import io.nuls.ledger.model.AccountBalance;
+import io.nuls.ledger.model.AccountKey;
 import io.nuls.ledger.model.TempAccountNonce;
 import io.nuls.ledger.model.ValidateResult;
 import io.nuls.ledger.model.po.*;
@@ -66,22 +67,22 @@ import static io.nuls.ledger.utils.LoggerUtil.logger;
 @Component
 public class CoinDataValidator {
     /**
-     * key String:chainId
+     * key Integer:chainId
      * value:Map<key是交易hash  value是欲提交交易>
      */
-    private Map<String, Map<String, String>> chainsBatchValidateTxMap = new ConcurrentHashMap<String, Map<String, String>>();
+    private Map<Integer, Map<String, String>> chainsBatchValidateTxMap = new ConcurrentHashMap<>();
 
 
     /**
-     * key String:chainId
+     * key Integer:chainId
      * value map :key是账号资产 value是待确认支出列表
      */
-    private Map<String, Map<String, List<TempAccountNonce>>> chainsAccountNonceMap = new ConcurrentHashMap<String, Map<String, List<TempAccountNonce>>>();
+    private Map<Integer, Map<AccountKey, List<TempAccountNonce>>> chainsAccountNonceMap = new ConcurrentHashMap<>();
     /**
-     * key String:chainId
+     * key Integer:chainId
      * value map :key是账号资产 value是待确认账户
      */
-    private Map<String, Map<String, AccountState>> chainsAccountStateMap = new ConcurrentHashMap<String, Map<String, AccountState>>();
+    private Map<Integer, Map<AccountKey, AccountState>> chainsAccountStateMap = new ConcurrentHashMap<>();
 
     @Autowired
     private AccountStateService accountStateService;
@@ -95,15 +96,15 @@ public class CoinDataValidator {
 
 
     public Map<String, String> getBatchValidateTxMap(int addressChainId) {
-        return chainsBatchValidateTxMap.get(String.valueOf(addressChainId));
+        return chainsBatchValidateTxMap.get(addressChainId);
     }
 
-    public Map<String, List<TempAccountNonce>> getAccountBalanceValidateMap(int addressChainId) {
-        return chainsAccountNonceMap.get(String.valueOf(addressChainId));
+    public Map<AccountKey, List<TempAccountNonce>> getAccountBalanceValidateMap(int addressChainId) {
+        return chainsAccountNonceMap.get(addressChainId);
     }
 
-    public Map<String, AccountState> getAccountValidateMap(int addressChainId) {
-        return chainsAccountStateMap.get(String.valueOf(addressChainId));
+    public Map<AccountKey, AccountState> getAccountValidateMap(int addressChainId) {
+        return chainsAccountStateMap.get(addressChainId);
     }
 
     /**
@@ -137,17 +138,17 @@ public class CoinDataValidator {
         Map<String, String> batchValidateTxMap = getBatchValidateTxMap(chainId);
         if (null == batchValidateTxMap) {
             batchValidateTxMap = new ConcurrentHashMap<>(1024);
-            chainsBatchValidateTxMap.put(String.valueOf(chainId), batchValidateTxMap);
+            chainsBatchValidateTxMap.put(chainId, batchValidateTxMap);
         }
-        Map<String, List<TempAccountNonce>> accountBalanceValidateTxMap = getAccountBalanceValidateMap(chainId);
+        Map<AccountKey, List<TempAccountNonce>> accountBalanceValidateTxMap = getAccountBalanceValidateMap(chainId);
         if (null == accountBalanceValidateTxMap) {
             accountBalanceValidateTxMap = new ConcurrentHashMap<>(1024);
-            chainsAccountNonceMap.put(String.valueOf(chainId), accountBalanceValidateTxMap);
+            chainsAccountNonceMap.put(chainId, accountBalanceValidateTxMap);
         }
-        Map<String, AccountState> accountStateMap = getAccountValidateMap(chainId);
+        Map<AccountKey, AccountState> accountStateMap = getAccountValidateMap(chainId);
         if (null == accountStateMap) {
             accountStateMap = new ConcurrentHashMap<>(1024);
-            chainsAccountStateMap.put(String.valueOf(chainId), accountStateMap);
+            chainsAccountStateMap.put(chainId, accountStateMap);
         }
 
         batchValidateTxMap.clear();
@@ -164,8 +165,8 @@ public class CoinDataValidator {
     public boolean blockValidate(int chainId, long height, List<Transaction> txs) {
         LoggerUtil.logger(chainId).debug("peer blocksValidate chainId={},height={},txsNumber={}", chainId, height, txs.size());
         Map<String, String> batchValidateTxMap = new HashMap(1024);
-        Map<String, List<TempAccountNonce>> accountValidateTxMap = new HashMap<>(1024);
-        Map<String, AccountState> accountStateMap = new HashMap<>(1024);
+        Map<AccountKey, List<TempAccountNonce>> accountValidateTxMap = new HashMap<>(1024);
+        Map<AccountKey, AccountState> accountStateMap = new HashMap<>(1024);
         for (Transaction tx : txs) {
             ValidateResult validateResult = blockTxsValidate(chainId, tx, batchValidateTxMap, accountValidateTxMap, accountStateMap);
             if (!validateResult.isSuccess()) {
@@ -174,7 +175,7 @@ public class CoinDataValidator {
             }
         }
         //遍历余额判断
-        for (Map.Entry<String, AccountState> entry : accountStateMap.entrySet()) {
+        for (Map.Entry<AccountKey, AccountState> entry : accountStateMap.entrySet()) {
             //缓存数据
             if (BigIntegerUtils.isLessThan(entry.getValue().getAvailableAmount(), BigInteger.ZERO)) {
                 //余额不足
@@ -202,7 +203,7 @@ public class CoinDataValidator {
      */
     public ValidateResult bathValidatePerTx(int chainId, Transaction tx) {
         Map<String, String> batchValidateTxMap = getBatchValidateTxMap(chainId);
-        Map<String, List<TempAccountNonce>> accountBalanceValidateTxMap = getAccountBalanceValidateMap(chainId);
+        Map<AccountKey, List<TempAccountNonce>> accountBalanceValidateTxMap = getAccountBalanceValidateMap(chainId);
         ValidateResult result = confirmedTxValidate(chainId, tx, batchValidateTxMap, accountBalanceValidateTxMap);
         return result;
 
@@ -237,8 +238,8 @@ public class CoinDataValidator {
      * @return
      */
     private ValidateResult analysisFromCoinPerTx(int chainId, int txType, String txHash, byte[] nonce8Bytes,
-                                                 List<CoinFrom> coinFroms, Map<String, List<TempAccountNonce>> accountValidateTxMap,
-                                                 Map<String, AccountState> accountStateMap, Map<String, AccountState> balanceValidateMap) {
+                                                 List<CoinFrom> coinFroms, Map<AccountKey, List<TempAccountNonce>> accountValidateTxMap,
+                                                 Map<AccountKey, AccountState> accountStateMap, Map<AccountKey, AccountState> balanceValidateMap) {
         for (CoinFrom coinFrom : coinFroms) {
             if (LedgerUtil.isNotLocalChainAccount(chainId, coinFrom.getAddress())) {
                 if (LedgerUtil.isCrossTx(txType)) {
@@ -251,18 +252,17 @@ public class CoinDataValidator {
             if (AddressTool.isBlackHoleAddress(LedgerConstant.blackHolePublicKey, chainId, coinFrom.getAddress())) {
                 return ValidateResult.getResult(LedgerErrorCode.VALIDATE_FAIL, new String[]{AddressTool.getStringAddressByBytes(coinFrom.getAddress()), LedgerUtil.getNonceEncode(coinFrom.getNonce()), "address is blackHoleAddress Exception"});
             }
-            String address = AddressTool.getStringAddressByBytes(coinFrom.getAddress());
-            String assetKey = LedgerUtil.getKeyStr(address, coinFrom.getAssetsChainId(), coinFrom.getAssetsId());
+            AccountKey assetKey = AccountKey.of(coinFrom);
             AccountState accountState = accountStateMap.get(assetKey);
             if (null == accountState) {
-                accountState = accountStateService.getAccountStateReCal(AddressTool.getStringAddressByBytes(coinFrom.getAddress()), chainId, coinFrom.getAssetsChainId(), coinFrom.getAssetsId());
+                accountState = accountStateService.getAccountStateReCal(assetKey, chainId);
                 accountStateMap.put(assetKey, accountState);
             }
             balanceValidateMap.put(assetKey, accountState);
             //判断是否是解锁操作
             if (coinFrom.getLocked() == 0) {
                 accountState.addTotalFromAmount(coinFrom.getAmount());
-                ValidateResult validateResult = isValidateCommonTxBatch(accountState, coinFrom, nonce8Bytes, accountValidateTxMap);
+                ValidateResult validateResult = isValidateCommonTxBatch(accountState, assetKey, coinFrom, nonce8Bytes, accountValidateTxMap);
                 if (!validateResult.isSuccess()) {
                     return validateResult;
                 }
@@ -286,7 +286,7 @@ public class CoinDataValidator {
      * @param accountStateMap
      * @return
      */
-    private ValidateResult analysisToCoinPerTx(int chainId, int txType, List<CoinTo> coinTos, Map<String, AccountState> accountStateMap) {
+    private ValidateResult analysisToCoinPerTx(int chainId, int txType, List<CoinTo> coinTos, Map<AccountKey, AccountState> accountStateMap) {
         for (CoinTo coinTo : coinTos) {
             if (LedgerUtil.isNotLocalChainAccount(chainId, coinTo.getAddress())) {
                 if (LedgerUtil.isCrossTx(txType)) {
@@ -298,11 +298,10 @@ public class CoinDataValidator {
             }
             //判断是否是解锁操作
             if (coinTo.getLockTime() == 0) {
-                String address = AddressTool.getStringAddressByBytes(coinTo.getAddress());
-                String assetKey = LedgerUtil.getKeyStr(address, coinTo.getAssetsChainId(), coinTo.getAssetsId());
+                AccountKey assetKey = AccountKey.of(coinTo);
                 AccountState accountState = accountStateMap.get(assetKey);
                 if (null == accountState) {
-                    accountState = accountStateService.getAccountStateReCal(AddressTool.getStringAddressByBytes(coinTo.getAddress()), chainId, coinTo.getAssetsChainId(), coinTo.getAssetsId());
+                    accountState = accountStateService.getAccountStateReCal(assetKey, chainId);
                     accountStateMap.put(assetKey, accountState);
                 }
                 accountState.addTotalToAmount(coinTo.getAmount());
@@ -317,9 +316,9 @@ public class CoinDataValidator {
      * @param batchValidateTxMap
      * @return
      */
-    public ValidateResult confirmedTxValidate(int chainId, Transaction tx, Map<String, String> batchValidateTxMap, Map<String, List<TempAccountNonce>> accountValidateTxMap) {
-        Map<String, AccountState> accountStateMap = getAccountValidateMap(chainId);
-        Map<String, AccountState> balanceValidateMap = new HashMap<>(64);
+    public ValidateResult confirmedTxValidate(int chainId, Transaction tx, Map<String, String> batchValidateTxMap, Map<AccountKey, List<TempAccountNonce>> accountValidateTxMap) {
+        Map<AccountKey, AccountState> accountStateMap = getAccountValidateMap(chainId);
+        Map<AccountKey, AccountState> balanceValidateMap = new HashMap<>(64);
         //先校验，再逐笔放入缓存
         //交易的 hash值如果已存在，返回false，交易的from coin nonce 如果不连续，则存在双花。
         String txHash = tx.getHash().toHex();
@@ -356,7 +355,7 @@ public class CoinDataValidator {
             return validateResult;
         }
         //遍历余额判断
-        for (Map.Entry<String, AccountState> entry : balanceValidateMap.entrySet()) {
+        for (Map.Entry<AccountKey, AccountState> entry : balanceValidateMap.entrySet()) {
             //缓存数据
             if (BigIntegerUtils.isLessThan(entry.getValue().getAvailableAmount(), BigInteger.ZERO)) {
                 //余额不足
@@ -367,7 +366,7 @@ public class CoinDataValidator {
                         entry.getValue().getTotalToAmount(),
                         entry.getValue().getTotalFromAmount()
                 );
-                return ValidateResult.getResult(LedgerErrorCode.BALANCE_NOT_ENOUGH, new String[]{entry.getValue().getAddress(), entry.getKey(),
+                return ValidateResult.getResult(LedgerErrorCode.BALANCE_NOT_ENOUGH, new String[]{entry.getValue().getAddress(), entry.getKey().toString(),
                         BigIntegerUtils.bigIntegerToString(entry.getValue().getAvailableAmount())});
             }
         }
@@ -379,18 +378,19 @@ public class CoinDataValidator {
      * 进行普通交易的coindata 校验，未确认校验的提交校验
      *
      * @param accountState
-     * @param address
+     * @param accountKey
      * @param fromAmount
      * @param fromNonce
      * @return
      */
-    private ValidateResult validateCommonCoinData(AccountState accountState, String address, BigInteger fromAmount, byte[] fromNonce, boolean containUncomfirmedAmount) {
+    private ValidateResult validateCommonCoinData(AccountState accountState, AccountKey accountKey, BigInteger fromAmount, byte[] fromNonce, boolean containUncomfirmedAmount) {
         AccountStateUnconfirmed accountStateUnconfirmed = null;
         if (containUncomfirmedAmount) {
-            accountStateUnconfirmed = unconfirmedStateService.getUnconfirmedInfo(accountState);
+            accountStateUnconfirmed = unconfirmedStateService.getUnconfirmedInfo(accountKey, accountState);
         } else {
-            accountStateUnconfirmed = unconfirmedStateService.getUnconfirmedJustNonce(accountState);
+            accountStateUnconfirmed = unconfirmedStateService.getUnconfirmedJustNonce(accountKey, accountState);
         }
+        String address = accountKey.getAddress();
         byte[] preNonce = null;
         BigInteger amount = BigInteger.ZERO;
         if (null == accountStateUnconfirmed) {
@@ -436,15 +436,15 @@ public class CoinDataValidator {
      * 与未确认的单笔交易校验不同的是，批量校验要校验批量池中的nonce连续性
      *
      * @param accountState
+     * @param assetKey
      * @param coinFrom
      * @param txNonce
      * @return
      */
-    private ValidateResult isValidateCommonTxBatch(AccountState accountState, CoinFrom coinFrom, byte[] txNonce,
-                                                   Map<String, List<TempAccountNonce>> accountValidateTxMap) {
+    private ValidateResult isValidateCommonTxBatch(AccountState accountState, AccountKey assetKey, CoinFrom coinFrom, byte[] txNonce,
+                                                   Map<AccountKey, List<TempAccountNonce>> accountValidateTxMap) {
         int chainId = accountState.getAddressChainId();
-        String address = AddressTool.getStringAddressByBytes(coinFrom.getAddress());
-        String assetKey = LedgerUtil.getKeyStr(address, coinFrom.getAssetsChainId(), coinFrom.getAssetsId());
+        String address = accountState.getAddress();
         String fromCoinNonceStr = LedgerUtil.getNonceEncode(coinFrom.getNonce());
         if (LedgerUtil.equalsNonces(coinFrom.getNonce(), txNonce)) {
             //nonce 重复了
@@ -491,7 +491,7 @@ public class CoinDataValidator {
         return ValidateResult.getSuccess();
     }
 
-    private ValidateResult analysisFromCoinBlokTx(int chainId, int txType, String txHash, byte[] txNonce, List<CoinFrom> coinFroms, Map<String, List<TempAccountNonce>> accountValidateTxMap, Map<String, AccountState> accountStateMap) {
+    private ValidateResult analysisFromCoinBlokTx(int chainId, int txType, String txHash, byte[] txNonce, List<CoinFrom> coinFroms, Map<AccountKey, List<TempAccountNonce>> accountValidateTxMap, Map<AccountKey, AccountState> accountStateMap) {
         for (CoinFrom coinFrom : coinFroms) {
             if (LedgerUtil.isNotLocalChainAccount(chainId, coinFrom.getAddress())) {
                 if (LedgerUtil.isCrossTx(txType)) {
@@ -501,13 +501,13 @@ public class CoinDataValidator {
                     return ValidateResult.getResult(LedgerErrorCode.VALIDATE_FAIL, new String[]{AddressTool.getStringAddressByBytes(coinFrom.getAddress()), "--", "address Not local chain Exception"});
                 }
             }
-            String address = AddressTool.getStringAddressByBytes(coinFrom.getAddress());
-            String assetKey = LedgerUtil.getKeyStr(address, coinFrom.getAssetsChainId(), coinFrom.getAssetsId());
+            AccountKey assetKey = AccountKey.of(coinFrom);
             AccountState accountState = accountStateMap.get(assetKey);
             if (null == accountState) {
-                accountState = accountStateService.getAccountStateReCal(AddressTool.getStringAddressByBytes(coinFrom.getAddress()), chainId, coinFrom.getAssetsChainId(), coinFrom.getAssetsId());
+                accountState = accountStateService.getAccountStateReCal(assetKey, chainId);
                 accountStateMap.put(assetKey, accountState);
             }
+            String address = accountState.getAddress();
 
             //判断是否是解锁操作
             if (coinFrom.getLocked() == 0) {
@@ -552,7 +552,7 @@ public class CoinDataValidator {
         return ValidateResult.getSuccess();
     }
 
-    public ValidateResult blockTxsValidate(int chainId, Transaction tx, Map<String, String> batchValidateTxMap, Map<String, List<TempAccountNonce>> accountValidateTxMap, Map<String, AccountState> accountStateMap) {
+    public ValidateResult blockTxsValidate(int chainId, Transaction tx, Map<String, String> batchValidateTxMap, Map<AccountKey, List<TempAccountNonce>> accountValidateTxMap, Map<AccountKey, AccountState> accountStateMap) {
         //先校验，再逐笔放入缓存
         //交易的 hash值如果已存在，返回false，交易的from coin nonce 如果不连续，则存在双花。
         String txHash = tx.getHash().toHex();
@@ -664,11 +664,12 @@ public class CoinDataValidator {
                     return ValidateResult.getResult(LedgerErrorCode.VALIDATE_FAIL, new String[]{AddressTool.getStringAddressByBytes(coinFrom.getAddress()), "--", "address Not local chain Exception"});
                 }
             }
-            String address = AddressTool.getStringAddressByBytes(coinFrom.getAddress());
-            AccountState accountState = accountStateService.getAccountStateReCal(address, addressChainId, coinFrom.getAssetsChainId(), coinFrom.getAssetsId());
+            AccountKey accountKey = AccountKey.of(coinFrom);
+            AccountState accountState = accountStateService.getAccountStateReCal(accountKey, addressChainId);
+            String address = accountState.getAddress();
             //普通交易
             if (coinFrom.getLocked() == 0) {
-                return validateCommonCoinData(accountState, address, coinFrom.getAmount(), coinFrom.getNonce(), true);
+                return validateCommonCoinData(accountState, accountKey, coinFrom.getAmount(), coinFrom.getNonce(), true);
             } else {
                 if (!isValidateFreezeTx(coinFrom.getLocked(), accountState, coinFrom.getAmount(), coinFrom.getNonce())) {
                     //确认交易未找到冻结的交易
@@ -679,7 +680,7 @@ public class CoinDataValidator {
         return ValidateResult.getSuccess();
     }
 
-    public ValidateResult analysisCoinData(int addressChainId, Transaction tx, Map<String, TxUnconfirmed> accountsMap, byte[] txNonce) throws Exception {
+    public ValidateResult analysisCoinData(int addressChainId, Transaction tx, Map<AccountKey, TxUnconfirmed> accountsMap, byte[] txNonce) throws Exception {
         String txHash = tx.getHash().toHex();
         if (transactionService.hadTxExist(addressChainId, txHash)) {
             return ValidateResult.getResult(LedgerErrorCode.TX_EXIST, new String[]{"--", txHash});
@@ -703,14 +704,12 @@ public class CoinDataValidator {
                     return ValidateResult.getResult(LedgerErrorCode.VALIDATE_FAIL, new String[]{AddressTool.getStringAddressByBytes(coinFrom.getAddress()), "--", "address Not local chain Exception"});
                 }
             }
-            String address = AddressTool.getStringAddressByBytes(coinFrom.getAddress());
-            int assetChainId = coinFrom.getAssetsChainId();
-            int assetId = coinFrom.getAssetsId();
-            String accountKey = LedgerUtil.getKeyStr(address, assetChainId, assetId);
-            AccountState accountState = accountStateService.getAccountStateReCal(address, addressChainId, coinFrom.getAssetsChainId(), coinFrom.getAssetsId());
+            AccountKey accountKey = AccountKey.of(coinFrom);
+            AccountState accountState = accountStateService.getAccountStateReCal(accountKey, addressChainId);
+            String address = accountState.getAddress();
             //普通交易
             if (coinFrom.getLocked() == 0) {
-                ValidateResult validateResult = validateCommonCoinData(accountState, address, coinFrom.getAmount(), coinFrom.getNonce(), false);
+                ValidateResult validateResult = validateCommonCoinData(accountState, accountKey, coinFrom.getAmount(), coinFrom.getNonce(), false);
                 if (validateResult.isSuccess()) {
                     CoinDataUtil.calTxFromAmount(addressChainId, accountsMap, coinFrom, txNonce, accountKey);
                 } else {
@@ -730,16 +729,18 @@ public class CoinDataValidator {
      * 批量打包单笔交易回滚处理
      */
     public boolean rollbackTxValidateStatus(int chainId, Transaction tx) {
-        Map<String, List<TempAccountNonce>> accountBalanceValidateTxMap = getAccountBalanceValidateMap(chainId);
+        Map<AccountKey, List<TempAccountNonce>> accountBalanceValidateTxMap = getAccountBalanceValidateMap(chainId);
+        Map<AccountKey, AccountState> accountStateMap = getAccountValidateMap(chainId);
+        Map<String, String> batchValidateTxMap = getBatchValidateTxMap(chainId);
         String txHash = tx.getHash().toHex();
-        if (null == chainsBatchValidateTxMap.get(txHash)) {
+        if (null == batchValidateTxMap || null == batchValidateTxMap.get(txHash)) {
             logger(chainId).info("{} tx not exist!", txHash);
             return true;
         }
         CoinData coinData = CoinDataUtil.parseCoinData(tx.getCoinData());
         if (null == coinData) {
             //例如黄牌交易，直接移除返回.
-            chainsBatchValidateTxMap.remove(txHash);
+            batchValidateTxMap.remove(txHash);
             return true;
         }
         List<CoinFrom> coinFroms = coinData.getFrom();
@@ -756,22 +757,42 @@ public class CoinDataValidator {
             }
             //判断是否是解锁操作
             if (coinFrom.getLocked() == 0) {
-                String assetKey = LedgerUtil.getKeyStr(AddressTool.getStringAddressByBytes(coinFrom.getAddress()), coinFrom.getAssetsChainId(), coinFrom.getAssetsId());
+                AccountKey assetKey = AccountKey.of(coinFrom);
+                //回滚校验时累加的支出金额
+                AccountState accountState = null == accountStateMap ? null : accountStateMap.get(assetKey);
+                if (null != accountState) {
+                    accountState.addTotalFromAmount(coinFrom.getAmount().negate());
+                }
                 //回滚accountBalanceValidateTxMap缓存数据
-                List<TempAccountNonce> list = accountBalanceValidateTxMap.get(assetKey);
-                if (null == list) {
+                List<TempAccountNonce> list = null == accountBalanceValidateTxMap ? null : accountBalanceValidateTxMap.get(assetKey);
+                if (null == list || list.isEmpty()) {
                     continue;
-                } else {
-                    TempAccountNonce tempAccountState = list.get(list.size() - 1);
-                    if (LedgerUtil.equalsNonces(tempAccountState.getNextNonce(), nonce8Bytes)) {
-                        list.remove(list.size() - 1);
-                    }
+                }
+                TempAccountNonce tempAccountState = list.get(list.size() - 1);
+                if (LedgerUtil.equalsNonces(tempAccountState.getNextNonce(), nonce8Bytes)) {
+                    list.remove(list.size() - 1);
+                }
+                if (list.isEmpty()) {
+                    //下一笔交易重新从已确认的nonce开始校验
+                    accountBalanceValidateTxMap.remove(assetKey);
                 }
             } else {
                 //解锁交易,暂无缓存记录
             }
         }
-        chainsBatchValidateTxMap.remove(txHash);
+        if (null != accountStateMap) {
+            for (CoinTo coinTo : coinData.getTo()) {
+                if (coinTo.getLockTime() != 0 || LedgerUtil.isNotLocalChainAccount(chainId, coinTo.getAddress())) {
+                    continue;
+                }
+                //回滚校验时累加的收入金额
+                AccountState accountState = accountStateMap.get(AccountKey.of(coinTo));
+                if (null != accountState) {
+                    accountState.addTotalToAmount(coinTo.getAmount().negate());
+                }
+            }
+        }
+        batchValidateTxMap.remove(txHash);
         return true;
     }
 }
@@ -0,0 +1,116 @@
+package io.nuls.ledger.model;
+
+import io.nuls.base.basic.AddressTool;
+import io.nuls.base.data.CoinFrom;
+import io.nuls.base.data.CoinTo;
+import io.nuls.ledger.utils.LedgerUtil;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 区块校验中账户键、nonce键的分配基准测试
+ * Allocation of account and nonce keys while validating one block
+ * <p>
+ * 按区块校验的方式处理每笔交易的from/to：生成账户键查账户状态表和nonce链表，生成nonce键查未确认表；
+ * 对比原来的字符串键(地址base58+资产id拼接、nonce hex)与AccountKey/NonceKey，看gc.alloc.rate.norm
+ * <p>
+ * 运行/Run: main方法，带GC profiler
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AccountKeyBenchmark {
+
+    private static final int CHAIN_ID = 2;
+
+    @Param({"2000"})
+    public int txCount;
+
+    @Param({"500"})
+    public int accountCount;
+
+    private List<CoinFrom> froms;
+    private List<CoinTo> tos;
+    private List<byte[]> txNonces;
+
+    @Setup
+    public void setup() {
+        froms = new ArrayList<>(txCount);
+        tos = new ArrayList<>(txCount);
+        txNonces = new ArrayList<>(txCount);
+        for (int i = 0; i < txCount; i++) {
+            byte[] nonce = new byte[8];
+            nonce[0] = (byte) i;
+            nonce[1] = (byte) (i >> 8);
+            froms.add(new CoinFrom(address(i % accountCount), CHAIN_ID, 1, BigInteger.ONE, nonce, (byte) 0));
+            tos.add(new CoinTo(address((i + 1) % accountCount), CHAIN_ID, 1, BigInteger.ONE));
+            byte[] txNonce = new byte[8];
+            txNonce[7] = (byte) i;
+            txNonce[6] = (byte) (i >> 8);
+            txNonces.add(txNonce);
+        }
+    }
+
+    private static byte[] address(int seed) {
+        byte[] address = new byte[23];
+        address[0] = CHAIN_ID;
+        address[2] = 1;
+        for (int i = 3; i < address.length; i++) {
+            address[i] = (byte) (seed * 31 + i);
+        }
+        return address;
+    }
+
+    @Benchmark
+    public int stringKeys() {
+        Map<String, Object> accountStateMap = new HashMap<>(1024);
+        Map<String, List<String>> nonceMap = new HashMap<>(1024);
+        Map<String, Object> unconfirmedMap = new HashMap<>(1024);
+        for (int i = 0; i < txCount; i++) {
+            CoinFrom from = froms.get(i);
+            String fromKey = LedgerUtil.getKeyStr(AddressTool.getStringAddressByBytes(from.getAddress()), from.getAssetsChainId(), from.getAssetsId());
+            accountStateMap.putIfAbsent(fromKey, fromKey);
+            String txNonce = LedgerUtil.getNonceEncode(txNonces.get(i));
+            nonceMap.computeIfAbsent(fromKey, k -> new ArrayList<>()).add(txNonce);
+            unconfirmedMap.put(LedgerUtil.getNonceEncode(from.getNonce()), fromKey);
+            CoinTo to = tos.get(i);
+            String toKey = LedgerUtil.getKeyStr(AddressTool.getStringAddressByBytes(to.getAddress()), to.getAssetsChainId(), to.getAssetsId());
+            accountStateMap.putIfAbsent(toKey, toKey);
+        }
+        return accountStateMap.size() + nonceMap.size() + unconfirmedMap.size();
+    }
+
+    @Benchmark
+    public int binaryKeys() {
+        Map<AccountKey, Object> accountStateMap = new HashMap<>(1024);
+        Map<AccountKey, List<NonceKey>> nonceMap = new HashMap<>(1024);
+        Map<NonceKey, Object> unconfirmedMap = new HashMap<>(1024);
+        for (int i = 0; i < txCount; i++) {
+            CoinFrom from = froms.get(i);
+            AccountKey fromKey = AccountKey.of(from);
+            accountStateMap.putIfAbsent(fromKey, fromKey);
+            NonceKey txNonce = NonceKey.of(txNonces.get(i));
+            nonceMap.computeIfAbsent(fromKey, k -> new ArrayList<>()).add(txNonce);
+            unconfirmedMap.put(NonceKey.of(from.getNonce()), fromKey);
+            AccountKey toKey = AccountKey.of(tos.get(i));
+            accountStateMap.putIfAbsent(toKey, toKey);
+        }
+        return accountStateMap.size() + nonceMap.size() + unconfirmedMap.size();
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(AccountKeyBenchmark.class.getSimpleName()).addProfiler(GCProfiler.class).build()).run();
+    }
+}
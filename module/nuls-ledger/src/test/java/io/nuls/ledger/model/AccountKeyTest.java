@@ -0,0 +1,55 @@
+package io.nuls.ledger.model;
+
+import io.nuls.base.basic.AddressTool;
+import io.nuls.ledger.utils.LedgerUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class AccountKeyTest {
+
+    private static byte[] address(int seed) {
+        byte[] address = new byte[23];
+        address[0] = 2;
+        address[2] = 1;
+        for (int i = 3; i < address.length; i++) {
+            address[i] = (byte) (seed + i);
+        }
+        return address;
+    }
+
+    @Test
+    public void sameAccountSameKey() {
+        byte[] bytes = address(1);
+        String address = AddressTool.getStringAddressByBytes(bytes);
+        AccountKey key = AccountKey.of(bytes, 2, 1);
+        Map<AccountKey, Integer> map = new HashMap<>();
+        map.put(key, 1);
+        Assert.assertEquals(Integer.valueOf(1), map.get(AccountKey.of(address, 2, 1)));
+        Assert.assertNull(map.get(AccountKey.of(bytes, 2, 2)));
+        Assert.assertNull(map.get(AccountKey.of(bytes, 1, 1)));
+        Assert.assertNull(map.get(AccountKey.of(address(2), 2, 1)));
+    }
+
+    @Test
+    public void dbKeyUnchanged() {
+        byte[] bytes = address(3);
+        String address = AddressTool.getStringAddressByBytes(bytes);
+        AccountKey key = AccountKey.of(bytes, 2, 1);
+        Assert.assertEquals(address, key.getAddress());
+        Assert.assertArrayEquals(LedgerUtil.getKey(address, 2, 1), key.getDbKey());
+        Assert.assertEquals(LedgerUtil.getKeyStr(address, 2, 1), key.toString());
+    }
+
+    @Test
+    public void nonceKey() {
+        byte[] nonce = new byte[]{(byte) 0xff, 1, 2, 3, 4, 5, 6, (byte) 0x80};
+        NonceKey key = NonceKey.of(nonce);
+        Assert.assertEquals(key, NonceKey.of(nonce.clone()));
+        Assert.assertArrayEquals(nonce, key.toBytes());
+        Assert.assertEquals(LedgerUtil.getNonceEncode(nonce), key.toString());
+        Assert.assertEquals(key, NonceKey.ofTxHash("00112233445566778899aabbccddeeff0011223344556677ff01020304050680"));
+    }
+}
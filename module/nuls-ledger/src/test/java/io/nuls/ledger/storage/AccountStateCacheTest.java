@@ -0,0 +1,64 @@
+package io.nuls.ledger.storage;
+
+import io.nuls.ledger.model.po.AccountState;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigInteger;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+public class AccountStateCacheTest {
+
+    private static AccountState accountState(String address, long amount) {
+        AccountState accountState = new AccountState(address, 2, 2, 1, new byte[8]);
+        accountState.setTotalToAmount(BigInteger.valueOf(amount));
+        return accountState;
+    }
+
+    @Test
+    public void copyOnReadAndWrite() {
+        AccountStateCache cache = new AccountStateCache(2);
+        byte[] key = "a-2-1".getBytes(UTF_8);
+        AccountState written = accountState("a", 10);
+        cache.put(key, written);
+        written.setTotalToAmount(BigInteger.ZERO);
+
+        AccountState read = cache.get(key);
+        Assert.assertEquals(BigInteger.TEN, read.getTotalToAmount());
+        read.setTotalToAmount(BigInteger.ONE);
+        Assert.assertEquals(BigInteger.TEN, cache.get(key).getTotalToAmount());
+        Assert.assertNull(cache.get("b-2-1".getBytes(UTF_8)));
+        Assert.assertEquals(2, cache.getHits());
+        Assert.assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void staleFillIsDropped() {
+        AccountStateCache cache = new AccountStateCache(2);
+        byte[] key = "a-2-1".getBytes(UTF_8);
+        long sequence = cache.getWriteSequence();
+        //读取数据库期间有新的写入
+        cache.put(key, accountState("a", 10));
+        cache.fill(key, accountState("a", 1), sequence);
+        Assert.assertEquals(BigInteger.TEN, cache.get(key).getTotalToAmount());
+
+        cache.remove(key);
+        sequence = cache.getWriteSequence();
+        cache.fill(key, accountState("a", 1), sequence);
+        Assert.assertEquals(BigInteger.ONE, cache.get(key).getTotalToAmount());
+    }
+
+    @Test
+    public void evictEldest() {
+        AccountStateCache cache = new AccountStateCache(2);
+        cache.put("a".getBytes(UTF_8), accountState("a", 1));
+        cache.put("b".getBytes(UTF_8), accountState("b", 1));
+        cache.get("a".getBytes(UTF_8));
+        cache.put("c".getBytes(UTF_8), accountState("c", 1));
+        Assert.assertEquals(2, cache.size());
+        Assert.assertEquals(1, cache.getEvictions());
+        Assert.assertNull(cache.get("b".getBytes(UTF_8)));
+        Assert.assertNotNull(cache.get("a".getBytes(UTF_8)));
+    }
+}
@@ -0,0 +1,162 @@
+package io.nuls.ledger.utils;
+
+import io.nuls.ledger.model.AccountKey;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AccountLockerTest {
+
+    private static final int ACCOUNTS = 64;
+
+    private static final long INIT_BALANCE = 1_000_000L;
+
+    /**
+     * 非线程安全的账户状态，只能在持有账户锁时修改
+     */
+    private static class State {
+        long balance = INIT_BALANCE;
+        long nonce;
+    }
+
+    private static AccountKey key(int i) {
+        byte[] address = new byte[23];
+        address[0] = 2;
+        address[2] = 1;
+        address[22] = (byte) i;
+        address[21] = (byte) (i >> 8);
+        return AccountKey.of(address, 2, 1);
+    }
+
+    @Test
+    public void stripesSortedAndDistinct() {
+        AccountLocker locker = new AccountLocker(4);
+        List<AccountKey> keys = Arrays.asList(key(1), key(2), key(3), key(4), key(5), key(1));
+        int[] stripes = locker.stripes(keys);
+        for (int i = 1; i < stripes.length; i++) {
+            Assert.assertTrue(stripes[i - 1] < stripes[i]);
+        }
+        Assert.assertTrue(stripes.length <= 4);
+    }
+
+    /**
+     * 模拟未确认交易（单账户、多账户转账）与区块提交（批量账户）并发，
+     * 校验余额总量守恒且每个账户的nonce与其成功支出次数一致
+     */
+    @Test
+    public void concurrentTransfersAndBlockCommits() throws Exception {
+        AccountLocker locker = new AccountLocker(16);
+        Map<AccountKey, State> states = new HashMap<>();
+        AccountKey[] keys = new AccountKey[ACCOUNTS];
+        for (int i = 0; i < ACCOUNTS; i++) {
+            keys[i] = key(i);
+            states.put(keys[i], new State());
+        }
+        long[] spends = new long[ACCOUNTS];
+        AtomicInteger blockCommits = new AtomicInteger();
+        int threads = 8;
+        int rounds = 20000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            final int seed = t;
+            executor.submit(() -> {
+                Random random = new Random(seed);
+                start.await();
+                for (int r = 0; r < rounds; r++) {
+                    if (seed == 0 && r % 50 == 0) {
+                        //区块提交：一次锁定多个账户，整体转移
+                        List<AccountKey> block = Arrays.asList(keys[random.nextInt(ACCOUNTS)], keys[random.nextInt(ACCOUNTS)],
+                                keys[random.nextInt(ACCOUNTS)], keys[random.nextInt(ACCOUNTS)]);
+                        int[] stripes = locker.lock(block);
+                        try {
+                            State first = states.get(block.get(0));
+                            long amount = Math.min(first.balance, 10);
+                            first.balance -= amount;
+                            first.nonce++;
+                            synchronized (spends) {
+                                spends[indexOf(keys, block.get(0))]++;
+                            }
+                            long share = amount / 3;
+                            states.get(block.get(1)).balance += share;
+                            states.get(block.get(2)).balance += share;
+                            states.get(block.get(3)).balance += amount - 2 * share;
+                            blockCommits.incrementAndGet();
+                        } finally {
+                            locker.unlock(stripes);
+                        }
+                        continue;
+                    }
+                    int from = random.nextInt(ACCOUNTS);
+                    int to = random.nextInt(ACCOUNTS);
+                    int[] stripes = locker.lock(Arrays.asList(keys[from], keys[to]));
+                    try {
+                        State fromState = states.get(keys[from]);
+                        long before = fromState.nonce;
+                        if (fromState.balance < 1) {
+                            continue;
+                        }
+                        fromState.balance -= 1;
+                        Thread.yield();
+                        fromState.nonce = before + 1;
+                        states.get(keys[to]).balance += 1;
+                        synchronized (spends) {
+                            spends[from]++;
+                        }
+                    } finally {
+                        locker.unlock(stripes);
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES));
+
+        long total = 0;
+        for (int i = 0; i < ACCOUNTS; i++) {
+            State state = states.get(keys[i]);
+            Assert.assertTrue(state.balance >= 0);
+            Assert.assertEquals(spends[i], state.nonce);
+            total += state.balance;
+        }
+        Assert.assertEquals(INIT_BALANCE * ACCOUNTS, total);
+        Assert.assertTrue(blockCommits.get() > 0);
+    }
+
+    @Test
+    public void lockAllExcludesAccountLocks() throws Exception {
+        AccountLocker locker = new AccountLocker(8);
+        locker.lockAll();
+        CountDownLatch locked = new CountDownLatch(1);
+        Thread thread = new Thread(() -> {
+            int[] stripes = locker.lock(Arrays.asList(key(1)));
+            locked.countDown();
+            locker.unlock(stripes);
+        });
+        thread.start();
+        Assert.assertFalse(locked.await(200, TimeUnit.MILLISECONDS));
+        locker.unlockAll();
+        Assert.assertTrue(locked.await(5, TimeUnit.SECONDS));
+    }
+
+    private static int indexOf(AccountKey[] keys, AccountKey key) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i].equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
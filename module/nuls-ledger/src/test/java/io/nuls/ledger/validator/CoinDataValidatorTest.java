@@ -0,0 +1,103 @@
+package io.nuls.ledger.validator;
+
+import io.nuls.base.data.CoinData;
+import io.nuls.base.data.CoinFrom;
+import io.nuls.base.data.CoinTo;
+import io.nuls.base.data.Transaction;
+import io.nuls.ledger.model.AccountKey;
+import io.nuls.ledger.model.TempAccountNonce;
+import io.nuls.ledger.model.po.AccountState;
+import io.nuls.ledger.utils.LedgerUtil;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+public class CoinDataValidatorTest {
+
+    private static final int CHAIN_ID = 2;
+
+    private CoinDataValidator validator;
+
+    private static byte[] address(int seed) {
+        byte[] address = new byte[23];
+        address[0] = CHAIN_ID;
+        address[2] = 1;
+        for (int i = 3; i < address.length; i++) {
+            address[i] = (byte) (seed + i);
+        }
+        return address;
+    }
+
+    private static Transaction transfer(byte[] from, byte[] fromNonce, byte[] to, long amount) throws Exception {
+        CoinData coinData = new CoinData();
+        coinData.addFrom(new CoinFrom(from, CHAIN_ID, 1, BigInteger.valueOf(amount), fromNonce, (byte) 0));
+        coinData.addTo(new CoinTo(to, CHAIN_ID, 1, BigInteger.valueOf(amount)));
+        Transaction tx = new Transaction(2);
+        tx.setTime(1L);
+        tx.setCoinData(coinData.serialize());
+        return tx;
+    }
+
+    private static AccountState accountState(byte[] address) {
+        return new AccountState(AccountKey.of(address, CHAIN_ID, 1).getAddress(), CHAIN_ID, CHAIN_ID, 1, new byte[8]);
+    }
+
+    @Before
+    public void init() {
+        validator = new CoinDataValidator();
+        validator.beginBatchPerTxValidate(CHAIN_ID);
+    }
+
+    /**
+     * 模拟批量校验通过后的缓存状态
+     */
+    private void validated(Transaction tx, byte[] from, byte[] fromNonce, byte[] to, long amount) {
+        AccountKey fromKey = AccountKey.of(from, CHAIN_ID, 1);
+        AccountKey toKey = AccountKey.of(to, CHAIN_ID, 1);
+        validator.getAccountValidateMap(CHAIN_ID).computeIfAbsent(fromKey, k -> accountState(from)).addTotalFromAmount(BigInteger.valueOf(amount));
+        validator.getAccountValidateMap(CHAIN_ID).computeIfAbsent(toKey, k -> accountState(to)).addTotalToAmount(BigInteger.valueOf(amount));
+        validator.getAccountBalanceValidateMap(CHAIN_ID).computeIfAbsent(fromKey, k -> new ArrayList<>())
+                .add(new TempAccountNonce(fromKey, fromNonce, LedgerUtil.getNonceByTx(tx)));
+        validator.getBatchValidateTxMap(CHAIN_ID).put(tx.getHash().toHex(), tx.getHash().toHex());
+    }
+
+    @Test
+    public void rollbackRestoresAmountsAndNonce() throws Exception {
+        byte[] from = address(1);
+        byte[] to = address(2);
+        Transaction first = transfer(from, new byte[8], to, 10);
+        validated(first, from, new byte[8], to, 10);
+        Transaction second = transfer(from, LedgerUtil.getNonceByTx(first), to, 5);
+        validated(second, from, LedgerUtil.getNonceByTx(first), to, 5);
+
+        Assert.assertTrue(validator.rollbackTxValidateStatus(CHAIN_ID, second));
+        AccountKey fromKey = AccountKey.of(from, CHAIN_ID, 1);
+        AccountKey toKey = AccountKey.of(to, CHAIN_ID, 1);
+        Assert.assertEquals(BigInteger.TEN, validator.getAccountValidateMap(CHAIN_ID).get(fromKey).getTotalFromAmount());
+        Assert.assertEquals(BigInteger.TEN, validator.getAccountValidateMap(CHAIN_ID).get(toKey).getTotalToAmount());
+        List<TempAccountNonce> nonces = validator.getAccountBalanceValidateMap(CHAIN_ID).get(fromKey);
+        Assert.assertEquals(1, nonces.size());
+        Assert.assertArrayEquals(LedgerUtil.getNonceByTx(first), nonces.get(0).getNextNonce());
+        Assert.assertNull(validator.getBatchValidateTxMap(CHAIN_ID).get(second.getHash().toHex()));
+
+        //最后一笔回滚后不留空列表, 下一笔交易重新从已确认的nonce开始校验
+        Assert.assertTrue(validator.rollbackTxValidateStatus(CHAIN_ID, first));
+        Assert.assertNull(validator.getAccountBalanceValidateMap(CHAIN_ID).get(fromKey));
+        Assert.assertEquals(BigInteger.ZERO, validator.getAccountValidateMap(CHAIN_ID).get(fromKey).getTotalFromAmount());
+    }
+
+    @Test
+    public void rollbackWithEmptyNonceList() throws Exception {
+        byte[] from = address(3);
+        byte[] to = address(4);
+        Transaction tx = transfer(from, new byte[8], to, 1);
+        validator.getAccountBalanceValidateMap(CHAIN_ID).put(AccountKey.of(from, CHAIN_ID, 1), new ArrayList<>());
+        validator.getBatchValidateTxMap(CHAIN_ID).put(tx.getHash().toHex(), tx.getHash().toHex());
+        Assert.assertTrue(validator.rollbackTxValidateStatus(CHAIN_ID, tx));
+        Assert.assertNull(validator.getBatchValidateTxMap(CHAIN_ID).get(tx.getHash().toHex()));
+    }
+}
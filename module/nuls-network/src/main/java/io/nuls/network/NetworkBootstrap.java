@@ -48,7 +48,9 @@ import io.nuls.network.utils.LoggerUtil;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * boot strap
@@ -110,6 +112,13 @@ public class NetworkBootstrap extends RpcModule {
             List<String> ipMoonList = new ArrayList<>();
             Collections.addAll(ipMoonList, seedMoonIp.split(NetworkConstant.COMMA));
             networkConfig.setMoonSeedIpList(ipMoonList);
+            Set<String> inventoryCmdSet = new HashSet<>();
+            for (String cmd : networkConfig.getInventoryCmds().split(NetworkConstant.COMMA)) {
+                if (!cmd.trim().isEmpty()) {
+                    inventoryCmdSet.add(cmd.trim());
+                }
+            }
+            networkConfig.setInventoryCmdSet(inventoryCmdSet);
             networkConfig.getLocalIps().addAll(IpUtil.getIps());
         } catch (Exception e) {
             Log.error("Network NetworkBootstrap cfgInit failed", e);
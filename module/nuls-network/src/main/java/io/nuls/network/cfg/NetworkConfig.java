@@ -6,7 +6,9 @@ import io.nuls.core.core.annotation.Configuration;
 import io.nuls.core.rpc.model.ModuleE;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * @Author: lanjinsheng
@@ -52,6 +54,16 @@ public class NetworkConfig implements ModuleConfig {
      * ROCK DB 数据库文件存储路径
      */
     private String dataPath;
+    /**
+     * 以hash作为消息体的库存公告指令，用逗号分隔，如交易hash转发、区块hash转发
+     * Inventory announcement commands whose message body is a hash
+     */
+    private String inventoryCmds = "";
+    private Set<String> inventoryCmdSet = new HashSet<>();
+    /**
+     * 每个peer记住的已知库存数量
+     */
+    private int knownInventorySize = 10000;
 
     public List<String> getLocalIps() {
 
@@ -236,4 +248,28 @@ public class NetworkConfig implements ModuleConfig {
     public void setMainChainId(int mainChainId) {
         this.mainChainId = mainChainId;
     }
+
+    public String getInventoryCmds() {
+        return inventoryCmds;
+    }
+
+    public void setInventoryCmds(String inventoryCmds) {
+        this.inventoryCmds = inventoryCmds;
+    }
+
+    public Set<String> getInventoryCmdSet() {
+        return inventoryCmdSet;
+    }
+
+    public void setInventoryCmdSet(Set<String> inventoryCmdSet) {
+        this.inventoryCmdSet = inventoryCmdSet;
+    }
+
+    public int getKnownInventorySize() {
+        return knownInventorySize;
+    }
+
+    public void setKnownInventorySize(int knownInventorySize) {
+        this.knownInventorySize = knownInventorySize;
+    }
 }
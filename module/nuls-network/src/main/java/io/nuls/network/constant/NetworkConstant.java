@@ -111,4 +111,9 @@ public interface NetworkConstant {
 
     public long MAX_NUMBER_4_BYTE = 4294967295L;
     public int  MAX_NUMBER_2_BYTE = 65535;
+
+    /**
+     * peer已知库存过滤器误判率，误判只会少向该peer发一次公告或丢弃该peer的一条公告，其他peer的公告不受影响
+     */
+    double KNOWN_INVENTORY_FP_RATE = 0.0001;
 }
@@ -50,6 +50,7 @@ import io.nuls.network.model.message.base.MessageHeader;
 import io.nuls.network.utils.LoggerUtil;
 
 import java.lang.reflect.InvocationTargetException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -115,11 +116,13 @@ public class MessageManager extends BaseManager {
      * 验证消息
      * validate message checkSum
      *
-     * @param data entity
+     * @param data   entity
+     * @param offset 消息体起始位置
+     * @param length 消息体长度
      * @return boolean
      */
-    private boolean validate(byte[] data, long pChecksum) {
-        byte[] bodyHash = Sha256Hash.hashTwice(data);
+    private boolean validate(byte[] data, int offset, int length, long pChecksum) {
+        byte[] bodyHash = Sha256Hash.hashTwice(data, offset, length);
         byte[] get4Byte = ByteUtils.subBytes(bodyHash, 0, 4);
         long checksum = ByteUtils.bytesToBigInteger(get4Byte).longValue();
         return checksum == pChecksum;
@@ -134,11 +137,11 @@ public class MessageManager extends BaseManager {
             MessageHeader header = new MessageHeader();
             int headerSize = header.size();
             byte[] payLoad = byteBuffer.getPayload();
-            byte[] payLoadBody = ByteUtils.subBytes(payLoad, headerSize, payLoad.length - headerSize);
-            byte[] headerByte = ByteUtils.copyOf(payLoad, headerSize);
+            int bodyLength = payLoad.length - headerSize;
+            //直接在接收缓冲区上解析消息头、计算校验和,不复制消息体
+            header.parse(payLoad, 0);
             int chainId = NodeGroupManager.getInstance().getChainIdByMagicNum(header.getMagicNumber());
-            header.parse(headerByte, 0);
-            if (!validate(payLoadBody, header.getChecksum())) {
+            if (!validate(payLoad, headerSize, bodyLength, header.getChecksum())) {
                 LoggerUtil.logger(chainId).error("validate  false ======================cmd:{}", header.getCommandStr());
                 return;
             }
@@ -153,7 +156,7 @@ public class MessageManager extends BaseManager {
                 } else {
                     //外部消息，转外部接口
                     OtherModuleMessageHandler handler = MessageHandlerFactory.getInstance().getOtherModuleHandler();
-                    result = handler.recieve(header, payLoadBody, node);
+                    result = handler.recieve(header, ByteBuffer.wrap(payLoad, headerSize, bodyLength).slice(), node);
                     byteBuffer.setCursor(payLoad.length);
                 }
                 if (!result.isSuccess()) {
@@ -24,12 +24,13 @@
  */
 package io.nuls.network.manager.handler.message;
 
-import io.nuls.base.RPCUtil;
 import io.nuls.core.constant.BaseConstant;
+import io.nuls.core.core.ioc.SpringLiteContext;
 import io.nuls.core.rpc.info.Constants;
 import io.nuls.core.rpc.model.message.MessageUtil;
 import io.nuls.core.rpc.model.message.Request;
 import io.nuls.core.rpc.netty.processor.ResponseMessageProcessor;
+import io.nuls.network.cfg.NetworkConfig;
 import io.nuls.network.manager.NodeGroupManager;
 import io.nuls.network.manager.handler.MessageHandlerFactory;
 import io.nuls.network.manager.handler.base.BaseMessageHandler;
@@ -40,6 +41,7 @@ import io.nuls.network.model.message.base.MessageHeader;
 import io.nuls.network.utils.LoggerUtil;
 import io.nuls.network.utils.MessageTestUtil;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -75,32 +77,44 @@ public class OtherModuleMessageHandler extends BaseMessageHandler {
     }
 
     /**
+     * 外部模块消息,消息体以二进制参数发给所有注册了该命令的模块,请求只构造一次
+     * 二进制连接直接传输原始字节,JSON连接由RPC层转为十六进制字符串
+     *
      * @param header
-     * @param payLoadBody
+     * @param payLoadBody 接收缓冲区中消息体部分的视图
      * @param node
      * @return
      */
-    public NetworkEventResult recieve(MessageHeader header, byte[] payLoadBody, Node node) {
+    public NetworkEventResult recieve(MessageHeader header, ByteBuffer payLoadBody, Node node) {
         long magicNum = header.getMagicNumber();
         int chainId = NodeGroupManager.getInstance().getChainIdByMagicNum(magicNum);
         Map<String, Object> paramMap = new HashMap<>();
         paramMap.put("chainId", chainId);
         paramMap.put("nodeId", node.getId());
         String cmd = header.getCommandStr();
+        NetworkConfig networkConfig = SpringLiteContext.getBean(NetworkConfig.class);
+        if (networkConfig.getInventoryCmdSet().contains(cmd) && payLoadBody.hasArray()) {
+            //库存公告：记为该peer已知，同一peer重复的公告不再转给其他模块
+            //其他peer的公告照常转发，该peer未提供数据时其他模块仍可向其他peer获取
+            byte[] array = payLoadBody.array();
+            int offset = payLoadBody.arrayOffset() + payLoadBody.position();
+            int length = payLoadBody.remaining();
+            if (!node.addKnownInventory(array, offset, length)) {
+                return NetworkEventResult.getResultSuccess();
+            }
+        }
         paramMap.put("cmd", cmd);
-        paramMap.put("messageBody", RPCUtil.encode(payLoadBody));
+        paramMap.put("messageBody", payLoadBody);
         List<String> protocolRoles = new ArrayList<>(MessageHandlerFactory.getInstance().getProtocolRoleHandlerMap(cmd));
         if (protocolRoles.isEmpty()) {
             LoggerUtil.logger(chainId).error("unknown mssages. cmd={},handler may be unRegistered to network.", cmd);
             return NetworkEventResult.getResultSuccess();
         }
-        for (String role : protocolRoles) {
-            try {
-                Request request = MessageUtil.newRequest(BaseConstant.MSG_PROCESS, paramMap, Constants.BOOLEAN_FALSE, Constants.ZERO, Constants.ZERO);
-                ResponseMessageProcessor.requestOnly(role, request);
-            } catch (Exception e) {
-                LoggerUtil.logger(chainId).error("{}", e);
-            }
+        try {
+            Request request = MessageUtil.newRequest(BaseConstant.MSG_PROCESS, paramMap, Constants.BOOLEAN_FALSE, Constants.ZERO, Constants.ZERO);
+            ResponseMessageProcessor.requestOnly(protocolRoles, request);
+        } catch (Exception e) {
+            LoggerUtil.logger(chainId).error("{}", e);
         }
 //        MessageTestUtil.recievedMessage(cmd);
         return NetworkEventResult.getResultSuccess();
@@ -26,6 +26,8 @@
 package io.nuls.network.model;
 
 import io.netty.channel.Channel;
+import io.nuls.core.core.ioc.SpringLiteContext;
+import io.nuls.network.cfg.NetworkConfig;
 import io.nuls.network.constant.NetworkConstant;
 import io.nuls.network.manager.NodeGroupManager;
 import io.nuls.network.model.dto.Dto;
@@ -104,6 +106,10 @@ public class Node implements Dto {
     private EventListener registerListener;
     private EventListener connectedListener;
     private EventListener disconnectListener;
+    /**
+     * 该peer已知的库存（它发来的或已发给它的hash），连接建立时重置
+     */
+    private volatile RollingBloomFilter knownInventory;
 
 
     public Node(long magicNumber, String ip, int remotePort, int remoteCrossPort, int type, boolean isCrossConnect) {
@@ -225,6 +231,9 @@ public class Node implements Dto {
     }
 
     public void setChannel(Channel channel) {
+        if (null != channel) {
+            knownInventory = null;
+        }
         this.channel = channel;
     }
 
@@ -302,6 +311,36 @@ public class Node implements Dto {
         this.connectTime = connectTime;
     }
 
+    /**
+     * 记录该peer已知的库存
+     * Remember an inventory item known by this peer
+     *
+     * @return 之前未记录时返回true
+     */
+    public boolean addKnownInventory(byte[] inventory, int offset, int length) {
+        RollingBloomFilter filter = knownInventory;
+        if (null == filter) {
+            synchronized (this) {
+                filter = knownInventory;
+                if (null == filter) {
+                    int size = SpringLiteContext.getBean(NetworkConfig.class).getKnownInventorySize();
+                    filter = new RollingBloomFilter(size, NetworkConstant.KNOWN_INVENTORY_FP_RATE);
+                    knownInventory = filter;
+                }
+            }
+        }
+        return filter.add(inventory, offset, length);
+    }
+
+    /**
+     * 该peer是否已知该库存，已知的不必再向其公告
+     * Whether this peer already knows the inventory item
+     */
+    public boolean hasKnownInventory(byte[] inventory, int offset, int length) {
+        RollingBloomFilter filter = knownInventory;
+        return null != filter && filter.contains(inventory, offset, length);
+    }
+
     public NodeGroup getNodeGroup() {
         return NodeGroupManager.getInstance().getNodeGroupByMagic(magicNumber);
     }
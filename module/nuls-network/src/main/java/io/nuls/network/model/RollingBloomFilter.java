@@ -0,0 +1,165 @@
+/*
+ * *
+ *  * MIT License
+ *  *
+ *  * Copyright (c) 2017-2018 nuls.io
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+package io.nuls.network.model;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 滚动布隆过滤器，只记住最近加入的元素
+ * Rolling bloom filter that remembers only the most recently added items
+ * <p>
+ * 由两代过滤器组成，当前代写满后整体替换上一代，
+ * 因此始终能查到最近capacity个元素，内存占用固定。
+ * 存在一定误判率（把未加入的元素判为已存在），不会漏判最近加入的元素。
+ */
+public class RollingBloomFilter {
+
+    private static final double LN2 = Math.log(2);
+    private static final int MAX_HASH_COUNT = 16;
+
+    private final int capacity;
+    private final int bitCount;
+    private final int hashCount;
+    /**
+     * 每个过滤器使用不同的随机种子，避免不同节点的误判落在同一批元素上
+     */
+    private final long tweak;
+
+    private long[] current;
+    private long[] previous;
+    private int currentCount;
+
+    /**
+     * @param capacity          每代可容纳的元素数量
+     * @param falsePositiveRate 单代的误判率
+     */
+    public RollingBloomFilter(int capacity, double falsePositiveRate) {
+        if (capacity <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("capacity=" + capacity + ", falsePositiveRate=" + falsePositiveRate);
+        }
+        this.capacity = capacity;
+        long bits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (LN2 * LN2));
+        this.bitCount = (int) Math.min(Math.max(bits, Long.SIZE), Integer.MAX_VALUE - Long.SIZE);
+        this.hashCount = (int) Math.max(1, Math.min(MAX_HASH_COUNT, Math.round((double) bitCount / capacity * LN2)));
+        this.tweak = ThreadLocalRandom.current().nextLong();
+        this.current = new long[(bitCount + Long.SIZE - 1) / Long.SIZE];
+        this.previous = new long[current.length];
+    }
+
+    public boolean contains(byte[] key) {
+        return contains(key, 0, key.length);
+    }
+
+    public synchronized boolean contains(byte[] key, int offset, int length) {
+        long h1 = hash(key, offset, length, tweak);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        return contains(current, h1, h2) || contains(previous, h1, h2);
+    }
+
+    public boolean add(byte[] key) {
+        return add(key, 0, key.length);
+    }
+
+    /**
+     * 加入元素
+     * Add an item
+     *
+     * @return 加入前不存在时返回true
+     */
+    public synchronized boolean add(byte[] key, int offset, int length) {
+        long h1 = hash(key, offset, length, tweak);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        if (contains(current, h1, h2)) {
+            return false;
+        }
+        boolean absent = !contains(previous, h1, h2);
+        if (currentCount >= capacity) {
+            long[] reuse = previous;
+            previous = current;
+            Arrays.fill(reuse, 0L);
+            current = reuse;
+            currentCount = 0;
+        }
+        for (int i = 0; i < hashCount; i++) {
+            int index = index(h1, h2, i);
+            current[index >>> 6] |= 1L << index;
+        }
+        currentCount++;
+        return absent;
+    }
+
+    public synchronized void clear() {
+        Arrays.fill(current, 0L);
+        Arrays.fill(previous, 0L);
+        currentCount = 0;
+    }
+
+    private boolean contains(long[] bits, long h1, long h2) {
+        for (int i = 0; i < hashCount; i++) {
+            int index = index(h1, h2, i);
+            if ((bits[index >>> 6] & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int index(long h1, long h2, int i) {
+        return (int) Long.remainderUnsigned(h1 + i * h2, bitCount);
+    }
+
+    private static long hash(byte[] key, int offset, int length, long seed) {
+        long h = seed ^ (length * 0xC6A4A7935BD1E995L);
+        int end = offset + length;
+        int i = offset;
+        for (; i + Long.BYTES <= end; i += Long.BYTES) {
+            long k = (key[i] & 0xFFL)
+                    | (key[i + 1] & 0xFFL) << 8
+                    | (key[i + 2] & 0xFFL) << 16
+                    | (key[i + 3] & 0xFFL) << 24
+                    | (key[i + 4] & 0xFFL) << 32
+                    | (key[i + 5] & 0xFFL) << 40
+                    | (key[i + 6] & 0xFFL) << 48
+                    | (key[i + 7] & 0xFFL) << 56;
+            h = mix(h ^ k);
+        }
+        long tail = 0;
+        for (int shift = 0; i < end; i++, shift += 8) {
+            tail |= (key[i] & 0xFFL) << shift;
+        }
+        return mix(h ^ tail);
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
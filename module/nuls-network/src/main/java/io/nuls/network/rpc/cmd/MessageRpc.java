@@ -25,11 +25,13 @@
 package io.nuls.network.rpc.cmd;
 
 import io.nuls.base.RPCUtil;
+import io.nuls.core.core.annotation.Autowired;
 import io.nuls.core.core.annotation.Component;
 import io.nuls.core.log.Log;
 import io.nuls.core.rpc.cmd.BaseCmd;
 import io.nuls.core.rpc.model.*;
 import io.nuls.core.rpc.model.message.Response;
+import io.nuls.network.cfg.NetworkConfig;
 import io.nuls.network.constant.CmdConstant;
 import io.nuls.network.constant.NetworkConstant;
 import io.nuls.network.constant.NetworkErrorCode;
@@ -57,6 +59,8 @@ import java.util.*;
 public class MessageRpc extends BaseCmd {
 
     private MessageHandlerFactory messageHandlerFactory = MessageHandlerFactory.getInstance();
+    @Autowired
+    private NetworkConfig networkConfig;
 
     @CmdAnnotation(cmd = CmdConstant.CMD_NW_PROTOCOL_REGISTER, version = 1.0,
             description = "模块协议指令注册")
@@ -147,7 +151,16 @@ public class MessageRpc extends BaseCmd {
             if (0 == nodes.size()) {
                 rtMap.put("value", false);
             } else {
-                messageManager.broadcastToNodes(message, nodes, true);
+                if (networkConfig.getInventoryCmdSet().contains(cmd)) {
+                    //库存公告不再发给已知该库存的peer
+                    nodes.removeIf(node -> node.hasKnownInventory(messageBody, 0, messageBody.length));
+                    for (Node node : nodes) {
+                        node.addKnownInventory(messageBody, 0, messageBody.length);
+                    }
+                }
+                if (!nodes.isEmpty()) {
+                    messageManager.broadcastToNodes(message, nodes, true);
+                }
             }
         } catch (Exception e) {
             Log.error(e);
@@ -190,6 +203,9 @@ public class MessageRpc extends BaseCmd {
             for (String nodeId : nodeIds) {
                 Node availableNode = nodeGroup.getAvailableNode(nodeId);
                 if (null != availableNode) {
+                    if (networkConfig.getInventoryCmdSet().contains(cmd)) {
+                        availableNode.addKnownInventory(messageBody, 0, messageBody.length);
+                    }
                     nodesList.add(availableNode);
                 } else {
                     LoggerUtil.logger(chainId).error("node = {} is not available!", nodeId);
@@ -0,0 +1,79 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2018 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.network.model;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+public class RollingBloomFilterTest {
+
+    private static byte[] hash(int i) {
+        return ByteBuffer.allocate(32).putInt(i).putInt(28, i * 31).array();
+    }
+
+    @Test
+    public void rememberRecentItems() {
+        RollingBloomFilter filter = new RollingBloomFilter(1000, 0.0001);
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertTrue(filter.add(hash(i)));
+        }
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertTrue(filter.contains(hash(i)));
+            Assert.assertFalse(filter.add(hash(i)));
+        }
+        //只比较消息体所在区间
+        byte[] payload = new byte[40];
+        System.arraycopy(hash(5), 0, payload, 8, 32);
+        Assert.assertTrue(filter.contains(payload, 8, 32));
+    }
+
+    @Test
+    public void rollOldItems() {
+        RollingBloomFilter filter = new RollingBloomFilter(100, 0.0001);
+        for (int i = 0; i < 300; i++) {
+            filter.add(hash(i));
+        }
+        //最近一代的元素必然存在
+        for (int i = 200; i < 300; i++) {
+            Assert.assertTrue(filter.contains(hash(i)));
+        }
+        int remembered = 0;
+        for (int i = 0; i < 100; i++) {
+            if (filter.contains(hash(i))) {
+                remembered++;
+            }
+        }
+        Assert.assertTrue(remembered < 5);
+        int falsePositive = 0;
+        for (int i = 10000; i < 20000; i++) {
+            if (filter.contains(hash(i))) {
+                falsePositive++;
+            }
+        }
+        Assert.assertTrue(falsePositive < 20);
+    }
+}
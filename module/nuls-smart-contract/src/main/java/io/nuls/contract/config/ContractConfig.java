@@ -64,6 +64,12 @@ public class ContractConfig implements ModuleConfig {
 
     private long maxViewGas;
 
+    /**
+     * 从该高度起新创建的合约以二进制格式保存状态，0表示不启用；全网必须一致
+     * New contracts created from this height persist their state in the binary format, 0 disables it; must be the same on every node
+     */
+    private long binaryHeapHeight;
+
     private String systemLogLevel;
 
     private String packageLogPackages;
@@ -94,6 +100,14 @@ public class ContractConfig implements ModuleConfig {
         this.maxViewGas = maxViewGas;
     }
 
+    public long getBinaryHeapHeight() {
+        return binaryHeapHeight;
+    }
+
+    public void setBinaryHeapHeight(long binaryHeapHeight) {
+        this.binaryHeapHeight = binaryHeapHeight;
+    }
+
     public String getEncoding() {
         return encoding;
     }
@@ -26,6 +26,7 @@ package io.nuls.contract.util;
 
 
 import io.nuls.base.data.BlockHeader;
+import io.nuls.contract.config.ContractConfig;
 import io.nuls.contract.helper.ContractHelper;
 import io.nuls.contract.model.bo.ContractBalance;
 import io.nuls.contract.model.dto.BlockHeaderDto;
@@ -54,6 +55,8 @@ public class VMContext {
 
     @Autowired
     private ContractHelper contractHelper;
+    @Autowired
+    private ContractConfig contractConfig;
 
     public static Map<String, ProgramMethod> NRC20_METHODS = null;
 
@@ -215,4 +218,13 @@ public class VMContext {
     public long getCustomMaxViewGasLimit(int chainId) {
         return contractHelper.getChain(chainId).getConfig().getMaxViewGas();
     }
+
+    /**
+     * 在该高度创建的合约是否使用二进制状态格式
+     * Whether contracts created at this height persist their state in the binary format
+     */
+    public boolean isBinaryHeap(long blockNumber) {
+        long height = contractConfig.getBinaryHeapHeight();
+        return height > 0 && blockNumber >= height;
+    }
 }
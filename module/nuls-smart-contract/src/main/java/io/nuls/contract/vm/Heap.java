@@ -31,6 +31,7 @@ import io.nuls.contract.vm.code.FieldCode;
 import io.nuls.contract.vm.code.MethodCode;
 import io.nuls.contract.vm.code.VariableType;
 import io.nuls.contract.vm.natives.io.nuls.contract.sdk.NativeAddress;
+import io.nuls.contract.vm.util.BinaryUtils;
 import io.nuls.contract.vm.util.CloneUtils;
 import io.nuls.contract.vm.util.Constants;
 import io.nuls.contract.vm.util.JsonUtils;
@@ -46,18 +47,23 @@ public class Heap {
 
     public static final Map<ObjectRef, Map<String, Object>> INIT_OBJECTS = new HashMap<>(1024);
 
-    public static final Map<String, Object> INIT_ARRAYS = new HashMap<>(1024);
+    /**
+     * 数组块表，下标为块号，块0保存在数组对象的字段中
+     */
+    public static final Map<ObjectRef, Object[]> INIT_ARRAYS = new HashMap<>(1024);
 
     private VM vm;
 
     public final Map<ObjectRef, Map<String, Object>> objects = new HashMap<>(1024);
 
-    public final Map<String, Object> arrays = new HashMap<>(1024);
+    public final Map<ObjectRef, Object[]> arrays = new HashMap<>(1024);
 
     private final Set<ObjectRef> changes = new HashSet<>(1024);
 
     private final BiMap<String, String> classNames = HashBiMap.create(1024);
 
+    private Map<String, ClassCode> classCodes;
+
     private ObjectRef contract;
 
     private byte[] address;
@@ -66,8 +72,25 @@ public class Heap {
 
     private BigInteger objectRefCount;
 
+    /**
+     * 是否以二进制格式写入合约状态，由合约创建时决定，之后不再改变
+     */
+    private boolean binaryState;
+
     private static final DataWord OBJECT_REF_COUNT = new DataWord("objectRefCount");
 
+    private static final DataWord HEAP_FORMAT = new DataWord("heapFormat");
+
+    private static final int CHUNK_SIZE = 1024;
+
+    private static final String[] CHUNK_KEYS = new String[256];
+
+    static {
+        for (int i = 0; i < CHUNK_KEYS.length; i++) {
+            CHUNK_KEYS[i] = Integer.toString(i);
+        }
+    }
+
     public Heap(BigInteger objectRefCount) {
         this.objectRefCount = new BigInteger(objectRefCount.toString());
     }
@@ -78,6 +101,7 @@ public class Heap {
 
     public void loadClassCodes(Map<String, ClassCode> classCodes) {
         if (classCodes != null) {
+            this.classCodes = classCodes;
             int i = 0;
             for (ClassCode classCode : classCodes.values()) {
                 this.classNames.put(String.valueOf(i++), classCode.variableType.getDesc());
@@ -172,7 +196,12 @@ public class Heap {
             return null;
         }
         byte[] value = dataWord.getNoLeadZeroesData();
-        Map<String, Object> map = (Map<String, Object>) JsonUtils.decode(new String(value), classNames);
+        Map<String, Object> map;
+        if (BinaryUtils.isBinary(value)) {
+            map = BinaryUtils.decodeFields(value, stateClassCode(objectRef), classNames);
+        } else {
+            map = (Map<String, Object>) JsonUtils.decode(new String(value), classNames);
+        }
         return map;
     }
 
@@ -210,79 +239,93 @@ public class Heap {
         return objectRef;
     }
 
-    public Object getArrayInit(ObjectRef arrayRef, Integer key) {
-        if (key == 0) {
-            return getField(arrayRef, key.toString());
+    public Object getArrayInit(ObjectRef arrayRef, int chunkNum) {
+        if (chunkNum == 0) {
+            return getField(arrayRef, chunkKey(0));
         }
-        String arrayKey = arrayRef.getRef() + "_" + key;
-        Object object = arrays.get(arrayKey);
+        Object[] chunks = arrays.get(arrayRef);
+        Object object = chunks != null ? chunks[chunkNum] : null;
         if (object == null) {
-            object = INIT_ARRAYS.get(arrayKey);
+            chunks = INIT_ARRAYS.get(arrayRef);
+            if (chunks != null) {
+                object = chunks[chunkNum];
+            }
         }
         return object;
     }
 
-    public Object putArrayInit(ObjectRef arrayRef, Integer key) {
-        if (key == 0) {
-            return putFields(arrayRef).get(key.toString());
+    public Object putArrayInit(ObjectRef arrayRef, int chunkNum) {
+        if (chunkNum == 0) {
+            return putFields(arrayRef).get(chunkKey(0));
         }
-        String arrayKey = arrayRef.getRef() + "_" + key;
-        Object object = arrays.get(arrayKey);
+        Object[] chunks = arrays.get(arrayRef);
+        Object object = chunks != null ? chunks[chunkNum] : null;
         if (object == null) {
-            object = INIT_ARRAYS.get(arrayKey);
-            if (object != null) {
-                object = CloneUtils.cloneObject(object);
-                arrays.put(arrayKey, object);
+            Object[] initChunks = INIT_ARRAYS.get(arrayRef);
+            if (initChunks != null && initChunks[chunkNum] != null) {
+                object = CloneUtils.cloneObject(initChunks[chunkNum]);
+                putArrayChunk(arrayRef, chunkNum, object);
             }
         }
         return object;
     }
 
+    private void putArrayChunk(ObjectRef arrayRef, int chunkNum, Object value) {
+        Object[] chunks = arrays.get(arrayRef);
+        if (chunks == null) {
+            chunks = new Object[(getArrayLength(arrayRef) + CHUNK_SIZE - 1) / CHUNK_SIZE];
+            arrays.put(arrayRef, chunks);
+        }
+        chunks[chunkNum] = value;
+    }
+
     public Object getArrayChunk(ObjectRef arrayRef, int chunkNum, boolean write) {
         getFields(arrayRef);
-        String key = Integer.toString(chunkNum);
-        String arrayKey = arrayRef.getRef() + "_" + key;
-        Object value = null;
+        Object value;
         if (write) {
             value = putArrayInit(arrayRef, chunkNum);
         } else {
             value = getArrayInit(arrayRef, chunkNum);
         }
-        if (value == null) {
-            value = getArrayChunkFromState(arrayRef, arrayKey);
+        // 块0随数组对象的字段一起加载
+        if (value == null && chunkNum > 0) {
+            value = getArrayChunkFromState(arrayRef, chunkNum);
             if (value != null) {
-                arrays.put(arrayKey, value);
+                putArrayChunk(arrayRef, chunkNum, value);
             }
         }
         if (value == null) {
             int arrayLength = getArrayLength(arrayRef);
-            int chunkLength = (chunkNum + 1) * 1024 <= arrayLength ? 1024 : arrayLength % 1024;
+            int chunkLength = (chunkNum + 1) * CHUNK_SIZE <= arrayLength ? CHUNK_SIZE : arrayLength % CHUNK_SIZE;
             if (arrayRef.getDimensions().length == 1 && arrayRef.getVariableType().isPrimitiveType()) {
                 Class componentType = arrayRef.getVariableType().getPrimitiveTypeClass();
                 value = Array.newInstance(componentType, chunkLength);
             } else {
                 value = new ObjectRef[chunkLength];
             }
+            String key = chunkKey(chunkNum);
             if (chunkNum == 0) {
                 putField(arrayRef, key, value);
             } else {
-                this.arrays.put(arrayKey, value);
+                putArrayChunk(arrayRef, chunkNum, value);
                 putField(arrayRef, key, key);
             }
         }
-        value = getArrayInit(arrayRef, chunkNum);
         return value;
     }
 
-    public Object getArrayChunkFromState(ObjectRef arrayRef, String arrayKey) {
+    public Object getArrayChunkFromState(ObjectRef arrayRef, int chunkNum) {
         if (this.repository == null) {
             return null;
         }
-        DataWord dataWord = this.repository.getStorageValue(this.address, new DataWord(arrayKey));
+        DataWord dataWord = this.repository.getStorageValue(this.address, chunkStateKey(arrayRef, chunkNum));
         if (dataWord == null) {
             return null;
         }
         byte[] value = dataWord.getNoLeadZeroesData();
+        if (BinaryUtils.isBinary(value)) {
+            return BinaryUtils.decodeArray(value, classNames);
+        }
         Class clazz = arrayRef.getVariableType().getPrimitiveTypeClass();
         if (!arrayRef.getVariableType().getComponentType().isPrimitive()) {
             clazz = ObjectRef.class;
@@ -292,8 +335,8 @@ public class Heap {
     }
 
     public Object getArray(ObjectRef arrayRef, int index) {
-        int chunkNum = index / 1024;
-        int chunkIndex = index % 1024;
+        int chunkNum = index / CHUNK_SIZE;
+        int chunkIndex = index % CHUNK_SIZE;
         Object arrayChunk = getArrayChunk(arrayRef, chunkNum, false);
         Object value = Array.get(arrayChunk, chunkIndex);
         if (value == null && arrayRef.getDimensions().length > 1) {
@@ -307,8 +350,8 @@ public class Heap {
     }
 
     public void putArray(ObjectRef arrayRef, int index, Object value) {
-        int chunkNum = index / 1024;
-        int chunkIndex = index % 1024;
+        int chunkNum = index / CHUNK_SIZE;
+        int chunkIndex = index % CHUNK_SIZE;
         Object arrayChunk = getArrayChunk(arrayRef, chunkNum, true);
         Array.set(arrayChunk, chunkIndex, value);
         change(arrayRef);
@@ -324,12 +367,12 @@ public class Heap {
         checkArray(dest, destPos + length - 1);
 
         while (length > 0) {
-            int srcChunk = srcPos / 1024;
-            int srcIndex = srcPos % 1024;
-            int destChunk = destPos / 1024;
-            int destIndex = destPos % 1024;
+            int srcChunk = srcPos / CHUNK_SIZE;
+            int srcIndex = srcPos % CHUNK_SIZE;
+            int destChunk = destPos / CHUNK_SIZE;
+            int destIndex = destPos % CHUNK_SIZE;
             int index = Math.max(srcIndex, destIndex);
-            int copyLength = 1024 - index;
+            int copyLength = CHUNK_SIZE - index;
             copyLength = Math.min(copyLength, length);
             arrayChunkCopy(src, srcChunk, srcIndex, dest, destChunk, destIndex, copyLength);
             srcPos += copyLength;
@@ -343,7 +386,7 @@ public class Heap {
         if (src instanceof ObjectRef) {
             srcArray = getArrayChunk((ObjectRef) src, srcChunk, false);
         } else {
-            srcPos = srcChunk * 1024 + srcPos;
+            srcPos = srcChunk * CHUNK_SIZE + srcPos;
         }
         Object destArray = dest;
         if (dest instanceof ObjectRef) {
@@ -351,7 +394,7 @@ public class Heap {
             destArray = getArrayChunk(destObjectRef, destChunk, true);
             change(destObjectRef);
         } else {
-            destPos = destChunk * 1024 + destPos;
+            destPos = destChunk * CHUNK_SIZE + destPos;
         }
         System.arraycopy(srcArray, srcPos, destArray, destPos, length);
     }
@@ -546,10 +589,18 @@ public class Heap {
     }
 
     public ObjectRef newContract(byte[] address, ClassCode contractCode, Repository repository) {
+        return newContract(address, contractCode, repository, false);
+    }
+
+    /**
+     * @param binaryState 新合约是否使用二进制状态格式 / whether the new contract persists its state in the binary format
+     */
+    public ObjectRef newContract(byte[] address, ClassCode contractCode, Repository repository, boolean binaryState) {
         ObjectRef objectRef = newObject(NativeAddress.toString(address), contractCode);
         this.contract = objectRef;
         this.address = address;
         this.repository = repository;
+        this.binaryState = binaryState;
         return this.contract;
     }
 
@@ -562,6 +613,7 @@ public class Heap {
         this.address = address;
         this.repository = repository;
         this.objectRefCount = this.repository.getStorageValue(this.address, OBJECT_REF_COUNT).toBigInteger();
+        this.binaryState = this.repository.getStorageValue(this.address, HEAP_FORMAT) != null;
         String className = this.contract.getVariableType().getType();
         ObjectRef staticObjectRef = getStaticObjectRef(className);
         Map<String, Object> fields = getFieldsFromState(staticObjectRef);
@@ -574,6 +626,9 @@ public class Heap {
     public Map<DataWord, DataWord> contractState() {
         Map<DataWord, DataWord> contractState = new HashMap<>(1024);
         contractState.put(OBJECT_REF_COUNT, new DataWord(this.objectRefCount));
+        if (this.binaryState) {
+            contractState.put(HEAP_FORMAT, DataWord.of(BinaryUtils.VERSION));
+        }
         Set<ObjectRef> stateObjectRefs = new HashSet<>(1024);
         String className = this.contract.getVariableType().getType();
         ObjectRef staticObjectRef = getStaticObjectRef(className);
@@ -587,24 +642,31 @@ public class Heap {
             if (fields == null) {
                 continue;
             }
-            String key = JsonUtils.encode(objectRef, classNames);
-            String value = JsonUtils.encode(fields, classNames);
-            contractState.put(new DataWord(key), new DataWord(value));
+            DataWord key = new DataWord(JsonUtils.encode(objectRef, classNames));
+            if (this.binaryState) {
+                contractState.put(key, DataWord.of(BinaryUtils.encodeFields(fields, stateClassCode(objectRef), classNames)));
+            } else {
+                contractState.put(key, new DataWord(JsonUtils.encode(fields, classNames)));
+            }
             if (objectRef.isArray()) {
                 for (String k : fields.keySet()) {
-                    Integer i = Integer.valueOf(k);
+                    int i = Integer.parseInt(k);
                     if (i == 0) {
                         continue;
                     }
-                    String arrayKey = objectRef.getRef() + "_" + k;
                     Object object = getArrayInit(objectRef, i);
                     if (object != null) {
-                        Class clazz = objectRef.getVariableType().getPrimitiveTypeClass();
-                        if (!objectRef.getVariableType().getComponentType().isPrimitive()) {
-                            clazz = ObjectRef.class;
+                        DataWord arrayValue;
+                        if (this.binaryState) {
+                            arrayValue = DataWord.of(BinaryUtils.encodeArray(object, classNames));
+                        } else {
+                            Class clazz = objectRef.getVariableType().getPrimitiveTypeClass();
+                            if (!objectRef.getVariableType().getComponentType().isPrimitive()) {
+                                clazz = ObjectRef.class;
+                            }
+                            arrayValue = new DataWord(JsonUtils.encodeArray(object, clazz, classNames));
                         }
-                        String arrayValue = JsonUtils.encodeArray(object, clazz, classNames);
-                        contractState.put(new DataWord(arrayKey), new DataWord(arrayValue));
+                        contractState.put(chunkStateKey(objectRef, i), arrayValue);
                     }
                 }
             }
@@ -625,7 +687,7 @@ public class Heap {
                             stateObjectRefs(stateObjectRefs, (ObjectRef) object);
                         }
                         if (objectRef.isArray()) {
-                            Object array = getArrayInit(objectRef, Integer.valueOf(key));
+                            Object array = getArrayInit(objectRef, Integer.parseInt(key));
                             if (array != null && !objectRef.getVariableType().getComponentType().isPrimitive()) {
                                 int length = Array.getLength(array);
                                 for (int i = 0; i < length; i++) {
@@ -684,6 +746,29 @@ public class Heap {
         }
     }
 
+    private static String chunkKey(int chunkNum) {
+        return chunkNum < CHUNK_KEYS.length ? CHUNK_KEYS[chunkNum] : Integer.toString(chunkNum);
+    }
+
+    private static DataWord chunkStateKey(ObjectRef arrayRef, int chunkNum) {
+        return new DataWord(arrayRef.getRef() + "_" + chunkNum);
+    }
+
+    /**
+     * 只取已加载的类，不触发类初始化，保证编码与解码时解析出同一个类
+     */
+    private ClassCode stateClassCode(ObjectRef objectRef) {
+        if (objectRef.isArray()) {
+            return null;
+        }
+        String className = objectRef.getVariableType().getType();
+        ClassCode classCode = MethodArea.INIT_CLASS_CODES.get(className);
+        if (classCode == null && this.classCodes != null) {
+            classCode = this.classCodes.get(className);
+        }
+        return classCode;
+    }
+
     private int getArrayLength(ObjectRef arrayRef) {
         int length = arrayRef.getDimensions()[0];
         return length;
@@ -24,22 +24,75 @@
  */
 package io.nuls.contract.vm;
 
+/**
+ * 局部变量表
+ * <p>
+ * 与操作数栈相同，int、long、float、double按原始类型存放，其他值存放在对象数组中，
+ * 读取时槽位类型不一致的按原先的包装类型规则转换
+ */
 public class LocalVariables {
 
+    private static final byte REF = 0;
+    private static final byte INT = 1;
+    private static final byte LONG = 2;
+    private static final byte FLOAT = 3;
+    private static final byte DOUBLE = 4;
+
     private int maxLocals;
 
-    private Object[] localVariables;
+    private final byte[] types;
+
+    private final long[] values;
+
+    private final Object[] refs;
 
     public LocalVariables(int maxLocals, Object[] args) {
         this.maxLocals = maxLocals;
-        this.localVariables = new Object[maxLocals];
+        this.types = new byte[maxLocals];
+        this.values = new long[maxLocals];
+        this.refs = new Object[maxLocals];
         if (args != null) {
-            System.arraycopy(args, 0, this.localVariables, 0, args.length);
+            for (int i = 0; i < args.length; i++) {
+                set(i, args[i]);
+            }
+        }
+    }
+
+    private void set(int index, Object value) {
+        if (value instanceof Integer) {
+            setInt(index, (Integer) value);
+        } else if (value instanceof Long) {
+            setLong(index, (Long) value);
+        } else if (value instanceof Float) {
+            setFloat(index, (Float) value);
+        } else if (value instanceof Double) {
+            setDouble(index, (Double) value);
+        } else {
+            this.types[index] = REF;
+            this.refs[index] = value;
+        }
+    }
+
+    private Object get(int index) {
+        switch (this.types[index]) {
+            case INT:
+                return (int) this.values[index];
+            case LONG:
+                return this.values[index];
+            case FLOAT:
+                return Float.intBitsToFloat((int) this.values[index]);
+            case DOUBLE:
+                return Double.longBitsToDouble(this.values[index]);
+            default:
+                return this.refs[index];
         }
     }
 
     public int getInt(int index) {
-        Object object = this.localVariables[index];
+        if (this.types[index] == INT) {
+            return (int) this.values[index];
+        }
+        Object object = get(index);
         if (object instanceof Boolean) {
             return (boolean) object ? 1 : 0;
         } else if (object instanceof Byte) {
@@ -54,39 +107,55 @@ public class LocalVariables {
     }
 
     public void setInt(int index, int value) {
-        this.localVariables[index] = value;
+        setSlot(index, INT, value);
     }
 
     public long getLong(int index) {
-        return (long) this.localVariables[index];
+        if (this.types[index] == LONG) {
+            return this.values[index];
+        }
+        return (long) get(index);
     }
 
     public void setLong(int index, long value) {
-        this.localVariables[index] = value;
+        setSlot(index, LONG, value);
     }
 
     public float getFloat(int index) {
-        return (float) this.localVariables[index];
+        if (this.types[index] == FLOAT) {
+            return Float.intBitsToFloat((int) this.values[index]);
+        }
+        return (float) get(index);
     }
 
     public void setFloat(int index, float value) {
-        this.localVariables[index] = value;
+        setSlot(index, FLOAT, Float.floatToRawIntBits(value));
     }
 
     public double getDouble(int index) {
-        return (double) this.localVariables[index];
+        if (this.types[index] == DOUBLE) {
+            return Double.longBitsToDouble(this.values[index]);
+        }
+        return (double) get(index);
     }
 
     public void setDouble(int index, double value) {
-        this.localVariables[index] = value;
+        setSlot(index, DOUBLE, Double.doubleToRawLongBits(value));
     }
 
     public ObjectRef getRef(int index) {
-        return (ObjectRef) this.localVariables[index];
+        return (ObjectRef) get(index);
     }
 
     public void setRef(int index, ObjectRef value) {
-        this.localVariables[index] = value;
+        this.types[index] = REF;
+        this.refs[index] = value;
+    }
+
+    private void setSlot(int index, byte type, long value) {
+        this.types[index] = type;
+        this.values[index] = value;
+        this.refs[index] = null;
     }
 
 }
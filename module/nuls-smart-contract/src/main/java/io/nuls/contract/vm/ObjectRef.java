@@ -45,11 +45,15 @@ public class ObjectRef {
     @JsonIgnore
     private final VariableType variableType;
 
+    @JsonIgnore
+    private final int hash;
+
     public ObjectRef(String ref, String desc, int... dimensions) {
         this.ref = ref;
         this.desc = desc;
         this.dimensions = dimensions;
         this.variableType = VariableType.valueOf(this.desc);
+        this.hash = computeHash();
     }
 
     public ObjectRef(String str, BiMap<String, String> classNames) {
@@ -68,6 +72,7 @@ public class ObjectRef {
         this.desc = s;
         this.dimensions = dimensions;
         this.variableType = VariableType.valueOf(this.desc);
+        this.hash = computeHash();
     }
 
     public String getEncoded(BiMap<String, String> classNames) {
@@ -131,6 +136,10 @@ public class ObjectRef {
 
     @Override
     public int hashCode() {
+        return hash;
+    }
+
+    private int computeHash() {
         int result = ref != null ? ref.hashCode() : 0;
         result = 31 * result + (desc != null ? desc.hashCode() : 0);
         result = 31 * result + Arrays.hashCode(dimensions);
@@ -27,20 +27,57 @@ package io.nuls.contract.vm;
 import io.nuls.contract.vm.code.Descriptors;
 import io.nuls.contract.vm.code.VariableType;
 
-import java.util.Stack;
+import java.util.Arrays;
+import java.util.EmptyStackException;
 
-public class OperandStack extends Stack {
+/**
+ * 操作数栈
+ * <p>
+ * 每个栈帧只在执行它的线程中使用，因此不加锁；int、long、float、double按原始类型存放在槽位数组中，
+ * 其他值（引用、null、以及通过push(Object)压入的Boolean、Byte等包装类型）存放在对象数组中。
+ * 通过push(Object)/pop()读写时按槽位类型还原为对应的包装类型，与原先基于Stack的实现行为一致。
+ */
+public class OperandStack {
+
+    private static final byte REF = 0;
+    private static final byte INT = 1;
+    private static final byte LONG = 2;
+    private static final byte FLOAT = 3;
+    private static final byte DOUBLE = 4;
 
     private final int maxStack;
 
+    private byte[] types;
+
+    private long[] values;
+
+    private Object[] refs;
+
+    private int size;
+
     public OperandStack(int maxStack) {
-        super();
         this.maxStack = maxStack;
+        int capacity = Math.max(maxStack, 2);
+        this.types = new byte[capacity];
+        this.values = new long[capacity];
+        this.refs = new Object[capacity];
     }
 
-    @Override
     public Object push(Object value) {
-        return super.push(value);
+        if (value instanceof Integer) {
+            pushSlot(INT, (Integer) value);
+        } else if (value instanceof Long) {
+            pushSlot(LONG, (Long) value);
+        } else if (value instanceof Float) {
+            pushSlot(FLOAT, Float.floatToRawIntBits((Float) value));
+        } else if (value instanceof Double) {
+            pushSlot(DOUBLE, Double.doubleToRawLongBits((Double) value));
+        } else {
+            int index = grow();
+            types[index] = REF;
+            refs[index] = value;
+        }
+        return value;
     }
 
     public Object push(Object value, VariableType variableType) {
@@ -80,49 +117,77 @@ public class OperandStack extends Stack {
         return value;
     }
 
-    @Override
-    public synchronized Object pop() {
-        return super.pop();
+    public Object pop() {
+        return take(shrink());
+    }
+
+    public void clear() {
+        Arrays.fill(refs, 0, size, null);
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
     }
 
     public int pushInt(int value) {
-        push(value);
+        pushSlot(INT, value);
         return value;
     }
 
     public int popInt() {
-        return (int) pop();
+        int index = shrink();
+        if (types[index] == INT) {
+            return (int) values[index];
+        }
+        return (int) take(index);
     }
 
     public long pushLong(long value) {
-        push(value);
+        pushSlot(LONG, value);
         push(null);
         return value;
     }
 
     public long popLong() {
         pop();
-        return (long) pop();
+        int index = shrink();
+        if (types[index] == LONG) {
+            return values[index];
+        }
+        return (long) take(index);
     }
 
     public float pushFloat(float value) {
-        push(value);
+        pushSlot(FLOAT, Float.floatToRawIntBits(value));
         return value;
     }
 
     public float popFloat() {
-        return (float) pop();
+        int index = shrink();
+        if (types[index] == FLOAT) {
+            return Float.intBitsToFloat((int) values[index]);
+        }
+        return (float) take(index);
     }
 
     public double pushDouble(double value) {
-        push(value);
+        pushSlot(DOUBLE, Double.doubleToRawLongBits(value));
         push(null);
         return value;
     }
 
     public double popDouble() {
         pop();
-        return (double) pop();
+        int index = shrink();
+        if (types[index] == DOUBLE) {
+            return Double.longBitsToDouble(values[index]);
+        }
+        return (double) take(index);
     }
 
     public int pushBoolean(boolean value) {
@@ -158,12 +223,57 @@ public class OperandStack extends Stack {
     }
 
     public ObjectRef pushRef(ObjectRef ref) {
-        push(ref);
+        int index = grow();
+        types[index] = REF;
+        refs[index] = ref;
         return ref;
     }
 
     public ObjectRef popRef() {
-        return (ObjectRef) pop();
+        return (ObjectRef) take(shrink());
+    }
+
+    private void pushSlot(byte type, long value) {
+        int index = grow();
+        types[index] = type;
+        values[index] = value;
+    }
+
+    private int grow() {
+        if (size == types.length) {
+            int capacity = size * 2;
+            types = Arrays.copyOf(types, capacity);
+            values = Arrays.copyOf(values, capacity);
+            refs = Arrays.copyOf(refs, capacity);
+        }
+        return size++;
+    }
+
+    private int shrink() {
+        if (size == 0) {
+            throw new EmptyStackException();
+        }
+        return --size;
+    }
+
+    /**
+     * 按槽位类型还原为包装类型；读取的类型与槽位类型不一致时，由调用方的强制转换给出与原实现相同的异常
+     */
+    private Object take(int index) {
+        switch (types[index]) {
+            case INT:
+                return (int) values[index];
+            case LONG:
+                return values[index];
+            case FLOAT:
+                return Float.intBitsToFloat((int) values[index]);
+            case DOUBLE:
+                return Double.longBitsToDouble(values[index]);
+            default:
+                Object value = refs[index];
+                refs[index] = null;
+                return value;
+        }
     }
 
 }
@@ -32,6 +32,7 @@ import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.tree.*;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -158,6 +159,13 @@ public class ClassCode {
     //public final List<FieldNode> fields;
     public final Map<String, FieldCode> fields;
 
+    /**
+     * 字段槽位，按声明顺序编号，用于堆对象的二进制编码
+     * Field slots in declaration order, used by the binary heap encoding
+     */
+    private final String[] fieldNames;
+    private final Map<String, Integer> fieldSlots;
+
     /**
      * The methods of this class.
      */
@@ -208,6 +216,11 @@ public class ClassCode {
             final FieldCode fieldCode = new FieldCode(fieldNode);
             fields.put(fieldCode.name, fieldCode);
         }
+        fieldNames = fields.keySet().toArray(new String[0]);
+        fieldSlots = new HashMap<>(hashMapInitialCapacity(fieldNames.length));
+        for (int i = 0; i < fieldNames.length; i++) {
+            fieldSlots.put(fieldNames[i], i);
+        }
         final List<MethodNode> methodNodes = ListUtils.emptyIfNull(classNode.methods);
         methods = new ArrayList<>(arrayListInitialCapacity(methodNodes.size()));
         methodMap = new LinkedHashMap<>(hashMapInitialCapacity(methodNodes.size() * 2));
@@ -236,6 +249,15 @@ public class ClassCode {
         }
     }
 
+    public int getFieldSlot(String fieldName) {
+        Integer slot = fieldSlots.get(fieldName);
+        return slot != null ? slot : -1;
+    }
+
+    public String getFieldName(int slot) {
+        return fieldNames[slot];
+    }
+
     private String getSimpleName() {
         int i = this.name.lastIndexOf(Constants.DOLLAR);
         if (i > 0) {
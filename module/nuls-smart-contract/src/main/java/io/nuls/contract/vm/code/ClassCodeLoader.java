@@ -24,6 +24,7 @@
  */
 package io.nuls.contract.vm.code;
 
+import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
@@ -31,6 +32,7 @@ import io.nuls.contract.vm.util.Constants;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.ethereum.db.ByteArrayWrapper;
 import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.tree.ClassNode;
 
@@ -39,6 +41,7 @@ import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -54,6 +57,11 @@ public class ClassCodeLoader {
 
     private static final LoadingCache<ClassCodeCacheKey, Map<String, ClassCode>> CACHE;
 
+    /**
+     * 按合约地址缓存，调用时不必再读取和哈希整个jar
+     */
+    private static final Cache<ByteArrayWrapper, ContractCode> CONTRACT_CACHE;
+
     static {
         CACHE = CacheBuilder.newBuilder()
                 .initialCapacity(100)
@@ -65,6 +73,11 @@ public class ClassCodeLoader {
                         return ClassCodeLoader.loadJar(cacheKey.getBytes());
                     }
                 });
+        CONTRACT_CACHE = CacheBuilder.newBuilder()
+                .initialCapacity(100)
+                .maximumSize(1024)
+                .expireAfterAccess(10 * 60, TimeUnit.SECONDS)
+                .build();
         RESOURCE_CLASS_CODES = loadFromResource();
     }
 
@@ -146,6 +159,30 @@ public class ClassCodeLoader {
         }
     }
 
+    /**
+     * 取缓存的合约代码，代码哈希不一致时（如回滚后在同一地址重新部署）视为未命中
+     */
+    public static ContractCode getContractCode(byte[] address, byte[] codeHash) {
+        if (codeHash == null) {
+            return null;
+        }
+        ContractCode contractCode = CONTRACT_CACHE.getIfPresent(new ByteArrayWrapper(address));
+        if (contractCode != null && Arrays.equals(contractCode.codeHash, codeHash)) {
+            return contractCode;
+        }
+        return null;
+    }
+
+    public static void putContractCode(byte[] address, ContractCode contractCode) {
+        if (contractCode.codeHash != null) {
+            CONTRACT_CACHE.put(new ByteArrayWrapper(address), contractCode);
+        }
+    }
+
+    public static void invalidateContractCode(byte[] address) {
+        CONTRACT_CACHE.invalidate(new ByteArrayWrapper(address));
+    }
+
     private static boolean isSupport(VariableType variableType) {
         if (variableType.isPrimitiveType()) {
             return false;
@@ -0,0 +1,50 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2019 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.contract.vm.code;
+
+import java.util.Map;
+
+/**
+ * 已部署合约解析并校验后的类，按合约地址缓存，在多个VM之间只读共享
+ * Parsed and verified classes of a deployed contract, cached by contract address and shared read-only across VMs
+ */
+public class ContractCode {
+
+    /**
+     * 合约账户中的代码哈希，用于判断缓存是否仍然有效
+     */
+    public final byte[] codeHash;
+
+    public final Map<String, ClassCode> classCodes;
+
+    public final ClassCode contractClassCode;
+
+    public ContractCode(byte[] codeHash, Map<String, ClassCode> classCodes, ClassCode contractClassCode) {
+        this.codeHash = codeHash;
+        this.classCodes = classCodes;
+        this.contractClassCode = contractClassCode;
+    }
+
+}
@@ -35,6 +35,7 @@ import io.nuls.contract.vm.VMFactory;
 import io.nuls.contract.vm.code.ClassCode;
 import io.nuls.contract.vm.code.ClassCodeLoader;
 import io.nuls.contract.vm.code.ClassCodes;
+import io.nuls.contract.vm.code.ContractCode;
 import io.nuls.contract.vm.code.MethodCode;
 import io.nuls.contract.vm.exception.ErrorException;
 import io.nuls.contract.vm.natives.io.nuls.contract.sdk.NativeAddress;
@@ -279,6 +280,7 @@ public class ProgramExecutorImpl implements ProgramExecutor {
             byte[] contractCodeData = programInvoke.getData();
             BigInteger transferValue = programInvoke.getValue();
             Map<String, ClassCode> classCodes;
+            ClassCode contractClassCode;
             if (programInvoke.isCreate()) {
                 if (contractCodeData == null) {
                     return revert("contract code can't be null");
@@ -287,6 +289,7 @@ public class ProgramExecutorImpl implements ProgramExecutor {
                 logTime("load new code");
                 ProgramChecker.check(classCodes);
                 logTime("check code");
+                contractClassCode = getContractClassCode(classCodes);
                 AccountState accountState = repository.getAccountState(contractAddressBytes);
                 if (accountState != null) {
                     return revert(String.format("contract[%s] already exists", contractAddress));
@@ -307,8 +310,15 @@ public class ProgramExecutorImpl implements ProgramExecutor {
                 if (accountState.getNonce().compareTo(BigInteger.ZERO) <= 0) {
                     return revert(String.format("contract[%s] has stopped", contractAddress));
                 }
-                byte[] codes = repository.getCode(contractAddressBytes);
-                classCodes = ClassCodeLoader.loadJarCache(codes);
+                ContractCode contractCode = ClassCodeLoader.getContractCode(contractAddressBytes, accountState.getCodeHash());
+                if (contractCode == null) {
+                    byte[] codes = repository.getCode(contractAddressBytes);
+                    Map<String, ClassCode> loadClassCodes = ClassCodeLoader.loadJarCache(codes);
+                    contractCode = new ContractCode(accountState.getCodeHash(), loadClassCodes, getContractClassCode(loadClassCodes));
+                    ClassCodeLoader.putContractCode(contractAddressBytes, contractCode);
+                }
+                classCodes = contractCode.classCodes;
+                contractClassCode = contractCode.contractClassCode;
                 logTime("load code");
             }
 
@@ -321,7 +331,6 @@ public class ProgramExecutorImpl implements ProgramExecutor {
 
             logTime("load classes");
 
-            ClassCode contractClassCode = getContractClassCode(classCodes);
             String methodDesc = ProgramDescriptors.parseDesc(methodDescBase);
             MethodCode methodCode = vm.methodArea.loadMethod(contractClassCode.name, methodName, methodDesc);
 
@@ -356,7 +365,8 @@ public class ProgramExecutorImpl implements ProgramExecutor {
 
             ObjectRef objectRef;
             if (programInvoke.isCreate()) {
-                objectRef = vm.heap.newContract(contractAddressBytes, contractClassCode, repository);
+                boolean binaryHeap = vmContext != null && vmContext.isBinaryHeap(blockNumber);
+                objectRef = vm.heap.newContract(contractAddressBytes, contractClassCode, repository, binaryHeap);
             } else {
                 objectRef = vm.heap.loadContract(contractAddressBytes, contractClassCode, repository);
             }
@@ -488,6 +498,7 @@ public class ProgramExecutorImpl implements ProgramExecutor {
 
         this.blockNumber = blockNumber;
         repository.setNonce(address, BigInteger.ZERO);
+        ClassCodeLoader.invalidateContractCode(address);
 
         ProgramResult programResult = new ProgramResult();
 
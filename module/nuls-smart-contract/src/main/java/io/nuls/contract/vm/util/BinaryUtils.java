@@ -0,0 +1,455 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2019 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.contract.vm.util;
+
+import com.google.common.collect.BiMap;
+import io.nuls.contract.vm.ObjectRef;
+import io.nuls.contract.vm.code.ClassCode;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static io.nuls.contract.vm.util.Utils.hashMapInitialCapacity;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * 合约堆对象与数组块的二进制编码，取代{@link JsonUtils}的字符串格式
+ * Typed binary encoding of heap objects and array chunks, replacing the string format of {@link JsonUtils}
+ * <p>
+ * 对象: MAGIC VERSION size (slot+1 | 0 name) value ...，字段优先按{@link ClassCode}中的槽位编码
+ * 数组块: MAGIC VERSION componentTag length element ...
+ * <p>
+ * MAGIC不是合法JSON的首字节，读取时据此兼容旧的JSON状态
+ */
+public class BinaryUtils {
+
+    public static final byte MAGIC = (byte) 0xB1;
+
+    public static final byte VERSION = 1;
+
+    private static final byte T_NULL = 0;
+    private static final byte T_INT = 1;
+    private static final byte T_LONG = 2;
+    private static final byte T_FLOAT = 3;
+    private static final byte T_DOUBLE = 4;
+    private static final byte T_BOOLEAN = 5;
+    private static final byte T_BYTE = 6;
+    private static final byte T_CHAR = 7;
+    private static final byte T_SHORT = 8;
+    private static final byte T_STRING = 9;
+    private static final byte T_REF = 10;
+    private static final byte T_ARRAY = 11;
+
+    public static boolean isBinary(byte[] value) {
+        return value != null && value.length > 1 && value[0] == MAGIC;
+    }
+
+    public static byte[] encodeFields(Map<String, Object> fields, ClassCode classCode, BiMap<String, String> classNames) {
+        Output out = new Output(16 + fields.size() * 8);
+        out.writeByte(MAGIC);
+        out.writeByte(VERSION);
+        out.writeVarLong(fields.size());
+        for (Map.Entry<String, Object> entry : fields.entrySet()) {
+            String name = entry.getKey();
+            int slot = classCode == null ? -1 : classCode.getFieldSlot(name);
+            if (slot >= 0) {
+                out.writeVarLong(slot + 1);
+            } else {
+                out.writeVarLong(0);
+                out.writeString(name);
+            }
+            writeValue(out, entry.getValue(), classNames);
+        }
+        return out.toByteArray();
+    }
+
+    public static Map<String, Object> decodeFields(byte[] value, ClassCode classCode, BiMap<String, String> classNames) {
+        Input in = new Input(value);
+        int size = (int) in.readVarLong();
+        Map<String, Object> fields = new LinkedHashMap<>(hashMapInitialCapacity(size));
+        for (int i = 0; i < size; i++) {
+            int slot = (int) in.readVarLong();
+            String name;
+            if (slot > 0) {
+                if (classCode == null) {
+                    throw new IllegalArgumentException("field slot without class");
+                }
+                name = classCode.getFieldName(slot - 1);
+            } else {
+                name = in.readString();
+            }
+            fields.put(name, readValue(in, classNames));
+        }
+        return fields;
+    }
+
+    public static byte[] encodeArray(Object value, BiMap<String, String> classNames) {
+        Output out = new Output(16 + Array.getLength(value) * 4);
+        out.writeByte(MAGIC);
+        out.writeByte(VERSION);
+        writeArray(out, value, classNames);
+        return out.toByteArray();
+    }
+
+    public static Object decodeArray(byte[] value, BiMap<String, String> classNames) {
+        Input in = new Input(value);
+        return readArray(in, classNames);
+    }
+
+    private static void writeValue(Output out, Object value, BiMap<String, String> classNames) {
+        if (value == null) {
+            out.writeByte(T_NULL);
+        } else if (value instanceof Integer) {
+            out.writeByte(T_INT);
+            out.writeZigZag((Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(T_LONG);
+            out.writeZigZag((Long) value);
+        } else if (value instanceof Float) {
+            out.writeByte(T_FLOAT);
+            out.writeInt(Float.floatToRawIntBits((Float) value));
+        } else if (value instanceof Double) {
+            out.writeByte(T_DOUBLE);
+            out.writeLong(Double.doubleToRawLongBits((Double) value));
+        } else if (value instanceof Boolean) {
+            out.writeByte(T_BOOLEAN);
+            out.writeByte((Boolean) value ? 1 : 0);
+        } else if (value instanceof Byte) {
+            out.writeByte(T_BYTE);
+            out.writeByte((Byte) value);
+        } else if (value instanceof Character) {
+            out.writeByte(T_CHAR);
+            out.writeVarLong((Character) value);
+        } else if (value instanceof Short) {
+            out.writeByte(T_SHORT);
+            out.writeZigZag((Short) value);
+        } else if (value instanceof String) {
+            out.writeByte(T_STRING);
+            out.writeString((String) value);
+        } else if (value instanceof ObjectRef) {
+            out.writeByte(T_REF);
+            out.writeString(((ObjectRef) value).getEncoded(classNames));
+        } else if (value.getClass().isArray()) {
+            out.writeByte(T_ARRAY);
+            writeArray(out, value, classNames);
+        } else {
+            throw new IllegalArgumentException("unknown value");
+        }
+    }
+
+    private static Object readValue(Input in, BiMap<String, String> classNames) {
+        byte tag = in.readByte();
+        switch (tag) {
+            case T_NULL:
+                return null;
+            case T_INT:
+                return (int) in.readZigZag();
+            case T_LONG:
+                return in.readZigZag();
+            case T_FLOAT:
+                return Float.intBitsToFloat(in.readInt());
+            case T_DOUBLE:
+                return Double.longBitsToDouble(in.readLong());
+            case T_BOOLEAN:
+                return in.readByte() != 0;
+            case T_BYTE:
+                return in.readByte();
+            case T_CHAR:
+                return (char) in.readVarLong();
+            case T_SHORT:
+                return (short) in.readZigZag();
+            case T_STRING:
+                return in.readString();
+            case T_REF:
+                return new ObjectRef(in.readString(), classNames);
+            case T_ARRAY:
+                return readArray(in, classNames);
+            default:
+                throw new IllegalArgumentException("unknown tag " + tag);
+        }
+    }
+
+    private static void writeArray(Output out, Object value, BiMap<String, String> classNames) {
+        int length = Array.getLength(value);
+        if (value instanceof int[]) {
+            out.writeByte(T_INT);
+            out.writeVarLong(length);
+            for (int v : (int[]) value) {
+                out.writeZigZag(v);
+            }
+        } else if (value instanceof long[]) {
+            out.writeByte(T_LONG);
+            out.writeVarLong(length);
+            for (long v : (long[]) value) {
+                out.writeZigZag(v);
+            }
+        } else if (value instanceof float[]) {
+            out.writeByte(T_FLOAT);
+            out.writeVarLong(length);
+            for (float v : (float[]) value) {
+                out.writeInt(Float.floatToRawIntBits(v));
+            }
+        } else if (value instanceof double[]) {
+            out.writeByte(T_DOUBLE);
+            out.writeVarLong(length);
+            for (double v : (double[]) value) {
+                out.writeLong(Double.doubleToRawLongBits(v));
+            }
+        } else if (value instanceof boolean[]) {
+            out.writeByte(T_BOOLEAN);
+            out.writeVarLong(length);
+            for (boolean v : (boolean[]) value) {
+                out.writeByte(v ? 1 : 0);
+            }
+        } else if (value instanceof byte[]) {
+            out.writeByte(T_BYTE);
+            out.writeVarLong(length);
+            out.writeBytes((byte[]) value);
+        } else if (value instanceof char[]) {
+            out.writeByte(T_CHAR);
+            out.writeVarLong(length);
+            for (char v : (char[]) value) {
+                out.writeVarLong(v);
+            }
+        } else if (value instanceof short[]) {
+            out.writeByte(T_SHORT);
+            out.writeVarLong(length);
+            for (short v : (short[]) value) {
+                out.writeZigZag(v);
+            }
+        } else {
+            out.writeByte(T_REF);
+            out.writeVarLong(length);
+            for (int i = 0; i < length; i++) {
+                ObjectRef objectRef = (ObjectRef) Array.get(value, i);
+                if (objectRef == null) {
+                    out.writeByte(0);
+                } else {
+                    out.writeByte(1);
+                    out.writeString(objectRef.getEncoded(classNames));
+                }
+            }
+        }
+    }
+
+    private static Object readArray(Input in, BiMap<String, String> classNames) {
+        byte tag = in.readByte();
+        int length = (int) in.readVarLong();
+        switch (tag) {
+            case T_INT: {
+                int[] array = new int[length];
+                for (int i = 0; i < length; i++) {
+                    array[i] = (int) in.readZigZag();
+                }
+                return array;
+            }
+            case T_LONG: {
+                long[] array = new long[length];
+                for (int i = 0; i < length; i++) {
+                    array[i] = in.readZigZag();
+                }
+                return array;
+            }
+            case T_FLOAT: {
+                float[] array = new float[length];
+                for (int i = 0; i < length; i++) {
+                    array[i] = Float.intBitsToFloat(in.readInt());
+                }
+                return array;
+            }
+            case T_DOUBLE: {
+                double[] array = new double[length];
+                for (int i = 0; i < length; i++) {
+                    array[i] = Double.longBitsToDouble(in.readLong());
+                }
+                return array;
+            }
+            case T_BOOLEAN: {
+                boolean[] array = new boolean[length];
+                for (int i = 0; i < length; i++) {
+                    array[i] = in.readByte() != 0;
+                }
+                return array;
+            }
+            case T_BYTE:
+                return in.readBytes(length);
+            case T_CHAR: {
+                char[] array = new char[length];
+                for (int i = 0; i < length; i++) {
+                    array[i] = (char) in.readVarLong();
+                }
+                return array;
+            }
+            case T_SHORT: {
+                short[] array = new short[length];
+                for (int i = 0; i < length; i++) {
+                    array[i] = (short) in.readZigZag();
+                }
+                return array;
+            }
+            case T_REF: {
+                ObjectRef[] array = new ObjectRef[length];
+                for (int i = 0; i < length; i++) {
+                    if (in.readByte() != 0) {
+                        array[i] = new ObjectRef(in.readString(), classNames);
+                    }
+                }
+                return array;
+            }
+            default:
+                throw new IllegalArgumentException("unknown array tag " + tag);
+        }
+    }
+
+    private static class Output {
+
+        private byte[] buf;
+
+        private int pos;
+
+        Output(int capacity) {
+            this.buf = new byte[capacity];
+        }
+
+        private void ensure(int n) {
+            if (pos + n > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + n));
+            }
+        }
+
+        void writeByte(int b) {
+            ensure(1);
+            buf[pos++] = (byte) b;
+        }
+
+        void writeBytes(byte[] bytes) {
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buf, pos, bytes.length);
+            pos += bytes.length;
+        }
+
+        void writeInt(int v) {
+            ensure(4);
+            buf[pos++] = (byte) (v >>> 24);
+            buf[pos++] = (byte) (v >>> 16);
+            buf[pos++] = (byte) (v >>> 8);
+            buf[pos++] = (byte) v;
+        }
+
+        void writeLong(long v) {
+            writeInt((int) (v >>> 32));
+            writeInt((int) v);
+        }
+
+        void writeVarLong(long v) {
+            ensure(10);
+            while ((v & ~0x7FL) != 0) {
+                buf[pos++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            buf[pos++] = (byte) v;
+        }
+
+        void writeZigZag(long v) {
+            writeVarLong((v << 1) ^ (v >> 63));
+        }
+
+        void writeString(String s) {
+            byte[] bytes = s.getBytes(UTF_8);
+            writeVarLong(bytes.length);
+            writeBytes(bytes);
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf, pos);
+        }
+    }
+
+    private static class Input {
+
+        private final byte[] buf;
+
+        private int pos;
+
+        Input(byte[] buf) {
+            if (!isBinary(buf)) {
+                throw new IllegalArgumentException("not binary heap data");
+            }
+            if (buf[1] != VERSION) {
+                throw new IllegalArgumentException("unknown binary heap version " + buf[1]);
+            }
+            this.buf = buf;
+            this.pos = 2;
+        }
+
+        byte readByte() {
+            return buf[pos++];
+        }
+
+        byte[] readBytes(int length) {
+            if (length > buf.length - pos) {
+                throw new ArrayIndexOutOfBoundsException(pos + length);
+            }
+            byte[] bytes = Arrays.copyOfRange(buf, pos, pos + length);
+            pos += length;
+            return bytes;
+        }
+
+        int readInt() {
+            return ((buf[pos++] & 0xFF) << 24) | ((buf[pos++] & 0xFF) << 16) | ((buf[pos++] & 0xFF) << 8) | (buf[pos++] & 0xFF);
+        }
+
+        long readLong() {
+            return ((long) readInt() << 32) | (readInt() & 0xFFFFFFFFL);
+        }
+
+        long readVarLong() {
+            long v = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = buf[pos++];
+                v |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return v;
+        }
+
+        long readZigZag() {
+            long v = readVarLong();
+            return (v >>> 1) ^ -(v & 1);
+        }
+
+        String readString() {
+            int length = (int) readVarLong();
+            String s = new String(buf, pos, length, UTF_8);
+            pos += length;
+            return s;
+        }
+    }
+
+}
@@ -0,0 +1,130 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2018 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.mock.nrc20;
+
+import io.nuls.contract.mock.basetest.ContractTest;
+import io.nuls.contract.mock.basetest.MockBase;
+import io.nuls.contract.vm.OperandStack;
+import io.nuls.contract.vm.natives.io.nuls.contract.sdk.NativeAddress;
+import io.nuls.contract.vm.program.ProgramCall;
+import io.nuls.contract.vm.program.ProgramExecutor;
+import io.nuls.contract.vm.program.ProgramResult;
+import io.nuls.core.crypto.HexUtil;
+import org.apache.commons.io.IOUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.Stack;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * NRC20合约调用基准测试，以及操作数栈与原先基于java.util.Stack的装箱实现的对比
+ * NRC20 call benchmark, and the operand stack against the former boxed java.util.Stack implementation
+ * <p>
+ * 运行/Run: main方法，或 java -cp target/test-classes:... org.openjdk.jmh.Main NRC20Benchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NRC20Benchmark extends MockBase {
+
+    private static final int STACK_OPS = 64;
+
+    private byte[] stateRoot;
+
+    @Setup
+    public void setup() throws Exception {
+        MockBase.initClass();
+        super.setUp();
+        InputStream in = new FileInputStream(ContractTest.class.getResource("/nrc20").getFile());
+        byte[] contractCode = IOUtils.toByteArray(in);
+        byte[] prevStateRoot = HexUtil.decode("56e81f171bcc55a6ff8345e692c0f86e5b48e01b996cadc001622fb5e363b421");
+        stateRoot = create(prevStateRoot, SENDER, contractCode, "KQB", "KongQiBi", "10000000000", "2");
+    }
+
+    private ProgramResult execute(String methodName, String... args) {
+        ProgramCall programCall = new ProgramCall();
+        programCall.setContractAddress(NativeAddress.toBytes(ADDRESS));
+        programCall.setSender(NativeAddress.toBytes(SENDER));
+        programCall.setPrice(1);
+        programCall.setGasLimit(1000000);
+        programCall.setNumber(1);
+        programCall.setMethodName(methodName);
+        programCall.setArgs(args);
+        //不提交，每次都从同一个状态根开始执行
+        ProgramExecutor track = programExecutor.begin(stateRoot);
+        return track.call(programCall);
+    }
+
+    @Benchmark
+    public ProgramResult transfer() {
+        return execute("transfer", toAddress0, "100");
+    }
+
+    @Benchmark
+    public ProgramResult balanceOf() {
+        return execute("balanceOf", SENDER);
+    }
+
+    /**
+     * 改造前的操作数栈：Stack的装箱读写，pop加锁
+     */
+    @Benchmark
+    public long boxedStack() {
+        Stack<Object> stack = new Stack<>();
+        long sum = 0;
+        for (int i = 0; i < STACK_OPS; i++) {
+            stack.push(i);
+            stack.push((long) i);
+            stack.push(null);
+            synchronized (stack) {
+                stack.pop();
+            }
+            sum += (long) stack.pop() + (int) stack.pop();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long operandStack() {
+        OperandStack stack = new OperandStack(4);
+        long sum = 0;
+        for (int i = 0; i < STACK_OPS; i++) {
+            stack.pushInt(i);
+            stack.pushLong(i);
+            sum += stack.popLong() + stack.popInt();
+        }
+        return sum;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(NRC20Benchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2019 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.contract.vm.util;
+
+import com.google.common.collect.BiMap;
+import com.google.common.collect.HashBiMap;
+import io.nuls.contract.vm.ObjectRef;
+import io.nuls.contract.vm.code.ClassCode;
+import org.junit.Assert;
+import org.junit.Test;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.FieldNode;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class BinaryUtilsTest {
+
+    private final BiMap<String, String> classNames = HashBiMap.create();
+
+    @Test
+    public void fieldsRoundTrip() {
+        ClassNode classNode = new ClassNode();
+        classNode.name = "io/nuls/Token";
+        classNode.superName = "java/lang/Object";
+        classNode.fields.add(new FieldNode(Opcodes.ACC_PRIVATE, "decimals", "I", null, null));
+        classNode.fields.add(new FieldNode(Opcodes.ACC_PRIVATE, "name", "Ljava/lang/String;", null, null));
+        ClassCode classCode = new ClassCode(classNode);
+
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("name", new ObjectRef("12", "Ljava/lang/String;"));
+        fields.put("decimals", -8);
+        fields.put("total", Long.MAX_VALUE);
+        fields.put("rate", 0.5d);
+        fields.put("flag", true);
+        fields.put("c", 'x');
+        fields.put("empty", null);
+        byte[] value = BinaryUtils.encodeFields(fields, classCode, classNames);
+        Assert.assertTrue(BinaryUtils.isBinary(value));
+        Assert.assertTrue(value.length < JsonUtils.encode(fields, classNames).length());
+
+        Map<String, Object> decoded = BinaryUtils.decodeFields(value, classCode, classNames);
+        Assert.assertEquals(fields, decoded);
+        Assert.assertArrayEquals(fields.keySet().toArray(), decoded.keySet().toArray());
+    }
+
+    @Test
+    public void arrayRoundTrip() {
+        char[] chars = "合约state".toCharArray();
+        Assert.assertArrayEquals(chars, (char[]) BinaryUtils.decodeArray(BinaryUtils.encodeArray(chars, classNames), classNames));
+        long[] longs = {Long.MIN_VALUE, -1, 0, 1};
+        Assert.assertArrayEquals(longs, (long[]) BinaryUtils.decodeArray(BinaryUtils.encodeArray(longs, classNames), classNames));
+        ObjectRef[] refs = {new ObjectRef("3", "Ljava/lang/String;"), null};
+        Assert.assertArrayEquals(refs, (ObjectRef[]) BinaryUtils.decodeArray(BinaryUtils.encodeArray(refs, classNames), classNames));
+
+        // 旧的JSON状态不会被识别为二进制
+        Assert.assertFalse(BinaryUtils.isBinary(JsonUtils.encode(new LinkedHashMap<>(), classNames).getBytes()));
+        Assert.assertFalse(BinaryUtils.isBinary(JsonUtils.encodeArray(longs, Long.TYPE, classNames).getBytes()));
+    }
+
+}
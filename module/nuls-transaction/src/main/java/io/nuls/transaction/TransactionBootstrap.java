@@ -29,6 +29,7 @@ import io.nuls.base.protocol.ProtocolGroupManager;
 import io.nuls.base.protocol.RegisterHelper;
 import io.nuls.core.core.annotation.Autowired;
 import io.nuls.core.core.annotation.Component;
+import io.nuls.core.crypto.SignatureCache;
 import io.nuls.core.rockdb.service.RocksDBService;
 import io.nuls.core.rpc.info.HostInfo;
 import io.nuls.core.rpc.model.ModuleE;
@@ -152,6 +153,7 @@ public class TransactionBootstrap extends RpcModule {
         try {
             System.setProperty(TxConstant.SYS_ALLOW_NULL_ARRAY_ELEMENT, "true");
             System.setProperty(TxConstant.SYS_FILE_ENCODING, UTF_8.name());
+            SignatureCache.init(txConfig.getPublicKeyCacheSize(), txConfig.getVerifiedSignatureCacheSize());
         } catch (Exception e) {
             LOG.error(e);
         }
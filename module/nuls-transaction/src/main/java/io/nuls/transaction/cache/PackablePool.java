@@ -1,19 +1,28 @@
 package io.nuls.transaction.cache;
 
+import io.nuls.base.basic.AddressTool;
+import io.nuls.base.data.CoinData;
 import io.nuls.base.data.Transaction;
+import io.nuls.core.constant.TxType;
 import io.nuls.core.core.annotation.Autowired;
 import io.nuls.core.core.annotation.Component;
+import io.nuls.core.exception.NulsException;
 import io.nuls.core.model.ByteArrayWrapper;
+import io.nuls.transaction.constant.TxConfig;
 import io.nuls.transaction.constant.TxConstant;
+import io.nuls.transaction.manager.TxManager;
 import io.nuls.transaction.model.bo.Chain;
+import io.nuls.transaction.model.bo.TxRegister;
 import io.nuls.transaction.storage.UnconfirmedTxStorageService;
 import io.nuls.transaction.task.StatisticsTask;
 
+import java.math.BigInteger;
 import java.util.List;
 import java.util.Map;
 
 /**
  * 交易已完成交易管理模块的校验(打包的时候从这里取)
+ * 按手续费率从高到低取出，同一账户的连续交易保持nonce顺序
  *
  * @author: Charlie
  * @date: 2018/11/13
@@ -23,6 +32,8 @@ public class PackablePool {
 
     @Autowired
     private UnconfirmedTxStorageService unconfirmedTxStorageService;
+    @Autowired
+    private TxConfig txConfig;
 
     /**
      * 将交易加入到待打包队列最前端，打包时最先取出
@@ -33,43 +44,50 @@ public class PackablePool {
      */
     public boolean offerFirst(Chain chain, Transaction tx) {
         ByteArrayWrapper hash = new ByteArrayWrapper(tx.getHash().getBytes());
-        synchronized (hash) {
-            if (chain.getPackableHashQueue().offerFirst(hash)) {
-                chain.getPackableTxMap().put(hash, tx);
-                return true;
-            }
+        if (chain.getPackableTxQueue().offer(tx, feeRate(chain, tx), true)) {
+            chain.getPackableTxMap().put(hash, tx);
+            return true;
         }
-        chain.getLogger().error("PackableHashQueue offerFirst false");
+        chain.getLogger().error("PackableTxQueue offerFirst false");
         return false;
     }
 
     /**
-     * 将交易加入到待打包队列队尾
+     * 将交易按手续费率加入到待打包队列
+     * 队列已满时，如果该交易的手续费率高于队列中最低的交易，则淘汰最低的交易(及其后续交易)
+     * 被淘汰的交易仍保留在未确认库中，由清理任务处理
      *
      * @param chain
      * @param tx
      * @return
      */
     public boolean add(Chain chain, Transaction tx) {
-        int packableTxMapSize = chain.getPackableTxMap().size();
-        if(packableTxMapSize >= TxConstant.PACKABLE_TX_MAX_SIZE){
-            chain.getLogger().warn("PackableTxMapSize max pool size was reached, discard tx");
-            return false;
+        PackableTxQueue queue = chain.getPackableTxQueue();
+        double feeRate = feeRate(chain, tx);
+        if (chain.getPackableTxMap().size() >= TxConstant.PACKABLE_TX_MAX_SIZE) {
+            Double lowest = queue.lowestFeeRate();
+            if (null == lowest || feeRate <= lowest) {
+                chain.getLogger().warn("PackableTxMapSize max pool size was reached, discard tx");
+                return false;
+            }
+            List<Transaction> evicted = queue.evictLowest();
+            for (Transaction evictedTx : evicted) {
+                chain.getPackableTxMap().remove(new ByteArrayWrapper(evictedTx.getHash().getBytes()));
+            }
+            chain.getLogger().debug("PackableTxMapSize max pool size was reached, evict {} low fee tx", evicted.size());
         }
         ByteArrayWrapper hash = new ByteArrayWrapper(tx.getHash().getBytes());
-        synchronized (hash) {
-            if (chain.getPackableHashQueue().offer(hash)) {
-                chain.getPackableTxMap().put(hash, tx);
-                return true;
-            }
+        if (queue.offer(tx, feeRate, false)) {
+            chain.getPackableTxMap().put(hash, tx);
+            return true;
         }
-        chain.getLogger().error("PackableHashQueue add false");
+        chain.getLogger().error("PackableTxQueue add false");
         return false;
     }
 
     /**
      * 从待打包队列获取一笔交易
-     * 1.从队列中取出hash，然后再去map中获取交易
+     * 1.从队列中取出手续费率最高的交易
      * 2.如果map没有说明已经被打包确认，然后接着拿下一个，直到获取到一个交易，或者队列为空
      *
      * @param chain
@@ -77,25 +95,66 @@ public class PackablePool {
      */
     public Transaction poll(Chain chain) {
         while (true) {
-            ByteArrayWrapper hash = chain.getPackableHashQueue().poll();
-            if (null == hash) {
+            Transaction tx = chain.getPackableTxQueue().poll();
+            if (null == tx) {
+                return null;
+            }
+            ByteArrayWrapper hash = new ByteArrayWrapper(tx.getHash().getBytes());
+            if (chain.getPackableTxMap().containsKey(hash)) {
+                return tx;
+            } else {
+                unconfirmedTxStorageService.removeTx(chain.getChainId(), hash.getBytes());
+            }
+        }
 
+    }
+
+    /**
+     * 从待打包队列获取一笔交易，队列为空时最多等待timeout毫秒，有新交易加入时立即返回
+     *
+     * @param chain
+     * @param timeout     最长等待时间(毫秒)
+     * @param wakeUpCount 调用方检查最新高度等状态之前通过{@link #getWakeUpCount(Chain)}取得的值
+     * @return 超时或被唤醒时返回null
+     */
+    public Transaction poll(Chain chain, long timeout, long wakeUpCount) throws InterruptedException {
+        Transaction tx = poll(chain);
+        while (null == tx && timeout > 0) {
+            long start = System.currentTimeMillis();
+            tx = chain.getPackableTxQueue().poll(timeout, wakeUpCount);
+            if (null == tx) {
                 return null;
             }
-            synchronized (hash) {
-                Transaction tx = chain.getPackableTxMap().get(hash);
-                if (null != tx) {
-                    return tx;
-                } else {
-                    unconfirmedTxStorageService.removeTx(chain.getChainId(), hash.getBytes());
-                }
+            if (!chain.getPackableTxMap().containsKey(new ByteArrayWrapper(tx.getHash().getBytes()))) {
+                unconfirmedTxStorageService.removeTx(chain.getChainId(), tx.getHash().getBytes());
+                tx = null;
+                timeout -= System.currentTimeMillis() - start;
             }
         }
+        return tx;
+    }
+
+    /**
+     * 当前唤醒次数，打包线程在检查最新高度前读取，避免检查后、等待前的唤醒丢失
+     *
+     * @param chain
+     * @return
+     */
+    public long getWakeUpCount(Chain chain) {
+        return chain.getPackableTxQueue().getWakeUpCount();
+    }
 
+    /**
+     * 唤醒正在等待交易的打包线程，使其重新检查最新高度、协议升级等状态
+     *
+     * @param chain
+     */
+    public void wakeUp(Chain chain) {
+        chain.getPackableTxQueue().wakeUp();
     }
 
     /**
-     * 获取并移除此双端队列的最后一个元素；如果此双端队列为空，则返回 null
+     * 获取并移除待打包队列的最后一个交易；如果队列为空，则返回 null
      * 协议升级时需要重新处理未打包的交易
      *
      * @param chain
@@ -103,41 +162,53 @@ public class PackablePool {
      */
     public Transaction pollLast(Chain chain) {
         while (true) {
-            ByteArrayWrapper hash = chain.getPackableHashQueue().pollLast();
-            if (null == hash) {
+            Transaction tx = chain.getPackableTxQueue().pollLast();
+            if (null == tx) {
                 return null;
             }
-            synchronized (hash) {
-                Transaction tx = chain.getPackableTxMap().get(hash);
-                if (null != tx) {
-                    return tx;
-                } else {
-                    unconfirmedTxStorageService.removeTx(chain.getChainId(), hash.getBytes());
-                }
+            ByteArrayWrapper hash = new ByteArrayWrapper(tx.getHash().getBytes());
+            if (chain.getPackableTxMap().containsKey(hash)) {
+                return tx;
+            } else {
+                unconfirmedTxStorageService.removeTx(chain.getChainId(), hash.getBytes());
             }
         }
     }
 
+    /**
+     * 从待打包队列中移除交易(已失效)
+     *
+     * @param chain
+     * @param hash
+     */
+    public void remove(Chain chain, byte[] hash) {
+        ByteArrayWrapper wrapper = new ByteArrayWrapper(hash);
+        chain.getPackableTxMap().remove(wrapper);
+        chain.getPackableTxQueue().remove(wrapper);
+    }
+
     public void clearConfirmedTxs(Chain chain, List<byte[]> txHashs) {
         Map<ByteArrayWrapper, Transaction> map = chain.getPackableTxMap();
+        PackableTxQueue queue = chain.getPackableTxQueue();
         for (byte[] hash : txHashs) {
             ByteArrayWrapper wrapper = new ByteArrayWrapper(hash);
             map.remove(wrapper);
+            queue.remove(wrapper);
         }
         // TODO: 2019/6/21  test统计
-        chain.getLogger().debug("PackableHashQueue size:{}", chain.getPackableHashQueue().size());
-        chain.getLogger().debug("PackableTxMap size:{}", chain.getPackableTxMap().size());
-        StatisticsTask.packingHash = chain.getPackableHashQueue().size();
-        StatisticsTask.packingMapTx = chain.getPackableTxMap().size();
+        chain.getLogger().debug("PackableTxQueue size:{}", queue.size());
+        chain.getLogger().debug("PackableTxMap size:{}", map.size());
+        StatisticsTask.packingHash = queue.size();
+        StatisticsTask.packingMapTx = map.size();
     }
 
     public boolean exist(Chain chain, Transaction tx) {
         ByteArrayWrapper hash = new ByteArrayWrapper(tx.getHash().getBytes());
-        return chain.getPackableHashQueue().contains(hash);
+        return chain.getPackableTxQueue().contains(hash);
     }
 
     public int packableHashQueueSize(Chain chain) {
-        return chain.getPackableHashQueue().size();
+        return chain.getPackableTxQueue().size();
     }
 
     public int packableTxMapSize(Chain chain) {
@@ -145,7 +216,44 @@ public class PackablePool {
     }
 
     public void clear(Chain chain) {
-        chain.getPackableHashQueue().clear();
+        chain.getPackableTxQueue().clear();
+    }
+
+    /**
+     * 计算交易的手续费率(每字节手续费)，手续费资产的选择与交易验证时一致
+     * 系统交易没有手续费，排在所有普通交易之前
+     *
+     * @param chain
+     * @param tx
+     * @return
+     */
+    private double feeRate(Chain chain, Transaction tx) {
+        TxRegister txRegister = TxManager.getTxRegister(chain, tx.getType());
+        if (null != txRegister && txRegister.getSystemTx()) {
+            return Double.MAX_VALUE;
+        }
+        try {
+            CoinData coinData = tx.getCoinDataInstance();
+            if (null == coinData || null == coinData.getFrom() || coinData.getFrom().isEmpty()) {
+                return 0D;
+            }
+            int feeAssetChainId;
+            int feeAssetId;
+            if (tx.getType() == TxType.CROSS_CHAIN && AddressTool.getChainIdByAddress(coinData.getFrom().get(0).getAddress()) != chain.getChainId()) {
+                feeAssetChainId = txConfig.getMainChainId();
+                feeAssetId = txConfig.getMainAssetId();
+            } else {
+                feeAssetChainId = chain.getConfig().getChainId();
+                feeAssetId = chain.getConfig().getAssetId();
+            }
+            BigInteger fee = coinData.getFeeByAsset(feeAssetChainId, feeAssetId);
+            if (fee.signum() <= 0) {
+                return 0D;
+            }
+            return fee.doubleValue() / Math.max(tx.size(), 1);
+        } catch (NulsException e) {
+            return 0D;
+        }
     }
 
 }
@@ -0,0 +1,335 @@
+package io.nuls.transaction.cache;
+
+import io.nuls.base.data.CoinData;
+import io.nuls.base.data.CoinFrom;
+import io.nuls.base.data.Transaction;
+import io.nuls.core.exception.NulsException;
+import io.nuls.core.model.ByteArrayWrapper;
+import io.nuls.core.parse.SerializeUtils;
+import io.nuls.transaction.utils.TxUtil;
+
+import java.util.*;
+
+/**
+ * 待打包交易优先队列
+ * 按手续费率(手续费/交易大小)从高到低排序，同一账户的交易按nonce依赖关系排序：
+ * 前一笔交易还在队列中时，后一笔交易只记录在前一笔交易下，前一笔交易取出后才参与排序。
+ * 通过offerFirst放回的交易(打包失败、区块回滚等)优先于所有按费率排序的交易。
+ * 所有操作为O(log n)
+ * <p>
+ * Packable transaction priority queue, ordered by fee rate with respect to per-account nonce chains.
+ */
+public class PackableTxQueue {
+
+    /**
+     * 可直接取出打包的交易，父交易均已不在队列中
+     */
+    private final TreeSet<Entry> readySet = new TreeSet<>(Entry.COMPARATOR);
+
+    /**
+     * 队列中所有交易(包括等待父交易的交易)
+     */
+    private final Map<ByteArrayWrapper, Entry> entryMap = new HashMap<>();
+
+    /**
+     * 账户资产+交易产生的nonce -> 交易，用于查找后续交易的父交易
+     */
+    private final Map<ByteArrayWrapper, Entry> nonceMap = new HashMap<>();
+
+    /**
+     * 账户资产+交易花费的nonce -> 交易，父交易后加入队列时(如放回)用于查找已在队列中的后续交易
+     */
+    private final Map<ByteArrayWrapper, Entry> spendMap = new HashMap<>();
+
+    /**
+     * 递增序号，费率相同时先进先出
+     */
+    private long sequence = 0;
+
+    /**
+     * offerFirst的序号，递减，使最后放回的交易最先取出
+     */
+    private long firstSequence = 0;
+
+    /**
+     * wakeUp调用次数，用于区分等待线程是被唤醒还是有新交易
+     */
+    private long wakeUpCount = 0;
+
+    /**
+     * 加入队列
+     *
+     * @param tx      交易
+     * @param feeRate 手续费率
+     * @param first   是否放到最前端
+     * @return 已存在时返回false
+     */
+    public synchronized boolean offer(Transaction tx, double feeRate, boolean first) {
+        ByteArrayWrapper hash = new ByteArrayWrapper(tx.getHash().getBytes());
+        if (entryMap.containsKey(hash)) {
+            return false;
+        }
+        Entry entry = new Entry(hash, tx, feeRate, first, first ? --firstSequence : ++sequence);
+        List<CoinFrom> froms = getFroms(tx);
+        byte[] txNonce = TxUtil.getNonce(hash.getBytes());
+        for (CoinFrom from : froms) {
+            ByteArrayWrapper spendKey = nonceKey(from, from.getNonce());
+            link(nonceMap.get(spendKey), entry);
+            spendMap.put(spendKey, entry);
+            entry.spendKeys.add(spendKey);
+        }
+        for (CoinFrom from : froms) {
+            ByteArrayWrapper key = nonceKey(from, txNonce);
+            Entry child = spendMap.get(key);
+            if (child != null && child.parents.isEmpty()) {
+                readySet.remove(child);
+            }
+            link(entry, child);
+            nonceMap.put(key, entry);
+            entry.nonceKeys.add(key);
+        }
+        entryMap.put(hash, entry);
+        if (entry.parents.isEmpty()) {
+            readySet.add(entry);
+            notifyAll();
+        }
+        return true;
+    }
+
+    /**
+     * 取出费率最高的可打包交易，队列中没有可打包交易时最多等待timeout毫秒
+     * 等待期间被{@link #wakeUp()}唤醒时直接返回null，由调用方重新检查打包状态
+     *
+     * @param timeout 最长等待时间(毫秒)
+     */
+    public synchronized Transaction poll(long timeout) throws InterruptedException {
+        return poll(timeout, this.wakeUpCount);
+    }
+
+    /**
+     * 同{@link #poll(long)}，wakeUpCount为调用方检查打包状态之前通过{@link #getWakeUpCount()}取得的值，
+     * 检查之后、等待之前发生的唤醒不会丢失
+     * Same as poll(timeout), returns null at once if wakeUp was called after the caller read wakeUpCount
+     *
+     * @param timeout     最长等待时间(毫秒)
+     * @param wakeUpCount 检查打包状态前取得的唤醒次数
+     */
+    public synchronized Transaction poll(long timeout, long wakeUpCount) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeout;
+        while (readySet.isEmpty()) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0 || wakeUpCount != this.wakeUpCount) {
+                return null;
+            }
+            wait(remaining);
+        }
+        return poll();
+    }
+
+    /**
+     * 当前唤醒次数，在检查打包状态之前读取，传给{@link #poll(long, long)}
+     */
+    public synchronized long getWakeUpCount() {
+        return wakeUpCount;
+    }
+
+    /**
+     * 唤醒等待交易的打包线程(最新区块高度变化、协议升级等)
+     */
+    public synchronized void wakeUp() {
+        wakeUpCount++;
+        notifyAll();
+    }
+
+    /**
+     * 取出费率最高的可打包交易
+     */
+    public synchronized Transaction poll() {
+        Entry entry = readySet.pollFirst();
+        if (entry == null) {
+            return null;
+        }
+        detach(entry);
+        return entry.tx;
+    }
+
+    /**
+     * 取出排在最后的交易，依赖关系中后续交易先于父交易取出
+     */
+    public synchronized Transaction pollLast() {
+        if (readySet.isEmpty()) {
+            return null;
+        }
+        Entry entry = readySet.last();
+        while (!entry.children.isEmpty()) {
+            entry = entry.children.get(entry.children.size() - 1);
+        }
+        readySet.remove(entry);
+        detach(entry);
+        return entry.tx;
+    }
+
+    /**
+     * 队列中费率最低、且不是放回的交易，用于队列满时淘汰
+     */
+    public synchronized Double lowestFeeRate() {
+        if (readySet.isEmpty()) {
+            return null;
+        }
+        Entry last = readySet.last();
+        return last.first ? null : last.feeRate;
+    }
+
+    /**
+     * 淘汰费率最低的交易以及依赖它的后续交易
+     *
+     * @return 被淘汰的交易
+     */
+    public synchronized List<Transaction> evictLowest() {
+        List<Transaction> evicted = new ArrayList<>();
+        if (readySet.isEmpty() || readySet.last().first) {
+            return evicted;
+        }
+        Deque<Entry> stack = new ArrayDeque<>();
+        stack.push(readySet.last());
+        while (!stack.isEmpty()) {
+            Entry entry = stack.pop();
+            if (!entryMap.containsKey(entry.hash)) {
+                continue;
+            }
+            for (Entry child : entry.children) {
+                stack.push(child);
+            }
+            readySet.remove(entry);
+            entry.children.clear();
+            detach(entry);
+            evicted.add(entry.tx);
+        }
+        return evicted;
+    }
+
+    /**
+     * 移除交易(已确认或已失效)，依赖它的后续交易可以参与排序
+     */
+    public synchronized boolean remove(ByteArrayWrapper hash) {
+        Entry entry = entryMap.get(hash);
+        if (entry == null) {
+            return false;
+        }
+        readySet.remove(entry);
+        detach(entry);
+        return true;
+    }
+
+    public synchronized boolean contains(ByteArrayWrapper hash) {
+        return entryMap.containsKey(hash);
+    }
+
+    public synchronized int size() {
+        return entryMap.size();
+    }
+
+    public synchronized void clear() {
+        readySet.clear();
+        entryMap.clear();
+        nonceMap.clear();
+        spendMap.clear();
+    }
+
+    private void link(Entry parent, Entry child) {
+        if (parent == null || child == null || parent == child || child.parents.contains(parent)) {
+            return;
+        }
+        child.parents.add(parent);
+        parent.children.add(child);
+    }
+
+    /**
+     * 从队列中摘除，父子关系一并解除，不再有父交易的后续交易加入排序
+     */
+    private void detach(Entry entry) {
+        entryMap.remove(entry.hash);
+        for (ByteArrayWrapper key : entry.nonceKeys) {
+            if (nonceMap.get(key) == entry) {
+                nonceMap.remove(key);
+            }
+        }
+        for (ByteArrayWrapper key : entry.spendKeys) {
+            if (spendMap.get(key) == entry) {
+                spendMap.remove(key);
+            }
+        }
+        for (Entry parent : entry.parents) {
+            parent.children.remove(entry);
+        }
+        entry.parents.clear();
+        for (Entry child : entry.children) {
+            child.parents.remove(entry);
+            if (child.parents.isEmpty()) {
+                readySet.add(child);
+            }
+        }
+        entry.children.clear();
+    }
+
+    private static List<CoinFrom> getFroms(Transaction tx) {
+        if (tx.getCoinData() == null || tx.getCoinData().length == 0) {
+            return Collections.emptyList();
+        }
+        try {
+            CoinData coinData = tx.getCoinDataInstance();
+            return coinData.getFrom() == null ? Collections.emptyList() : coinData.getFrom();
+        } catch (NulsException e) {
+            return Collections.emptyList();
+        }
+    }
+
+    private static ByteArrayWrapper nonceKey(CoinFrom from, byte[] nonce) {
+        byte[] address = from.getAddress();
+        byte[] key = new byte[address.length + 8 + (nonce == null ? 0 : nonce.length)];
+        System.arraycopy(address, 0, key, 0, address.length);
+        System.arraycopy(SerializeUtils.int32ToBytes(from.getAssetsChainId()), 0, key, address.length, 4);
+        System.arraycopy(SerializeUtils.int32ToBytes(from.getAssetsId()), 0, key, address.length + 4, 4);
+        if (nonce != null) {
+            System.arraycopy(nonce, 0, key, address.length + 8, nonce.length);
+        }
+        return new ByteArrayWrapper(key);
+    }
+
+    private static class Entry {
+
+        /**
+         * 放回的交易在前(按放回顺序倒序)，其余按费率从高到低，费率相同先进先出
+         */
+        private static final Comparator<Entry> COMPARATOR = (o1, o2) -> {
+            if (o1.first != o2.first) {
+                return o1.first ? -1 : 1;
+            }
+            if (!o1.first) {
+                int rate = Double.compare(o2.feeRate, o1.feeRate);
+                if (rate != 0) {
+                    return rate;
+                }
+            }
+            return Long.compare(o1.sequence, o2.sequence);
+        };
+
+        private final ByteArrayWrapper hash;
+        private final Transaction tx;
+        private final double feeRate;
+        private final boolean first;
+        private final long sequence;
+        private final List<Entry> parents = new ArrayList<>(1);
+        private final List<Entry> children = new ArrayList<>(1);
+        private final List<ByteArrayWrapper> nonceKeys = new ArrayList<>(1);
+        private final List<ByteArrayWrapper> spendKeys = new ArrayList<>(1);
+
+        private Entry(ByteArrayWrapper hash, Transaction tx, double feeRate, boolean first, long sequence) {
+            this.hash = hash;
+            this.tx = tx;
+            this.feeRate = feeRate;
+            this.first = first;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -50,6 +50,7 @@ public final class TxCmd {
 
     public static final String TX_BLOCK_HEIGHT = "tx_blockHeight";
     public static final String TX_VERIFYTX = "tx_verifyTx";
+    public static final String TX_FILTER_STATISTICS = "tx_getTxFilterStatistics";
 
     /**
      * 修改节点共识状态
@@ -74,4 +75,9 @@ public final class TxCmd {
      */
     public static final String NW_ASK_TX = "askTx";
 
+    /**
+     * 推送验证通过的新交易到区块模块
+     */
+    public static final String BL_RECEIVE_UNCONFIRMED_TXS = "receiveUnconfirmedTxs";
+
 }
@@ -4,6 +4,7 @@ import io.nuls.core.basic.ModuleConfig;
 import io.nuls.core.basic.VersionChangeInvoker;
 import io.nuls.core.core.annotation.Component;
 import io.nuls.core.core.annotation.Configuration;
+import io.nuls.core.crypto.SignatureCache;
 import io.nuls.core.rpc.model.ModuleE;
 import io.nuls.transaction.model.bo.config.ConfigBean;
 
@@ -32,6 +33,20 @@ public class TxConfig extends ConfigBean implements ModuleConfig {
     private String encoding;
     /** 未确认交易过期毫秒数-30分钟 秒 */
     private long unconfirmedTxExpire;
+    /** 已解压公钥点缓存数量*/
+    private int publicKeyCacheSize = SignatureCache.DEFAULT_PUBLIC_KEY_CACHE_SIZE;
+    /** 已验证签名缓存数量*/
+    private int verifiedSignatureCacheSize = SignatureCache.DEFAULT_VERIFIED_CACHE_SIZE;
+    /** 已确认交易段文件大小(MB), 0表示不写入段文件*/
+    private int txSegmentSize;
+    /** 已确认交易段文件每追加多少个区块刷盘一次*/
+    private int txSegmentSyncBlocks;
+    /** 已确认交易段文件距上次刷盘超过多少毫秒时刷盘*/
+    private long txSegmentSyncMillis;
+    /** 已确认交易布隆过滤器预计交易数, 0表示不使用*/
+    private long txFilterSize;
+    /** 已确认交易布隆过滤器每加入多少个区块保存一次检查点, 0表示只在退出时保存*/
+    private int txFilterCheckpointBlocks;
 
 
     public String getDataPath() {
@@ -46,6 +61,13 @@ public class TxConfig extends ConfigBean implements ModuleConfig {
         return dataPath + File.separator + ModuleE.TX.name;
     }
 
+    /**
+     * 段文件等非RocksDB数据的存储路径, RocksDB目录下的子目录都会被当作表打开
+     */
+    public String getTxFileRoot() {
+        return dataPath + File.separator + ModuleE.TX.name + "_file";
+    }
+
     public String getModuleCode() {
         return moduleCode;
     }
@@ -86,6 +108,62 @@ public class TxConfig extends ConfigBean implements ModuleConfig {
         this.unconfirmedTxExpire = unconfirmedTxExpire;
     }
 
+    public int getPublicKeyCacheSize() {
+        return publicKeyCacheSize;
+    }
+
+    public void setPublicKeyCacheSize(int publicKeyCacheSize) {
+        this.publicKeyCacheSize = publicKeyCacheSize;
+    }
+
+    public int getVerifiedSignatureCacheSize() {
+        return verifiedSignatureCacheSize;
+    }
+
+    public void setVerifiedSignatureCacheSize(int verifiedSignatureCacheSize) {
+        this.verifiedSignatureCacheSize = verifiedSignatureCacheSize;
+    }
+
+    public int getTxSegmentSize() {
+        return txSegmentSize;
+    }
+
+    public void setTxSegmentSize(int txSegmentSize) {
+        this.txSegmentSize = txSegmentSize;
+    }
+
+    public int getTxSegmentSyncBlocks() {
+        return txSegmentSyncBlocks;
+    }
+
+    public void setTxSegmentSyncBlocks(int txSegmentSyncBlocks) {
+        this.txSegmentSyncBlocks = txSegmentSyncBlocks;
+    }
+
+    public long getTxSegmentSyncMillis() {
+        return txSegmentSyncMillis;
+    }
+
+    public void setTxSegmentSyncMillis(long txSegmentSyncMillis) {
+        this.txSegmentSyncMillis = txSegmentSyncMillis;
+    }
+
+    public long getTxFilterSize() {
+        return txFilterSize;
+    }
+
+    public void setTxFilterSize(long txFilterSize) {
+        this.txFilterSize = txFilterSize;
+    }
+
+    public int getTxFilterCheckpointBlocks() {
+        return txFilterCheckpointBlocks;
+    }
+
+    public void setTxFilterCheckpointBlocks(int txFilterCheckpointBlocks) {
+        this.txFilterCheckpointBlocks = txFilterCheckpointBlocks;
+    }
+
     @Override
     public VersionChangeInvoker getVersionChangeInvoker() throws ClassNotFoundException, NoSuchMethodException, IllegalAccessException, InvocationTargetException, InstantiationException {
         Class<?> aClass = Class.forName("io.nuls.transaction.rpc.upgrade.TxVersionChangeInvoker");
@@ -26,6 +26,8 @@ public interface TxConstant {
     String VERIFY_TX_SIGN_THREAD = "verifyTxSignThread";
     /** 清理无效交易(验证未通过)线程 */
     String CLEAN_INVALID_TX_THREAD = "cleanInvalidTxThread";
+    /** 已确认交易过滤器加载、重建及保存检查点线程 */
+    String TX_FILTER_THREAD = "confirmedTxFilterThread";
 //    /** 验证交易线程 */
 //    String VERIFY_TX_THREAD = "verifyTxThread";
 //    /** 网络新交易处理线程名称前缀 */
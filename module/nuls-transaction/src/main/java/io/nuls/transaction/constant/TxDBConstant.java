@@ -48,6 +48,18 @@ public interface TxDBConstant {
      */
      String DB_TRANSACTION_UNCONFIRMED_PREFIX = "tx_table_unconfirmed_";
 
+    /**
+     * 已确认交易在段文件中的位置索引
+     * Confirmed transaction hash to segment file location
+     */
+    String DB_TRANSACTION_SEGMENT_INDEX_PREFIX = "tx_table_segment_index_";
+
+    /** 已确认交易段文件目录**/
+    String TX_SEGMENT_DIR = "segment";
+
+    /** 已确认交易布隆过滤器文件名前缀**/
+    String TX_FILTER_PREFIX = "tx_filter_confirmed_";
+
 
     /** 接收新交易的文件队列名**/
     String TX_UNVERIFIED_QUEUE_PREFIX = "tx_queue_unverified_";
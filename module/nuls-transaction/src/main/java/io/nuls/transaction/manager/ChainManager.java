@@ -36,6 +36,7 @@ import io.nuls.transaction.model.bo.Chain;
 import io.nuls.transaction.model.bo.config.ConfigBean;
 import io.nuls.transaction.model.po.TransactionNetPO;
 import io.nuls.transaction.storage.ConfigStorageService;
+import io.nuls.transaction.storage.ConfirmedTxStorageService;
 import io.nuls.transaction.utils.LoggerUtil;
 
 import java.util.Map;
@@ -64,6 +65,9 @@ public class ChainManager {
     @Autowired
     private TxConfig txConfig;
 
+    @Autowired
+    private ConfirmedTxStorageService confirmedTxStorageService;
+
     private Map<Integer, Chain> chainMap = new ConcurrentHashMap<>();
 
     /**
@@ -171,6 +175,17 @@ public class ChainManager {
                 logger.error(e);
             }
         }
+        try {
+            /*
+            已确认交易段文件索引
+            Confirmed transaction segment index
+            */
+            RocksDBService.createTable(TxDBConstant.DB_TRANSACTION_SEGMENT_INDEX_PREFIX + chainId);
+        } catch (Exception e) {
+            if (!DBErrorCode.DB_TABLE_EXIST.equals(e.getMessage())) {
+                logger.error(e);
+            }
+        }
     }
 
     /**
@@ -180,6 +195,7 @@ public class ChainManager {
      * @param chain chain info
      */
     private void initCache(Chain chain) {
+        confirmedTxStorageService.initFilter(chain.getChainId());
         BlockingDeque<TransactionNetPO> unverifiedQueue = new LinkedBlockingDeque<>((int)txConfig.getTxUnverifiedQueueSize());
         chain.setUnverifiedQueue(unverifiedQueue);
     }
@@ -5,6 +5,7 @@ import io.nuls.base.data.NulsHash;
 import io.nuls.base.data.Transaction;
 import io.nuls.core.log.logback.NulsLogger;
 import io.nuls.core.model.ByteArrayWrapper;
+import io.nuls.transaction.cache.PackableTxQueue;
 import io.nuls.transaction.constant.TxConstant;
 import io.nuls.transaction.model.bo.config.ConfigBean;
 import io.nuls.transaction.model.po.TransactionNetPO;
@@ -14,7 +15,6 @@ import java.util.LinkedList;
 import java.util.Map;
 import java.util.concurrent.BlockingDeque;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.LinkedBlockingDeque;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.Lock;
@@ -51,9 +51,9 @@ public class Chain {
     private Map<Integer, TxRegister> txRegisterMap;
 
     /**
-     * 可打包交易hash集合, 交易已完成交易管理模块的校验(打包的时候从这里取)
+     * 可打包交易队列, 交易已完成交易管理模块的校验(打包的时候从这里取), 按手续费率排序
      */
-    private BlockingDeque<ByteArrayWrapper> packableHashQueue;
+    private PackableTxQueue packableTxQueue;
 
     /**
      * 可打包交易hash对应的交易map
@@ -116,7 +116,7 @@ public class Chain {
     public Chain() {
         this.packaging = new AtomicBoolean(false);
         this.txRegisterMap = new ConcurrentHashMap<>(TxConstant.INIT_CAPACITY_32);
-        this.packableHashQueue = new LinkedBlockingDeque<>();
+        this.packableTxQueue = new PackableTxQueue();
         this.packableTxMap = new ConcurrentHashMap<>();
         this.contractTxFail = false;
         this.txPackageOrphanMap = new HashMap<>();
@@ -167,12 +167,12 @@ public class Chain {
         this.txRegisterMap = txRegisterMap;
     }
 
-    public BlockingDeque<ByteArrayWrapper> getPackableHashQueue() {
-        return packableHashQueue;
+    public PackableTxQueue getPackableTxQueue() {
+        return packableTxQueue;
     }
 
-    public void setPackableHashQueue(BlockingDeque<ByteArrayWrapper> packableHashQueue) {
-        this.packableHashQueue = packableHashQueue;
+    public void setPackableTxQueue(PackableTxQueue packableTxQueue) {
+        this.packableTxQueue = packableTxQueue;
     }
 
     public Map<ByteArrayWrapper, Transaction> getPackableTxMap() {
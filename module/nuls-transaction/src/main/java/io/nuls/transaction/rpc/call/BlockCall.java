@@ -0,0 +1,70 @@
+/*
+ * MIT License
+ * Copyright (c) 2017-2018 nuls.io
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.transaction.rpc.call;
+
+import io.nuls.base.RPCUtil;
+import io.nuls.base.data.Transaction;
+import io.nuls.core.rpc.info.Constants;
+import io.nuls.core.rpc.model.ModuleE;
+import io.nuls.core.rpc.model.message.MessageUtil;
+import io.nuls.core.rpc.model.message.Request;
+import io.nuls.core.rpc.netty.processor.ResponseMessageProcessor;
+import io.nuls.transaction.constant.TxConstant;
+import io.nuls.transaction.model.bo.Chain;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static io.nuls.transaction.constant.TxCmd.BL_RECEIVE_UNCONFIRMED_TXS;
+
+/**
+ * 调用区块模块
+ */
+public class BlockCall {
+
+    /**
+     * 把验证通过的新交易推送给区块模块的本地未确认交易索引,收到小区块时可直接组装,不再回查交易模块
+     * 只发送不等待响应,推送失败不影响交易处理
+     *
+     * @param chain
+     * @param txList
+     */
+    public static void pushUnconfirmedTxs(Chain chain, List<Transaction> txList) {
+        if (txList.isEmpty()) {
+            return;
+        }
+        try {
+            List<String> txHexList = new ArrayList<>(txList.size());
+            for (Transaction tx : txList) {
+                txHexList.add(RPCUtil.encode(tx.serialize()));
+            }
+            Map<String, Object> params = new HashMap<>(TxConstant.INIT_CAPACITY_8);
+            params.put(Constants.VERSION_KEY_STR, TxConstant.RPC_VERSION);
+            params.put(Constants.CHAIN_ID, chain.getChainId());
+            params.put("txList", txHexList);
+            Request request = MessageUtil.newRequest(BL_RECEIVE_UNCONFIRMED_TXS, params, Constants.BOOLEAN_FALSE, Constants.ZERO, Constants.ZERO);
+            ResponseMessageProcessor.requestOnly(ModuleE.BL.abbr, request);
+        } catch (Exception e) {
+            chain.getLogger().warn("push unconfirmed txs to block module failed, count:{}, {}", txList.size(), e.getMessage());
+        }
+    }
+}
@@ -27,6 +27,7 @@ import io.nuls.transaction.model.dto.ModuleTxRegisterDTO;
 import io.nuls.transaction.model.po.TransactionConfirmedPO;
 import io.nuls.transaction.service.ConfirmedTxService;
 import io.nuls.transaction.service.TxService;
+import io.nuls.transaction.storage.ConfirmedTxStorageService;
 import io.nuls.transaction.utils.TxUtil;
 
 import java.util.ArrayList;
@@ -50,6 +51,8 @@ public class TransactionCmd extends BaseCmd {
     @Autowired
     private ChainManager chainManager;
     @Autowired
+    private ConfirmedTxStorageService confirmedTxStorageService;
+    @Autowired
     private PackablePool packablePool;
 
     @CmdAnnotation(cmd = TxCmd.TX_REGISTER, version = 1.0, description = "注册模块交易/Register module transactions")
@@ -525,6 +528,32 @@ public class TransactionCmd extends BaseCmd {
         }
     }
 
+    /**
+     * 查询已确认交易布隆过滤器统计, 包括实测误判率、预估误判率、内存占用
+     */
+    @CmdAnnotation(cmd = TxCmd.TX_FILTER_STATISTICS, version = 1.0, description = "已确认交易布隆过滤器统计/Confirmed tx filter statistics")
+    @Parameters(value = {
+            @Parameter(parameterName = "chainId", parameterType = "int", parameterDes = "链id")
+    })
+    @ResponseData(name = "返回值", description = "返回一个Map对象,key为统计项名称", responseType = @TypeDescriptor(value = Map.class))
+    public Response getTxFilterStatistics(Map params) {
+        Chain chain = null;
+        try {
+            ObjectUtils.canNotEmpty(params.get("chainId"), TxErrorCode.PARAMETER_ERROR.getMsg());
+            chain = chainManager.getChain((Integer) params.get("chainId"));
+            if (null == chain) {
+                throw new NulsException(TxErrorCode.CHAIN_NOT_FOUND);
+            }
+            return success(confirmedTxStorageService.getFilterStatistics(chain.getChainId()));
+        } catch (NulsException e) {
+            errorLogProcess(chain, e);
+            return failed(e.getErrorCode());
+        } catch (Exception e) {
+            errorLogProcess(chain, e);
+            return failed(TxErrorCode.SYS_UNKOWN_EXCEPTION);
+        }
+    }
+
     @CmdAnnotation(cmd = TxCmd.TX_GET_BLOCK_TXS_EXTEND, version = 1.0, description = "根据hash列表，获取交易，先查未确认，再查已确认/Get transactions by hashs")
     @Parameters(value = {
             @Parameter(parameterName = "chainId", parameterType = "int", parameterDes = "链id"),
@@ -654,6 +683,8 @@ public class TransactionCmd extends BaseCmd {
             }
             Long height =  Long.parseLong(params.get("height").toString());
             chain.setBestBlockHeight(height);
+            //唤醒等待交易的打包线程, 及时按最新高度重新打包
+            packablePool.wakeUp(chain);
             chain.getLogger().debug("最新已确认区块高度更新为: [{}]", height);
             Map<String, Object> resultMap = new HashMap<>(TxConstant.INIT_CAPACITY_2);
             resultMap.put("value", true);
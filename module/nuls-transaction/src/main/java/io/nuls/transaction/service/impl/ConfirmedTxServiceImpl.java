@@ -9,6 +9,7 @@ import io.nuls.core.constant.TxStatusEnum;
 import io.nuls.core.constant.TxType;
 import io.nuls.core.core.annotation.Autowired;
 import io.nuls.core.core.annotation.Component;
+import io.nuls.core.crypto.HexUtil;
 import io.nuls.core.exception.NulsException;
 import io.nuls.core.log.logback.NulsLogger;
 import io.nuls.core.rpc.util.NulsDateUtils;
@@ -360,18 +361,17 @@ public class ConfirmedTxServiceImpl implements ConfirmedTxService {
         if (hashList == null || hashList.size() == 0) {
             return txList;
         }
-        int chainId = chain.getChainId();
+        List<byte[]> hashBytesList = new ArrayList<>(hashList.size());
         for(String hashHex : hashList){
-            TransactionConfirmedPO txCfmPO = confirmedTxStorageService.getTx(chainId, hashHex);
-            if(null == txCfmPO){
-                return new ArrayList<>();
-            }
-            try {
-                txList.add(RPCUtil.encode(txCfmPO.getTx().serialize()));
-            } catch (Exception e) {
-                chain.getLogger().error(e);
-                return new ArrayList<>();
-            }
+            hashBytesList.add(HexUtil.decode(hashHex));
+        }
+        //同一区块的交易从段文件中一次读出, 直接返回原始序列化数据
+        List<byte[]> txBytesList = confirmedTxStorageService.getTxBytesList(chain.getChainId(), hashBytesList);
+        if(null == txBytesList){
+            return new ArrayList<>();
+        }
+        for(byte[] txBytes : txBytesList){
+            txList.add(RPCUtil.encode(txBytes));
         }
         return txList;
     }
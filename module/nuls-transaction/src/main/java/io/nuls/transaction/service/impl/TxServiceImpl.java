@@ -37,6 +37,7 @@ import io.nuls.core.constant.TxType;
 import io.nuls.core.core.annotation.Autowired;
 import io.nuls.core.core.annotation.Component;
 import io.nuls.core.crypto.HexUtil;
+import io.nuls.core.crypto.SignatureItem;
 import io.nuls.core.exception.NulsException;
 import io.nuls.core.log.logback.NulsLogger;
 import io.nuls.core.model.BigIntegerUtils;
@@ -176,6 +177,7 @@ public class TxServiceImpl implements TxService {
                 unconfirmedTxStorageService.putTx(chain.getChainId(), tx);
                 //广播完整交易
                 NetworkCall.broadcastTx(chain, tx);
+                BlockCall.pushUnconfirmedTxs(chain, List.of(tx));
                 //加入去重过滤集合,防止其他节点转发回来再次处理该交易
                 TxDuplicateRemoval.insertAndCheck(hash.toHex());
             }
@@ -251,6 +253,13 @@ public class TxServiceImpl implements TxService {
 
     @Override
     public void baseValidateTx(Chain chain, Transaction tx, TxRegister txRegister) throws NulsException {
+        baseValidateTx(chain, tx, txRegister, true);
+    }
+
+    /**
+     * @param verifySign 是否验证签名正确性, 签名已在批量验签中验证时为false
+     */
+    private void baseValidateTx(Chain chain, Transaction tx, TxRegister txRegister, boolean verifySign) throws NulsException {
         if (null == tx) {
             throw new NulsException(TxErrorCode.TX_NOT_EXIST);
         }
@@ -267,7 +276,7 @@ public class TxServiceImpl implements TxService {
             throw new NulsException(TxErrorCode.TX_SIZE_TOO_LARGE);
         }
         //验证签名
-        validateTxSignature(tx, txRegister, chain);
+        validateTxSignature(tx, txRegister, chain, verifySign);
         //如果有coinData, 则进行验证,有一些交易(黄牌)没有coinData数据
         if (tx.getType() == TxType.YELLOW_PUNISH) {
             return;
@@ -286,9 +295,10 @@ public class TxServiceImpl implements TxService {
      * 验证签名数据中的公钥和from中是否匹配, 验证签名正确性
      *
      * @param tx
+     * @param verifySign 是否验证签名正确性
      * @throws NulsException
      */
-    private void validateTxSignature(Transaction tx, TxRegister txRegister, Chain chain) throws NulsException {
+    private void validateTxSignature(Transaction tx, TxRegister txRegister, Chain chain, boolean verifySign) throws NulsException {
         //只需要验证,需要验证签名的交易(一些系统交易不用签名)
         if (txRegister.getVerifySignature()) {
             Set<String> addressSet = SignatureUtil.getAddressFromTX(tx, chain.getChainId());
@@ -316,7 +326,7 @@ public class TxServiceImpl implements TxService {
                     }
                 }
             }
-            if (!SignatureUtil.validateTransactionSignture(tx)) {
+            if (verifySign && !SignatureUtil.validateTransactionSignture(tx)) {
                 throw new NulsException(TxErrorCode.SIGNATURE_ERROR);
             }
         }
@@ -499,6 +509,24 @@ public class TxServiceImpl implements TxService {
     @Override
     public TxPackage getPackableTxs(Chain chain, long endtimestamp, long maxTxDataSize, long blockHeight, long blockTime, String packingAddress, String preStateRoot) {
         chain.getPackageLock().lock();
+        try {
+            while (true) {
+                TxPackage txPackage = packageTxs(chain, endtimestamp, maxTxDataSize, blockHeight, blockTime, packingAddress, preStateRoot);
+                if (null != txPackage) {
+                    return txPackage;
+                }
+                //最新区块已更新, 取出的交易已放回待打包队列, 按最新高度重新打包
+                blockHeight = chain.getBestBlockHeight() + 1;
+            }
+        } finally {
+            chain.getPackageLock().unlock();
+        }
+    }
+
+    /**
+     * 一次打包过程, 获取交易过程中最新区块高度增长时把取出的交易放回待打包队列并返回null, 由调用方按最新高度重新打包
+     */
+    private TxPackage packageTxs(Chain chain, long endtimestamp, long maxTxDataSize, long blockHeight, long blockTime, String packingAddress, String preStateRoot) {
         long startTime = NulsDateUtils.getCurrentTimeMillis();
         long packableTime = endtimestamp - startTime;
         NulsLogger nulsLogger = chain.getLogger();
@@ -548,6 +576,8 @@ public class TxServiceImpl implements TxService {
             //取出的交易集合
             List<TxWrapper> currentBatchPackableTxs = new ArrayList<>();
             for (int index = 0; ; index++) {
+                //先取唤醒次数再检查最新高度, 检查之后发生的唤醒会使下面的等待立即返回
+                long wakeUpCount = packablePool.getWakeUpCount(chain);
                 long currentTimeMillis = NulsDateUtils.getCurrentTimeMillis();
                 if (endtimestamp - currentTimeMillis <= batchValidReserve) {
                     nulsLogger.debug("获取交易时间到,进入模块验证阶段: currentTimeMillis:{}, -endtimestamp:{}, -offset:{}, -remaining:{}",
@@ -562,11 +592,12 @@ public class TxServiceImpl implements TxService {
                     return new TxPackage(new ArrayList<>(), preStateRoot, nextHeight);
                 }
                 //如果本地最新区块+1 大于当前在打包区块的高度, 说明本地最新区块已更新,需要重新打包,把取出的交易放回到打包队列
+                nextHeight = chain.getBestBlockHeight() + 1;
                 if (blockHeight < nextHeight) {
                     nulsLogger.info("获取交易过程中最新区块高度已增长,把取出的交易以及孤儿放回到打包队列, 重新打包...");
                     //放回可打包交易和孤儿
                     putBackPackablePool(chain, packingTxList, orphanTxSet);
-                    return getPackableTxs(chain, endtimestamp, maxTxDataSize, nextHeight, blockTime, packingAddress, preStateRoot);
+                    return null;
                 }
                 if(packingTxList.size() > maxCount){
                     nulsLogger.debug("获取交易已达max count,进入模块验证阶段: currentTimeMillis:{}, -endtimestamp:{}, -offset:{}, -remaining:{}",
@@ -575,12 +606,18 @@ public class TxServiceImpl implements TxService {
                 }
                 int batchProcessListSize = batchProcessList.size();
                 boolean process = false;
-                Transaction tx = packablePool.poll(chain);
-                if (tx == null && batchProcessListSize == 0) {
-                    Thread.sleep(30L);
-                    allSleepTime += 30;
-                    continue;
-                } else if (tx == null && batchProcessListSize > 0) {
+                Transaction tx;
+                if (batchProcessListSize == 0) {
+                    //没有待处理的批次时等待新交易加入, 直到可打包时间结束或最新高度变化被唤醒
+                    tx = packablePool.poll(chain, endtimestamp - currentTimeMillis - batchValidReserve, wakeUpCount);
+                    if (tx == null) {
+                        allSleepTime += NulsDateUtils.getCurrentTimeMillis() - currentTimeMillis;
+                        continue;
+                    }
+                } else {
+                    tx = packablePool.poll(chain);
+                }
+                if (tx == null && batchProcessListSize > 0) {
                     //达到处理该批次的条件
                     process = true;
                 } else if (tx != null) {
@@ -746,8 +783,6 @@ public class TxServiceImpl implements TxService {
             //可打包交易,孤儿交易,全加回去
             putBackPackablePool(chain, packingTxList, orphanTxSet);
             return new TxPackage(new ArrayList<>(), preStateRoot, chain.getBestBlockHeight() + 1);
-        } finally {
-            chain.getPackageLock().unlock();
         }
     }
 
@@ -1500,6 +1535,8 @@ public class TxServiceImpl implements TxService {
 
         //组装统一验证参数数据,key为各模块统一验证器cmd
         Map<String, List<String>> moduleVerifyMap = new HashMap<>(TxConstant.INIT_CAPACITY_8);
+        //非多签交易的签名汇总后批量验证, 单个交易的基础验证中不再重复验签
+        List<SignatureItem> signatureItems = new ArrayList<>();
 
         for (String txStr : txStrList) {
             Transaction tx = TxUtil.getInstanceRpcStr(txStr, Transaction.class);
@@ -1536,6 +1573,17 @@ public class TxServiceImpl implements TxService {
             }
             if (!unconfirmedTxStorageService.isExists(chain.getChainId(), hash)) {
                 //不在未确认中就进行基础验证
+                boolean batchSign = false;
+                TxRegister register = TxManager.getTxRegister(chain, type);
+                if (null != register && register.getVerifySignature() && !tx.isMultiSignTx()) {
+                    try {
+                        signatureItems.addAll(SignatureUtil.getSignatureItems(tx));
+                        batchSign = true;
+                    } catch (NulsException e) {
+                        //签名数据异常, 由单个交易的基础验证报错
+                    }
+                }
+                boolean verifySign = !batchSign;
                 //多线程处理单个交易
                 Future<Boolean> res = verifySignExecutor.submit(new Callable<Boolean>() {
                     @Override
@@ -1547,7 +1595,7 @@ public class TxServiceImpl implements TxService {
                                 throw new NulsException(TxErrorCode.TX_TYPE_INVALID);
                             }
                             logger.debug("验证区块时本地没有的交易, 需要进行基础验证 hash:{}",tx.getHash().toHex());
-                            baseValidateTx(chain, tx, txRegister);
+                            baseValidateTx(chain, tx, txRegister, verifySign);
                         } catch (Exception e) {
                             logger.error("batchVerify failed, single tx verify failed. hash:{}, -type:{}", hash.toHex(), type);
                             logger.error(e);
@@ -1561,6 +1609,9 @@ public class TxServiceImpl implements TxService {
             //根据模块的统一验证器名，对所有交易进行分组，准备进行各模块的统一验证
             TxUtil.moduleGroups(chain, moduleVerifyMap, tx.getType(), txStr);
         }
+        if (!signatureItems.isEmpty()) {
+            futures.add(verifySignExecutor.submit(() -> SignatureUtil.verifyBatch(signatureItems)));
+        }
         logger.debug("[验区块交易] 组装数据,智能合约,单个验证,分组 -距方法开始的时间:{}", NulsDateUtils.getCurrentTimeMillis() - s1);//----
         logger.debug("");//----
 
@@ -1785,9 +1836,8 @@ public class TxServiceImpl implements TxService {
     @Override
     public void clearInvalidTx(Chain chain, Transaction tx, boolean changeStatus) {
         unconfirmedTxStorageService.removeTx(chain.getChainId(), tx.getHash());
-        //从待打包队里存交易的map中移除
-        ByteArrayWrapper wrapper = new ByteArrayWrapper(tx.getHash().getBytes());
-        chain.getPackableTxMap().remove(wrapper);
+        //从待打包队列及存交易的map中移除
+        packablePool.remove(chain, tx.getHash().getBytes());
         //判断如果交易已被确认就不用调用账本清理了!!
         TransactionConfirmedPO txConfirmed = confirmedTxService.getConfirmedTransaction(chain, tx.getHash());
         if (txConfirmed == null) {
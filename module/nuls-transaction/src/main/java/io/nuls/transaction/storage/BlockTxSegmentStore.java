@@ -0,0 +1,480 @@
+package io.nuls.transaction.storage;
+
+import io.nuls.base.data.NulsHash;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * 已确认交易的段文件存储
+ * 按区块高度顺序追加写入平面文件，一个区块的交易是一条连续记录，整块读取只需一次顺序读，
+ * 读出的是交易的原始序列化数据，可直接转发，无需解析再序列化；
+ * 交易hash到位置的索引由调用方保存
+ * 每追加syncBlocks个区块或距上次刷盘超过syncMillis时刷盘一次(组提交)，异常退出时未刷盘的记录可能丢失，
+ * 记录头中保存除校验值外整条记录的CRC32，打开时从最后一个段文件中第一条不完整或校验失败的记录处截断，
+ * 索引指向文件末尾之外的位置视为不存在，见{@link #contains}
+ * <p>
+ * Append-only, height ordered segment files of confirmed block transactions.
+ * Record layout: height(8) | count(4) | crc(4) | count * (hash(32) | length(4)) | raw transactions,
+ * the CRC32 covers the whole record except the crc field.
+ * The files are forced to disk once every syncBlocks appends or syncMillis (group commit).
+ * Records not yet forced may be lost or torn on a crash: the last segment is cut at the first short record
+ * or CRC mismatch on open,
+ * and index entries pointing past the end of the files are treated as not found.
+ */
+public class BlockTxSegmentStore {
+
+    private static final String SUFFIX = ".seg";
+
+    /**
+     * 记录头：高度、交易数、CRC32
+     */
+    private static final int RECORD_HEADER_SIZE = 16;
+
+    /**
+     * 记录头中CRC32的位置
+     */
+    private static final int CRC_OFFSET = 12;
+
+    /**
+     * 记录目录项：交易hash、交易长度
+     */
+    private static final int ENTRY_SIZE = NulsHash.HASH_LENGTH + 4;
+
+    private final File dir;
+
+    private final long segmentSize;
+
+    private final int syncBlocks;
+
+    private final long syncMillis;
+
+    /**
+     * 上次刷盘后追加的区块数
+     */
+    private int unsyncedBlocks;
+
+    private long lastSyncTime = System.currentTimeMillis();
+
+    private final Map<Integer, FileChannel> channels = new ConcurrentHashMap<>();
+
+    /**
+     * 当前写入的段号
+     */
+    private volatile int current;
+
+    /**
+     * @param dir         段文件目录
+     * @param segmentSize 单个段文件的大小上限，单个区块超过上限时独占一个段
+     * @param syncBlocks  每追加多少个区块刷盘一次，小于等于1时每个区块都刷盘
+     * @param syncMillis  距上次刷盘超过该毫秒数时，下一次追加后刷盘
+     */
+    public BlockTxSegmentStore(File dir, long segmentSize, int syncBlocks, long syncMillis) throws IOException {
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException("create segment dir failed: " + dir);
+        }
+        this.dir = dir;
+        this.segmentSize = segmentSize;
+        this.syncBlocks = syncBlocks;
+        this.syncMillis = syncMillis;
+        File[] files = dir.listFiles((d, name) -> name.endsWith(SUFFIX));
+        if (files != null) {
+            for (File file : files) {
+                String name = file.getName();
+                current = Math.max(current, Integer.parseInt(name.substring(0, name.length() - SUFFIX.length())));
+            }
+        }
+        recover();
+    }
+
+    /**
+     * 从最后一个段文件中第一条不完整或校验失败的记录处截断，之前的段在切换时已刷盘
+     * 未刷盘的尾部可能只写入了一部分，也可能是全零或旧数据，只按长度判断不够
+     * Cut the last segment at the first short record or CRC mismatch, earlier segments are forced when rolling over.
+     * An unforced tail may be partly written, zero filled or stale, so the lengths alone are not enough
+     */
+    private void recover() throws IOException {
+        FileChannel channel = channel(current);
+        long size = channel.size();
+        long position = 0;
+        while (position + RECORD_HEADER_SIZE <= size) {
+            ByteBuffer header = read(current, position, RECORD_HEADER_SIZE);
+            header.getLong();
+            int count = header.getInt();
+            long headerSize = RECORD_HEADER_SIZE + (long) count * ENTRY_SIZE;
+            if (count <= 0 || position + headerSize > size) {
+                break;
+            }
+            long recordLength = headerSize;
+            ByteBuffer entries = read(current, position + RECORD_HEADER_SIZE, count * ENTRY_SIZE);
+            for (int i = 0; i < count; i++) {
+                entries.position(i * ENTRY_SIZE + NulsHash.HASH_LENGTH);
+                int length = entries.getInt();
+                if (length < 0) {
+                    recordLength = Long.MAX_VALUE;
+                    break;
+                }
+                recordLength += length;
+            }
+            if (recordLength > Integer.MAX_VALUE || position + recordLength > size
+                    || !checkCrc(read(current, position, (int) recordLength))) {
+                break;
+            }
+            position += recordLength;
+        }
+        if (position < size) {
+            channel.truncate(position);
+            channel.force(false);
+        }
+    }
+
+    private static int crc(ByteBuffer record) {
+        CRC32 crc = new CRC32();
+        byte[] bytes = record.array();
+        crc.update(bytes, 0, CRC_OFFSET);
+        crc.update(bytes, RECORD_HEADER_SIZE, record.limit() - RECORD_HEADER_SIZE);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * 校验整条记录
+     */
+    private static boolean checkCrc(ByteBuffer record) {
+        return record.getInt(CRC_OFFSET) == crc(record);
+    }
+
+    /**
+     * 追加一个区块的交易
+     * Append the transactions of one block as a single record
+     *
+     * @param height 区块高度
+     * @param hashes 交易hash
+     * @param txs    交易序列化数据，与hashes顺序一致
+     * @return 每笔交易的位置
+     */
+    public synchronized List<TxLocation> append(long height, List<byte[]> hashes, List<byte[]> txs) throws IOException {
+        int count = txs.size();
+        int headerSize = RECORD_HEADER_SIZE + count * ENTRY_SIZE;
+        long recordLength = headerSize;
+        for (byte[] tx : txs) {
+            recordLength += tx.length;
+        }
+        if (recordLength > Integer.MAX_VALUE) {
+            throw new IOException("block record too large: " + recordLength);
+        }
+        FileChannel channel = channel(current);
+        if (channel.size() > 0 && channel.size() + recordLength > segmentSize) {
+            //切换前刷盘，只有最后一个段可能有未刷盘的记录
+            channel.force(false);
+            channel = channel(++current);
+        }
+        long offset = channel.size();
+        ByteBuffer buffer = ByteBuffer.allocate((int) recordLength);
+        buffer.putLong(height);
+        buffer.putInt(count);
+        buffer.putInt(0);
+        for (int i = 0; i < count; i++) {
+            buffer.put(hashes.get(i));
+            buffer.putInt(txs.get(i).length);
+        }
+        List<TxLocation> locations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            byte[] tx = txs.get(i);
+            locations.add(new TxLocation(current, offset, (int) recordLength, height, i, buffer.position(), tx.length));
+            buffer.put(tx);
+        }
+        buffer.putInt(CRC_OFFSET, crc(buffer));
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, offset + buffer.position());
+        }
+        unsyncedBlocks++;
+        if (unsyncedBlocks >= syncBlocks || System.currentTimeMillis() - lastSyncTime >= syncMillis) {
+            sync();
+        }
+        return locations;
+    }
+
+    /**
+     * 把当前段文件未刷盘的记录写入磁盘
+     * Force the records appended since the last sync to disk
+     */
+    public synchronized void sync() throws IOException {
+        if (unsyncedBlocks > 0) {
+            channel(current).force(false);
+            unsyncedBlocks = 0;
+        }
+        lastSyncTime = System.currentTimeMillis();
+    }
+
+    /**
+     * 按写入顺序遍历高度大于fromHeight的记录中的交易hash，用于从检查点恢复过滤器
+     * 从最后一个段往前找到第一条记录高度不大于fromHeight的段，只读取记录头和目录
+     * Visit the tx hashes of the records above fromHeight in write order, to replay the filter after a checkpoint
+     */
+    public synchronized void scanHashes(long fromHeight, Consumer<byte[]> consumer) throws IOException {
+        int start = current;
+        while (start > 0) {
+            if (channel(start).size() >= RECORD_HEADER_SIZE && read(start, 0, 8).getLong() <= fromHeight) {
+                break;
+            }
+            start--;
+        }
+        for (int segment = start; segment <= current; segment++) {
+            long size = channel(segment).size();
+            long position = 0;
+            while (position + RECORD_HEADER_SIZE <= size) {
+                ByteBuffer header = read(segment, position, RECORD_HEADER_SIZE);
+                long height = header.getLong();
+                int count = header.getInt();
+                ByteBuffer entries = read(segment, position + RECORD_HEADER_SIZE, count * ENTRY_SIZE);
+                long recordLength = RECORD_HEADER_SIZE + (long) count * ENTRY_SIZE;
+                for (int i = 0; i < count; i++) {
+                    byte[] hash = new byte[NulsHash.HASH_LENGTH];
+                    entries.get(hash);
+                    recordLength += entries.getInt();
+                    if (height > fromHeight) {
+                        consumer.accept(hash);
+                    }
+                }
+                position += recordLength;
+            }
+        }
+    }
+
+    /**
+     * 位置是否在已有的段文件范围内，异常退出丢失了未刷盘的记录时，索引可能指向文件末尾之外
+     * Whether the location is inside the segment files, the index may point past the end after a crash
+     */
+    public boolean contains(TxLocation location) throws IOException {
+        int segment = location.getSegment();
+        if (segment < 0 || segment > current) {
+            return false;
+        }
+        return location.getRecordOffset() + location.getRecordLength() <= channel(segment).size();
+    }
+
+    /**
+     * 读取单笔交易的序列化数据，先用{@link #matches}核对
+     * Read one transaction after checking it with {@link #matches}
+     *
+     * @param hash 交易hash
+     * @return 与索引不一致时返回null
+     */
+    public byte[] read(TxLocation location, byte[] hash) throws IOException {
+        if (!matches(location, hash)) {
+            return null;
+        }
+        return read(location.getSegment(), location.getRecordOffset() + location.getTxOffset(), location.getTxLength()).array();
+    }
+
+    /**
+     * 核对记录头的高度和目录项中的hash、长度，回滚后重新写入的区块可能覆盖了索引指向的位置
+     * Check the record height and the (hash, length) directory entry,
+     * since a block written after a rollback may have reused the position the index points to
+     */
+    public boolean matches(TxLocation location, byte[] hash) throws IOException {
+        long recordOffset = location.getRecordOffset();
+        ByteBuffer header = read(location.getSegment(), recordOffset, RECORD_HEADER_SIZE);
+        if (header.getLong() != location.getHeight() || header.getInt() <= location.getIndex()) {
+            return false;
+        }
+        ByteBuffer entry = read(location.getSegment(), recordOffset + RECORD_HEADER_SIZE + (long) location.getIndex() * ENTRY_SIZE, ENTRY_SIZE);
+        byte[] entryHash = new byte[NulsHash.HASH_LENGTH];
+        entry.get(entryHash);
+        return Arrays.equals(entryHash, hash) && entry.getInt() == location.getTxLength();
+    }
+
+    /**
+     * 一次读出交易所在区块的全部交易，按写入顺序返回hash到序列化数据的映射
+     * 记录与索引不一致或校验失败时返回空，调用方按hash取交易时视为不存在
+     * Read the whole block record that contains the transaction with one read,
+     * an empty map is returned if the record does not match the index or its CRC
+     */
+    public Map<NulsHash, byte[]> readBlock(TxLocation location) throws IOException {
+        int recordLength = location.getRecordLength();
+        ByteBuffer buffer = read(location.getSegment(), location.getRecordOffset(), recordLength);
+        long height = buffer.getLong();
+        int count = buffer.getInt();
+        buffer.getInt();
+        if (height != location.getHeight() || count <= location.getIndex()
+                || RECORD_HEADER_SIZE + (long) count * ENTRY_SIZE > recordLength || !checkCrc(buffer)) {
+            return Collections.emptyMap();
+        }
+        int position = RECORD_HEADER_SIZE + count * ENTRY_SIZE;
+        Map<NulsHash, byte[]> txs = new LinkedHashMap<>(count * 2);
+        byte[] record = buffer.array();
+        for (int i = 0; i < count; i++) {
+            byte[] hash = new byte[NulsHash.HASH_LENGTH];
+            buffer.get(hash);
+            int length = buffer.getInt();
+            if (length < 0 || position + length > recordLength) {
+                return Collections.emptyMap();
+            }
+            byte[] tx = new byte[length];
+            System.arraycopy(record, position, tx, 0, length);
+            position += length;
+            txs.put(new NulsHash(hash), tx);
+        }
+        return txs;
+    }
+
+    /**
+     * 回滚时截掉位于文件末尾的区块记录，不在末尾的记录保留(不再被索引引用)
+     * Truncate the record if it is the tail of the store, after a rollback
+     *
+     * @return 是否截断
+     */
+    public synchronized boolean truncate(TxLocation location) throws IOException {
+        int segment = location.getSegment();
+        if (segment > current) {
+            return false;
+        }
+        for (int i = segment + 1; i <= current; i++) {
+            if (channel(i).size() > 0) {
+                return false;
+            }
+        }
+        FileChannel channel = channel(segment);
+        if (channel.size() != location.getRecordOffset() + location.getRecordLength()) {
+            return false;
+        }
+        for (int i = current; i > segment; i--) {
+            FileChannel removed = channels.remove(i);
+            if (removed != null) {
+                removed.close();
+            }
+            new File(dir, name(i)).delete();
+        }
+        current = segment;
+        channel.truncate(location.getRecordOffset());
+        return true;
+    }
+
+    public synchronized void close() {
+        try {
+            sync();
+        } catch (IOException e) {
+            // 关闭前刷盘失败，未刷盘的记录在下次打开时按文件长度处理
+        }
+        for (FileChannel channel : channels.values()) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // 关闭失败不影响已写入的数据
+            }
+        }
+        channels.clear();
+    }
+
+    private ByteBuffer read(int segment, long position, int length) throws IOException {
+        FileChannel channel = channel(segment);
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("segment " + segment + " truncated at " + position);
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private FileChannel channel(int segment) throws IOException {
+        FileChannel channel = channels.get(segment);
+        if (channel == null) {
+            synchronized (channels) {
+                channel = channels.get(segment);
+                if (channel == null) {
+                    channel = FileChannel.open(new File(dir, name(segment)).toPath(),
+                            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                    channels.put(segment, channel);
+                }
+            }
+        }
+        return channel;
+    }
+
+    private static String name(int segment) {
+        return String.format("%08d", segment) + SUFFIX;
+    }
+
+    /**
+     * 交易在段文件中的位置，作为hash索引的值保存
+     * Position of a transaction in the segment files, stored as the value of the hash index
+     */
+    public static class TxLocation {
+
+        public static final int SIZE = 36;
+
+        private final int segment;
+        private final long recordOffset;
+        private final int recordLength;
+        private final long height;
+        /**
+         * 交易在记录目录中的序号
+         */
+        private final int index;
+        private final int txOffset;
+        private final int txLength;
+
+        public TxLocation(int segment, long recordOffset, int recordLength, long height, int index, int txOffset, int txLength) {
+            this.segment = segment;
+            this.recordOffset = recordOffset;
+            this.recordLength = recordLength;
+            this.height = height;
+            this.index = index;
+            this.txOffset = txOffset;
+            this.txLength = txLength;
+        }
+
+        public static TxLocation parse(byte[] bytes) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            return new TxLocation(buffer.getInt(), buffer.getLong(), buffer.getInt(), buffer.getLong(), buffer.getInt(), buffer.getInt(), buffer.getInt());
+        }
+
+        public byte[] serialize() {
+            return ByteBuffer.allocate(SIZE).putInt(segment).putLong(recordOffset).putInt(recordLength)
+                    .putLong(height).putInt(index).putInt(txOffset).putInt(txLength).array();
+        }
+
+        public int getSegment() {
+            return segment;
+        }
+
+        public long getRecordOffset() {
+            return recordOffset;
+        }
+
+        public int getRecordLength() {
+            return recordLength;
+        }
+
+        public long getHeight() {
+            return height;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public int getTxOffset() {
+            return txOffset;
+        }
+
+        public int getTxLength() {
+            return txLength;
+        }
+    }
+}
@@ -0,0 +1,344 @@
+package io.nuls.transaction.storage;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * 已确认交易hash的布隆过滤器，放在已确认交易库前面
+ * 判断为不存在时一定不存在，直接跳过数据库查询；判断为可能存在时再查数据库
+ * 布隆过滤器不支持删除，回滚的交易会留在过滤器中，只会增加误判，不会漏判
+ * 过滤器连同已包含的区块高度定期写入磁盘(检查点)，启动时加载检查点并补入之后区块的交易，没有可用的检查点时从数据库重建；
+ * 加载和重建可在后台进行，完成前过滤器返回"可能存在"，期间保存的交易先缓存，完成时加入
+ * <p>
+ * Bloom filter over confirmed tx hashes in front of the confirmed tx table.
+ * A negative answer is definite and skips the database, rolled back hashes stay in the filter as false positives.
+ * The filter is checkpointed to disk together with the height it covers. On start the checkpoint is loaded and
+ * the blocks after it are replayed, otherwise the filter is rebuilt from the database. Both can run in the
+ * background: until done the filter answers "might contain", and hashes saved meanwhile are added when it is ready.
+ */
+public class ConfirmedTxFilter {
+
+    /**
+     * 目标误判率
+     */
+    public static final double FPP = 0.01;
+
+    private final File file;
+
+    private final long expectedInsertions;
+
+    private volatile BloomFilter<byte[]> filter;
+
+    /**
+     * 加载或重建中的过滤器，完成前新保存的交易同时写入
+     */
+    private volatile BloomFilter<byte[]> building;
+
+    /**
+     * 就绪前保存的交易，加载或重建开始时加入，失败后重新开始时再次加入
+     */
+    private final List<byte[]> pending = new ArrayList<>();
+
+    /**
+     * 过滤器创建时的容量，用于估算内存
+     */
+    private volatile long capacity;
+
+    /**
+     * 过滤器已包含该高度及之前全部区块的交易，-1表示未知(回滚后)，未知时不保存检查点
+     */
+    private volatile long height = -1L;
+
+    /**
+     * 最近一次检查点的高度
+     */
+    private volatile long checkpointHeight = -1L;
+
+    private final AtomicBoolean checkpointing = new AtomicBoolean();
+
+    /**
+     * 检查点作废的次数，保存期间有作废时删除刚写入的文件
+     */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final AtomicLong queries = new AtomicLong();
+    private final AtomicLong negatives = new AtomicLong();
+    private final AtomicLong falsePositives = new AtomicLong();
+    private final AtomicLong removed = new AtomicLong();
+
+    /**
+     * @param file               持久化文件
+     * @param expectedInsertions 预计交易数，超过后误判率会上升
+     */
+    public ConfirmedTxFilter(File file, long expectedInsertions) {
+        this.file = file;
+        this.expectedInsertions = expectedInsertions;
+        this.capacity = expectedInsertions;
+    }
+
+    /**
+     * 加载检查点，并补入检查点高度之后区块的交易
+     * Load the checkpoint and replay the blocks after its height
+     *
+     * @param source 遍历检查点高度之后区块的交易hash
+     * @return 是否加载成功，失败时需要调用{@link #rebuild}重建
+     */
+    public boolean load(HeightHashSource source) {
+        if (!file.exists()) {
+            return false;
+        }
+        long loadedHeight;
+        BloomFilter<byte[]> loaded;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            loadedHeight = in.readLong();
+            loaded = BloomFilter.readFrom(in, Funnels.byteArrayFunnel());
+        } catch (IOException | RuntimeException e) {
+            file.delete();
+            return false;
+        }
+        startBuilding(loaded);
+        try {
+            source.scan(loadedHeight, loaded::put);
+        } catch (Exception e) {
+            abortBuilding();
+            return false;
+        }
+        checkpointHeight = loadedHeight;
+        finishBuilding();
+        return true;
+    }
+
+    /**
+     * 从数据库重建过滤器，重建完成前不使用过滤器
+     * Rebuild the filter from the database, queries bypass the filter until it is done
+     *
+     * @param count  库中已有交易数
+     * @param source 遍历库中全部交易hash
+     */
+    public void rebuild(long count, HashSource source) throws Exception {
+        long size = Math.max(expectedInsertions, count * 2);
+        BloomFilter<byte[]> rebuilt = BloomFilter.create(Funnels.byteArrayFunnel(), size, FPP);
+        startBuilding(rebuilt);
+        try {
+            source.scan(rebuilt::put);
+        } catch (Exception e) {
+            abortBuilding();
+            throw e;
+        }
+        capacity = size;
+        finishBuilding();
+    }
+
+    private synchronized void startBuilding(BloomFilter<byte[]> target) {
+        filter = null;
+        building = target;
+        for (byte[] hash : pending) {
+            target.put(hash);
+        }
+    }
+
+    private synchronized void abortBuilding() {
+        building = null;
+    }
+
+    private synchronized void finishBuilding() {
+        filter = building;
+        building = null;
+        pending.clear();
+    }
+
+    /**
+     * 保存交易前调用，保证数据库可见时过滤器中已有该交易
+     */
+    public void put(byte[] hash) {
+        BloomFilter<byte[]> current = filter;
+        if (null != current) {
+            current.put(hash);
+            return;
+        }
+        synchronized (this) {
+            current = filter;
+            if (null != current) {
+                current.put(hash);
+                return;
+            }
+            if (null != building) {
+                building.put(hash);
+            }
+            pending.add(hash);
+        }
+    }
+
+    /**
+     * 一个区块的交易已全部加入后调用
+     * Called after all hashes of the block were put
+     *
+     * @param blockHeight 区块高度
+     * @param replayable  该区块的交易能否在加载检查点时补入(保存在段文件中)，不能时删除磁盘上的检查点
+     */
+    public void added(long blockHeight, boolean replayable) {
+        if (!replayable) {
+            invalidate();
+        }
+        height = blockHeight;
+    }
+
+    /**
+     * @return false表示一定不存在；过滤器未就绪时返回true
+     */
+    public boolean mightContain(byte[] hash) {
+        BloomFilter<byte[]> current = filter;
+        if (null == current) {
+            return true;
+        }
+        queries.incrementAndGet();
+        if (!current.mightContain(hash)) {
+            negatives.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 过滤器判断可能存在，但数据库中没有
+     */
+    public void falsePositive() {
+        falsePositives.incrementAndGet();
+    }
+
+    /**
+     * 交易被回滚，仍留在过滤器中
+     * 回滚后同一高度会保存新区块的交易，此前记录的高度不再可靠，在下一个区块加入前不保存检查点
+     */
+    public void remove(int count) {
+        removed.addAndGet(count);
+        height = -1L;
+        invalidate();
+    }
+
+    /**
+     * 删除磁盘上的检查点，异常退出后从数据库重建
+     */
+    private void invalidate() {
+        invalidations.incrementAndGet();
+        file.delete();
+    }
+
+    public boolean isReady() {
+        return null != filter;
+    }
+
+    public long getCheckpointHeight() {
+        return checkpointHeight;
+    }
+
+    /**
+     * 距上次检查点已加入interval个区块时返回true，调用方随后需调用{@link #checkpoint}
+     * Returns true if interval blocks were added since the last checkpoint, the caller must then call {@link #checkpoint}
+     */
+    public boolean tryBeginCheckpoint(long interval) {
+        long current = height;
+        if (interval <= 0 || null == filter || current < 0 || current - checkpointHeight < interval) {
+            return false;
+        }
+        return checkpointing.compareAndSet(false, true);
+    }
+
+    public void checkpoint() throws IOException {
+        try {
+            persist();
+        } finally {
+            checkpointing.set(false);
+        }
+    }
+
+    /**
+     * 连同已包含的区块高度写入磁盘，保存期间加入的交易也可能写入，只会增加误判
+     * Write the filter to disk together with the height it covers
+     *
+     * @return 高度未知或未就绪时不保存
+     */
+    public synchronized boolean persist() throws IOException {
+        BloomFilter<byte[]> current = filter;
+        long currentHeight = height;
+        if (null == current || currentHeight < 0) {
+            return false;
+        }
+        long before = invalidations.get();
+        File tmp = new File(file.getPath() + ".tmp");
+        File dir = file.getParentFile();
+        if (null != dir && !dir.exists()) {
+            dir.mkdirs();
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            out.writeLong(currentHeight);
+            current.writeTo(out);
+        }
+        if (!tmp.renameTo(file)) {
+            tmp.delete();
+            throw new IOException("rename filter file failed: " + file);
+        }
+        //写入期间有回滚或不能补入的交易，刚写入的检查点作废
+        if (invalidations.get() != before) {
+            file.delete();
+            return false;
+        }
+        checkpointHeight = currentHeight;
+        return true;
+    }
+
+    /**
+     * 过滤器统计：实测误判率、预估误判率、元素数、内存占用等
+     * Filter statistics: observed and expected false positive rate, element count and memory
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> map = new HashMap<>(16);
+        BloomFilter<byte[]> current = filter;
+        map.put("ready", null != current);
+        long negative = negatives.get();
+        long falsePositive = falsePositives.get();
+        map.put("queries", queries.get());
+        map.put("negatives", negative);
+        map.put("falsePositives", falsePositive);
+        map.put("removed", removed.get());
+        //不存在的交易中被误判为可能存在的比例
+        map.put("falsePositiveRate", negative + falsePositive == 0 ? 0D : (double) falsePositive / (negative + falsePositive));
+        if (null != current) {
+            map.put("expectedFpp", current.expectedFpp());
+            map.put("approximateElementCount", current.approximateElementCount());
+        }
+        map.put("memoryBytes", memoryBytes());
+        map.put("checkpointHeight", checkpointHeight);
+        return map;
+    }
+
+    /**
+     * 数据库中交易hash的来源
+     */
+    @FunctionalInterface
+    public interface HashSource {
+        void scan(Consumer<byte[]> consumer) throws Exception;
+    }
+
+    /**
+     * 指定高度之后区块的交易hash的来源
+     */
+    @FunctionalInterface
+    public interface HeightHashSource {
+        void scan(long fromHeight, Consumer<byte[]> consumer) throws Exception;
+    }
+
+    private long memoryBytes() {
+        //与Guava BloomFilter.create的位数组大小计算一致
+        return (long) (-capacity * Math.log(FPP) / (Math.log(2) * Math.log(2))) / 8;
+    }
+}
@@ -5,6 +5,7 @@ import io.nuls.base.data.Transaction;
 import io.nuls.transaction.model.po.TransactionConfirmedPO;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * 已打包进区块确认的交易(已确认交易)
@@ -46,6 +47,14 @@ public interface ConfirmedTxStorageService {
      */
     TransactionConfirmedPO getTx(int chainId, String hash);
 
+    /**
+     * 按区块获取交易序列化数据, 同一区块在段文件中的交易一次读出, 不经过解析
+     * @param chainId 链ID
+     * @param hashList 交易hash
+     * @return 与hashList顺序一致, 任意一笔不存在时返回null
+     */
+    List<byte[]> getTxBytesList(int chainId, List<byte[]> hashList);
+
     /**
      * 删除交易数据
      * @param chainId 链ID
@@ -78,6 +87,19 @@ public interface ConfirmedTxStorageService {
      */
     boolean removeTxList(int chainId, List<Transaction> txList);
 
+    /**
+     * 初始化已确认交易布隆过滤器, 在后台加载检查点并补入之后区块的交易, 没有则从库中重建
+     * @param chainId
+     */
+    void initFilter(int chainId);
+
+    /**
+     * 已确认交易布隆过滤器统计, 包括实测误判率、内存占用
+     * @param chainId
+     * @return 未启用时返回空Map
+     */
+    Map<String, Object> getFilterStatistics(int chainId);
+
     /**
      * 交易是否存在
      * @param chainId
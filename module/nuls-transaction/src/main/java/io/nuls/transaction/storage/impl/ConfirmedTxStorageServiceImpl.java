@@ -7,23 +7,29 @@ import io.nuls.base.data.NulsHash;
 import io.nuls.base.data.Transaction;
 import io.nuls.core.log.Log;
 import io.nuls.core.rockdb.service.RocksDBService;
+import io.nuls.core.constant.TxStatusEnum;
+import io.nuls.core.core.annotation.Autowired;
 import io.nuls.core.core.annotation.Component;
 import io.nuls.core.crypto.HexUtil;
 import io.nuls.core.exception.NulsException;
 import io.nuls.core.exception.NulsRuntimeException;
 import io.nuls.core.model.StringUtils;
 import io.nuls.core.parse.SerializeUtils;
+import io.nuls.core.thread.ThreadUtils;
+import io.nuls.transaction.constant.TxConfig;
+import io.nuls.transaction.constant.TxConstant;
 import io.nuls.transaction.constant.TxDBConstant;
 import io.nuls.transaction.constant.TxErrorCode;
 import io.nuls.transaction.model.po.TransactionConfirmedPO;
+import io.nuls.transaction.storage.BlockTxSegmentStore;
+import io.nuls.transaction.storage.ConfirmedTxFilter;
 import io.nuls.transaction.storage.ConfirmedTxStorageService;
 import io.nuls.transaction.utils.TxUtil;
 
+import java.io.File;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static io.nuls.transaction.utils.LoggerUtil.LOG;
 
@@ -34,12 +40,151 @@ import static io.nuls.transaction.utils.LoggerUtil.LOG;
 @Component
 public class ConfirmedTxStorageServiceImpl implements ConfirmedTxStorageService {
 
+    @Autowired
+    private TxConfig txConfig;
+
+    private final Map<Integer, BlockTxSegmentStore> segmentStores = new ConcurrentHashMap<>();
+
+    private final Map<Integer, ConfirmedTxFilter> filters = new ConcurrentHashMap<>();
+
+    /**
+     * 链的已确认交易表中是否有数据(开启段文件之前保存的交易, 或未开启段文件), 没有时查询不再访问该表
+     */
+    private final Map<Integer, Boolean> legacyData = new ConcurrentHashMap<>();
+
+    /**
+     * 链是否有段文件索引数据, 未开启段文件且从未写入时查询不再访问索引表
+     */
+    private final Map<Integer, Boolean> segmentData = new ConcurrentHashMap<>();
+
+    @Override
+    public void initFilter(int chainId) {
+        if (txConfig.getTxFilterSize() <= 0 || filters.containsKey(chainId)) {
+            return;
+        }
+        File file = new File(txConfig.getTxFileRoot() + File.separator + TxDBConstant.TX_FILTER_PREFIX + chainId);
+        ConfirmedTxFilter filter = new ConfirmedTxFilter(file, txConfig.getTxFilterSize());
+        //先注册, 加载或重建在后台进行, 完成前查询直接访问数据库, 期间保存的交易完成时加入
+        filters.put(chainId, filter);
+        ThreadUtils.createAndRunThread(TxConstant.TX_FILTER_THREAD, () -> {
+            long start = System.currentTimeMillis();
+            boolean loaded = filter.load((fromHeight, consumer) -> {
+                if (hasSegmentData(chainId)) {
+                    getSegmentStore(chainId).scanHashes(fromHeight, consumer);
+                }
+            });
+            if (loaded) {
+                LOG.info("confirmed tx filter loaded, chainId:{}, checkpoint:{}, time:{}ms", chainId,
+                        filter.getCheckpointHeight(), System.currentTimeMillis() - start);
+                return;
+            }
+            String confirmedTable = TxDBConstant.DB_TRANSACTION_CONFIRMED_PREFIX + chainId;
+            String indexTable = TxDBConstant.DB_TRANSACTION_SEGMENT_INDEX_PREFIX + chainId;
+            try {
+                long count = RocksDBService.count(confirmedTable) + RocksDBService.count(indexTable);
+                filter.rebuild(count, consumer -> {
+                    RocksDBService.scan(confirmedTable, (key, value) -> {
+                        consumer.accept(key);
+                        return true;
+                    });
+                    RocksDBService.scan(indexTable, (key, value) -> {
+                        consumer.accept(key);
+                        return true;
+                    });
+                });
+                LOG.info("confirmed tx filter rebuilt, chainId:{}, count:{}, time:{}ms", chainId, count, System.currentTimeMillis() - start);
+            } catch (Exception e) {
+                //重建失败时不使用过滤器
+                filters.remove(chainId);
+                LOG.error(e);
+            }
+        });
+        //退出时保存, 下次启动直接加载
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                filter.persist();
+            } catch (IOException e) {
+                LOG.error(e);
+            }
+        }));
+    }
+
+    @Override
+    public Map<String, Object> getFilterStatistics(int chainId) {
+        ConfirmedTxFilter filter = filters.get(chainId);
+        return null == filter ? new HashMap<>() : filter.getStatistics();
+    }
+
+    private boolean hasLegacyData(int chainId) {
+        return legacyData.computeIfAbsent(chainId, id ->
+                txConfig.getTxSegmentSize() <= 0 || !isEmpty(TxDBConstant.DB_TRANSACTION_CONFIRMED_PREFIX + id));
+    }
+
+    private boolean hasSegmentData(int chainId) {
+        return segmentData.computeIfAbsent(chainId, id ->
+                txConfig.getTxSegmentSize() > 0 || !isEmpty(TxDBConstant.DB_TRANSACTION_SEGMENT_INDEX_PREFIX + id));
+    }
+
+    /**
+     * 写入已确认交易表前调用, 之后的查询需要访问该表
+     */
+    private void markLegacyData(int chainId) {
+        legacyData.put(chainId, true);
+    }
+
+    private static boolean isEmpty(String table) {
+        try {
+            return RocksDBService.scan(table, null, null, 1, (key, value) -> false) == 0;
+        } catch (Exception e) {
+            //无法判断时按有数据处理
+            LOG.error(e);
+            return false;
+        }
+    }
+
+    /**
+     * 保存前加入过滤器, 数据库中可见的交易过滤器中一定存在
+     * 每加入txFilterCheckpointBlocks个区块在后台保存一次检查点
+     *
+     * @param replayable 是否保存到段文件, 加载检查点时可从段文件补入
+     */
+    private void putFilter(int chainId, List<TransactionConfirmedPO> txList, boolean replayable) {
+        ConfirmedTxFilter filter = filters.get(chainId);
+        if (null == filter) {
+            return;
+        }
+        long height = -1L;
+        for (TransactionConfirmedPO tx : txList) {
+            filter.put(tx.getTx().getHash().getBytes());
+            height = Math.max(height, tx.getBlockHeight());
+        }
+        filter.added(height, replayable);
+        if (filter.tryBeginCheckpoint(txConfig.getTxFilterCheckpointBlocks())) {
+            ThreadUtils.createAndRunThread(TxConstant.TX_FILTER_THREAD, () -> {
+                try {
+                    filter.checkpoint();
+                } catch (IOException e) {
+                    LOG.error(e);
+                }
+            });
+        }
+    }
+
+    private void removeFilter(int chainId, int count) {
+        ConfirmedTxFilter filter = filters.get(chainId);
+        if (null != filter) {
+            filter.remove(count);
+        }
+    }
+
     @Override
     public boolean saveTx(int chainId, TransactionConfirmedPO tx) {
         if (tx == null) {
             return false;
         }
         byte[] txHashBytes = tx.getTx().getHash().getBytes();
+        putFilter(chainId, Collections.singletonList(tx), false);
+        markLegacyData(chainId);
         boolean result = false;
         try {
             result = RocksDBService.put(TxDBConstant.DB_TRANSACTION_CONFIRMED_PREFIX + chainId, txHashBytes, tx.serialize());
@@ -54,6 +199,12 @@ public class ConfirmedTxStorageServiceImpl implements ConfirmedTxStorageService
         if (null == txList || txList.size() == 0) {
             throw new NulsRuntimeException(TxErrorCode.PARAMETER_ERROR);
         }
+        boolean toSegment = txConfig.getTxSegmentSize() > 0 && isSameBlock(txList);
+        putFilter(chainId, txList, toSegment);
+        if (toSegment) {
+            return saveTxListToSegment(chainId, txList);
+        }
+        markLegacyData(chainId);
         Map<byte[], byte[]> txPoMap = new HashMap<>();
         try {
             for (TransactionConfirmedPO tx : txList) {
@@ -67,6 +218,119 @@ public class ConfirmedTxStorageServiceImpl implements ConfirmedTxStorageService
         }
     }
 
+    private boolean isSameBlock(List<TransactionConfirmedPO> txList) {
+        long height = txList.get(0).getBlockHeight();
+        for (TransactionConfirmedPO tx : txList) {
+            if (tx.getBlockHeight() != height) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 一个区块的交易作为一条记录追加到段文件, 再批量写入hash索引
+     */
+    private boolean saveTxListToSegment(int chainId, List<TransactionConfirmedPO> txList) {
+        List<byte[]> hashList = new ArrayList<>(txList.size());
+        List<byte[]> txBytesList = new ArrayList<>(txList.size());
+        List<BlockTxSegmentStore.TxLocation> locations = null;
+        BlockTxSegmentStore store = null;
+        try {
+            for (TransactionConfirmedPO tx : txList) {
+                hashList.add(tx.getTx().getHash().getBytes());
+                txBytesList.add(tx.getTx().serialize());
+            }
+            store = getSegmentStore(chainId);
+            locations = store.append(txList.get(0).getBlockHeight(), hashList, txBytesList);
+            Map<byte[], byte[]> indexMap = new HashMap<>();
+            for (int i = 0; i < hashList.size(); i++) {
+                indexMap.put(hashList.get(i), locations.get(i).serialize());
+            }
+            if (RocksDBService.batchPut(TxDBConstant.DB_TRANSACTION_SEGMENT_INDEX_PREFIX + chainId, indexMap)) {
+                return true;
+            }
+        } catch (Exception e) {
+            LOG.error(e.getMessage());
+        }
+        if (null != locations) {
+            try {
+                store.truncate(locations.get(0));
+            } catch (IOException e) {
+                LOG.error(e);
+            }
+        }
+        throw new NulsRuntimeException(TxErrorCode.DB_SAVE_BATCH_ERROR);
+    }
+
+    private BlockTxSegmentStore getSegmentStore(int chainId) throws IOException {
+        BlockTxSegmentStore store = segmentStores.get(chainId);
+        if (null == store) {
+            synchronized (segmentStores) {
+                store = segmentStores.get(chainId);
+                if (null == store) {
+                    File dir = new File(txConfig.getTxFileRoot() + File.separator + TxDBConstant.TX_SEGMENT_DIR + File.separator + chainId);
+                    //未开启写入时只读取已有段文件, 段大小不起作用
+                    long segmentSize = Math.max(txConfig.getTxSegmentSize(), 1) * 1024L * 1024L;
+                    store = new BlockTxSegmentStore(dir, segmentSize, txConfig.getTxSegmentSyncBlocks(), txConfig.getTxSegmentSyncMillis());
+                    segmentStores.put(chainId, store);
+                    //退出时刷盘并关闭段文件
+                    BlockTxSegmentStore closing = store;
+                    Runtime.getRuntime().addShutdownHook(new Thread(closing::close));
+                }
+            }
+        }
+        return store;
+    }
+
+    private BlockTxSegmentStore.TxLocation getLocation(int chainId, byte[] hash) throws Exception {
+        if (!hasSegmentData(chainId)) {
+            return null;
+        }
+        String indexTable = TxDBConstant.DB_TRANSACTION_SEGMENT_INDEX_PREFIX + chainId;
+        byte[] bytes = RocksDBService.get(indexTable, hash);
+        if (null == bytes || bytes.length != BlockTxSegmentStore.TxLocation.SIZE) {
+            return null;
+        }
+        BlockTxSegmentStore.TxLocation location = BlockTxSegmentStore.TxLocation.parse(bytes);
+        //异常退出丢失了未刷盘的记录, 删除指向文件末尾之外的索引
+        if (!getSegmentStore(chainId).contains(location)) {
+            RocksDBService.delete(indexTable, hash);
+            return null;
+        }
+        return location;
+    }
+
+    @Override
+    public List<byte[]> getTxBytesList(int chainId, List<byte[]> hashList) {
+        List<byte[]> txBytesList = new ArrayList<>(hashList.size());
+        //最近读出的区块记录, 同一区块的交易不再重复读取
+        Map<NulsHash, byte[]> block = Collections.emptyMap();
+        try {
+            for (byte[] hash : hashList) {
+                byte[] txBytes = block.get(new NulsHash(hash));
+                if (null == txBytes) {
+                    BlockTxSegmentStore.TxLocation location = getLocation(chainId, hash);
+                    if (null != location) {
+                        block = getSegmentStore(chainId).readBlock(location);
+                        txBytes = block.get(new NulsHash(hash));
+                    } else {
+                        TransactionConfirmedPO tx = getTx(chainId, hash);
+                        txBytes = null == tx ? null : tx.getTx().serialize();
+                    }
+                }
+                if (null == txBytes) {
+                    return null;
+                }
+                txBytesList.add(txBytes);
+            }
+        } catch (Exception e) {
+            LOG.error(e);
+            return null;
+        }
+        return txBytesList;
+    }
+
     @Override
     public TransactionConfirmedPO getTx(int chainId, NulsHash hash) {
         if (hash == null) {
@@ -84,6 +348,24 @@ public class ConfirmedTxStorageServiceImpl implements ConfirmedTxStorageService
     }
 
     private TransactionConfirmedPO getTx(int chainId, byte[] hashSerialize) {
+        try {
+            BlockTxSegmentStore.TxLocation location = getLocation(chainId, hashSerialize);
+            if (null != location) {
+                //段文件中的记录与索引不一致时视为不存在
+                byte[] txBytes = getSegmentStore(chainId).read(location, hashSerialize);
+                if (null == txBytes) {
+                    return null;
+                }
+                Transaction tx = TxUtil.getInstance(txBytes, Transaction.class);
+                return new TransactionConfirmedPO(tx, location.getHeight(), TxStatusEnum.CONFIRMED.getStatus());
+            }
+        } catch (Exception e) {
+            LOG.error(e);
+            return null;
+        }
+        if (!hasLegacyData(chainId)) {
+            return null;
+        }
         byte[] txBytes = RocksDBService.get(TxDBConstant.DB_TRANSACTION_CONFIRMED_PREFIX + chainId, hashSerialize);
         TransactionConfirmedPO tx = null;
         if (null != txBytes) {
@@ -101,6 +383,8 @@ public class ConfirmedTxStorageServiceImpl implements ConfirmedTxStorageService
     public boolean removeTx(int chainId, String hash) {
         boolean result = false;
         try {
+            removeFilter(chainId, 1);
+            RocksDBService.delete(TxDBConstant.DB_TRANSACTION_SEGMENT_INDEX_PREFIX + chainId, HexUtil.decode(hash));
             result = RocksDBService.delete(TxDBConstant.DB_TRANSACTION_CONFIRMED_PREFIX + chainId, HexUtil.decode(hash));
         } catch (Exception e) {
             LOG.error(e);
@@ -112,6 +396,8 @@ public class ConfirmedTxStorageServiceImpl implements ConfirmedTxStorageService
     public boolean removeTx(int chainId, NulsHash hash) {
         boolean result = false;
         try {
+            removeFilter(chainId, 1);
+            RocksDBService.delete(TxDBConstant.DB_TRANSACTION_SEGMENT_INDEX_PREFIX + chainId, hash.getBytes());
             result = RocksDBService.delete(TxDBConstant.DB_TRANSACTION_CONFIRMED_PREFIX + chainId, hash.getBytes());
         } catch (Exception e) {
             LOG.error(e);
@@ -135,6 +421,26 @@ public class ConfirmedTxStorageServiceImpl implements ConfirmedTxStorageService
             return false;
         }
         try {
+            removeFilter(chainId, hashList.size());
+            List<BlockTxSegmentStore.TxLocation> locations = new ArrayList<>();
+            for (byte[] hash : hashList) {
+                BlockTxSegmentStore.TxLocation location = getLocation(chainId, hash);
+                if (null != location) {
+                    locations.add(location);
+                }
+            }
+            if (!locations.isEmpty()) {
+                if (!RocksDBService.deleteKeys(TxDBConstant.DB_TRANSACTION_SEGMENT_INDEX_PREFIX + chainId, hashList)) {
+                    return false;
+                }
+                //回滚的是最新区块, 截掉段文件末尾的记录
+                BlockTxSegmentStore store = getSegmentStore(chainId);
+                locations.sort(Comparator.comparingInt(BlockTxSegmentStore.TxLocation::getSegment)
+                        .thenComparingLong(BlockTxSegmentStore.TxLocation::getRecordOffset).reversed());
+                for (BlockTxSegmentStore.TxLocation location : locations) {
+                    store.truncate(location);
+                }
+            }
             //delete transaction
             return RocksDBService.deleteKeys(TxDBConstant.DB_TRANSACTION_CONFIRMED_PREFIX + chainId, hashList);
         } catch (Exception e) {
@@ -185,6 +491,25 @@ public class ConfirmedTxStorageServiceImpl implements ConfirmedTxStorageService
 
     @Override
     public boolean isExists(int chainId, NulsHash hash) {
+        ConfirmedTxFilter filter = filters.get(chainId);
+        if (null != filter && !filter.mightContain(hash.getBytes())) {
+            //过滤器判断不存在, 则一定不存在
+            return false;
+        }
+        try {
+            BlockTxSegmentStore.TxLocation location = getLocation(chainId, hash.getBytes());
+            if (null != location && getSegmentStore(chainId).matches(location, hash.getBytes())) {
+                return true;
+            }
+        } catch (Exception e) {
+            LOG.error(e);
+        }
+        if (!hasLegacyData(chainId)) {
+            if (null != filter && filter.isReady()) {
+                filter.falsePositive();
+            }
+            return false;
+        }
 //        return RocksDBService.keyMayExist(TxDBConstant.DB_TRANSACTION_CONFIRMED_PREFIX + chainId, hash.getBytes());
 /*        byte[] txBytes = RocksDBService.get(TxDBConstant.DB_TRANSACTION_CONFIRMED_PREFIX + chainId, hash.getBytes());
         if (null != txBytes && txBytes.length > 0) {
@@ -203,6 +528,9 @@ public class ConfirmedTxStorageServiceImpl implements ConfirmedTxStorageService
         if(get != keyME){
             Log.error("Confirmed tx isExists error, -keyMayExist:{}, -get:{}, hash:{}", keyME, get, hash.toHex());
         }
+        if (!get && null != filter && filter.isReady()) {
+            filter.falsePositive();
+        }
         return get;
     }
 
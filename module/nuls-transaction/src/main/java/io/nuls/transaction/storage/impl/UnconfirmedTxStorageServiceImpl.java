@@ -190,10 +190,9 @@ public class UnconfirmedTxStorageServiceImpl implements UnconfirmedTxStorageServ
     @Override
     public List<TransactionUnconfirmedPO> getAllTxPOList(int chainId) {
         List<TransactionUnconfirmedPO> txList = new ArrayList<>();
-        //根据交易hash批量查询交易数据
-        List<byte[]> list = RocksDBService.valueList(TxDBConstant.DB_TRANSACTION_UNCONFIRMED_PREFIX + chainId);
-        if (list != null) {
-            for (byte[] txBytes : list) {
+        //流式遍历未确认交易,避免原始数据与解析后的交易同时驻留内存
+        try {
+            RocksDBService.scan(TxDBConstant.DB_TRANSACTION_UNCONFIRMED_PREFIX + chainId, (key, txBytes) -> {
                 TransactionUnconfirmedPO txPO = new TransactionUnconfirmedPO();
                 try {
                     txPO.parse(txBytes, 0);
@@ -201,7 +200,10 @@ public class UnconfirmedTxStorageServiceImpl implements UnconfirmedTxStorageServ
                     LOG.error(e);
                 }
                 txList.add(txPO);
-            }
+                return true;
+            });
+        } catch (Exception e) {
+            LOG.error(e);
         }
         return txList;
     }
@@ -36,6 +36,7 @@ import io.nuls.transaction.manager.TxManager;
 import io.nuls.transaction.model.bo.Chain;
 import io.nuls.transaction.model.bo.TxRegister;
 import io.nuls.transaction.model.po.TransactionNetPO;
+import io.nuls.transaction.rpc.call.BlockCall;
 import io.nuls.transaction.rpc.call.LedgerCall;
 import io.nuls.transaction.rpc.call.NetworkCall;
 import io.nuls.transaction.rpc.call.TransactionCall;
@@ -44,6 +45,7 @@ import io.nuls.transaction.storage.UnconfirmedTxStorageService;
 import io.nuls.transaction.utils.TxUtil;
 
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author: Charlie
@@ -76,17 +78,19 @@ public class NetTxProcessTask implements Runnable {
 
     private void process() throws Exception {
         while (true){
-            if (chain.getUnverifiedQueue().isEmpty()) {
-                Thread.sleep(3000L);
-                continue;
-            }
             if (chain.getProtocolUpgrade().get()) {
                 chain.getLogger().info("Protocol upgrade pause process new tx..");
                 Thread.sleep(3000L);
                 continue;
             }
+            //阻塞等待新交易, 有交易到达时立即处理
+            TransactionNetPO first = chain.getUnverifiedQueue().poll(3000L, TimeUnit.MILLISECONDS);
+            if (null == first) {
+                continue;
+            }
             List<TransactionNetPO> txNetList = new ArrayList<>(TxConstant.NET_TX_PROCESS_NUMBER_ONCE);
-            chain.getUnverifiedQueue().drainTo(txNetList, TxConstant.NET_TX_PROCESS_NUMBER_ONCE);
+            txNetList.add(first);
+            chain.getUnverifiedQueue().drainTo(txNetList, TxConstant.NET_TX_PROCESS_NUMBER_ONCE - 1);
             StatisticsTask.txNetListTotal.addAndGet(txNetList.size());
             //分组 调验证器
             Map<String, List<String>> moduleVerifyMap = new HashMap<>(TxConstant.INIT_CAPACITY_8);
@@ -107,6 +111,7 @@ public class NetTxProcessTask implements Runnable {
                 continue;
             }
             verifyCoinData(chain, txNetList);
+            List<Transaction> verifiedTxList = new ArrayList<>(txNetList.size());
             for (TransactionNetPO txNet : txNetList) {
                 Transaction tx = txNet.getTx();
                 if (chain.getPackaging().get()) {
@@ -117,8 +122,10 @@ public class NetTxProcessTask implements Runnable {
                 //保存到rocksdb
                 unconfirmedTxStorageService.putTx(chain.getChainId(), tx, txNet.getOriginalSendNanoTime());
                 NetworkCall.forwardTxHash(chain, hash, txNet.getExcludeNode());
+                verifiedTxList.add(tx);
                 //chain.getLoggerMap().get(TxConstant.LOG_NEW_TX_PROCESS).debug("NEW TX count:{} - hash:{}", ++count, hash.toHex());
             }
+            BlockCall.pushUnconfirmedTxs(chain, verifiedTxList);
         }
     }
 
@@ -35,12 +35,14 @@ import io.nuls.transaction.model.bo.Chain;
 import io.nuls.transaction.model.bo.Orphans;
 import io.nuls.transaction.model.bo.VerifyLedgerResult;
 import io.nuls.transaction.model.po.TransactionNetPO;
+import io.nuls.transaction.rpc.call.BlockCall;
 import io.nuls.transaction.rpc.call.LedgerCall;
 import io.nuls.transaction.rpc.call.NetworkCall;
 import io.nuls.transaction.service.TxService;
 import io.nuls.transaction.storage.UnconfirmedTxStorageService;
 import io.nuls.transaction.utils.TransactionComparator;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -64,6 +66,11 @@ public class OrphanTxProcessTask implements Runnable {
 
     private TransactionComparator txComparator = SpringLiteContext.getBean(TransactionComparator.class);
 
+    /**
+     * 本次处理中验证通过的孤儿交易,处理结束后批量推送给区块模块
+     */
+    private List<Transaction> verifiedTxList = new ArrayList<>();
+
     public OrphanTxProcessTask(Chain chain) {
         this.chain = chain;
     }
@@ -112,6 +119,8 @@ public class OrphanTxProcessTask implements Runnable {
             chain.getLogger().error("[OrphanTxProcessTask] RuntimeException:{}", e.getMessage());
             throw new NulsException(TxErrorCode.SYS_UNKOWN_EXCEPTION);
         } finally {
+            BlockCall.pushUnconfirmedTxs(chain, verifiedTxList);
+            verifiedTxList.clear();
             if (orphanTxList.size() > 0) {
                 synchronized (chainOrphan) {
                     chainOrphan.addAll(orphanTxList);
@@ -174,6 +183,7 @@ public class OrphanTxProcessTask implements Runnable {
                 unconfirmedTxStorageService.putTx(chainId, tx, txNet.getOriginalSendNanoTime());
                 //转发交易hash
                 NetworkCall.forwardTxHash(chain, tx.getHash(), txNet.getExcludeNode());
+                verifiedTxList.add(tx);
                 return true;
             }
             if(!verifyLedgerResult.isOrphan()) {
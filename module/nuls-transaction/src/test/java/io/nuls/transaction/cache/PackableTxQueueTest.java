@@ -0,0 +1,120 @@
+package io.nuls.transaction.cache;
+
+import io.nuls.base.data.CoinData;
+import io.nuls.base.data.CoinFrom;
+import io.nuls.base.data.Transaction;
+import io.nuls.core.constant.TxType;
+import io.nuls.core.model.ByteArrayWrapper;
+import io.nuls.transaction.utils.TxUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigInteger;
+
+public class PackableTxQueueTest {
+
+    private static final byte[] ADDRESS_A = new byte[23];
+    private static final byte[] ADDRESS_B = new byte[23];
+
+    static {
+        ADDRESS_B[0] = 1;
+    }
+
+    private static Transaction createTx(byte[] address, byte[] nonce, long time) throws Exception {
+        Transaction tx = new Transaction(TxType.TRANSFER);
+        tx.setTime(time);
+        CoinData coinData = new CoinData();
+        CoinFrom from = new CoinFrom(address, 1, 1);
+        from.setAmount(BigInteger.ONE);
+        from.setNonce(nonce);
+        coinData.addFrom(from);
+        tx.setCoinData(coinData.serialize());
+        return tx;
+    }
+
+    @Test
+    public void orderByFeeRate() throws Exception {
+        PackableTxQueue queue = new PackableTxQueue();
+        Transaction low = createTx(ADDRESS_A, new byte[8], 1);
+        Transaction high = createTx(ADDRESS_B, new byte[8], 2);
+        queue.offer(low, 1, false);
+        queue.offer(high, 10, false);
+        Assert.assertEquals(2, queue.size());
+        Assert.assertEquals(high, queue.poll());
+        Assert.assertEquals(low, queue.poll());
+        Assert.assertNull(queue.poll());
+    }
+
+    @Test
+    public void nonceChainKeepsOrder() throws Exception {
+        PackableTxQueue queue = new PackableTxQueue();
+        Transaction parent = createTx(ADDRESS_A, new byte[8], 1);
+        Transaction child = createTx(ADDRESS_A, TxUtil.getNonce(parent.getHash().getBytes()), 2);
+        Transaction other = createTx(ADDRESS_B, new byte[8], 3);
+        //后续交易先放入，且费率更高
+        queue.offer(child, 100, false);
+        queue.offer(parent, 1, false);
+        queue.offer(other, 10, false);
+        Assert.assertEquals(other, queue.poll());
+        Assert.assertEquals(parent, queue.poll());
+        Assert.assertEquals(child, queue.poll());
+
+        queue.offer(parent, 1, false);
+        queue.offer(child, 100, false);
+        Assert.assertEquals(child, queue.pollLast());
+        queue.offer(child, 100, false);
+        Assert.assertEquals(2, queue.evictLowest().size());
+        Assert.assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void offerFirstAndRemove() throws Exception {
+        PackableTxQueue queue = new PackableTxQueue();
+        Transaction a = createTx(ADDRESS_A, new byte[8], 1);
+        Transaction b = createTx(ADDRESS_B, new byte[8], 2);
+        queue.offer(a, 100, false);
+        queue.offer(b, 1, true);
+        Assert.assertEquals(100D, queue.lowestFeeRate(), 0D);
+        Assert.assertEquals(b, queue.poll());
+        Assert.assertTrue(queue.remove(new ByteArrayWrapper(a.getHash().getBytes())));
+        Assert.assertFalse(queue.contains(new ByteArrayWrapper(a.getHash().getBytes())));
+        Assert.assertNull(queue.poll());
+    }
+
+    @Test
+    public void blockingPoll() throws Exception {
+        PackableTxQueue queue = new PackableTxQueue();
+        Transaction tx = createTx(ADDRESS_A, new byte[8], 1);
+        Assert.assertNull(queue.poll(10L));
+
+        Thread producer = new Thread(() -> queue.offer(tx, 1, false));
+        long start = System.currentTimeMillis();
+        producer.start();
+        Assert.assertEquals(tx, queue.poll(5000L));
+        Assert.assertTrue(System.currentTimeMillis() - start < 5000L);
+
+        Thread waker = new Thread(() -> {
+            try {
+                Thread.sleep(100L);
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.wakeUp();
+        });
+        start = System.currentTimeMillis();
+        waker.start();
+        Assert.assertNull(queue.poll(5000L));
+        Assert.assertTrue(System.currentTimeMillis() - start < 5000L);
+    }
+
+    @Test
+    public void wakeUpBeforePollIsNotLost() throws Exception {
+        PackableTxQueue queue = new PackableTxQueue();
+        long wakeUpCount = queue.getWakeUpCount();
+        //检查打包状态之后、等待之前被唤醒
+        queue.wakeUp();
+        long start = System.currentTimeMillis();
+        Assert.assertNull(queue.poll(5000L, wakeUpCount));
+        Assert.assertTrue(System.currentTimeMillis() - start < 1000L);
+    }
+}
@@ -0,0 +1,175 @@
+package io.nuls.transaction.storage;
+
+import io.nuls.base.data.NulsHash;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+public class BlockTxSegmentStoreTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static byte[] hash(long height, int index) {
+        byte[] hash = new byte[NulsHash.HASH_LENGTH];
+        hash[0] = (byte) height;
+        hash[1] = (byte) index;
+        return hash;
+    }
+
+    private static List<BlockTxSegmentStore.TxLocation> append(BlockTxSegmentStore store, long height, int count) throws Exception {
+        List<byte[]> hashes = new ArrayList<>();
+        List<byte[]> txs = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            hashes.add(hash(height, i));
+            byte[] tx = new byte[10 + i];
+            Arrays.fill(tx, (byte) (height * 10 + i));
+            txs.add(tx);
+        }
+        return store.append(height, hashes, txs);
+    }
+
+    @Test
+    public void appendAndRead() throws Exception {
+        BlockTxSegmentStore store = new BlockTxSegmentStore(folder.getRoot(), 1024, 1, 0);
+        append(store, 1, 3);
+        List<BlockTxSegmentStore.TxLocation> locations = append(store, 2, 2);
+
+        BlockTxSegmentStore.TxLocation location = BlockTxSegmentStore.TxLocation.parse(locations.get(1).serialize());
+        Assert.assertEquals(2, location.getHeight());
+        byte[] tx = store.read(location, hash(2, 1));
+        Assert.assertEquals(11, tx.length);
+        Assert.assertEquals(21, tx[0]);
+
+        Map<NulsHash, byte[]> block = store.readBlock(location);
+        Assert.assertEquals(2, block.size());
+        Assert.assertArrayEquals(tx, block.get(new NulsHash(hash(2, 1))));
+        store.close();
+    }
+
+    @Test
+    public void rollSegmentAndTruncate() throws Exception {
+        File dir = folder.getRoot();
+        BlockTxSegmentStore store = new BlockTxSegmentStore(dir, 100, 1, 0);
+        List<BlockTxSegmentStore.TxLocation> first = append(store, 1, 1);
+        List<BlockTxSegmentStore.TxLocation> second = append(store, 2, 2);
+        Assert.assertEquals(0, first.get(0).getSegment());
+        Assert.assertEquals(1, second.get(0).getSegment());
+
+        //不在末尾的记录不截断
+        Assert.assertFalse(store.truncate(first.get(0)));
+        Assert.assertTrue(store.truncate(second.get(0)));
+        Assert.assertEquals(0, new File(dir, "00000001.seg").length());
+        Assert.assertTrue(store.truncate(first.get(0)));
+        Assert.assertEquals(0, new File(dir, "00000000.seg").length());
+        Assert.assertFalse(new File(dir, "00000001.seg").exists());
+        store.close();
+
+        //重新打开后继续追加
+        store = new BlockTxSegmentStore(dir, 100, 1, 0);
+        List<BlockTxSegmentStore.TxLocation> again = append(store, 1, 1);
+        Assert.assertEquals(0, again.get(0).getRecordOffset());
+        Assert.assertEquals(10, store.read(again.get(0), hash(1, 0)).length);
+        store.close();
+    }
+
+    @Test
+    public void cutTornRecordOnOpen() throws Exception {
+        File dir = folder.getRoot();
+        BlockTxSegmentStore store = new BlockTxSegmentStore(dir, 1024, 100, Long.MAX_VALUE);
+        List<BlockTxSegmentStore.TxLocation> first = append(store, 1, 2);
+        List<BlockTxSegmentStore.TxLocation> second = append(store, 2, 2);
+        store.close();
+
+        //模拟异常退出时第二个区块只写入了一部分
+        File file = new File(dir, "00000000.seg");
+        long length = second.get(0).getRecordOffset() + second.get(0).getRecordLength() - 5;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(length);
+        }
+        store = new BlockTxSegmentStore(dir, 1024, 100, Long.MAX_VALUE);
+        Assert.assertEquals(second.get(0).getRecordOffset(), file.length());
+        Assert.assertTrue(store.contains(first.get(1)));
+        Assert.assertFalse(store.contains(second.get(0)));
+        Assert.assertEquals(11, store.read(first.get(1), hash(1, 1)).length);
+        store.close();
+    }
+
+    @Test
+    public void mismatchAfterRollbackIsNotFound() throws Exception {
+        BlockTxSegmentStore store = new BlockTxSegmentStore(folder.getRoot(), 1024, 1, 0);
+        append(store, 1, 1);
+        List<BlockTxSegmentStore.TxLocation> rolledBack = append(store, 2, 2);
+        Assert.assertTrue(store.truncate(rolledBack.get(0)));
+        //回滚后同一位置写入了新区块, 残留的索引不能读到新区块的交易
+        List<BlockTxSegmentStore.TxLocation> replaced = append(store, 3, 3);
+        Assert.assertEquals(rolledBack.get(0).getRecordOffset(), replaced.get(0).getRecordOffset());
+        Assert.assertNull(store.read(rolledBack.get(1), hash(2, 1)));
+        Assert.assertFalse(store.matches(rolledBack.get(0), hash(2, 0)));
+        Assert.assertTrue(store.readBlock(rolledBack.get(0)).isEmpty());
+        Assert.assertArrayEquals(store.read(replaced.get(2), hash(3, 2)), store.readBlock(replaced.get(2)).get(new NulsHash(hash(3, 2))));
+        store.close();
+    }
+
+    @Test
+    public void scanHashesAfterHeight() throws Exception {
+        BlockTxSegmentStore store = new BlockTxSegmentStore(folder.getRoot(), 100, 1, 0);
+        for (long height = 1; height <= 4; height++) {
+            append(store, height, 1);
+        }
+        List<NulsHash> hashes = new ArrayList<>();
+        store.scanHashes(2, hash -> hashes.add(new NulsHash(hash)));
+        Assert.assertEquals(Arrays.asList(new NulsHash(hash(3, 0)), new NulsHash(hash(4, 0))), hashes);
+        store.close();
+    }
+
+    @Test
+    public void cutZeroFilledTailOnOpen() throws Exception {
+        File dir = folder.getRoot();
+        BlockTxSegmentStore store = new BlockTxSegmentStore(dir, 1024, 100, Long.MAX_VALUE);
+        List<BlockTxSegmentStore.TxLocation> first = append(store, 1, 2);
+        store.close();
+
+        //模拟异常退出时文件长度已增加, 但数据块未写入
+        File file = new File(dir, "00000000.seg");
+        long length = file.length();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(length + 64);
+        }
+        store = new BlockTxSegmentStore(dir, 1024, 100, Long.MAX_VALUE);
+        Assert.assertEquals(length, file.length());
+        Assert.assertEquals(11, store.read(first.get(1), hash(1, 1)).length);
+        List<BlockTxSegmentStore.TxLocation> second = append(store, 2, 1);
+        Assert.assertEquals(length, second.get(0).getRecordOffset());
+        store.close();
+    }
+
+    @Test
+    public void cutCorruptRecordOnOpen() throws Exception {
+        File dir = folder.getRoot();
+        BlockTxSegmentStore store = new BlockTxSegmentStore(dir, 1024, 100, Long.MAX_VALUE);
+        append(store, 1, 2);
+        List<BlockTxSegmentStore.TxLocation> second = append(store, 2, 2);
+        store.close();
+
+        //记录头已写入, 交易数据未写入(长度不变, 内容为零)
+        BlockTxSegmentStore.TxLocation location = second.get(1);
+        File file = new File(dir, "00000000.seg");
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(location.getRecordOffset() + location.getTxOffset());
+            raf.write(new byte[location.getTxLength()]);
+        }
+        store = new BlockTxSegmentStore(dir, 1024, 100, Long.MAX_VALUE);
+        Assert.assertEquals(location.getRecordOffset(), file.length());
+        Assert.assertFalse(store.contains(location));
+        store.close();
+    }
+}
@@ -0,0 +1,86 @@
+package io.nuls.transaction.storage;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+public class ConfirmedTxFilterTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static byte[] hash(int i) {
+        return ByteBuffer.allocate(32).putInt(i).array();
+    }
+
+    @Test
+    public void rebuildCheckpointAndLoad() throws Exception {
+        File file = new File(folder.getRoot(), "filter");
+        ConfirmedTxFilter filter = new ConfirmedTxFilter(file, 1000);
+        Assert.assertFalse(filter.load((fromHeight, consumer) -> Assert.fail()));
+        Assert.assertTrue(filter.mightContain(hash(1)));
+
+        //就绪前保存的交易在重建完成时加入
+        filter.put(hash(100));
+        filter.rebuild(100, consumer -> {
+            for (int i = 0; i < 100; i++) {
+                consumer.accept(hash(i));
+            }
+        });
+        for (int i = 0; i <= 100; i++) {
+            Assert.assertTrue(filter.mightContain(hash(i)));
+        }
+        //高度未知时不保存检查点
+        Assert.assertFalse(filter.persist());
+        filter.added(5, true);
+        Assert.assertTrue(filter.tryBeginCheckpoint(1));
+        filter.checkpoint();
+        Assert.assertTrue(file.exists());
+        Assert.assertFalse(filter.tryBeginCheckpoint(1));
+
+        //检查点之后的区块在加载时从段文件补入
+        filter.put(hash(101));
+        filter.added(6, true);
+        Assert.assertTrue(file.exists());
+        ConfirmedTxFilter loaded = new ConfirmedTxFilter(file, 1000);
+        Assert.assertTrue(loaded.load((fromHeight, consumer) -> {
+            Assert.assertEquals(5, fromHeight);
+            consumer.accept(hash(101));
+        }));
+        Assert.assertEquals(5, loaded.getCheckpointHeight());
+        Assert.assertTrue(loaded.mightContain(hash(100)));
+        Assert.assertTrue(loaded.mightContain(hash(101)));
+
+        //回滚或不能补入的交易使检查点作废
+        filter.remove(1);
+        Assert.assertFalse(file.exists());
+        Assert.assertFalse(filter.persist());
+        filter.added(6, false);
+        Assert.assertTrue(filter.persist());
+        filter.added(7, false);
+        Assert.assertFalse(file.exists());
+    }
+
+    @Test
+    public void statistics() throws Exception {
+        ConfirmedTxFilter filter = new ConfirmedTxFilter(new File(folder.getRoot(), "filter"), 1000);
+        filter.rebuild(0, consumer -> consumer.accept(hash(0)));
+        int negatives = 0;
+        for (int i = 1; i <= 1000; i++) {
+            if (filter.mightContain(hash(i))) {
+                filter.falsePositive();
+            } else {
+                negatives++;
+            }
+        }
+        Map<String, Object> statistics = filter.getStatistics();
+        Assert.assertEquals((long) negatives, statistics.get("negatives"));
+        Assert.assertTrue((double) statistics.get("falsePositiveRate") < 0.05);
+        Assert.assertTrue((long) statistics.get("memoryBytes") > 0);
+    }
+}